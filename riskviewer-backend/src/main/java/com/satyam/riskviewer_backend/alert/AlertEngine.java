@@ -0,0 +1,168 @@
+package com.satyam.riskviewer_backend.alert;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent.Alert;
+
+/**
+ * Admits risk alerts into the alert ring.
+ *
+ * An alert with the same symbol and type (and subject, for alerts about
+ * one of several instruments on a symbol) as one admitted less than
+ * app.alerts.dedup-window-ms ago is dropped as a duplicate, and a symbol
+ * gets at most app.alerts.throttle.per-symbol alerts per
+ * app.alerts.throttle.window-ms. Admitted alerts go into an
+ * {@link AlertRing} of app.alerts.capacity entries, which clients and the
+ * persister read by cursor.
+ */
+@Component
+public class AlertEngine {
+
+    private final AlertRing ring;
+    private final long dedupWindowMs;
+    private final int perSymbolLimit;
+    private final long throttleWindowMs;
+
+    private final Map<String, SymbolState> symbols = new ConcurrentHashMap<>();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private volatile long clearedThrough;
+
+    public AlertEngine(@Value("${app.alerts.capacity:4096}") int capacity,
+                       @Value("${app.alerts.dedup-window-ms:300000}") long dedupWindowMs,
+                       @Value("${app.alerts.throttle.per-symbol:10}") int perSymbolLimit,
+                       @Value("${app.alerts.throttle.window-ms:60000}") long throttleWindowMs) {
+        this.ring = new AlertRing(capacity);
+        this.dedupWindowMs = dedupWindowMs;
+        this.perSymbolLimit = perSymbolLimit;
+        this.throttleWindowMs = throttleWindowMs;
+    }
+
+    /**
+     * Raise an alert, or return null when it is a duplicate or its symbol is throttled
+     */
+    public Alert raise(String message, String severity, String alertType, Long portfolioId, String symbol) {
+        return raise(message, severity, alertType, portfolioId, symbol, null);
+    }
+
+    /**
+     * Raise an alert about one instrument on a symbol, such as a structured product on its underlying
+     */
+    public Alert raise(String message, String severity, String alertType, Long portfolioId, String symbol,
+                       String subject) {
+        return raise(message, severity, alertType, portfolioId, symbol, subject, System.currentTimeMillis());
+    }
+
+    Alert raise(String message, String severity, String alertType, Long portfolioId, String symbol, String subject,
+                long nowMillis) {
+        String dedupKey = subject == null ? alertType : alertType + "|" + subject;
+        if (!admit(symbol == null ? "" : symbol, dedupKey, nowMillis)) {
+            return null;
+        }
+        LocalDateTime timestamp = LocalDateTime.now();
+        return ring.publish(id -> new Alert(id, message, severity, alertType, portfolioId, symbol, timestamp));
+    }
+
+    private boolean admit(String symbol, String dedupKey, long now) {
+        boolean[] admitted = new boolean[1];
+        symbols.compute(symbol, (key, state) -> {
+            if (state == null) {
+                state = new SymbolState();
+            }
+            Long last = state.lastAdmitted.get(dedupKey);
+            if (last != null && now - last < dedupWindowMs) {
+                deduplicated.incrementAndGet();
+                return state;
+            }
+            if (now - state.windowStart >= throttleWindowMs) {
+                state.windowStart = now;
+                state.admittedInWindow = 0;
+            }
+            if (state.admittedInWindow >= perSymbolLimit) {
+                throttled.incrementAndGet();
+                return state;
+            }
+            state.admittedInWindow++;
+            state.lastAdmitted.put(dedupKey, now);
+            admitted[0] = true;
+            return state;
+        });
+        return admitted[0];
+    }
+
+    /**
+     * Alerts after a cursor; pass the returned lastId as the next cursor
+     */
+    public AlertRing.Read readAfter(long afterId, int limit) {
+        return ring.readAfter(afterId, limit);
+    }
+
+    /**
+     * Messages of the alerts raised since the last clear that are still in the ring
+     */
+    public List<String> activeMessages() {
+        return ring.readAfter(clearedThrough, ring.capacity()).alerts().stream().map(Alert::message).toList();
+    }
+
+    public long activeCount() {
+        return Math.min(ring.lastId() - clearedThrough, ring.capacity());
+    }
+
+    /**
+     * Hide every alert raised so far from the active list; cursor readers are unaffected
+     */
+    public void clear() {
+        clearedThrough = ring.lastId();
+    }
+
+    public long lastId() {
+        return ring.lastId();
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("raised", ring.lastId());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("throttled", throttled.get());
+        stats.put("capacity", (long) ring.capacity());
+        return stats;
+    }
+
+    /**
+     * Drop the state of symbols with no alert inside either window
+     */
+    @Scheduled(fixedRate = 60000)
+    public void purgeIdleSymbols() {
+        long now = System.currentTimeMillis();
+        long idle = Math.max(dedupWindowMs, throttleWindowMs);
+        for (String symbol : symbols.keySet()) {
+            symbols.computeIfPresent(symbol, (key, state) -> now - state.lastAdmitted() >= idle ? null : state);
+        }
+    }
+
+    /**
+     * Dedup and throttle state of one symbol, only touched inside ConcurrentHashMap.compute
+     */
+    private static final class SymbolState {
+        final Map<String, Long> lastAdmitted = new HashMap<>();
+        long windowStart = Long.MIN_VALUE / 2;
+        int admittedInWindow;
+
+        long lastAdmitted() {
+            long last = windowStart;
+            for (long admitted : lastAdmitted.values()) {
+                last = Math.max(last, admitted);
+            }
+            return last;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.satyam.riskviewer_backend.alert;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent.Alert;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes admitted alerts to the risk_alerts table off the market data thread.
+ *
+ * The persister is one more cursor reader of the alert ring: every
+ * app.alerts.persist-interval-ms it reads what was raised since its last
+ * run and inserts it with batched JDBC statements, so raising an alert
+ * never touches the database. If the database falls more than a ring
+ * capacity behind, the overwritten alerts are logged as lost.
+ */
+@Component
+public class AlertPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertPersister.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO risk_alerts (alert_id, message, severity, alert_type, portfolio_id, symbol, raised_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final AlertEngine alertEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private long persistedThrough;
+
+    public AlertPersister(AlertEngine alertEngine,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${app.alerts.persist:true}") boolean enabled,
+                          @Value("${app.alerts.persist-batch-size:500}") int batchSize) {
+        this.alertEngine = alertEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert every alert raised since the last flush
+     *
+     * @return alerts written
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.persist-interval-ms:5000}")
+    public synchronized int flush() {
+        if (!enabled) {
+            return 0;
+        }
+        int written = 0;
+        while (true) {
+            AlertRing.Read read = alertEngine.readAfter(persistedThrough, batchSize);
+            if (read.missed() > 0) {
+                logger.warn("{} alerts were overwritten before they could be persisted", read.missed());
+            }
+            if (read.alerts().isEmpty()) {
+                persistedThrough = read.lastId();
+                return written;
+            }
+            try {
+                insert(read.alerts());
+            } catch (RuntimeException e) {
+                logger.warn("Could not persist {} alerts, retrying on the next flush: {}",
+                    read.alerts().size(), e.getMessage());
+                return written;
+            }
+            persistedThrough = read.lastId();
+            written += read.alerts().size();
+        }
+    }
+
+    private void insert(List<Alert> alerts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, alerts, alerts.size(), (ps, alert) -> {
+            ps.setLong(1, alert.id());
+            ps.setString(2, alert.message());
+            ps.setString(3, alert.severity());
+            ps.setString(4, alert.alertType());
+            ps.setObject(5, alert.portfolioId());
+            ps.setString(6, alert.symbol());
+            ps.setTimestamp(7, Timestamp.valueOf(alert.timestamp()));
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,99 @@
+package com.satyam.riskviewer_backend.alert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent.Alert;
+
+/**
+ * Bounded ring of the most recent alerts, consumed by cursor.
+ *
+ * A writer claims the next id with one atomic increment and publishes the
+ * alert into slot id % capacity, overwriting the alert one lap older, so
+ * memory stays fixed however many alerts are raised. Readers never lock or
+ * copy the ring: they pass the last id they saw and walk forward from it.
+ * A reader that fell more than a lap behind skips the overwritten alerts
+ * and is told how many it missed.
+ */
+public final class AlertRing {
+
+    /**
+     * Alerts after a cursor, the cursor to pass next time and how many alerts were overwritten unread
+     */
+    public record Read(List<Alert> alerts, long lastId, long missed) {}
+
+    private final AtomicReferenceArray<Alert> slots;
+    private final int mask;
+    private final AtomicLong lastClaimed = new AtomicLong();
+
+    /**
+     * @param capacity alerts kept, rounded up to a power of two
+     */
+    public AlertRing(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Alert ring capacity must be between 1 and 2^30, got " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Publish the alert the factory builds for the next id
+     */
+    public Alert publish(LongFunction<Alert> factory) {
+        long id = lastClaimed.incrementAndGet();
+        Alert alert = factory.apply(id);
+        slots.set((int) (id & mask), alert);
+        return alert;
+    }
+
+    /**
+     * Id of the newest alert, zero before the first one
+     */
+    public long lastId() {
+        return lastClaimed.get();
+    }
+
+    /**
+     * Up to limit alerts with an id above afterId, oldest first.
+     *
+     * A cursor ahead of the newest alert, for example one kept across a
+     * restart, reads from the oldest alert still in the ring.
+     */
+    public Read readAfter(long afterId, int limit) {
+        long last = lastClaimed.get();
+        long oldest = Math.max(1, last - mask);
+        if (afterId > last || afterId < 0) {
+            afterId = oldest - 1;
+        }
+        long first = Math.max(afterId + 1, oldest);
+        long missed = first - (afterId + 1);
+        long cursor = first - 1;
+
+        List<Alert> alerts = new ArrayList<>((int) Math.min(limit, Math.max(0, last - cursor)));
+        for (long id = first; id <= last && alerts.size() < limit; id++) {
+            Alert alert = slots.get((int) (id & mask));
+            if (alert == null || alert.id() < id) {
+                break; // Claimed but not yet published; resume here next time
+            }
+            if (alert.id() == id) {
+                alerts.add(alert);
+            } else {
+                missed++; // Overwritten while reading
+            }
+            cursor = id;
+        }
+        return new Read(alerts, cursor, missed);
+    }
+}
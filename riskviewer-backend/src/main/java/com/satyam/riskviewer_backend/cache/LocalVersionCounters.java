@@ -0,0 +1,24 @@
+package com.satyam.riskviewer_backend.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters kept in this JVM, for single node deployments
+ */
+public class LocalVersionCounters implements VersionCounters {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long get(String counter) {
+        AtomicLong value = counters.get(counter);
+        return value == null ? 0L : value.get();
+    }
+
+    @Override
+    public long increment(String counter) {
+        return counters.computeIfAbsent(counter, name -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,69 @@
+package com.satyam.riskviewer_backend.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Version counters shared by every node through Redis.
+ *
+ * Increments are Redis INCRs, so all nodes build the same cache keys and can
+ * reuse each other's results from the shared tier. Reads are served from a
+ * local copy that is seeded from Redis on first use and kept current by the
+ * new values every node publishes after an increment, so looking up a
+ * version never costs a round trip.
+ */
+public class RedisVersionCounters implements VersionCounters, MessageListener {
+
+    public static final String CHANNEL = "riskviewer:cache:versions";
+
+    private static final String KEY_PREFIX = "riskviewer:versions:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public RedisVersionCounters(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long get(String counter) {
+        return local(counter).get();
+    }
+
+    @Override
+    public long increment(String counter) {
+        Long value = redisTemplate.opsForValue().increment(KEY_PREFIX + counter);
+        long next = value == null ? local(counter).incrementAndGet() : value;
+        local(counter).accumulateAndGet(next, Math::max);
+        redisTemplate.convertAndSend(CHANNEL, counter + '=' + next);
+        return next;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf('=');
+        if (separator < 0) {
+            return;
+        }
+
+        // Counters this node has not used yet are read from Redis on first use instead
+        AtomicLong value = counters.get(body.substring(0, separator));
+        if (value != null) {
+            value.accumulateAndGet(Long.parseLong(body.substring(separator + 1)), Math::max);
+        }
+    }
+
+    private AtomicLong local(String counter) {
+        return counters.computeIfAbsent(counter, name -> {
+            String stored = redisTemplate.opsForValue().get(KEY_PREFIX + name);
+            return new AtomicLong(stored == null ? 0L : Long.parseLong(stored));
+        });
+    }
+}
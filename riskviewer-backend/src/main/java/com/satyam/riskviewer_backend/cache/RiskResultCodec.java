@@ -0,0 +1,151 @@
+package com.satyam.riskviewer_backend.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.satyam.riskviewer_backend.dto.AdvancedRiskMetricsDTO;
+import com.satyam.riskviewer_backend.dto.RiskMetricsDTO;
+
+/**
+ * Compact binary encoding of cached risk results for Redis.
+ *
+ * The risk DTOs are written field by field: a one byte type tag, then each
+ * BigDecimal as its scale and unscaled bytes and each map as a count followed
+ * by its entries. A RiskMetricsDTO takes well under 200 bytes, against a few
+ * kilobytes with JDK serialization, and needs no class metadata to read.
+ * Values of any other type fall back to JSON.
+ */
+public class RiskResultCodec implements RedisSerializer<Object> {
+
+    private static final byte RISK_METRICS = 1;
+    private static final byte ADVANCED_RISK_METRICS = 2;
+    private static final byte JSON = 127;
+
+    private final GenericJackson2JsonRedisSerializer fallback = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (value instanceof RiskMetricsDTO metrics) {
+                out.writeByte(RISK_METRICS);
+                writeDecimal(out, metrics.getPortfolioValue());
+                writeDecimal(out, metrics.getValueAtRisk95());
+                writeDecimal(out, metrics.getValueAtRisk99());
+                writeDecimal(out, metrics.getConcentrationRisk());
+                writeDecimal(out, metrics.getSharpeRatio());
+                writeDecimals(out, metrics.getAssetAllocation());
+            } else if (value instanceof AdvancedRiskMetricsDTO metrics) {
+                out.writeByte(ADVANCED_RISK_METRICS);
+                writeDecimal(out, metrics.getPortfolioValue());
+                writeDecimal(out, metrics.getParametricVaR95());
+                writeDecimal(out, metrics.getParametricVaR99());
+                writeDecimal(out, metrics.getMonteCarloVaR95());
+                writeDecimal(out, metrics.getMonteCarloVaR99());
+                writeDecimal(out, metrics.getExpectedShortfall95());
+                writeDecimal(out, metrics.getExpectedShortfall99());
+                writeDecimal(out, metrics.getMaxDrawdown());
+                writeDecimal(out, metrics.getPortfolioBeta());
+                writeDecimal(out, metrics.getConcentrationRisk());
+                writeDecimal(out, metrics.getSharpeRatio());
+                writeDecimals(out, metrics.getStressTestResults());
+                writeDecimals(out, metrics.getAssetAllocation());
+            } else {
+                out.writeByte(JSON);
+                out.write(fallback.serialize(value));
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot encode " + value.getClass().getSimpleName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte type = in.readByte();
+            switch (type) {
+                case RISK_METRICS:
+                    return new RiskMetricsDTO(readDecimal(in), readDecimal(in), readDecimal(in),
+                        readDecimal(in), readDecimal(in), readDecimals(in));
+                case ADVANCED_RISK_METRICS:
+                    return new AdvancedRiskMetricsDTO(readDecimal(in), readDecimal(in), readDecimal(in),
+                        readDecimal(in), readDecimal(in), readDecimal(in), readDecimal(in), readDecimal(in),
+                        readDecimal(in), readDecimal(in), readDecimal(in), readDecimals(in), readDecimals(in));
+                case JSON:
+                    return fallback.deserialize(in.readAllBytes());
+                default:
+                    throw new SerializationException("Unknown cached value type " + type);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot decode cached value", e);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > Byte.MAX_VALUE) {
+            throw new IOException("Decimal too large to encode: " + unscaled.length + " bytes");
+        }
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeShort(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int length = in.readByte();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readShort());
+    }
+
+    private static void writeDecimals(DataOutputStream out, Map<String, BigDecimal> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (Map.Entry<String, BigDecimal> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeDecimal(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, BigDecimal> readDecimals(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, BigDecimal> values = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            values.put(in.readUTF(), readDecimal(in));
+        }
+        return values;
+    }
+}
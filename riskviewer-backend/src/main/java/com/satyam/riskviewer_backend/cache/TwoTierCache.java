@@ -0,0 +1,127 @@
+package com.satyam.riskviewer_backend.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Near cache: a bounded in-process L1 in front of a shared L2.
+ *
+ * Reads are served from L1 when possible and fall through to L2, copying
+ * the value into L1. Writes go to both tiers. Every put, evict and clear is
+ * announced through the {@link Invalidations} channel so other nodes drop
+ * their L1 copy; L2 stays the source of truth shared by all nodes.
+ * L1 is keyed by the string form of the key so remote invalidations, which
+ * only carry that string, can address it.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    /**
+     * Broadcasts local changes to the other nodes
+     */
+    public interface Invalidations {
+        /**
+         * @param key the string form of the key, or null when the whole cache was cleared
+         */
+        void publish(String cacheName, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache shared;
+    private final Invalidations invalidations;
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                        Cache shared, Invalidations invalidations) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+
+        ValueWrapper sharedValue = shared.get(key);
+        if (sharedValue == null || sharedValue.get() == null) {
+            return null;
+        }
+        local.put(localKey, sharedValue.get());
+        return sharedValue.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        String localKey = localKey(key);
+        shared.put(key, value);
+        local.put(localKey, value);
+        invalidations.publish(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        shared.evict(key);
+        local.invalidate(localKey);
+        invalidations.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        local.invalidateAll();
+        invalidations.publish(name, null);
+    }
+
+    /**
+     * Drop L1 entries after another node changed them
+     */
+    public void evictLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,77 @@
+package com.satyam.riskviewer_backend.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Builds a {@link TwoTierCache} per cache name and relays L1 invalidations
+ * between nodes over Redis pub/sub.
+ *
+ * Each node tags its messages with a random node id and ignores its own,
+ * so a node never throws away an entry it has just written.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "riskviewer:cache:invalidations";
+
+    private static final String CLEAR = "*";
+    private static final String KEY = "=";
+
+    private final CacheManager shared;
+    private final Caffeine<Object, Object> localSpec;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager shared, Caffeine<Object, Object> localSpec,
+                               StringRedisTemplate redisTemplate) {
+        this.shared = shared;
+        this.localSpec = localSpec;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache sharedCache = shared.getCache(cacheName);
+            return sharedCache == null ? null
+                : new TwoTierCache(cacheName, localSpec.build(), sharedCache, this::publish);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Set.copyOf(caches.keySet());
+    }
+
+    private void publish(String cacheName, String key) {
+        String body = nodeId + '\n' + cacheName + '\n' + (key == null ? CLEAR : KEY + key);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, body);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2].startsWith(KEY) ? parts[2].substring(KEY.length()) : null);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.satyam.riskviewer_backend.cache;
+
+/**
+ * Named monotonic counters used to version cache keys.
+ *
+ * A cached value keyed by a counter's current value goes stale the moment
+ * the counter is incremented, without having to find and evict it.
+ */
+public interface VersionCounters {
+
+    /**
+     * Current value, 0 for a counter that was never incremented
+     */
+    long get(String counter);
+
+    /**
+     * Increment the counter and return its new value
+     */
+    long increment(String counter);
+}
@@ -0,0 +1,84 @@
+package com.satyam.riskviewer_backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.satyam.riskviewer_backend.cache.LocalVersionCounters;
+import com.satyam.riskviewer_backend.cache.RedisVersionCounters;
+import com.satyam.riskviewer_backend.cache.RiskResultCodec;
+import com.satyam.riskviewer_backend.cache.TwoTierCacheManager;
+import com.satyam.riskviewer_backend.cache.VersionCounters;
+
+/**
+ * Turns on the cache manager configured by the spring.cache.* properties.
+ *
+ * With spring.cache.type=redis the caches become two-tier: a bounded
+ * Caffeine near-cache per node in front of Redis, with invalidations and
+ * cache key versions shared over Redis pub/sub.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            StringRedisTemplate redisTemplate,
+                                            @Value("${app.risk.cache.ttl:300}") long sharedTtlSeconds,
+                                            @Value("${app.cache.local.maximum-size:10000}") long localMaximumSize,
+                                            @Value("${app.cache.local.expire-after-write-seconds:60}") long localTtlSeconds) {
+        RedisCacheConfiguration sharedConfig = RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(Duration.ofSeconds(sharedTtlSeconds))
+            .disableCachingNullValues()
+            .prefixCacheNameWith("riskviewer:")
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new RiskResultCodec()));
+        RedisCacheManager shared = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(sharedConfig)
+            .build();
+        shared.initializeCaches();
+
+        Caffeine<Object, Object> local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(Duration.ofSeconds(localTtlSeconds));
+
+        return new TwoTierCacheManager(shared, local, redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisVersionCounters versionCounters(StringRedisTemplate redisTemplate) {
+        return new RedisVersionCounters(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TwoTierCacheManager cacheManager,
+                                                                       RedisVersionCounters versionCounters) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        container.addMessageListener(versionCounters, new ChannelTopic(RedisVersionCounters.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(VersionCounters.class)
+    public VersionCounters localVersionCounters() {
+        return new LocalVersionCounters();
+    }
+}
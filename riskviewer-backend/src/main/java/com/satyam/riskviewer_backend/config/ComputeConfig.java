@@ -0,0 +1,30 @@
+package com.satyam.riskviewer_backend.config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Dedicated pool for CPU-bound simulation work.
+ *
+ * Monte Carlo runs fork onto this pool instead of the common pool or the
+ * request thread. With virtual threads enabled the request thread only
+ * parks while the simulation runs, so a heavy simulation can occupy at most
+ * app.compute.parallelism cores and never the carriers serving HTTP.
+ */
+@Configuration
+public class ComputeConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool computePool(@Value("${app.compute.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("risk-compute-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+}
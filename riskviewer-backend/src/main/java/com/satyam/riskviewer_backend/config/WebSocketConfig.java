@@ -0,0 +1,28 @@
+package com.satyam.riskviewer_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.satyam.riskviewer_backend.websocket.RealTimeWebSocketHandler;
+
+/**
+ * Registers the real-time push endpoint used by the dashboard
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final RealTimeWebSocketHandler realTimeWebSocketHandler;
+
+    public WebSocketConfig(RealTimeWebSocketHandler realTimeWebSocketHandler) {
+        this.realTimeWebSocketHandler = realTimeWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(realTimeWebSocketHandler, "/ws/realtime")
+            .setAllowedOrigins("http://localhost:4200");
+    }
+}
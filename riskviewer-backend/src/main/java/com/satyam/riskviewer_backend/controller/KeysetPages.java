@@ -0,0 +1,43 @@
+package com.satyam.riskviewer_backend.controller;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Keyset pagination over entity ids.
+ *
+ * A page is the first {@code limit} rows with an id after {@code afterId},
+ * so every page costs an index range scan however deep the client reads.
+ * The response carries X-Total-Count, X-Page-Size and, when the page is
+ * full, X-Next-After-Id to pass as afterId for the next page.
+ */
+final class KeysetPages {
+
+    static final String NEXT_AFTER_ID = "X-Next-After-Id";
+
+    private KeysetPages() {
+    }
+
+    static boolean validLimit(int limit, int maxPageSize) {
+        return limit > 0 && limit <= maxPageSize;
+    }
+
+    static Pageable first(int limit) {
+        return PageRequest.of(0, limit, Sort.by("id"));
+    }
+
+    static <T> ResponseEntity<List<T>> respond(List<T> page, int limit, long total, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header("X-Total-Count", Long.toString(total))
+            .header("X-Page-Size", Integer.toString(limit));
+        if (page.size() == limit) {
+            response.header(NEXT_AFTER_ID, Long.toString(id.apply(page.get(page.size() - 1))));
+        }
+        return response.body(page);
+    }
+}
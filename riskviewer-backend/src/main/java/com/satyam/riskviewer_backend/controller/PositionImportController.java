@@ -0,0 +1,67 @@
+package com.satyam.riskviewer_backend.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.satyam.riskviewer_backend.dto.PositionImportDTO;
+import com.satyam.riskviewer_backend.service.PositionImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Bulk position upload, streamed from the request body, and import progress
+ */
+@RestController
+@RequestMapping("/api/positions/imports")
+@CrossOrigin(origins = "http://localhost:4200")
+public class PositionImportController {
+
+    private final PositionImportService positionImportService;
+
+    public PositionImportController(PositionImportService positionImportService) {
+        this.positionImportService = positionImportService;
+    }
+
+    /**
+     * Import CSV rows of symbol,type,quantity,purchase_price,portfolio_id
+     */
+    @PostMapping(consumes = { "text/csv", "text/plain" })
+    public ResponseEntity<PositionImportDTO> importCsv(HttpServletRequest request) throws IOException {
+        return respond(positionImportService.importPositions(request.getReader(), PositionImportDTO.Format.CSV));
+    }
+
+    /**
+     * Import one JSON position object per line
+     */
+    @PostMapping(consumes = "application/x-ndjson")
+    public ResponseEntity<PositionImportDTO> importNdjson(HttpServletRequest request) throws IOException {
+        return respond(positionImportService.importPositions(request.getReader(), PositionImportDTO.Format.NDJSON));
+    }
+
+    @GetMapping
+    public List<PositionImportDTO> listImports() {
+        return positionImportService.listImports();
+    }
+
+    /**
+     * Progress of an import, including one still running
+     */
+    @GetMapping("/{importId}")
+    public ResponseEntity<PositionImportDTO> getImport(@PathVariable String importId) {
+        PositionImportDTO result = positionImportService.getImport(importId);
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<PositionImportDTO> respond(PositionImportDTO result) {
+        HttpStatus status = result.status() == PositionImportDTO.Status.COMPLETED
+            ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status)
+            .location(URI.create("/api/positions/imports/" + result.importId()))
+            .body(result);
+    }
+}
@@ -0,0 +1,56 @@
+package com.satyam.riskviewer_backend.controller;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.satyam.riskviewer_backend.history.ReturnHistoryStore;
+import com.satyam.riskviewer_backend.history.ReturnSeries;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Loading and inspection of the per-symbol return history
+ */
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "http://localhost:4200")
+public class PriceHistoryController {
+
+    private final ReturnHistoryStore returnHistoryStore;
+
+    public PriceHistoryController(ReturnHistoryStore returnHistoryStore) {
+        this.returnHistoryStore = returnHistoryStore;
+    }
+
+    /**
+     * Append daily closes posted as CSV (symbol,date,close), streamed from the request body
+     */
+    @PostMapping(value = "/prices", consumes = { "text/csv", "text/plain" })
+    public ReturnHistoryStore.ImportResult importPrices(HttpServletRequest request) throws IOException {
+        return returnHistoryStore.importCsv(request.getReader());
+    }
+
+    @GetMapping("/{symbol}")
+    public ResponseEntity<Map<String, Object>> getHistory(@PathVariable String symbol) {
+        ReturnSeries daily = returnHistoryStore.daily(symbol);
+        ReturnSeries intraday = returnHistoryStore.intraday(symbol);
+        if (daily == null && intraday == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("symbol", symbol);
+        summary.put("dailyReturns", daily != null ? daily.size() : 0);
+        if (daily != null && daily.size() > 0) {
+            summary.put("firstDay", LocalDate.ofEpochDay(daily.key(0)));
+            summary.put("lastDay", LocalDate.ofEpochDay(daily.lastKey()));
+        }
+        summary.put("intradayReturns", intraday != null ? intraday.size() : 0);
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -1,13 +1,31 @@
 package com.satyam.riskviewer_backend.controller;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.satyam.riskviewer_backend.dto.RiskMetricsDTO;
 import com.satyam.riskviewer_backend.dto.AdvancedRiskMetricsDTO;
+import com.satyam.riskviewer_backend.dto.HistoricalVaRDTO;
+import com.satyam.riskviewer_backend.dto.LivePnLDTO;
+import com.satyam.riskviewer_backend.dto.MonteCarloVaRDTO;
+import com.satyam.riskviewer_backend.dto.StressGridDTO;
+import com.satyam.riskviewer_backend.dto.StressGridRequest;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.model.StressGrid;
+import com.satyam.riskviewer_backend.numeric.Decimals;
+import com.satyam.riskviewer_backend.service.PositionBookService;
 import com.satyam.riskviewer_backend.service.RiskAnalyticsService;
+import com.satyam.riskviewer_backend.service.RiskJobService;
+import com.satyam.riskviewer_backend.service.RiskMetricsCache;
+import com.satyam.riskviewer_backend.service.SamplingStrategy;
+import com.satyam.riskviewer_backend.service.StressGridEngine;
 
 @RestController
 @RequestMapping("/api/risk")
@@ -15,27 +33,56 @@ import com.satyam.riskviewer_backend.service.RiskAnalyticsService;
 public class RiskAnalyticsController {
     
     private final RiskAnalyticsService riskAnalyticsService;
+    private final PositionBookService positionBookService;
+    private final RiskMetricsCache riskMetricsCache;
+    private final RiskJobService riskJobService;
+    private final StressGridEngine stressGridEngine;
+    private final int maxLookbackDays;
+    private final int maxEstimateSimulations;
     
-    public RiskAnalyticsController(RiskAnalyticsService riskAnalyticsService) {
+    public RiskAnalyticsController(RiskAnalyticsService riskAnalyticsService,
+                                   PositionBookService positionBookService,
+                                   RiskMetricsCache riskMetricsCache,
+                                   RiskJobService riskJobService,
+                                   StressGridEngine stressGridEngine,
+                                   @Value("${app.history.max-lookback-days:7300}") int maxLookbackDays,
+                                   @Value("${app.risk.monte-carlo.max-estimate-simulations:20000}") int maxEstimateSimulations) {
         this.riskAnalyticsService = riskAnalyticsService;
+        this.positionBookService = positionBookService;
+        this.riskMetricsCache = riskMetricsCache;
+        this.riskJobService = riskJobService;
+        this.stressGridEngine = stressGridEngine;
+        this.maxLookbackDays = maxLookbackDays;
+        this.maxEstimateSimulations = maxEstimateSimulations;
     }
     
     @GetMapping("/portfolio/{portfolioId}/metrics")
     public RiskMetricsDTO getPortfolioRiskMetrics(@PathVariable Long portfolioId) {
-        BigDecimal portfolioValue = riskAnalyticsService.calculatePortfolioValue(portfolioId);
-        BigDecimal var95 = riskAnalyticsService.calculatePortfolioVaR(portfolioId, 0.95);
-        BigDecimal var99 = riskAnalyticsService.calculatePortfolioVaR(portfolioId, 0.99);
-        BigDecimal concentrationRisk = riskAnalyticsService.calculateConcentrationRisk(portfolioId);
-        BigDecimal sharpeRatio = riskAnalyticsService.calculateSharpeRatio(portfolioId);
-        Map<String, BigDecimal> assetAllocation = riskAnalyticsService.calculateAssetAllocation(portfolioId);
+        return riskMetricsCache.get(portfolioId, "metrics", () -> computeRiskMetrics(portfolioId));
+    }
+    
+    private RiskMetricsDTO computeRiskMetrics(Long portfolioId) {
+        // Load positions once and compute every metric from the same snapshot
+        PortfolioSnapshot snapshot = riskAnalyticsService.loadSnapshot(portfolioId);
+        double portfolioValue = riskAnalyticsService.calculatePortfolioValue(snapshot);
+        double var95 = riskAnalyticsService.calculatePortfolioVaR(snapshot, 0.95);
+        double var99 = riskAnalyticsService.calculatePortfolioVaR(snapshot, 0.99);
+        double concentrationRisk = riskAnalyticsService.calculateConcentrationRisk(snapshot);
+        double sharpeRatio = riskAnalyticsService.calculateSharpeRatio(snapshot);
+        Map<String, Double> assetAllocation = riskAnalyticsService.calculateAssetAllocation(snapshot);
         
-        return new RiskMetricsDTO(portfolioValue, var95, var99, concentrationRisk, sharpeRatio, assetAllocation);
+        return new RiskMetricsDTO(Decimals.money(portfolioValue), Decimals.money(var95), Decimals.money(var99),
+                                  Decimals.money(concentrationRisk), Decimals.scaled(sharpeRatio, 3),
+                                  Decimals.money(assetAllocation));
     }
     
     @GetMapping("/portfolio/{portfolioId}/var")
-    public BigDecimal getValueAtRisk(@PathVariable Long portfolioId, 
-                                   @RequestParam(defaultValue = "0.95") double confidence) {
-        return riskAnalyticsService.calculatePortfolioVaR(portfolioId, confidence);
+    public ResponseEntity<BigDecimal> getValueAtRisk(@PathVariable Long portfolioId,
+                                                     @RequestParam(defaultValue = "0.95") double confidence) {
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(riskAnalyticsService.calculatePortfolioVaR(portfolioId, confidence));
     }
     
     @GetMapping("/portfolio/{portfolioId}/allocation")
@@ -45,32 +92,103 @@ public class RiskAnalyticsController {
     
     @GetMapping("/portfolio/{portfolioId}/advanced-metrics")
     public AdvancedRiskMetricsDTO getAdvancedRiskMetrics(@PathVariable Long portfolioId) {
-        BigDecimal portfolioValue = riskAnalyticsService.calculatePortfolioValue(portfolioId);
-        BigDecimal parametricVaR95 = riskAnalyticsService.calculatePortfolioVaR(portfolioId, 0.95);
-        BigDecimal parametricVaR99 = riskAnalyticsService.calculatePortfolioVaR(portfolioId, 0.99);
-        BigDecimal monteCarloVaR95 = riskAnalyticsService.calculateMonteCarloVaR(portfolioId, 0.95, 10000);
-        BigDecimal monteCarloVaR99 = riskAnalyticsService.calculateMonteCarloVaR(portfolioId, 0.99, 10000);
-        BigDecimal expectedShortfall95 = riskAnalyticsService.calculateExpectedShortfall(portfolioId, 0.95);
-        BigDecimal expectedShortfall99 = riskAnalyticsService.calculateExpectedShortfall(portfolioId, 0.99);
-        BigDecimal maxDrawdown = riskAnalyticsService.calculateMaxDrawdown(portfolioId, 252); // 1 year
-        BigDecimal portfolioBeta = riskAnalyticsService.calculatePortfolioBeta(portfolioId);
-        BigDecimal concentrationRisk = riskAnalyticsService.calculateConcentrationRisk(portfolioId);
-        BigDecimal sharpeRatio = riskAnalyticsService.calculateSharpeRatio(portfolioId);
-        Map<String, BigDecimal> stressTestResults = riskAnalyticsService.runStressTests(portfolioId);
-        Map<String, BigDecimal> assetAllocation = riskAnalyticsService.calculateAssetAllocation(portfolioId);
+        return riskMetricsCache.get(portfolioId, "advanced-metrics", () -> computeAdvancedRiskMetrics(portfolioId));
+    }
+    
+    private AdvancedRiskMetricsDTO computeAdvancedRiskMetrics(Long portfolioId) {
+        PortfolioSnapshot snapshot = riskAnalyticsService.loadSnapshot(portfolioId);
+        double portfolioValue = riskAnalyticsService.calculatePortfolioValue(snapshot);
+        double parametricVaR95 = riskAnalyticsService.calculatePortfolioVaR(snapshot, 0.95);
+        double parametricVaR99 = riskAnalyticsService.calculatePortfolioVaR(snapshot, 0.99);
+        
+        // One simulation feeds every Monte Carlo based metric
+        ScenarioSet scenarios = riskAnalyticsService.simulateScenarios(snapshot, 10000, 0.95, 0.99);
+        double monteCarloVaR95 = riskAnalyticsService.calculateMonteCarloVaR(scenarios, 0.95);
+        double monteCarloVaR99 = riskAnalyticsService.calculateMonteCarloVaR(scenarios, 0.99);
+        double expectedShortfall95 = riskAnalyticsService.calculateExpectedShortfall(scenarios, 0.95);
+        double expectedShortfall99 = riskAnalyticsService.calculateExpectedShortfall(scenarios, 0.99);
+        double maxDrawdown = riskAnalyticsService.calculateMaxDrawdown(scenarios, 252); // 1 year
         
-        return new AdvancedRiskMetricsDTO(portfolioValue, parametricVaR95, parametricVaR99,
-                                         monteCarloVaR95, monteCarloVaR99, expectedShortfall95,
-                                         expectedShortfall99, maxDrawdown, portfolioBeta,
-                                         concentrationRisk, sharpeRatio, stressTestResults,
-                                         assetAllocation);
+        double portfolioBeta = riskAnalyticsService.calculatePortfolioBeta(snapshot);
+        double concentrationRisk = riskAnalyticsService.calculateConcentrationRisk(snapshot);
+        double sharpeRatio = riskAnalyticsService.calculateSharpeRatio(snapshot);
+        Map<String, Double> stressTestResults = riskAnalyticsService.runStressTests(snapshot);
+        Map<String, Double> assetAllocation = riskAnalyticsService.calculateAssetAllocation(snapshot);
+        
+        // Doubles become BigDecimal only here, at the response boundary
+        return new AdvancedRiskMetricsDTO(Decimals.money(portfolioValue), Decimals.money(parametricVaR95),
+                                         Decimals.money(parametricVaR99), Decimals.money(monteCarloVaR95),
+                                         Decimals.money(monteCarloVaR99), Decimals.money(expectedShortfall95),
+                                         Decimals.money(expectedShortfall99), Decimals.money(maxDrawdown),
+                                         Decimals.scaled(portfolioBeta, 3), Decimals.money(concentrationRisk),
+                                         Decimals.scaled(sharpeRatio, 3), Decimals.money(stressTestResults),
+                                         Decimals.money(assetAllocation));
     }
     
     @GetMapping("/portfolio/{portfolioId}/monte-carlo-var")
-    public BigDecimal getMonteCarloVaR(@PathVariable Long portfolioId,
+    public ResponseEntity<BigDecimal> getMonteCarloVaR(@PathVariable Long portfolioId,
                                       @RequestParam(defaultValue = "0.95") double confidence,
-                                      @RequestParam(defaultValue = "10000") int simulations) {
-        return riskAnalyticsService.calculateMonteCarloVaR(portfolioId, confidence, simulations);
+                                      @RequestParam(defaultValue = "10000") int simulations,
+                                      @RequestParam(defaultValue = "PSEUDO_RANDOM") SamplingStrategy sampling) {
+        // Larger runs belong on POST /api/risk/jobs
+        try {
+            riskJobService.validateMonteCarlo(confidence, simulations);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(riskAnalyticsService.calculateMonteCarloVaR(portfolioId, confidence, simulations, sampling));
+    }
+    
+    /**
+     * Monte Carlo VaR and Expected Shortfall with standard errors, to compare sampling strategies.
+     * Runs on the request thread, so it takes at most max-estimate-simulations paths; larger runs
+     * go through POST /api/risk/jobs with a sampling strategy.
+     */
+    @GetMapping("/portfolio/{portfolioId}/monte-carlo-estimate")
+    public ResponseEntity<MonteCarloVaRDTO> getMonteCarloEstimate(@PathVariable Long portfolioId,
+                                                                  @RequestParam(defaultValue = "0.95") double confidence,
+                                                                  @RequestParam(defaultValue = "10000") int simulations,
+                                                                  @RequestParam(defaultValue = "SOBOL") SamplingStrategy sampling) {
+        try {
+            riskJobService.validateMonteCarlo(confidence, simulations);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (simulations > maxEstimateSimulations) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        PortfolioSnapshot snapshot = riskAnalyticsService.loadSnapshot(portfolioId);
+        ScenarioSet scenarios = riskAnalyticsService.simulateScenarios(snapshot, simulations, sampling, confidence);
+        return ResponseEntity.ok(new MonteCarloVaRDTO(portfolioId, confidence, simulations, sampling,
+            Decimals.money(riskAnalyticsService.calculateMonteCarloVaR(scenarios, confidence)),
+            standardError(riskAnalyticsService.calculateMonteCarloVaRStandardError(scenarios, confidence)),
+            Decimals.money(riskAnalyticsService.calculateExpectedShortfall(scenarios, confidence)),
+            standardError(riskAnalyticsService.calculateExpectedShortfallStandardError(scenarios, confidence)),
+            Decimals.money(riskAnalyticsService.calculatePortfolioVaR(snapshot, confidence))));
+    }
+    
+    private static BigDecimal standardError(double value) {
+        return Double.isNaN(value) ? null : Decimals.money(value);
+    }
+    
+    @GetMapping("/portfolio/{portfolioId}/historical-var")
+    public ResponseEntity<HistoricalVaRDTO> getHistoricalVaR(@PathVariable Long portfolioId,
+                                                             @RequestParam(defaultValue = "0.95") double confidence,
+                                                             @RequestParam(defaultValue = "3650") int lookbackDays) {
+        if (confidence <= 0.0 || confidence >= 1.0 || lookbackDays <= 0 || lookbackDays > maxLookbackDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        ScenarioSet scenarios = riskAnalyticsService.historicalScenarios(
+            riskAnalyticsService.loadSnapshot(portfolioId), lookbackDays, confidence);
+        if (scenarios.size() == 0) {
+            return ResponseEntity.notFound().build(); // No stored history for any held symbol
+        }
+        
+        return ResponseEntity.ok(new HistoricalVaRDTO(portfolioId, confidence, lookbackDays, scenarios.size(),
+            Decimals.money(riskAnalyticsService.calculateMonteCarloVaR(scenarios, confidence)),
+            Decimals.money(riskAnalyticsService.calculateExpectedShortfall(scenarios, confidence))));
     }
     
     @GetMapping("/portfolio/{portfolioId}/stress-tests")
@@ -78,6 +196,31 @@ public class RiskAnalyticsController {
         return riskAnalyticsService.runStressTests(portfolioId);
     }
     
+    /**
+     * Evaluate user-defined shock scenarios against a portfolio or the whole book
+     */
+    @PostMapping("/stress-grid")
+    public ResponseEntity<?> runStressGrid(@RequestBody StressGridRequest request) {
+        int topContributors = request.topContributors() != null ? request.topContributors() : 5;
+        StressGrid grid;
+        try {
+            grid = stressGridEngine.run(request.portfolioId(), request.scenarios(), topContributors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        List<StressGridDTO.ScenarioResult> scenarios = new ArrayList<>(grid.losses().length);
+        for (int s = 0; s < grid.losses().length; s++) {
+            List<StressGridDTO.Contributor> contributors = grid.topContributors().get(s).stream()
+                .map(c -> new StressGridDTO.Contributor(c.instrument(), c.portfolioId(), Decimals.money(c.loss())))
+                .toList();
+            scenarios.add(new StressGridDTO.ScenarioResult(grid.scenarioNames().get(s),
+                Decimals.money(grid.losses()[s]), contributors));
+        }
+        return ResponseEntity.ok(new StressGridDTO(request.portfolioId(), grid.positions(), grid.products(),
+            grid.simulatedProducts(), scenarios));
+    }
+    
     @GetMapping("/portfolio/{portfolioId}/expected-shortfall")
     public BigDecimal getExpectedShortfall(@PathVariable Long portfolioId,
                                           @RequestParam(defaultValue = "0.95") double confidence) {
@@ -85,13 +228,26 @@ public class RiskAnalyticsController {
     }
     
     @GetMapping("/portfolio/{portfolioId}/max-drawdown")
-    public BigDecimal getMaxDrawdown(@PathVariable Long portfolioId,
-                                    @RequestParam(defaultValue = "252") int days) {
-        return riskAnalyticsService.calculateMaxDrawdown(portfolioId, days);
+    public ResponseEntity<BigDecimal> getMaxDrawdown(@PathVariable Long portfolioId,
+                                                     @RequestParam(defaultValue = "252") int days) {
+        // One simulated day per path
+        try {
+            riskJobService.validateSimulations(days);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(riskAnalyticsService.calculateMaxDrawdown(portfolioId, days));
     }
     
     @GetMapping("/portfolio/{portfolioId}/beta")
     public BigDecimal getPortfolioBeta(@PathVariable Long portfolioId) {
         return riskAnalyticsService.calculatePortfolioBeta(portfolioId);
     }
+    
+    @GetMapping("/portfolio/{portfolioId}/live-pnl")
+    public ResponseEntity<LivePnLDTO> getLivePnL(@PathVariable Long portfolioId) {
+        // Served from the in-memory position book, no database access
+        LivePnLDTO livePnL = positionBookService.getLivePnL(portfolioId);
+        return livePnL != null ? ResponseEntity.ok(livePnL) : ResponseEntity.notFound().build();
+    }
 }
\ No newline at end of file
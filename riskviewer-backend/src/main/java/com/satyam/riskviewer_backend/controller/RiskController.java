@@ -1,14 +1,19 @@
 package com.satyam.riskviewer_backend.controller;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Optional;
 import com.satyam.riskviewer_backend.model.Position;
 import com.satyam.riskviewer_backend.repository.PositionRepository;
+import com.satyam.riskviewer_backend.service.BookExportService;
 
 
 @RestController
@@ -16,9 +21,15 @@ import com.satyam.riskviewer_backend.repository.PositionRepository;
 @CrossOrigin(origins = "http://localhost:4200")  // Allow Angular to call these APIs
 public class RiskController {
     private final PositionRepository positionRepository;
+    private final BookExportService bookExportService;
+    private final int maxPageSize;
 
-    public RiskController(PositionRepository positionRepository) {
+    public RiskController(PositionRepository positionRepository,
+                          BookExportService bookExportService,
+                          @Value("${app.api.max-page-size:1000}") int maxPageSize) {
         this.positionRepository = positionRepository;
+        this.bookExportService = bookExportService;
+        this.maxPageSize = maxPageSize;
     }
 
     @GetMapping("/positions")
@@ -26,6 +37,32 @@ public class RiskController {
         return positionRepository.findAll(); // Returns JSON automatically!
     }
 
+    /**
+     * One keyset page of positions in id order, optionally of one portfolio
+     */
+    @GetMapping(value = "/positions", params = "limit")
+    public ResponseEntity<List<Position>> getPositionsPage(@RequestParam int limit,
+                                                           @RequestParam(defaultValue = "0") long afterId,
+                                                           @RequestParam(required = false) Long portfolioId) {
+        if (!KeysetPages.validLimit(limit, maxPageSize)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Position> page = portfolioId == null
+            ? positionRepository.findByIdGreaterThan(afterId, KeysetPages.first(limit))
+            : positionRepository.findByPortfolioIdAndIdGreaterThan(portfolioId, afterId, KeysetPages.first(limit));
+        long total = portfolioId == null ? positionRepository.count() : positionRepository.countByPortfolioId(portfolioId);
+        return KeysetPages.respond(page, limit, total, Position::getId);
+    }
+
+    /**
+     * Every position as NDJSON, streamed from a database cursor
+     */
+    @GetMapping(value = "/positions/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPositions(@RequestParam(required = false) Long portfolioId) {
+        return ResponseEntity.ok(out -> bookExportService.exportPositions(portfolioId, out));
+    }
+
     @GetMapping("/positions/{id}")
     public Optional<Position> getPositionById(@PathVariable Long id) {
         return positionRepository.findById(id); // Returns JSON or null
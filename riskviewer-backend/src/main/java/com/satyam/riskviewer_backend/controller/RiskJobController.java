@@ -0,0 +1,84 @@
+package com.satyam.riskviewer_backend.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.satyam.riskviewer_backend.dto.RiskJobDTO;
+import com.satyam.riskviewer_backend.dto.RiskJobRequest;
+import com.satyam.riskviewer_backend.service.RiskJobService;
+
+/**
+ * Submission, polling, streaming and cancellation of asynchronous risk jobs
+ */
+@RestController
+@RequestMapping("/api/risk/jobs")
+@CrossOrigin(origins = "http://localhost:4200")
+public class RiskJobController {
+
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final RiskJobService riskJobService;
+
+    public RiskJobController(RiskJobService riskJobService) {
+        this.riskJobService = riskJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody RiskJobRequest request) {
+        try {
+            RiskJobDTO job = riskJobService.submit(request);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/risk/jobs/" + job.jobId()))
+                .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<RiskJobDTO> getJob(@PathVariable String jobId) {
+        RiskJobDTO job = riskJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<RiskJobDTO> cancelJob(@PathVariable String jobId) {
+        RiskJobDTO job = riskJobService.cancel(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Server-sent "job" events on every state change, closed once the job has finished
+     */
+    @GetMapping("/{jobId}/events")
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Consumer<RiskJobDTO> listener = job -> {
+            try {
+                emitter.send(SseEmitter.event().name("job").data(job));
+                if (job.status().isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Job event stream closed", e);
+            }
+        };
+
+        emitter.onCompletion(() -> riskJobService.unwatch(jobId, listener));
+        emitter.onTimeout(() -> riskJobService.unwatch(jobId, listener));
+        if (!riskJobService.watch(jobId, listener)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
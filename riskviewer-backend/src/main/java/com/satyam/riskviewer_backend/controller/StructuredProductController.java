@@ -1,15 +1,28 @@
 package com.satyam.riskviewer_backend.controller;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.satyam.riskviewer_backend.alert.AlertEngine;
+import com.satyam.riskviewer_backend.alert.AlertRing;
+import com.satyam.riskviewer_backend.dto.AlertFeedDTO;
+import com.satyam.riskviewer_backend.dto.ValuationLadderDTO;
 import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.model.ValuationLadder;
+import com.satyam.riskviewer_backend.numeric.Decimals;
 import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
+import com.satyam.riskviewer_backend.service.BookExportService;
 import com.satyam.riskviewer_backend.service.StructuredProductPricingService;
 import com.satyam.riskviewer_backend.service.RealTimeMarketDataService;
+import com.satyam.riskviewer_backend.service.ValuationLadderService;
 
 @RestController
 @RequestMapping("/api/structured-products")
@@ -19,13 +32,25 @@ public class StructuredProductController {
     private final StructuredProductRepository structuredProductRepository;
     private final StructuredProductPricingService pricingService;
     private final RealTimeMarketDataService marketDataService;
+    private final BookExportService bookExportService;
+    private final ValuationLadderService valuationLadderService;
+    private final AlertEngine alertEngine;
+    private final int maxPageSize;
     
     public StructuredProductController(StructuredProductRepository structuredProductRepository,
                                      StructuredProductPricingService pricingService,
-                                     RealTimeMarketDataService marketDataService) {
+                                     RealTimeMarketDataService marketDataService,
+                                     BookExportService bookExportService,
+                                     ValuationLadderService valuationLadderService,
+                                     AlertEngine alertEngine,
+                                     @Value("${app.api.max-page-size:1000}") int maxPageSize) {
         this.structuredProductRepository = structuredProductRepository;
         this.pricingService = pricingService;
         this.marketDataService = marketDataService;
+        this.bookExportService = bookExportService;
+        this.valuationLadderService = valuationLadderService;
+        this.alertEngine = alertEngine;
+        this.maxPageSize = maxPageSize;
     }
     
     @GetMapping
@@ -33,6 +58,33 @@ public class StructuredProductController {
         return structuredProductRepository.findAll();
     }
     
+    /**
+     * One keyset page of products in id order, optionally of one portfolio
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<StructuredProduct>> getStructuredProductsPage(@RequestParam int limit,
+                                                                             @RequestParam(defaultValue = "0") long afterId,
+                                                                             @RequestParam(required = false) Long portfolioId) {
+        if (!KeysetPages.validLimit(limit, maxPageSize)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        List<StructuredProduct> page = portfolioId == null
+            ? structuredProductRepository.findByIdGreaterThan(afterId, KeysetPages.first(limit))
+            : structuredProductRepository.findByPortfolioIdAndIdGreaterThan(portfolioId, afterId, KeysetPages.first(limit));
+        long total = portfolioId == null
+            ? structuredProductRepository.count() : structuredProductRepository.countByPortfolioId(portfolioId);
+        return KeysetPages.respond(page, limit, total, StructuredProduct::getId);
+    }
+    
+    /**
+     * Every product with its risk scenarios as NDJSON, streamed from a database cursor
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportStructuredProducts(@RequestParam(required = false) Long portfolioId) {
+        return ResponseEntity.ok(out -> bookExportService.exportStructuredProducts(portfolioId, out));
+    }
+    
     @GetMapping("/{id}")
     public StructuredProduct getStructuredProduct(@PathVariable Long id) {
         return structuredProductRepository.findById(id).orElse(null);
@@ -80,6 +132,67 @@ public class StructuredProductController {
         return pricingService.runStructuredProductStressTests(product);
     }
     
+    /**
+     * Prices over a spot x vol x days-forward grid, by default 41 x 11 x 5 points
+     */
+    @GetMapping("/{id}/ladder")
+    public ResponseEntity<?> getProductLadder(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "0.2") double spotRange,
+                                              @RequestParam(defaultValue = "41") int spotSteps,
+                                              @RequestParam(defaultValue = "0.5") double volRange,
+                                              @RequestParam(defaultValue = "11") int volSteps,
+                                              @RequestParam(defaultValue = "0,7,30,90,180") int[] days) {
+        ValuationLadder ladder;
+        try {
+            ladder = valuationLadderService.ladder(id,
+                ValuationLadder.Axes.symmetric(spotRange, spotSteps, volRange, volSteps, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ladder != null ? ResponseEntity.ok(toLadderDTO(ladder)) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Ladders of every product, or of one portfolio, on the same grid
+     */
+    @GetMapping("/ladders")
+    public ResponseEntity<?> getLadders(@RequestParam(required = false) Long portfolioId,
+                                        @RequestParam(defaultValue = "0.2") double spotRange,
+                                        @RequestParam(defaultValue = "41") int spotSteps,
+                                        @RequestParam(defaultValue = "0.5") double volRange,
+                                        @RequestParam(defaultValue = "11") int volSteps,
+                                        @RequestParam(defaultValue = "0,7,30,90,180") int[] days) {
+        List<ValuationLadder> ladders;
+        try {
+            ladders = valuationLadderService.ladders(portfolioId,
+                ValuationLadder.Axes.symmetric(spotRange, spotSteps, volRange, volSteps, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(ladders.stream().map(this::toLadderDTO).toList());
+    }
+    
+    private ValuationLadderDTO toLadderDTO(ValuationLadder ladder) {
+        ValuationLadder.Axes axes = ladder.axes();
+        List<List<List<BigDecimal>>> prices = new ArrayList<>(axes.daysForward().length);
+        for (int d = 0; d < axes.daysForward().length; d++) {
+            List<List<BigDecimal>> byVol = new ArrayList<>(axes.volShocks().length);
+            for (int v = 0; v < axes.volShocks().length; v++) {
+                List<BigDecimal> bySpot = new ArrayList<>(axes.spotShocks().length);
+                for (int s = 0; s < axes.spotShocks().length; s++) {
+                    bySpot.add(Decimals.money(ladder.price(d, v, s)));
+                }
+                byVol.add(bySpot);
+            }
+            prices.add(byVol);
+        }
+        return new ValuationLadderDTO(ladder.productId(), ladder.productCode(),
+            Arrays.stream(axes.spotShocks()).mapToObj(shock -> Decimals.scaled(shock, 4)).toList(),
+            Arrays.stream(axes.volShocks()).mapToObj(shock -> Decimals.scaled(shock, 4)).toList(),
+            Arrays.stream(axes.daysForward()).boxed().toList(),
+            Decimals.money(ladder.basePrice()), Decimals.scaled(ladder.units(), 4), prices);
+    }
+    
     @GetMapping("/high-risk")
     public List<StructuredProduct> getHighRiskProducts() {
         return structuredProductRepository.findHighGammaProducts(0.01);
@@ -136,19 +249,32 @@ public class StructuredProductController {
         return marketDataService.getActiveAlerts();
     }
     
+    /**
+     * Alerts raised after the given alert id, oldest first; pass lastId back as after for the next call
+     */
+    @GetMapping(value = "/market-data/alerts", params = "after")
+    public ResponseEntity<AlertFeedDTO> getAlertsAfter(@RequestParam long after,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        if (!KeysetPages.validLimit(limit, maxPageSize)) {
+            return ResponseEntity.badRequest().build();
+        }
+        AlertRing.Read read = alertEngine.readAfter(after, limit);
+        return ResponseEntity.ok(new AlertFeedDTO(read.alerts(), read.lastId(), read.missed()));
+    }
+    
+    @GetMapping("/market-data/alert-stats")
+    public Map<String, Long> getAlertStats() {
+        return alertEngine.stats();
+    }
+    
     @PostMapping("/market-data/clear-alerts")
     public void clearAlerts() {
         marketDataService.clearAlerts();
     }
     
     @GetMapping("/market-data/price/{symbol}")
-    public Map<String, Object> getSymbolData(@PathVariable String symbol) {
-        return Map.of(
-            "symbol", symbol,
-            "currentPrice", marketDataService.getCurrentPrice(symbol),
-            "priceChange", marketDataService.getPriceChange(symbol),
-            "impliedVolatility", marketDataService.getImpliedVolatility(symbol),
-            "lastUpdated", marketDataService.getLastUpdated(symbol)
-        );
+    public ResponseEntity<Map<String, Object>> getSymbolData(@PathVariable String symbol) {
+        Map<String, Object> data = marketDataService.getSymbolData(symbol);
+        return data != null ? ResponseEntity.ok(data) : ResponseEntity.notFound().build();
     }
 }
@@ -0,0 +1,11 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.util.List;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+
+/**
+ * Alerts raised after a client's cursor. lastId is the cursor for the next
+ * request, and missed counts alerts that left the ring before they were read.
+ */
+public record AlertFeedDTO(List<MarketDataTickEvent.Alert> alerts, long lastId, long missed) {}
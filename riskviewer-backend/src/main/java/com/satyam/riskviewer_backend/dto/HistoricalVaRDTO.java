@@ -0,0 +1,9 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Historical Simulation VaR and Expected Shortfall of one portfolio
+ */
+public record HistoricalVaRDTO(Long portfolioId, double confidenceLevel, int lookbackDays, int observations,
+                               BigDecimal valueAtRisk, BigDecimal expectedShortfall) {}
@@ -0,0 +1,19 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Live mark-to-market P&L of one portfolio
+ */
+public record LivePnLDTO(Long portfolioId, BigDecimal marketValue, BigDecimal costBasis,
+                         BigDecimal unrealizedPnL, BigDecimal pnlPercent, LocalDateTime lastUpdated,
+                         List<SymbolPnL> holdings) {
+
+    /**
+     * P&L of all positions of the portfolio in one symbol
+     */
+    public record SymbolPnL(String symbol, BigDecimal quantity, BigDecimal currentPrice, BigDecimal marketValue,
+                            BigDecimal costBasis, BigDecimal unrealizedPnL, BigDecimal pnlPercent) {}
+}
@@ -0,0 +1,15 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.math.BigDecimal;
+
+import com.satyam.riskviewer_backend.service.SamplingStrategy;
+
+/**
+ * Monte Carlo VaR and Expected Shortfall of one portfolio with their standard
+ * errors, next to the parametric VaR for comparison. A standard error is null
+ * when the run is too small to estimate it.
+ */
+public record MonteCarloVaRDTO(Long portfolioId, double confidenceLevel, int simulations, SamplingStrategy sampling,
+                               BigDecimal valueAtRisk, BigDecimal valueAtRiskStandardError,
+                               BigDecimal expectedShortfall, BigDecimal expectedShortfallStandardError,
+                               BigDecimal parametricVaR) {}
@@ -0,0 +1,28 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk position import, with one report per inserted batch
+ */
+public record PositionImportDTO(String importId, Format format, Status status, String insertMethod,
+                                LocalDateTime startedAt, LocalDateTime finishedAt, long rowsRead,
+                                long rowsInserted, long rowsRejected, List<BatchReport> batches, String error) {
+
+    public enum Format { CSV, NDJSON }
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * One batch: the input rows it covered, what was inserted and why rows were rejected.
+     * Errors are listed up to a per-batch limit; rejected always has the full count.
+     */
+    public record BatchReport(int batch, long firstRow, long lastRow, int inserted, int rejected,
+                              long elapsedMs, List<RowError> errors) {}
+
+    /**
+     * A rejected input row, numbered from 1 and counting the header line
+     */
+    public record RowError(long row, String message) {}
+}
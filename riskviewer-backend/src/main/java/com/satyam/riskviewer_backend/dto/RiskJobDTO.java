@@ -0,0 +1,23 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous risk job, with its result once completed
+ */
+public record RiskJobDTO(String jobId, Type type, Long portfolioId, double confidence, int simulations,
+                         Priority priority, Status status, LocalDateTime submittedAt, LocalDateTime startedAt,
+                         LocalDateTime finishedAt, Object result, String error) {
+
+    public enum Type { MONTE_CARLO_VAR, STRESS_TESTS }
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.satyam.riskviewer_backend.dto;
+
+import com.satyam.riskviewer_backend.service.SamplingStrategy;
+
+/**
+ * Body of a risk job submission. Omitted fields take the service defaults.
+ */
+public record RiskJobRequest(RiskJobDTO.Type type, Long portfolioId, Double confidence, Integer simulations,
+                             SamplingStrategy sampling, RiskJobDTO.Priority priority) {}
@@ -0,0 +1,20 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Loss of every scenario of a stress grid, with its largest contributors.
+ * simulatedProducts counts the products revalued by Monte Carlo, whose
+ * losses are estimates.
+ */
+public record StressGridDTO(Long portfolioId, int positions, int products, int simulatedProducts,
+                            List<ScenarioResult> scenarios) {
+
+    /**
+     * Net loss of one scenario; a gain is negative
+     */
+    public record ScenarioResult(String name, BigDecimal loss, List<Contributor> topContributors) {}
+
+    public record Contributor(String instrument, Long portfolioId, BigDecimal loss) {}
+}
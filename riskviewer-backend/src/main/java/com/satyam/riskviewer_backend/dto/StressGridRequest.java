@@ -0,0 +1,10 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.util.List;
+
+import com.satyam.riskviewer_backend.model.StressScenario;
+
+/**
+ * Body of a stress grid run. A null portfolioId runs the grid against the whole book.
+ */
+public record StressGridRequest(Long portfolioId, List<StressScenario> scenarios, Integer topContributors) {}
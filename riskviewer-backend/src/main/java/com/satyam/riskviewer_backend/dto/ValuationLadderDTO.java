@@ -0,0 +1,15 @@
+package com.satyam.riskviewer_backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Revaluation ladder of one structured product for heatmaps.
+ *
+ * prices.get(day).get(vol).get(spot) is the per-unit price at daysForward[day],
+ * volShocks[vol] and spotShocks[spot]; P&L against today's unshocked price is
+ * units * (price - basePrice).
+ */
+public record ValuationLadderDTO(Long productId, String productCode, List<BigDecimal> spotShocks,
+                                 List<BigDecimal> volShocks, List<Integer> daysForward, BigDecimal basePrice,
+                                 BigDecimal units, List<List<List<BigDecimal>>> prices) {}
@@ -0,0 +1,50 @@
+package com.satyam.riskviewer_backend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything that changed during one market data tick.
+ *
+ * Published once per tick by RealTimeMarketDataService so listeners see a
+ * coalesced view of the tick instead of one event per symbol.
+ */
+public class MarketDataTickEvent {
+
+    /**
+     * New price of one symbol
+     */
+    public record PriceUpdate(String symbol, BigDecimal currentPrice, BigDecimal priceChange,
+                              double changePercent, BigDecimal volatility, LocalDateTime lastUpdated) {}
+
+    /**
+     * Greeks of a structured product that moved during the tick
+     */
+    public record GreeksUpdate(Long productId, String productCode, String underlyingAsset, Long portfolioId,
+                               BigDecimal delta, BigDecimal gamma, BigDecimal theta, BigDecimal vega,
+                               String riskStatus) {}
+
+    /**
+     * Risk alert raised during the tick
+     */
+    public record Alert(long id, String message, String severity, String alertType,
+                        Long portfolioId, String symbol, LocalDateTime timestamp) {}
+
+    private final long tick;
+    private final List<PriceUpdate> prices;
+    private final List<GreeksUpdate> greeks;
+    private final List<Alert> alerts;
+
+    public MarketDataTickEvent(long tick, List<PriceUpdate> prices, List<GreeksUpdate> greeks, List<Alert> alerts) {
+        this.tick = tick;
+        this.prices = List.copyOf(prices);
+        this.greeks = List.copyOf(greeks);
+        this.alerts = List.copyOf(alerts);
+    }
+
+    public long getTick() { return tick; }
+    public List<PriceUpdate> getPrices() { return prices; }
+    public List<GreeksUpdate> getGreeks() { return greeks; }
+    public List<Alert> getAlerts() { return alerts; }
+}
@@ -0,0 +1,67 @@
+package com.satyam.riskviewer_backend.event;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.satyam.riskviewer_backend.model.Position;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on Position that publishes a PositionsChangedEvent.
+ *
+ * Inside a transaction the touched portfolio ids are collected and published
+ * as a single event once the transaction commits; a rollback publishes
+ * nothing. Outside a transaction the event is published immediately.
+ */
+@Component
+public class PositionEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PositionEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void positionChanged(Position position) {
+        Long portfolioId = position.getPortfolioId();
+        if (portfolioId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(PositionsChangedEvent.of(portfolioId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> changed = new HashSet<>();
+            pending = changed;
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(new PositionsChangedEvent(changed));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PositionEntityListener.this);
+                }
+            });
+        }
+        pending.add(portfolioId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.satyam.riskviewer_backend.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Positions of one or more portfolios were inserted, updated or deleted.
+ *
+ * Published after the owning transaction commits, so listeners that reload
+ * from the database see the new rows.
+ */
+public class PositionsChangedEvent {
+
+    private final Set<Long> portfolioIds;
+
+    public PositionsChangedEvent(Collection<Long> portfolioIds) {
+        this.portfolioIds = Set.copyOf(portfolioIds);
+    }
+
+    public static PositionsChangedEvent of(Long portfolioId) {
+        return new PositionsChangedEvent(Set.of(portfolioId));
+    }
+
+    public Set<Long> getPortfolioIds() { return portfolioIds; }
+}
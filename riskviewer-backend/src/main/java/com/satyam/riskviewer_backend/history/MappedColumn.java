@@ -0,0 +1,172 @@
+package com.satyam.riskviewer_backend.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of 8-byte values, read and written through a memory mapping.
+ *
+ * Layout: a 32-byte header (magic, value count, one spare double for the
+ * owner, reserved) followed by little-endian longs or doubles. The file is
+ * mapped with spare capacity that doubles as it fills, so an append is a
+ * store into the mapping and readers scan the page cache in place without
+ * copying onto the heap.
+ *
+ * Single writer; readers see every value appended before the count they
+ * read. One mapping is limited to 2 GB, about 268 million values.
+ */
+final class MappedColumn implements Closeable {
+
+    private static final long MAGIC = 0x52564F4C43000001L;
+    static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 8;
+    private static final int AUX_OFFSET = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / Long.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private volatile int count;
+    private int capacity;
+
+    private MappedColumn(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Map an existing column, or create an empty one
+     */
+    static MappedColumn open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedColumn column = new MappedColumn(path, channel);
+        try {
+            column.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return column;
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            remap(INITIAL_CAPACITY);
+            buffer.putLong(0, MAGIC);
+            buffer.putDouble(AUX_OFFSET, Double.NaN);
+            return;
+        }
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("Truncated column file " + path);
+        }
+
+        remap((int) Math.min((fileSize - HEADER_BYTES) / Long.BYTES, MAX_CAPACITY));
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not a column file: " + path);
+        }
+        long stored = buffer.getLong(COUNT_OFFSET);
+        if (stored < 0 || stored > capacity) {
+            throw new IOException("Corrupt value count " + stored + " in " + path);
+        }
+        count = (int) stored;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Current mapping, covering at least the first {@link #size()} values
+     * read before this call. Absolute reads on it are safe from any thread.
+     */
+    ByteBuffer mapping() {
+        return buffer;
+    }
+
+    long getLong(int index) {
+        return buffer.getLong(HEADER_BYTES + index * Long.BYTES);
+    }
+
+    double getDouble(int index) {
+        return buffer.getDouble(HEADER_BYTES + index * Long.BYTES);
+    }
+
+    /**
+     * Spare header slot, NaN until the owner sets it
+     */
+    double aux() {
+        return buffer.getDouble(AUX_OFFSET);
+    }
+
+    void setAux(double value) {
+        buffer.putDouble(AUX_OFFSET, value);
+    }
+
+    void appendLong(long value) throws IOException {
+        int index = reserve();
+        buffer.putLong(HEADER_BYTES + index * Long.BYTES, value);
+        publish(index + 1);
+    }
+
+    void appendDouble(double value) throws IOException {
+        int index = reserve();
+        buffer.putDouble(HEADER_BYTES + index * Long.BYTES, value);
+        publish(index + 1);
+    }
+
+    /**
+     * Drop values past {@code size}; a no-op when the column is not longer
+     */
+    void truncate(int size) {
+        if (size < count) {
+            publish(size);
+        }
+    }
+
+    /**
+     * Flush the mapped pages to disk
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int reserve() throws IOException {
+        int index = count;
+        if (index == capacity) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IOException("Column " + path + " is full");
+            }
+            remap((int) Math.min(2L * capacity, MAX_CAPACITY));
+        }
+        return index;
+    }
+
+    private void publish(int newCount) {
+        buffer.putLong(COUNT_OFFSET, newCount);
+        count = newCount; // volatile write makes the value visible to readers
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        // READ_WRITE mappings grow the file; the previous mapping stays valid for readers still holding it
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+            HEADER_BYTES + (long) newCapacity * Long.BYTES);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        buffer = mapped;
+        capacity = newCapacity;
+    }
+}
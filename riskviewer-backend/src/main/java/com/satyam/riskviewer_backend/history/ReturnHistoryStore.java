@@ -0,0 +1,213 @@
+package com.satyam.riskviewer_backend.history;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * On-disk history of daily and intraday log returns per symbol.
+ *
+ * Each symbol has a daily and an intraday {@link ReturnSeries} under
+ * app.history.directory. Nothing is read at startup: a series is mapped the
+ * first time it is asked for, and symbols without files cost nothing.
+ * History is loaded from CSV closes and then extended by the market data
+ * ticks - every tick is an intraday return, and the last tick of a day
+ * becomes that day's close once the next day's first tick arrives.
+ */
+@Component
+public class ReturnHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReturnHistoryStore.class);
+    private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9._-]{1,32}");
+
+    /**
+     * Outcome of one CSV import
+     */
+    public record ImportResult(long rows, long accepted, long skipped, int symbols) {}
+
+    private final Path dailyDirectory;
+    private final Path intradayDirectory;
+    private final boolean recordTicks;
+
+    private final Map<String, ReturnSeries> daily = new ConcurrentHashMap<>();
+    private final Map<String, ReturnSeries> intraday = new ConcurrentHashMap<>();
+    private final Map<String, LastTick> lastTicks = new ConcurrentHashMap<>();
+
+    public ReturnHistoryStore(@Value("${app.history.directory:${java.io.tmpdir}/riskviewer-history}") Path directory,
+                              @Value("${app.history.record-ticks:true}") boolean recordTicks) {
+        this.dailyDirectory = directory.resolve("daily");
+        this.intradayDirectory = directory.resolve("intraday");
+        this.recordTicks = recordTicks;
+    }
+
+    /**
+     * Daily returns keyed by epoch day, or null when the symbol has no history
+     */
+    public ReturnSeries daily(String symbol) {
+        return existing(daily, dailyDirectory, symbol);
+    }
+
+    /**
+     * Intraday returns keyed by epoch millisecond, or null when the symbol has no history
+     */
+    public ReturnSeries intraday(String symbol) {
+        return existing(intraday, intradayDirectory, symbol);
+    }
+
+    /**
+     * Record a daily close; closes on or before the last stored day are ignored
+     *
+     * @return true when a return was appended
+     */
+    public boolean appendDailyClose(String symbol, LocalDate date, double close) throws IOException {
+        return series(daily, dailyDirectory, symbol).appendLevel(date.toEpochDay(), close);
+    }
+
+    /**
+     * Import daily closes from CSV lines of symbol,date,close
+     *
+     * Dates are ISO (yyyy-MM-dd) and must be ascending per symbol. A header
+     * line, blank lines and malformed or out-of-order rows are skipped.
+     */
+    public ImportResult importCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Set<String> symbols = new HashSet<>();
+        long rows = 0;
+        long accepted = 0;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank() || (rows == 0 && line.regionMatches(true, 0, "symbol", 0, 6))) {
+                continue;
+            }
+            rows++;
+
+            int first = line.indexOf(',');
+            int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+            if (second < 0) {
+                continue;
+            }
+            String symbol = line.substring(0, first).trim();
+            try {
+                LocalDate date = LocalDate.parse(line.substring(first + 1, second).trim());
+                double close = Double.parseDouble(line.substring(second + 1).trim());
+                if (!SYMBOL.matcher(symbol).matches()) {
+                    continue;
+                }
+                // The first close of a symbol only anchors its series, but still counts as accepted
+                ReturnSeries series = series(daily, dailyDirectory, symbol);
+                boolean anchoring = Double.isNaN(series.lastLevel());
+                if (series.appendLevel(date.toEpochDay(), close) || (anchoring && !Double.isNaN(series.lastLevel()))) {
+                    accepted++;
+                    symbols.add(symbol);
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                // Counted as skipped
+            }
+        }
+
+        daily.values().forEach(ReturnSeries::force);
+        return new ImportResult(rows, accepted, rows - accepted, symbols.size());
+    }
+
+    /**
+     * Extend the history with every price in the tick
+     */
+    @EventListener
+    public void onMarketDataTick(MarketDataTickEvent event) {
+        if (!recordTicks) {
+            return;
+        }
+
+        for (MarketDataTickEvent.PriceUpdate update : event.getPrices()) {
+            LocalDateTime time = update.lastUpdated() != null ? update.lastUpdated() : LocalDateTime.now();
+            double price = update.currentPrice().doubleValue();
+            try {
+                long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                series(intraday, intradayDirectory, update.symbol()).appendLevel(millis, price);
+
+                LastTick previous = lastTicks.put(update.symbol(), new LastTick(time.toLocalDate(), price));
+                if (previous != null && previous.date.isBefore(time.toLocalDate())) {
+                    appendDailyClose(update.symbol(), previous.date, previous.price);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Could not record history for {}: {}", update.symbol(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closeAll(daily);
+        closeAll(intraday);
+    }
+
+    private ReturnSeries existing(Map<String, ReturnSeries> open, Path directory, String symbol) {
+        ReturnSeries series = open.get(symbol);
+        if (series != null || !SYMBOL.matcher(symbol).matches()
+            || !Files.exists(directory.resolve(symbol + ".keys"))) {
+            return series;
+        }
+        try {
+            return series(open, directory, symbol);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ReturnSeries series(Map<String, ReturnSeries> open, Path directory, String symbol) throws IOException {
+        ReturnSeries series = open.get(symbol);
+        if (series != null) {
+            return series;
+        }
+        if (!SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Invalid symbol for history: " + symbol);
+        }
+        synchronized (open) {
+            series = open.get(symbol);
+            if (series == null) {
+                series = ReturnSeries.open(directory, symbol);
+                open.put(symbol, series);
+            }
+            return series;
+        }
+    }
+
+    private void closeAll(Map<String, ReturnSeries> open) {
+        for (Map.Entry<String, ReturnSeries> entry : open.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                logger.warn("Could not close history of {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        open.clear();
+    }
+
+    /**
+     * Latest tick of a symbol, the candidate close of its day
+     */
+    private record LastTick(LocalDate date, double price) {}
+}
@@ -0,0 +1,165 @@
+package com.satyam.riskviewer_backend.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Log returns of one symbol at one frequency, as two parallel columns.
+ *
+ * Keys are epoch days for daily series and epoch milliseconds for intraday
+ * series, strictly increasing. The price level the last return ended on is
+ * kept in the returns file header so the next price extends the series
+ * without re-reading it.
+ */
+public final class ReturnSeries implements Closeable {
+
+    private final MappedColumn keys;
+    private final MappedColumn returns;
+
+    private ReturnSeries(MappedColumn keys, MappedColumn returns) {
+        this.keys = keys;
+        this.returns = returns;
+    }
+
+    static ReturnSeries open(Path directory, String symbol) throws IOException {
+        Files.createDirectories(directory);
+        MappedColumn keys = MappedColumn.open(directory.resolve(symbol + ".keys"));
+        try {
+            MappedColumn returns = MappedColumn.open(directory.resolve(symbol + ".returns"));
+            // A crash between the two appends leaves one extra return, dropped here
+            returns.truncate(keys.size());
+            return new ReturnSeries(keys, returns);
+        } catch (IOException | RuntimeException e) {
+            keys.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public long key(int index) {
+        return keys.getLong(index);
+    }
+
+    public double logReturn(int index) {
+        return returns.getDouble(index);
+    }
+
+    /**
+     * Last key, or Long.MIN_VALUE for an empty series
+     */
+    public long lastKey() {
+        int size = size();
+        return size == 0 ? Long.MIN_VALUE : key(size - 1);
+    }
+
+    /**
+     * Price level after the last return, NaN before the first price
+     */
+    public double lastLevel() {
+        return returns.aux();
+    }
+
+    /**
+     * Index of the first entry with a key at or after {@code key}
+     */
+    public int lowerBound(long key) {
+        return view().lowerBound(key);
+    }
+
+    /**
+     * Fixed view of the entries appended so far, for scanning in a tight loop
+     */
+    public View view() {
+        int size = keys.size(); // read before the mappings, which then cover it
+        return new View(keys.mapping(), returns.mapping(), size);
+    }
+
+    /**
+     * Extend the series with a new price level
+     *
+     * The first level only anchors the series. Keys at or before the last
+     * one are ignored, since the store is append-only.
+     *
+     * @return true when a return was appended
+     */
+    synchronized boolean appendLevel(long key, double level) throws IOException {
+        if (!(level > 0.0) || key <= lastKey()) {
+            return false;
+        }
+        double previous = lastLevel();
+        returns.setAux(level);
+        if (Double.isNaN(previous)) {
+            return false;
+        }
+
+        // Returns first, keys second: a reader bounded by the key count never sees a missing return
+        returns.appendDouble(Math.log(level / previous));
+        keys.appendLong(key);
+        return true;
+    }
+
+    void force() {
+        keys.force();
+        returns.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            keys.close();
+        } finally {
+            returns.close();
+        }
+    }
+
+    /**
+     * Entries of a series up to a fixed size, read straight from the mappings
+     */
+    public static final class View {
+
+        private final ByteBuffer keys;
+        private final ByteBuffer returns;
+        private final int size;
+
+        private View(ByteBuffer keys, ByteBuffer returns, int size) {
+            this.keys = keys;
+            this.returns = returns;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long key(int index) {
+            return keys.getLong(MappedColumn.HEADER_BYTES + index * Long.BYTES);
+        }
+
+        public double logReturn(int index) {
+            return returns.getDouble(MappedColumn.HEADER_BYTES + index * Long.BYTES);
+        }
+
+        /**
+         * Index of the first entry with a key at or after {@code key}
+         */
+        public int lowerBound(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (key(mid) < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Single-producer, single-consumer tick ring that conflates per symbol.
+ *
+ * The feed thread writes ticks into preallocated primitive columns and
+ * publishes them with an ordered store; the engine thread drains everything
+ * published so far and keeps only the latest tick of each symbol. While the
+ * engine keeps up every tick passes through the ring. When it falls a full
+ * ring behind, the producer stops queueing and instead overwrites a
+ * per-symbol overflow slot, so a slow engine sees fewer, fresher ticks and
+ * memory stays bounded by the ring capacity plus one slot per symbol.
+ *
+ * Every tick carries the order in which it was offered, and the consumer
+ * never applies a tick older than one it has already applied for the same
+ * symbol, whichever path either of them took.
+ */
+public final class ConflatingTickRing implements TickSink {
+
+    /**
+     * One drain: the latest tick of each symbol that moved, how many raw ticks
+     * were read, and the feed timestamp of the oldest of them
+     */
+    public record Drain(List<Tick> ticks, int read, long oldestTimestamp) {}
+
+    private record Pending(double price, double volatility, long timestamp, long sequence) {}
+
+    private final int mask;
+    private final int maxSymbols;
+
+    // Ring columns, written by the producer before it publishes the slot
+    private final int[] slotSymbol;
+    private final double[] slotPrice;
+    private final double[] slotVolatility;
+    private final long[] slotTimestamp;
+    private final long[] slotSequence;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    // Symbols by id and the overflow slot of each
+    private final AtomicReferenceArray<String> symbols;
+    private final AtomicReferenceArray<Pending> overflow;
+    private final AtomicBoolean overflowPending = new AtomicBoolean();
+    private volatile int symbolCount;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+
+    // Producer only
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private long next;
+    private long cachedConsumed;
+    private long offerSequence;
+
+    // Consumer only: the tick chosen for each symbol in the current drain, and the last one applied
+    private final long[] batchSequence;
+    private final double[] batchPrice;
+    private final double[] batchVolatility;
+    private final long[] batchTimestamp;
+    private final int[] touched;
+    private final long[] appliedSequence;
+
+    /**
+     * @param capacity   ticks queued before the producer starts conflating, rounded up to a power of two
+     * @param maxSymbols distinct symbols accepted; ticks of further symbols are rejected
+     */
+    public ConflatingTickRing(int capacity, int maxSymbols) {
+        if (capacity < 2 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("Tick ring capacity must be between 2 and 2^28, got " + capacity);
+        }
+        if (maxSymbols < 1) {
+            throw new IllegalArgumentException("At least one symbol is required, got " + maxSymbols);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.maxSymbols = maxSymbols;
+
+        slotSymbol = new int[size];
+        slotPrice = new double[size];
+        slotVolatility = new double[size];
+        slotTimestamp = new long[size];
+        slotSequence = new long[size];
+
+        symbols = new AtomicReferenceArray<>(maxSymbols);
+        overflow = new AtomicReferenceArray<>(maxSymbols);
+
+        batchSequence = new long[maxSymbols];
+        batchPrice = new double[maxSymbols];
+        batchVolatility = new double[maxSymbols];
+        batchTimestamp = new long[maxSymbols];
+        touched = new int[maxSymbols];
+        appliedSequence = new long[maxSymbols];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public boolean offer(String symbol, double price, double volatility, long timestamp) {
+        received.incrementAndGet();
+        if (symbol == null || !(price > 0.0) || price == Double.POSITIVE_INFINITY) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            if (symbolIds.size() >= maxSymbols) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            id = symbolIds.size();
+            symbolIds.put(symbol, id);
+            symbols.set(id, symbol);
+            symbolCount = id + 1;
+        }
+        long sequence = ++offerSequence;
+
+        if (next - cachedConsumed > mask) {
+            cachedConsumed = consumed.get();
+            if (next - cachedConsumed > mask) {
+                // The engine is a full ring behind: keep only the latest tick of the symbol
+                if (overflow.getAndSet(id, new Pending(price, volatility, timestamp, sequence)) != null) {
+                    conflated.incrementAndGet();
+                }
+                overflowPending.set(true);
+                return true;
+            }
+        }
+
+        int slot = (int) (next & mask);
+        slotSymbol[slot] = id;
+        slotPrice[slot] = price;
+        slotVolatility[slot] = volatility;
+        slotTimestamp[slot] = timestamp;
+        slotSequence[slot] = sequence;
+        published.lazySet(++next);
+        return true;
+    }
+
+    /**
+     * Take up to maxTicks queued ticks plus any overflow, conflated to the latest tick per symbol.
+     * Only the consumer thread may call this.
+     */
+    public Drain drain(int maxTicks) {
+        long start = consumed.get();
+        long end = Math.min(published.get(), start + maxTicks);
+        int touchedCount = 0;
+        long oldest = Long.MAX_VALUE;
+
+        for (long position = start; position < end; position++) {
+            int slot = (int) (position & mask);
+            int id = slotSymbol[slot];
+            touchedCount = consider(id, slotSequence[slot], slotPrice[slot], slotVolatility[slot],
+                                    slotTimestamp[slot], touchedCount);
+            oldest = Math.min(oldest, slotTimestamp[slot]);
+        }
+        consumed.lazySet(end);
+        int read = (int) (end - start);
+
+        if (overflowPending.getAndSet(false)) {
+            int count = symbolCount;
+            for (int id = 0; id < count; id++) {
+                Pending pending = overflow.getAndSet(id, null);
+                if (pending != null) {
+                    touchedCount = consider(id, pending.sequence(), pending.price(), pending.volatility(),
+                                            pending.timestamp(), touchedCount);
+                    oldest = Math.min(oldest, pending.timestamp());
+                    read++;
+                }
+            }
+        }
+
+        List<Tick> ticks = new ArrayList<>(touchedCount);
+        for (int k = 0; k < touchedCount; k++) {
+            int id = touched[k];
+            if (batchSequence[id] > appliedSequence[id]) {
+                appliedSequence[id] = batchSequence[id];
+                ticks.add(new Tick(symbols.get(id), batchPrice[id], batchVolatility[id], batchTimestamp[id]));
+            } else {
+                conflated.incrementAndGet(); // Older than a tick already applied
+            }
+            batchSequence[id] = 0;
+        }
+        delivered.addAndGet(ticks.size());
+        return new Drain(ticks, read, oldest);
+    }
+
+    private int consider(int id, long sequence, double price, double volatility, long timestamp, int touchedCount) {
+        if (batchSequence[id] == 0) {
+            touched[touchedCount++] = id;
+        } else {
+            conflated.incrementAndGet();
+            if (sequence < batchSequence[id]) {
+                return touchedCount;
+            }
+        }
+        batchSequence[id] = sequence;
+        batchPrice[id] = price;
+        batchVolatility[id] = volatility;
+        batchTimestamp[id] = timestamp;
+        return touchedCount;
+    }
+
+    /**
+     * Ticks queued in the ring and not yet drained
+     */
+    public long depth() {
+        return Math.max(0, published.get() - consumed.get());
+    }
+
+    public long received() {
+        return received.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long delivered() {
+        return delivered.get();
+    }
+
+    /**
+     * Ticks superseded by a newer tick of the same symbol before the engine saw them
+     */
+    public long conflated() {
+        return conflated.get();
+    }
+}
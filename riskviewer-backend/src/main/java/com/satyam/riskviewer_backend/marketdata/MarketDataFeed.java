@@ -0,0 +1,25 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+/**
+ * Source of market data ticks.
+ *
+ * Exactly one feed bean is active, chosen by app.market-data.feed. The
+ * pipeline calls {@link #run} once on a dedicated thread; a feed publishes
+ * into the sink from that thread only, for as long as it has data or until
+ * {@link #stop} is called. A vendor adapter implements this interface and
+ * registers itself under its own app.market-data.feed value.
+ */
+public interface MarketDataFeed {
+
+    String name();
+
+    /**
+     * Publish ticks until the feed ends or is stopped
+     */
+    void run(TickSink sink) throws Exception;
+
+    /**
+     * Ask run to return; called from another thread
+     */
+    void stop();
+}
@@ -0,0 +1,138 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.service.PerformanceMonitoringService;
+import com.satyam.riskviewer_backend.service.RealTimeMarketDataService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Connects the configured feed to the revaluation engine.
+ *
+ * The feed runs on its own thread and publishes into a
+ * {@link ConflatingTickRing}; a second thread drains the ring and hands
+ * each batch, at most one tick per symbol, to
+ * {@link RealTimeMarketDataService#applyTicks}. A burst the engine cannot
+ * keep up with is conflated instead of queued, so the engine always works
+ * on the latest prices and the pipeline holds a fixed amount of memory.
+ * Ring depth, tick counts and feed-to-engine lag are published as
+ * riskviewer.marketdata.* metrics.
+ */
+@Component
+public class MarketDataPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataPipeline.class);
+
+    private final MarketDataFeed feed;
+    private final RealTimeMarketDataService marketDataService;
+    private final PerformanceMonitoringService performanceMonitoringService;
+    private final ConflatingTickRing ring;
+    private final int maxBatch;
+    private final long idleParkNanos;
+
+    private volatile boolean running;
+    private volatile long lastLagMs;
+    private Thread feedThread;
+    private Thread engineThread;
+
+    public MarketDataPipeline(MarketDataFeed feed,
+                              RealTimeMarketDataService marketDataService,
+                              PerformanceMonitoringService performanceMonitoringService,
+                              @Value("${app.market-data.ring-capacity:65536}") int ringCapacity,
+                              @Value("${app.market-data.max-symbols:16384}") int maxSymbols,
+                              @Value("${app.market-data.max-batch:65536}") int maxBatch,
+                              @Value("${app.market-data.idle-park-micros:200}") long idleParkMicros) {
+        this.feed = feed;
+        this.marketDataService = marketDataService;
+        this.performanceMonitoringService = performanceMonitoringService;
+        this.ring = new ConflatingTickRing(ringCapacity, maxSymbols);
+        this.maxBatch = maxBatch;
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(idleParkMicros);
+
+        performanceMonitoringService.registerGauge("riskviewer.marketdata.ring.depth",
+            "Ticks queued between the feed and the engine", ring::depth);
+        performanceMonitoringService.registerCounter("riskviewer.marketdata.ticks.received",
+            "Ticks published by the feed", ring, ConflatingTickRing::received);
+        performanceMonitoringService.registerCounter("riskviewer.marketdata.ticks.delivered",
+            "Ticks applied by the engine", ring, ConflatingTickRing::delivered);
+        performanceMonitoringService.registerCounter("riskviewer.marketdata.ticks.conflated",
+            "Ticks superseded by a newer tick of the same symbol", ring, ConflatingTickRing::conflated);
+        performanceMonitoringService.registerCounter("riskviewer.marketdata.ticks.rejected",
+            "Ticks rejected for an invalid price or a full symbol table", ring, ConflatingTickRing::rejected);
+        performanceMonitoringService.registerGauge("riskviewer.marketdata.lag.last",
+            "Milliseconds from feed to engine of the oldest tick in the last batch", () -> lastLagMs);
+    }
+
+    /**
+     * Start the feed and engine threads once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        engineThread = new Thread(this::drainLoop, "market-data-engine");
+        engineThread.setDaemon(true);
+        engineThread.start();
+
+        feedThread = new Thread(this::feedLoop, "market-data-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+        logger.info("Market data pipeline started with feed {} and a {}-tick ring", feed.name(), ring.capacity());
+    }
+
+    private void feedLoop() {
+        try {
+            feed.run(ring);
+            logger.info("Market data feed {} ended", feed.name());
+        } catch (Exception e) {
+            logger.error("Market data feed {} failed", feed.name(), e);
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            ConflatingTickRing.Drain drain = ring.drain(maxBatch);
+            if (drain.read() == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            if (!drain.ticks().isEmpty()) {
+                try {
+                    marketDataService.applyTicks(drain.ticks());
+                } catch (RuntimeException e) {
+                    logger.warn("Could not apply {} ticks: {}", drain.ticks().size(), e.getMessage(), e);
+                }
+            }
+            long lag = Math.max(0, System.currentTimeMillis() - drain.oldestTimestamp());
+            lastLagMs = lag;
+            performanceMonitoringService.recordMarketDataLag(lag);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        feed.stop();
+        if (feedThread != null) {
+            feedThread.interrupt();
+        }
+        if (engineThread != null) {
+            try {
+                engineThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latest quote of every symbol, one row per {@link SymbolDictionary} id.
+ *
+ * Fields live in parallel primitive arrays, so a quote costs a few dozen
+ * bytes and updating one allocates nothing. Each row has a seqlock version:
+ * the writer makes it odd, writes the fields and makes it even again; a
+ * reader copies the fields between two reads of the version and retries
+ * if the version was odd or moved. Readers never block the writer and
+ * never see a half-applied quote. There is one writer, the market data
+ * engine thread, or whoever seeds the table before that thread starts.
+ * A row whose version is still 0 has never been written and reads as absent.
+ */
+public final class QuoteTable {
+
+    /**
+     * A consistent copy of one row
+     *
+     * @param updatedAt epoch nanoseconds of the last update
+     */
+    public record Quote(String symbol, double price, double change, double volatility, long updatedAt) {}
+
+    private final SymbolDictionary symbols;
+    private final AtomicLongArray versions;
+    private final double[] prices;
+    private final double[] changes;
+    private final double[] volatilities;
+    private final long[] updatedAt;
+
+    /**
+     * @param capacity most symbols the table will hold
+     */
+    public QuoteTable(int capacity) {
+        this.symbols = new SymbolDictionary(capacity);
+        this.versions = new AtomicLongArray(capacity);
+        this.prices = new double[capacity];
+        this.changes = new double[capacity];
+        this.volatilities = new double[capacity];
+        this.updatedAt = new long[capacity];
+    }
+
+    public SymbolDictionary symbols() {
+        return symbols;
+    }
+
+    /**
+     * Write a symbol's quote, adding the symbol if it is new
+     *
+     * @return the symbol's id, or -1 when the table is full
+     */
+    public int put(String symbol, double price, double change, double volatility, long updatedAtNanos) {
+        int id = symbols.intern(symbol);
+        if (id >= 0) {
+            put(id, price, change, volatility, updatedAtNanos);
+        }
+        return id;
+    }
+
+    public void put(int id, double price, double change, double volatility, long updatedAtNanos) {
+        long version = versions.getPlain(id);
+        versions.setOpaque(id, version + 1);
+        VarHandle.storeStoreFence();
+        prices[id] = price;
+        changes[id] = change;
+        volatilities[id] = volatility;
+        updatedAt[id] = updatedAtNanos;
+        versions.setRelease(id, version + 2);
+    }
+
+    /**
+     * Price of a symbol id, NaN before its first quote
+     */
+    public double price(int id) {
+        while (true) {
+            long version = versions.getAcquire(id);
+            if (version == 0) {
+                return Double.NaN;
+            }
+            double price = prices[id];
+            if (validate(id, version)) {
+                return price;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Implied volatility of a symbol id, NaN before its first quote
+     */
+    public double volatility(int id) {
+        while (true) {
+            long version = versions.getAcquire(id);
+            if (version == 0) {
+                return Double.NaN;
+            }
+            double volatility = volatilities[id];
+            if (validate(id, version)) {
+                return volatility;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Consistent copy of a symbol's quote, or null for an unknown symbol
+     */
+    public Quote quote(String symbol) {
+        int id = symbols.idOf(symbol);
+        return id < 0 ? null : quote(id);
+    }
+
+    /**
+     * Consistent copy of a row, or null before its first quote
+     */
+    public Quote quote(int id) {
+        while (true) {
+            long version = versions.getAcquire(id);
+            if (version == 0) {
+                return null;
+            }
+            double price = prices[id];
+            double change = changes[id];
+            double volatility = volatilities[id];
+            long updated = updatedAt[id];
+            if (validate(id, version)) {
+                return new Quote(symbols.symbol(id), price, change, volatility, updated);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean validate(int id, long version) {
+        VarHandle.loadLoadFence();
+        return (version & 1) == 0 && versions.getOpaque(id) == version;
+    }
+
+    /**
+     * Symbols in the table; ids run from 0 to size() - 1
+     */
+    public int size() {
+        return symbols.size();
+    }
+}
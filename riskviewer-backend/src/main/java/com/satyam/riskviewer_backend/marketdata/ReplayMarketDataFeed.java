@@ -0,0 +1,132 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replays recorded ticks from a CSV file of timestamp,symbol,price[,volatility].
+ *
+ * Timestamps are epoch milliseconds, ISO instants or ISO local date-times in
+ * the system zone. Blank lines, # comments and lines that do not parse, such
+ * as a header, are skipped. Ticks are paced by their recorded spacing divided
+ * by app.market-data.replay.speed, or sent as fast as the pipeline takes them
+ * when the speed is 0, and are stamped with the time they are replayed so lag
+ * metrics stay meaningful.
+ */
+@Component
+@ConditionalOnProperty(name = "app.market-data.feed", havingValue = "replay")
+public class ReplayMarketDataFeed implements MarketDataFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayMarketDataFeed.class);
+
+    private final Path file;
+    private final double speed;
+    private final boolean loop;
+    private volatile boolean running = true;
+
+    public ReplayMarketDataFeed(@Value("${app.market-data.replay.file}") Path file,
+                                @Value("${app.market-data.replay.speed:1.0}") double speed,
+                                @Value("${app.market-data.replay.loop:false}") boolean loop) {
+        if (speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("Replay speed must be 0 or positive, got " + speed);
+        }
+        this.file = file;
+        this.speed = speed;
+        this.loop = loop;
+    }
+
+    @Override
+    public String name() {
+        return "replay:" + file.getFileName();
+    }
+
+    @Override
+    public void run(TickSink sink) throws IOException {
+        do {
+            long replayed = replay(sink);
+            logger.info("Replayed {} ticks from {}", replayed, file);
+        } while (loop && running);
+    }
+
+    private long replay(TickSink sink) throws IOException {
+        long replayed = 0;
+        long skipped = 0;
+        long firstTimestamp = Long.MIN_VALUE;
+        long startNanos = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length < 3) {
+                    skipped++;
+                    continue;
+                }
+                long timestamp;
+                double price;
+                double volatility = Double.NaN;
+                try {
+                    timestamp = parseTimestamp(fields[0].strip());
+                    price = Double.parseDouble(fields[2].strip());
+                    if (fields.length > 3 && !fields[3].isBlank()) {
+                        volatility = Double.parseDouble(fields[3].strip());
+                    }
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    skipped++;
+                    continue;
+                }
+
+                if (speed > 0) {
+                    if (firstTimestamp == Long.MIN_VALUE) {
+                        firstTimestamp = timestamp;
+                    }
+                    long dueNanos = startNanos + (long) ((timestamp - firstTimestamp) * 1_000_000L / speed);
+                    long waitNanos;
+                    while (running && (waitNanos = dueNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                        if (Thread.currentThread().isInterrupted()) {
+                            return replayed;
+                        }
+                    }
+                }
+                sink.offer(fields[1].strip(), price, volatility, System.currentTimeMillis());
+                replayed++;
+            }
+        }
+        if (skipped > 0) {
+            logger.warn("Skipped {} unparsable lines in {}", skipped, file);
+        }
+        return replayed;
+    }
+
+    static long parseTimestamp(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        if (value.endsWith("Z") || value.endsWith("z")) {
+            return Instant.parse(value).toEpochMilli();
+        }
+        return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+}
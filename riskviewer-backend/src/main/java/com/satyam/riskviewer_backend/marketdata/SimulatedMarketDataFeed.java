@@ -0,0 +1,65 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.service.RealTimeMarketDataService;
+
+/**
+ * Simulated feed: a random walk of the major symbols every
+ * app.market-data.simulated.interval-ms, starting from the prices the engine
+ * last applied. This is the default feed until a vendor adapter is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "app.market-data.feed", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedMarketDataFeed implements MarketDataFeed {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "TSLA", "NVDA", "AMZN", "SPY", "TLT", "VXX", "BITO"};
+
+    private final RealTimeMarketDataService marketDataService;
+    private final long intervalMs;
+    private volatile boolean running = true;
+
+    public SimulatedMarketDataFeed(RealTimeMarketDataService marketDataService,
+                                   @Value("${app.market-data.simulated.interval-ms:30000}") long intervalMs) {
+        this.marketDataService = marketDataService;
+        this.intervalMs = intervalMs;
+    }
+
+    @Override
+    public String name() {
+        return "simulated";
+    }
+
+    @Override
+    public void run(TickSink sink) {
+        Random random = new Random();
+        while (running) {
+            long now = System.currentTimeMillis();
+            for (String symbol : SYMBOLS) {
+                BigDecimal currentPrice = marketDataService.getCurrentPrice(symbol);
+                if (currentPrice != null) {
+                    // Generate realistic price movement (-2% to +2%)
+                    double changePercent = (random.nextGaussian() * 0.005); // 0.5% std dev
+                    changePercent = Math.max(-0.02, Math.min(0.02, changePercent)); // Cap at ±2%
+                    sink.offer(symbol, currentPrice.doubleValue() * (1 + changePercent), Double.NaN, now);
+                }
+            }
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+}
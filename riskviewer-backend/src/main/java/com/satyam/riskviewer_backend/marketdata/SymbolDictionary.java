@@ -0,0 +1,74 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns each symbol a dense int id, starting at 0, so per-symbol state can
+ * live in plain arrays indexed by id. Ids are never reused or removed.
+ * Lookups are lock-free; interning a new symbol takes a lock.
+ */
+public final class SymbolDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> symbols;
+    private volatile int size;
+
+    /**
+     * @param capacity most symbols the dictionary will hold
+     */
+    public SymbolDictionary(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Symbol capacity must be positive, got " + capacity);
+        }
+        this.symbols = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Id of a known symbol, or -1
+     */
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Id of the symbol, assigning the next one if it is new, or -1 when the dictionary is full
+     */
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == symbols.length()) {
+                return -1;
+            }
+            symbols.set(next, symbol);
+            ids.put(symbol, next);
+            size = next + 1;
+            return next;
+        }
+    }
+
+    public String symbol(int id) {
+        return symbols.get(id);
+    }
+
+    /**
+     * Symbols interned so far; ids run from 0 to size() - 1
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return symbols.length();
+    }
+}
@@ -0,0 +1,9 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+/**
+ * Latest market data of one symbol as handed to the revaluation engine
+ *
+ * @param volatility implied volatility, NaN when the feed does not provide one
+ * @param timestamp  epoch milliseconds at which the feed published the tick
+ */
+public record Tick(String symbol, double price, double volatility, long timestamp) {}
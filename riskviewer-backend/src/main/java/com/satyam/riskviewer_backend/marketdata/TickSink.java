@@ -0,0 +1,16 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+/**
+ * Where a feed publishes its ticks. Only the feed thread calls it.
+ */
+@FunctionalInterface
+public interface TickSink {
+
+    /**
+     * Publish a tick; never blocks
+     *
+     * @param volatility implied volatility, or NaN when the feed has none
+     * @return false when the tick was rejected (invalid price or symbol table full)
+     */
+    boolean offer(String symbol, double price, double volatility, long timestamp);
+}
@@ -0,0 +1,95 @@
+package com.satyam.riskviewer_backend.model;
+
+import java.util.List;
+
+import com.satyam.riskviewer_backend.numeric.KahanSum;
+
+/**
+ * Immutable, column-oriented view of a portfolio's positions.
+ *
+ * Loaded once per request so that every risk metric can be computed
+ * from the same data without going back to the database. Quantities,
+ * prices and values are held as primitive doubles; the total is a
+ * compensated sum so it stays exact to the cent for realistic books.
+ */
+public final class PortfolioSnapshot {
+
+    private final Long portfolioId;
+    private final String[] symbols;
+    private final String[] types;
+    private final double[] quantities;
+    private final double[] prices;
+    private final double[] values;
+    private final double[] weights;
+    private final double totalValue;
+
+    private PortfolioSnapshot(Long portfolioId, String[] symbols, String[] types,
+                              double[] quantities, double[] prices, double[] values,
+                              double[] weights, double totalValue) {
+        this.portfolioId = portfolioId;
+        this.symbols = symbols;
+        this.types = types;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.values = values;
+        this.weights = weights;
+        this.totalValue = totalValue;
+    }
+
+    /**
+     * Build a snapshot from the positions of one portfolio
+     */
+    public static PortfolioSnapshot of(Long portfolioId, List<Position> positions) {
+        int count = positions.size();
+        String[] symbols = new String[count];
+        String[] types = new String[count];
+        double[] quantities = new double[count];
+        double[] prices = new double[count];
+        double[] values = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            Position position = positions.get(i);
+            symbols[i] = position.getSymbol();
+            types[i] = position.getType();
+            quantities[i] = position.getQuantity().doubleValue();
+            prices[i] = position.getPurchasePrice().doubleValue();
+            values[i] = quantities[i] * prices[i];
+        }
+
+        double totalValue = KahanSum.of(values, count);
+        double[] weights = new double[count];
+        if (totalValue != 0.0) {
+            for (int i = 0; i < count; i++) {
+                weights[i] = values[i] / totalValue;
+            }
+        }
+
+        return new PortfolioSnapshot(portfolioId, symbols, types, quantities, prices, values, weights, totalValue);
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+
+    public int size() { return symbols.length; }
+
+    public boolean isEmpty() { return symbols.length == 0; }
+
+    public double getTotalValue() { return totalValue; }
+
+    public String symbol(int index) { return symbols[index]; }
+
+    public String type(int index) { return types[index]; }
+
+    public double quantity(int index) { return quantities[index]; }
+
+    public double price(int index) { return prices[index]; }
+
+    /**
+     * Position value (quantity * purchase price)
+     */
+    public double value(int index) { return values[index]; }
+
+    /**
+     * Position value as a fraction of the portfolio total, zero for an empty portfolio
+     */
+    public double weight(int index) { return weights[index]; }
+}
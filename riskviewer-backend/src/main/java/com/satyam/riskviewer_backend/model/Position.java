@@ -3,12 +3,16 @@ package com.satyam.riskviewer_backend.model;
 import java.math.BigDecimal;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import com.satyam.riskviewer_backend.event.PositionEntityListener;
+
 @Entity
 @Table(name = "positions")
+@EntityListeners(PositionEntityListener.class)
 public class Position {
 
     @Id
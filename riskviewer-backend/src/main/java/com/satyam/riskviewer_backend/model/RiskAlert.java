@@ -0,0 +1,81 @@
+package com.satyam.riskviewer_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A persisted risk alert. Rows are written in batches by AlertPersister;
+ * alertId is the in-memory alert id, which restarts with the application.
+ */
+@Entity
+@Table(name = "risk_alerts", indexes = @Index(name = "idx_risk_alerts_raised_at", columnList = "raised_at"))
+public class RiskAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "alert_id", nullable = false)
+    private long alertId;
+
+    @Column(name = "message", nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "severity", nullable = false)
+    private String severity;
+
+    @Column(name = "alert_type", nullable = false)
+    private String alertType;
+
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    @Column(name = "symbol")
+    private String symbol;
+
+    @Column(name = "raised_at", nullable = false)
+    private LocalDateTime raisedAt;
+
+    public RiskAlert() {
+        // Default constructor for JPA
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getAlertId() {
+        return alertId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public String getAlertType() {
+        return alertType;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public LocalDateTime getRaisedAt() {
+        return raisedAt;
+    }
+}
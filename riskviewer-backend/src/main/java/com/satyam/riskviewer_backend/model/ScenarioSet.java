@@ -0,0 +1,286 @@
+package com.satyam.riskviewer_backend.model;
+
+import java.util.Arrays;
+
+/**
+ * One set of simulated one-day portfolio returns, shared by every
+ * simulation-based metric of a request (Monte Carlo VaR, Expected Shortfall
+ * and drawdown).
+ *
+ * Tail statistics for the requested confidence levels are computed once at
+ * construction with nested quickselect passes, largest tail first, so no
+ * full sort is needed. Instances are immutable.
+ *
+ * A set built with {@link #sectioned} also estimates the standard error of
+ * each tail statistic from its spread across independent sections of the
+ * simulation (batch means), which holds for pseudo-random, antithetic and
+ * randomised quasi-random paths alike.
+ */
+public final class ScenarioSet {
+
+    private final double portfolioValue;
+    private final double[] returns;
+    private final double[] confidenceLevels;
+    private final double[] tailQuantiles;
+    private final double[] tailMeans;
+    private final int sections;
+    private final double[] tailQuantileErrors;
+    private final double[] tailMeanErrors;
+
+    private ScenarioSet(double portfolioValue, double[] returns, double[] confidenceLevels,
+                        double[] tailQuantiles, double[] tailMeans, int sections,
+                        double[] tailQuantileErrors, double[] tailMeanErrors) {
+        this.portfolioValue = portfolioValue;
+        this.returns = returns;
+        this.confidenceLevels = confidenceLevels;
+        this.tailQuantiles = tailQuantiles;
+        this.tailMeans = tailMeans;
+        this.sections = sections;
+        this.tailQuantileErrors = tailQuantileErrors;
+        this.tailMeanErrors = tailMeanErrors;
+    }
+
+    /**
+     * Build a scenario set and precompute the tail statistics of each confidence level
+     *
+     * @param portfolioValue   value the simulated returns apply to
+     * @param returns          simulated returns in simulation order, not copied
+     * @param confidenceLevels confidence levels that will be queried
+     */
+    public static ScenarioSet of(double portfolioValue, double[] returns, double... confidenceLevels) {
+        return sectioned(portfolioValue, returns, 1, confidenceLevels);
+    }
+
+    /**
+     * Build a scenario set whose returns form independent sections, cut at
+     * {@link #sectionStart}, and precompute the tail statistics and their
+     * standard errors for each confidence level
+     *
+     * @param sections number of independent sections, at least 1; with one
+     *                 section no standard error is available
+     */
+    public static ScenarioSet sectioned(double portfolioValue, double[] returns, int sections,
+                                        double... confidenceLevels) {
+        if (sections < 1) {
+            throw new IllegalArgumentException("At least one section is required, got " + sections);
+        }
+        double[] levels = confidenceLevels.clone();
+        Arrays.sort(levels);
+        double[] quantiles = new double[levels.length];
+        double[] means = new double[levels.length];
+
+        if (returns.length > 0) {
+            double[] work = returns.clone();
+            int bound = work.length;
+            // Lowest confidence has the largest tail; each later selection stays inside it
+            for (int i = 0; i < levels.length; i++) {
+                int index = tailIndex(levels[i], work.length);
+                select(work, 0, bound - 1, index);
+                quantiles[i] = work[index];
+                means[i] = mean(work, index);
+                bound = index + 1;
+            }
+        }
+
+        double[] quantileErrors = new double[levels.length];
+        double[] meanErrors = new double[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            double[] errors = standardErrors(returns, sections, levels[i]);
+            quantileErrors[i] = errors[0];
+            meanErrors[i] = errors[1];
+        }
+
+        return new ScenarioSet(portfolioValue, returns, levels, quantiles, means,
+                               sections, quantileErrors, meanErrors);
+    }
+
+    /**
+     * First scenario of a section when size scenarios are cut into the given
+     * number of sections. Boundaries are even, so consecutive pairs of
+     * scenarios never straddle two sections.
+     */
+    public static int sectionStart(int size, int sections, int section) {
+        if (section >= sections) {
+            return size;
+        }
+        return (int) ((long) size * section / sections) & ~1;
+    }
+
+    public double getPortfolioValue() { return portfolioValue; }
+
+    public int size() { return returns.length; }
+
+    public int sections() { return sections; }
+
+    /**
+     * Return at the (1 - confidence) quantile of the simulated distribution
+     */
+    public double tailQuantile(double confidenceLevel) {
+        int level = levelIndex(confidenceLevel);
+        if (level >= 0) {
+            return tailQuantiles[level];
+        }
+        if (returns.length == 0) {
+            return 0.0;
+        }
+        double[] work = returns.clone();
+        int index = tailIndex(confidenceLevel, work.length);
+        select(work, 0, work.length - 1, index);
+        return work[index];
+    }
+
+    /**
+     * Average return of the scenarios beyond the (1 - confidence) quantile
+     */
+    public double tailMean(double confidenceLevel) {
+        int level = levelIndex(confidenceLevel);
+        if (level >= 0) {
+            return tailMeans[level];
+        }
+        if (returns.length == 0) {
+            return 0.0;
+        }
+        double[] work = returns.clone();
+        int index = tailIndex(confidenceLevel, work.length);
+        select(work, 0, work.length - 1, index);
+        return mean(work, index);
+    }
+
+    /**
+     * Standard error of {@link #tailQuantile}, NaN when the set has fewer than
+     * two sections or a section has no scenario beyond the quantile
+     */
+    public double tailQuantileStandardError(double confidenceLevel) {
+        int level = levelIndex(confidenceLevel);
+        return level >= 0 ? tailQuantileErrors[level] : standardErrors(returns, sections, confidenceLevel)[0];
+    }
+
+    /**
+     * Standard error of {@link #tailMean}, NaN when the set has fewer than
+     * two sections or a section has no scenario beyond the quantile
+     */
+    public double tailMeanStandardError(double confidenceLevel) {
+        int level = levelIndex(confidenceLevel);
+        return level >= 0 ? tailMeanErrors[level] : standardErrors(returns, sections, confidenceLevel)[1];
+    }
+
+    /**
+     * Largest peak-to-trough loss when the first {@code days} scenarios are
+     * applied one after another as daily returns
+     */
+    public double maxDrawdown(int days) {
+        if (days > returns.length) {
+            throw new IllegalArgumentException(
+                "Drawdown over " + days + " days needs at least as many scenarios, have " + returns.length);
+        }
+
+        double currentValue = portfolioValue;
+        double peakValue = currentValue;
+        double maxDrawdown = 0.0;
+
+        for (int day = 0; day < days; day++) {
+            currentValue *= 1 + returns[day];
+            if (currentValue > peakValue) {
+                peakValue = currentValue;
+            }
+            maxDrawdown = Math.max(maxDrawdown, peakValue - currentValue);
+        }
+
+        return maxDrawdown;
+    }
+
+    private int levelIndex(double confidenceLevel) {
+        for (int i = 0; i < confidenceLevels.length; i++) {
+            if (confidenceLevels[i] == confidenceLevel) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Standard errors of the tail quantile and tail mean: the standard
+     * deviation of the per-section statistics over the square root of the
+     * number of sections
+     */
+    private static double[] standardErrors(double[] returns, int sections, double confidenceLevel) {
+        if (sections < 2) {
+            return new double[] { Double.NaN, Double.NaN };
+        }
+        double[] quantiles = new double[sections];
+        double[] means = new double[sections];
+        for (int s = 0; s < sections; s++) {
+            int from = sectionStart(returns.length, sections, s);
+            int to = sectionStart(returns.length, sections, s + 1);
+            int index = (int) Math.floor((1 - confidenceLevel) * (to - from));
+            if (index < 1) {
+                return new double[] { Double.NaN, Double.NaN };
+            }
+            double[] work = Arrays.copyOfRange(returns, from, to);
+            select(work, 0, work.length - 1, index);
+            quantiles[s] = work[index];
+            means[s] = mean(work, index);
+        }
+        return new double[] { standardError(quantiles), standardError(means) };
+    }
+
+    private static double standardError(double[] estimates) {
+        double average = mean(estimates, estimates.length);
+        double sumSquares = 0.0;
+        for (double estimate : estimates) {
+            sumSquares += (estimate - average) * (estimate - average);
+        }
+        return Math.sqrt(sumSquares / (estimates.length - 1) / estimates.length);
+    }
+
+    private static int tailIndex(double confidenceLevel, int size) {
+        int index = (int) Math.floor((1 - confidenceLevel) * size);
+        return Math.min(Math.max(0, index), size - 1);
+    }
+
+    private static double mean(double[] values, int count) {
+        if (count == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * Hoare-partition quickselect: afterwards values[k] holds the k-th smallest
+     * element of values[left..right] and everything before it is not larger
+     */
+    private static void select(double[] values, int left, int right, int k) {
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            double pivot = medianOfThree(values[left], values[mid], values[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
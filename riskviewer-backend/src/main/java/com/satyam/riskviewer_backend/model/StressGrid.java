@@ -0,0 +1,21 @@
+package com.satyam.riskviewer_backend.model;
+
+import java.util.List;
+
+/**
+ * Result of a scenarios x instruments stress grid.
+ *
+ * losses[s] is the net loss of the whole grid under scenario s (a gain is
+ * negative), and topContributors.get(s) the instruments with the largest
+ * losses under it, largest first. simulatedProducts of the products were
+ * revalued by a reduced-path Monte Carlo run, so their losses carry some
+ * sampling error.
+ */
+public record StressGrid(List<String> scenarioNames, double[] losses, List<List<Contributor>> topContributors,
+                         int positions, int products, int simulatedProducts) {
+
+    /**
+     * Loss of one position (by symbol) or structured product (by product code)
+     */
+    public record Contributor(String instrument, Long portfolioId, double loss) {}
+}
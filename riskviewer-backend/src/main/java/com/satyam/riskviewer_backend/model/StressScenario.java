@@ -0,0 +1,30 @@
+package com.satyam.riskviewer_backend.model;
+
+import java.util.Map;
+
+/**
+ * A user-defined stress scenario.
+ *
+ * A position or product takes the shock of its symbol (for products, the
+ * underlying), else the shock of its asset or product type, else the
+ * scenario-wide default. Missing maps and a missing default mean no shock.
+ */
+public record StressScenario(String name, Map<String, Shock> symbols, Map<String, Shock> types, Shock all) {
+
+    public static final Shock NONE = new Shock(0.0, 0.0, 0.0);
+
+    /**
+     * Market move of one scenario
+     *
+     * @param price      relative price move, -0.40 for a 40% drop
+     * @param volatility relative implied volatility move, 0.5 for +50%
+     * @param rate       absolute risk-free rate shift, 0.02 for +200bps
+     */
+    public record Shock(double price, double volatility, double rate) {}
+
+    public StressScenario {
+        symbols = symbols == null ? Map.of() : Map.copyOf(symbols);
+        types = types == null ? Map.of() : Map.copyOf(types);
+        all = all == null ? NONE : all;
+    }
+}
@@ -0,0 +1,44 @@
+package com.satyam.riskviewer_backend.model;
+
+/**
+ * Values of one structured product over a spot x volatility x time grid.
+ *
+ * prices holds the per-unit product price at every grid point, flattened as
+ * [day][vol][spot]; basePrice is the price with no shock today, and units
+ * (notional / strike) turns a price change into P&L.
+ */
+public record ValuationLadder(Long productId, String productCode, Axes axes, double basePrice, double units,
+                              double[] prices) {
+
+    public double price(int day, int vol, int spot) {
+        return prices[(day * axes.volShocks().length + vol) * axes.spotShocks().length + spot];
+    }
+
+    /**
+     * Relative spot and volatility shocks and calendar days forward
+     */
+    public record Axes(double[] spotShocks, double[] volShocks, int[] daysForward) {
+
+        /**
+         * Evenly spaced shocks from -range to +range, including zero when steps is odd
+         */
+        public static Axes symmetric(double spotRange, int spotSteps, double volRange, int volSteps, int[] daysForward) {
+            return new Axes(steps(spotRange, spotSteps), steps(volRange, volSteps), daysForward);
+        }
+
+        private static double[] steps(double range, int steps) {
+            if (steps < 1) {
+                throw new IllegalArgumentException("A ladder axis needs at least one step, got " + steps);
+            }
+            double[] shocks = new double[steps];
+            for (int i = 0; i < steps; i++) {
+                shocks[i] = steps == 1 ? 0.0 : -range + 2.0 * range * i / (steps - 1);
+            }
+            return shocks;
+        }
+
+        public int points() {
+            return spotShocks.length * volShocks.length * daysForward.length;
+        }
+    }
+}
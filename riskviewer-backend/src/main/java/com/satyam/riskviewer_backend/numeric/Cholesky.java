@@ -0,0 +1,37 @@
+package com.satyam.riskviewer_backend.numeric;
+
+/**
+ * Cholesky factorisation of a symmetric positive definite matrix
+ */
+public final class Cholesky {
+
+    private Cholesky() {
+    }
+
+    /**
+     * Lower triangular L with L L' = A
+     *
+     * @param matrix dense row-major n x n matrix, only the lower triangle is read
+     * @return L row-major, or null when the matrix is not positive definite
+     */
+    public static double[] decompose(double[] matrix, int n) {
+        double[] lower = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = matrix[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i * n + k] * lower[j * n + k];
+                }
+                if (i == j) {
+                    if (!(sum > 0.0)) {
+                        return null;
+                    }
+                    lower[i * n + i] = Math.sqrt(sum);
+                } else {
+                    lower[i * n + j] = sum / lower[j * n + j];
+                }
+            }
+        }
+        return lower;
+    }
+}
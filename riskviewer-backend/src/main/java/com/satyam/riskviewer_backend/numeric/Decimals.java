@@ -0,0 +1,43 @@
+package com.satyam.riskviewer_backend.numeric;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversion of double results to scaled BigDecimal at the API boundary.
+ *
+ * Analytics run on primitive doubles; these helpers are the only place the
+ * risk results turn into BigDecimal, right before they are returned or put
+ * into a DTO.
+ */
+public final class Decimals {
+
+    private Decimals() {
+    }
+
+    /**
+     * Currency amount, 2 decimals
+     */
+    public static BigDecimal money(double value) {
+        return scaled(value, 2);
+    }
+
+    public static BigDecimal scaled(double value, int scale) {
+        if (!Double.isFinite(value)) {
+            return BigDecimal.ZERO.setScale(scale);
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public static Map<String, BigDecimal> money(Map<String, Double> values) {
+        return scaled(values, 2);
+    }
+
+    public static Map<String, BigDecimal> scaled(Map<String, Double> values, int scale) {
+        Map<String, BigDecimal> result = new HashMap<>(values.size() * 2);
+        values.forEach((key, value) -> result.put(key, scaled(value, scale)));
+        return result;
+    }
+}
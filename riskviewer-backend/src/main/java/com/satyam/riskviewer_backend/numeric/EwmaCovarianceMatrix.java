@@ -0,0 +1,136 @@
+package com.satyam.riskviewer_backend.numeric;
+
+import java.util.Arrays;
+
+/**
+ * Exponentially weighted covariance matrix, updated one observation at a time.
+ *
+ * Each observation r applies S = lambda * S + (1 - lambda) * r r'. The
+ * lower triangle is stored packed, and the decay of every entry is folded
+ * into one shared scale factor (S = scale * stored). An update therefore
+ * only touches the pairs of series that actually moved: O(k^2) for k non-zero
+ * returns, never a pass over the whole n x n matrix. When the scale gets
+ * close to underflow it is multiplied back into the entries, about once
+ * every ten thousand updates for lambda = 0.94.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public final class EwmaCovarianceMatrix {
+
+    private static final double RESCALE_BELOW = 1e-280;
+
+    private final double lambda;
+    private double[] packed;
+    private int size;
+    private double scale = 1.0;
+    private long version;
+
+    public EwmaCovarianceMatrix(double lambda, int initialCapacity) {
+        if (lambda <= 0.0 || lambda >= 1.0) {
+            throw new IllegalArgumentException("EWMA decay must be between 0 and 1, got " + lambda);
+        }
+        this.lambda = lambda;
+        this.packed = new double[packedLength(Math.max(initialCapacity, 1))];
+    }
+
+    /**
+     * Add a series, uncorrelated with the others until observations say otherwise
+     *
+     * @return index of the new series
+     */
+    public int add(double variance) {
+        int index = size;
+        int required = packedLength(index + 1);
+        if (required > packed.length) {
+            packed = Arrays.copyOf(packed, Math.max(required, packed.length * 2));
+        }
+        packed[offset(index, index)] = variance / scale;
+        size++;
+        version++;
+        return index;
+    }
+
+    /**
+     * Apply one observation. Series not listed had a zero return.
+     *
+     * @param indices distinct series indices
+     * @param returns return of each listed series
+     * @param count   number of listed series
+     */
+    public void update(int[] indices, double[] returns, int count) {
+        scale *= lambda;
+        double weight = (1.0 - lambda) / scale;
+
+        for (int a = 0; a < count; a++) {
+            int ia = indices[a];
+            double scaled = weight * returns[a];
+            if (scaled == 0.0) {
+                continue;
+            }
+            for (int b = 0; b <= a; b++) {
+                int ib = indices[b];
+                packed[ia >= ib ? offset(ia, ib) : offset(ib, ia)] += scaled * returns[b];
+            }
+        }
+
+        if (scale < RESCALE_BELOW) {
+            int length = packedLength(size);
+            for (int i = 0; i < length; i++) {
+                packed[i] *= scale;
+            }
+            scale = 1.0;
+        }
+        version++;
+    }
+
+    public double get(int i, int j) {
+        return scale * packed[i >= j ? offset(i, j) : offset(j, i)];
+    }
+
+    /**
+     * Dense row-major copy of the sub-matrix for the given series
+     */
+    public void copy(int[] indices, int count, double[] out) {
+        for (int a = 0; a < count; a++) {
+            for (int b = 0; b <= a; b++) {
+                double value = get(indices[a], indices[b]);
+                out[a * count + b] = value;
+                out[b * count + a] = value;
+            }
+        }
+    }
+
+    /**
+     * w' S w over the given series
+     */
+    public double quadraticForm(int[] indices, double[] weights, int count) {
+        KahanSum sum = new KahanSum();
+        for (int a = 0; a < count; a++) {
+            double wa = weights[a];
+            sum.add(wa * wa * get(indices[a], indices[a]));
+            for (int b = 0; b < a; b++) {
+                sum.add(2.0 * wa * weights[b] * get(indices[a], indices[b]));
+            }
+        }
+        return sum.sum();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Incremented on every change, for invalidating values derived from the matrix
+     */
+    public long version() {
+        return version;
+    }
+
+    private static int offset(int row, int column) {
+        return row * (row + 1) / 2 + column;
+    }
+
+    private static int packedLength(int n) {
+        return n * (n + 1) / 2;
+    }
+}
@@ -0,0 +1,40 @@
+package com.satyam.riskviewer_backend.numeric;
+
+/**
+ * Compensated (Kahan-Babuska/Neumaier) running sum of doubles.
+ *
+ * Keeps the rounding error of every addition in a separate compensation
+ * term, so summing many position values of very different magnitude stays
+ * accurate to the last cent without falling back to BigDecimal.
+ */
+public final class KahanSum {
+
+    private double sum;
+    private double compensation;
+
+    public KahanSum add(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+        return this;
+    }
+
+    public double sum() {
+        return sum + compensation;
+    }
+
+    /**
+     * Compensated sum of the first {@code count} values
+     */
+    public static double of(double[] values, int count) {
+        KahanSum sum = new KahanSum();
+        for (int i = 0; i < count; i++) {
+            sum.add(values[i]);
+        }
+        return sum.sum();
+    }
+}
@@ -1,6 +1,7 @@
 package com.satyam.riskviewer_backend.repository;
 
 import com.satyam.riskviewer_backend.model.Position;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
@@ -14,4 +15,11 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
 
     List<Position> findBySymbolAndType(String symbol, String type);
 
+    // Keyset pages in id order; the Pageable only carries the limit and sort
+    List<Position> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    List<Position> findByPortfolioIdAndIdGreaterThan(Long portfolioId, Long afterId, Pageable pageable);
+
+    long countByPortfolioId(Long portfolioId);
+
 }
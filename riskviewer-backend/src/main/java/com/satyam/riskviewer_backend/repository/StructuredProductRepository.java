@@ -1,11 +1,13 @@
 package com.satyam.riskviewer_backend.repository;
 
 import com.satyam.riskviewer_backend.model.StructuredProduct;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,9 +22,19 @@ public interface StructuredProductRepository extends JpaRepository<StructuredPro
     // Find by underlying asset
     List<StructuredProduct> findByUnderlyingAsset(String underlyingAsset);
     
+    // Find by any of several underlying assets
+    List<StructuredProduct> findByUnderlyingAssetIn(Collection<String> underlyingAssets);
+    
     // Find by risk status
     List<StructuredProduct> findByRiskStatus(String riskStatus);
     
+    // Keyset pages in id order; the Pageable only carries the limit and sort
+    List<StructuredProduct> findByIdGreaterThan(Long afterId, Pageable pageable);
+    
+    List<StructuredProduct> findByPortfolioIdAndIdGreaterThan(Long portfolioId, Long afterId, Pageable pageable);
+    
+    long countByPortfolioId(Long portfolioId);
+    
     // Find products near maturity (within days)
     @Query("SELECT sp FROM StructuredProduct sp WHERE sp.maturityDate <= CURRENT_TIMESTAMP + :days DAY")
     List<StructuredProduct> findProductsNearMaturity(@Param("days") int days);
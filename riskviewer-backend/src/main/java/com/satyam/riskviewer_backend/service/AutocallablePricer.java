@@ -0,0 +1,504 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.numeric.NormalQuantile;
+
+/**
+ * Monte Carlo pricer of autocallable notes with pathwise Greeks.
+ *
+ * A note pays strike per unit at the first observation date on which the
+ * underlying closes at or above the strike, the autocall trigger. On every
+ * observation date it pays the period coupon when the underlying is at or
+ * above the barrier, plus any coupons missed since the last one paid
+ * (coupon memory). A note that is never called repays the strike at
+ * maturity, unless the underlying has touched the barrier at any time,
+ * the knock-in, and ends below the strike, in which case it repays the
+ * underlying instead.
+ *
+ * The underlying follows a lognormal path sampled on the union of the
+ * observation dates of all notes in a batch, from a scrambled Sobol'
+ * sequence, so notes on one underlying share every path. The knock-in is
+ * monitored continuously: between two sampled dates the path survives
+ * the barrier with the Brownian bridge probability, so no time steps are
+ * needed beyond the observation dates. The autocall and coupon conditions
+ * are linear ramps app.pricing.autocallable.trigger-smoothing of the level
+ * wide rather than steps, which makes each path's value differentiable in
+ * spot and volatility. Delta and vega are then path averages of those
+ * derivatives, gamma a central difference of pathwise deltas on the same
+ * paths, and theta follows from the pricing equation, all in the pass
+ * that prices the notes.
+ */
+@Component
+public class AutocallablePricer {
+
+    private static final long SEED = 12345L;
+
+    /** Relative spot move of the pathwise-delta difference behind gamma */
+    private static final double GAMMA_BUMP = 0.01;
+
+    /** Bridge exponent above which exp(-z), the chance of crossing between two points, is below 1e-16 */
+    private static final double NEGLIGIBLE_CROSSING = 37.0;
+
+    /** Observation times closer than this, in years, are one date */
+    private static final double SAME_DATE = 1e-9;
+
+    /**
+     * One note, in units of one underlying share at the strike
+     *
+     * @param spot               current underlying price
+     * @param strike             strike price, the autocall trigger and the redemption amount
+     * @param barrier            coupon and knock-in barrier, 0 for none
+     * @param coupon             coupon per observation
+     * @param maturity           time to maturity in years
+     * @param observationOffsets years from each observation date to maturity, 0 for maturity itself
+     */
+    public record Note(double spot, double strike, double barrier, double coupon, double maturity,
+                       double[] observationOffsets) {}
+
+    private final int paths;
+    private final int observationsPerYear;
+    private final double smoothing;
+
+    public AutocallablePricer() {
+        this(16384, 4, 0.05);
+    }
+
+    @Autowired
+    public AutocallablePricer(@Value("${app.pricing.autocallable.paths:16384}") int paths,
+                              @Value("${app.pricing.autocallable.observations-per-year:4}") int observationsPerYear,
+                              @Value("${app.pricing.autocallable.trigger-smoothing:0.05}") double smoothing) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("Autocallable paths must be positive, got " + paths);
+        }
+        if (observationsPerYear < 1 || 12 % observationsPerYear != 0) {
+            throw new IllegalArgumentException(
+                "Observations per year must divide 12, got " + observationsPerYear);
+        }
+        if (!(smoothing >= 0.0)) {
+            throw new IllegalArgumentException("Trigger smoothing cannot be negative, got " + smoothing);
+        }
+        this.paths = paths;
+        this.observationsPerYear = observationsPerYear;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * The note of a product at the given spot and time to maturity. Observation
+     * dates fall every 12 / observations-per-year months back from maturity,
+     * after the issue date; the annual coupon rate is split evenly across them.
+     */
+    public Note note(StructuredProduct product, double spot, double maturity) {
+        double strike = product.getStrikePrice().doubleValue();
+        double barrier = product.getBarrierLevel() == null ? 0.0 : product.getBarrierLevel().doubleValue();
+        double couponRate = product.getCouponRate() == null ? 0.0 : product.getCouponRate().doubleValue();
+        return new Note(spot, strike, barrier, strike * couponRate / observationsPerYear, maturity,
+                        observationOffsets(product.getIssueDate(), product.getMaturityDate()));
+    }
+
+    double[] observationOffsets(LocalDateTime issueDate, LocalDateTime maturityDate) {
+        int months = 12 / observationsPerYear;
+        double[] offsets = new double[16];
+        int count = 0;
+        LocalDateTime date = maturityDate;
+        while (count == 0 || (issueDate != null && date.isAfter(issueDate))) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = ChronoUnit.DAYS.between(date, maturityDate) / 365.0;
+            date = maturityDate.minusMonths((long) months * count);
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Price notes on one underlying over one set of paths
+     *
+     * @param notes      notes with a positive maturity
+     * @param volatility implied volatility of the underlying
+     * @param rate       continuously compounded risk-free rate
+     * @param price      out: value per unit
+     * @param delta      out: dV/dS
+     * @param gamma      out: d2V/dS2
+     * @param theta      out: dV/dt per calendar day
+     * @param vega       out: dV/dvol per 1% vol change
+     */
+    public void price(List<Note> notes, double volatility, double rate, double[] price, double[] delta,
+                      double[] gamma, double[] theta, double[] vega) {
+        int count = notes.size();
+        PathGrid grid = new PathGrid(notes);
+        double[] sum = new double[count];
+        double[] sumDelta = new double[count];
+        double[] sumVega = new double[count];
+        double[] sumDeltaUp = new double[count];
+        double[] sumDeltaDown = new double[count];
+        double[] value = new double[3];
+
+        SobolSequence.Cursor cursor = new SobolSequence(grid.size(), SEED).cursor(0);
+        for (int p = 0; p < paths; p++) {
+            grid.nextPath(cursor);
+            grid.move(volatility, rate);
+            for (int n = 0; n < count; n++) {
+                double spot = notes.get(n).spot();
+                grid.evaluate(n, spot, volatility, value);
+                sum[n] += value[0];
+                sumDelta[n] += value[1];
+                sumVega[n] += value[2];
+                grid.evaluate(n, spot * (1.0 + GAMMA_BUMP), volatility, value);
+                sumDeltaUp[n] += value[1];
+                grid.evaluate(n, spot * (1.0 - GAMMA_BUMP), volatility, value);
+                sumDeltaDown[n] += value[1];
+            }
+        }
+
+        for (int n = 0; n < count; n++) {
+            double spot = notes.get(n).spot();
+            price[n] = sum[n] / paths;
+            delta[n] = sumDelta[n] / paths;
+            gamma[n] = (sumDeltaUp[n] - sumDeltaDown[n]) / (paths * 2.0 * GAMMA_BUMP * spot);
+            vega[n] = sumVega[n] / paths / 100.0;
+            // dV/dt + r S dV/dS + vol^2 S^2 / 2 d2V/dS2 = r V between observation dates
+            theta[n] = (rate * price[n] - rate * spot * delta[n]
+                - 0.5 * volatility * volatility * spot * spot * gamma[n]) / 365.0;
+        }
+    }
+
+    /**
+     * Value notes on one underlying over the first given number of paths,
+     * without Greeks, for revaluing them under many scenarios. Every call
+     * draws the same paths, so the difference between two calls carries
+     * little of the sampling noise of either.
+     *
+     * @param price out: value per unit
+     */
+    public void value(List<Note> notes, double volatility, double rate, int paths, double[] price) {
+        int count = notes.size();
+        PathGrid grid = new PathGrid(notes);
+        double[] sum = new double[count];
+        double[] value = new double[3];
+
+        SobolSequence.Cursor cursor = new SobolSequence(grid.size(), SEED).cursor(0);
+        for (int p = 0; p < paths; p++) {
+            grid.nextPath(cursor);
+            grid.move(volatility, rate);
+            for (int n = 0; n < count; n++) {
+                grid.evaluate(n, notes.get(n).spot(), volatility, value);
+                sum[n] += value[0];
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            price[n] = sum[n] / paths;
+        }
+    }
+
+    /**
+     * Value one note over a spot x volatility x time grid, in the layout of
+     * ValuationLadderPricer. Each time point draws one set of paths, and
+     * every vol and spot point is valued on it.
+     *
+     * @param values out: value at [time][vol][spot], flattened in that order;
+     *               the shocked spot for points at or past maturity
+     */
+    public void ladder(Note note, double volatility, double rate, double[] spotShocks, double[] volShocks,
+                       double[] yearsForward, double[] values) {
+        int spots = spotShocks.length;
+        int vols = volShocks.length;
+        double[] value = new double[3];
+
+        int offset = 0;
+        for (double forward : yearsForward) {
+            double t = note.maturity() - forward;
+            if (t <= 0.0) {
+                for (int v = 0; v < vols; v++) {
+                    for (int s = 0; s < spots; s++) {
+                        values[offset++] = note.spot() * (1.0 + spotShocks[s]); // Matured
+                    }
+                }
+                continue;
+            }
+
+            PathGrid grid = new PathGrid(List.of(new Note(note.spot(), note.strike(), note.barrier(), note.coupon(),
+                                                          t, note.observationOffsets())));
+            double[] sums = new double[vols * spots];
+            SobolSequence.Cursor cursor = new SobolSequence(grid.size(), SEED).cursor(0);
+            for (int p = 0; p < paths; p++) {
+                grid.nextPath(cursor);
+                for (int v = 0; v < vols; v++) {
+                    double vol = volatility * (1.0 + volShocks[v]);
+                    grid.move(vol, rate);
+                    for (int s = 0; s < spots; s++) {
+                        grid.evaluate(0, note.spot() * (1.0 + spotShocks[s]), vol, value);
+                        sums[v * spots + s] += value[0];
+                    }
+                }
+            }
+            for (int i = 0; i < sums.length; i++) {
+                values[offset++] = sums[i] / paths;
+            }
+        }
+    }
+
+    /**
+     * Paths of one underlying on the union of the observation times of some
+     * notes, with each note's observation dates as indices into it
+     */
+    private final class PathGrid {
+
+        private final List<Note> notes;
+        private final double[] times;
+        private final double[] sqrtStep;
+        private final double[] discount;
+        private final int[][] observations; // per note, ascending, the last one its maturity
+
+        private final double[] uniforms;
+        private final double[] brownian;   // W(t_j)
+        private final double[] logReturn;  // ln(S(t_j) / S(0))
+        private final double[] growth;     // S(t_j) / S(0)
+        private final double[] volSlope;   // d logReturn / d vol
+        private double rate;
+
+        PathGrid(List<Note> notes) {
+            this.notes = notes;
+            double[] candidates = new double[notes.stream().mapToInt(n -> n.observationOffsets().length).sum()];
+            int count = 0;
+            for (Note note : notes) {
+                for (double offset : note.observationOffsets()) {
+                    double t = note.maturity() - offset;
+                    if (t > SAME_DATE) {
+                        candidates[count++] = t;
+                    }
+                }
+            }
+            Arrays.sort(candidates, 0, count);
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if (size == 0 || candidates[i] - candidates[size - 1] > SAME_DATE) {
+                    candidates[size++] = candidates[i];
+                }
+            }
+            this.times = Arrays.copyOf(candidates, size);
+
+            this.observations = new int[notes.size()][];
+            for (int n = 0; n < notes.size(); n++) {
+                Note note = notes.get(n);
+                int[] indices = new int[note.observationOffsets().length];
+                int used = 0;
+                for (double offset : note.observationOffsets()) {
+                    double t = note.maturity() - offset;
+                    if (t > SAME_DATE) {
+                        indices[used++] = indexOf(t);
+                    }
+                }
+                indices = Arrays.copyOf(indices, used);
+                Arrays.sort(indices);
+                observations[n] = indices;
+            }
+
+            this.sqrtStep = new double[size];
+            for (int j = 0; j < size; j++) {
+                sqrtStep[j] = Math.sqrt(times[j] - (j == 0 ? 0.0 : times[j - 1]));
+            }
+            this.discount = new double[size];
+            this.uniforms = new double[size];
+            this.brownian = new double[size];
+            this.logReturn = new double[size];
+            this.growth = new double[size];
+            this.volSlope = new double[size];
+        }
+
+        private int indexOf(double t) {
+            int index = Arrays.binarySearch(times, t);
+            if (index >= 0) {
+                return index;
+            }
+            int insertion = -index - 1;
+            if (insertion < times.length && times[insertion] - t <= SAME_DATE) {
+                return insertion;
+            }
+            return insertion - 1;
+        }
+
+        int size() {
+            return times.length;
+        }
+
+        /**
+         * Draw the next Brownian path, one Sobol' coordinate per time step
+         */
+        void nextPath(SobolSequence.Cursor cursor) {
+            cursor.next(uniforms);
+            double w = 0.0;
+            for (int j = 0; j < times.length; j++) {
+                w += sqrtStep[j] * NormalQuantile.inverseCdf(uniforms[j]);
+                brownian[j] = w;
+            }
+        }
+
+        /**
+         * Turn the current Brownian path into returns at one volatility, shared by every spot
+         */
+        void move(double volatility, double rate) {
+            double drift = rate - 0.5 * volatility * volatility;
+            for (int j = 0; j < times.length; j++) {
+                logReturn[j] = drift * times[j] + volatility * brownian[j];
+                growth[j] = Math.exp(logReturn[j]);
+                volSlope[j] = brownian[j] - volatility * times[j];
+            }
+            if (this.rate != rate || discount[0] == 0.0) {
+                for (int j = 0; j < times.length; j++) {
+                    discount[j] = Math.exp(-rate * times[j]);
+                }
+                this.rate = rate;
+            }
+        }
+
+        /**
+         * Value of note n on the current path with its derivatives
+         *
+         * @param result out: value, d value / d spot and d value / d vol
+         */
+        void evaluate(int n, double spot, double volatility, double[] result) {
+            Note note = notes.get(n);
+            int[] dates = observations[n];
+            double strike = note.strike();
+            double barrier = note.barrier();
+            double coupon = note.coupon();
+            boolean hasBarrier = barrier > 0.0;
+            int maturity = dates[dates.length - 1];
+
+            // Probability of no knock-in so far, given the sampled points
+            double survival = 1.0;
+            double survivalSpot = 0.0;
+            double survivalVol = 0.0;
+            double initialDistance = hasBarrier ? Math.log(spot / barrier) : 0.0;
+            double distance = initialDistance; // ln(S / B) at the last point
+            double distanceVol = 0.0;
+
+            double alive = 1.0;
+            double aliveSpot = 0.0;
+            double aliveVol = 0.0;
+            double memory = 0.0; // coupons owed
+            double memorySpot = 0.0;
+            double memoryVol = 0.0;
+            double pv = 0.0;
+            double pvSpot = 0.0;
+            double pvVol = 0.0;
+
+            int next = 0;
+            double previousTime = 0.0;
+            double variancePerYear = volatility * volatility;
+            for (int j = 0; j <= maturity; j++) {
+                if (hasBarrier && survival > 0.0) {
+                    double start = distance;
+                    double startVol = distanceVol;
+                    double end = initialDistance + logReturn[j];
+                    double endVol = volSlope[j];
+                    if (start <= 0.0 || end <= 0.0) {
+                        survival = 0.0;
+                        survivalSpot = 0.0;
+                        survivalVol = 0.0;
+                    } else {
+                        // Brownian bridge between the points stays above the barrier with 1 - exp(-z)
+                        double variance = variancePerYear * (times[j] - previousTime);
+                        double z = 2.0 * start * end / variance;
+                        if (z < NEGLIGIBLE_CROSSING) {
+                            double crossing = Math.exp(-z);
+                            double zSpot = 2.0 * (start + end) / (spot * variance);
+                            double zVol = 2.0 * (startVol * end + start * endVol) / variance - 2.0 * z / volatility;
+                            double stay = 1.0 - crossing;
+                            survivalSpot = survivalSpot * stay + survival * crossing * zSpot;
+                            survivalVol = survivalVol * stay + survival * crossing * zVol;
+                            survival *= stay;
+                        }
+                    }
+                    distance = end;
+                    distanceVol = endVol;
+                }
+                previousTime = times[j];
+                if (j != dates[next]) {
+                    continue;
+                }
+                next++;
+
+                double s = spot * growth[j];
+                double sSpot = growth[j];
+                double sVol = s * volSlope[j];
+
+                double couponPaid = 1.0;
+                double couponSlope = 0.0;
+                if (hasBarrier) {
+                    couponPaid = ramp(s, barrier);
+                    couponSlope = rampSlope(s, barrier);
+                }
+                double owed = memory + 1.0;
+                double flow = couponPaid * owed * coupon;
+                double flowSpot = (couponSlope * sSpot * owed + couponPaid * memorySpot) * coupon;
+                double flowVol = (couponSlope * sVol * owed + couponPaid * memoryVol) * coupon;
+
+                if (j == maturity) {
+                    flow += strike;
+                    double shortfall = strike - s;
+                    if (shortfall > 0.0) {
+                        // Knocked in and below the strike: the underlying instead of the strike
+                        double knockedIn = 1.0 - survival;
+                        flow -= knockedIn * shortfall;
+                        flowSpot += survivalSpot * shortfall + knockedIn * sSpot;
+                        flowVol += survivalVol * shortfall + knockedIn * sVol;
+                    }
+                    pv += discount[j] * alive * flow;
+                    pvSpot += discount[j] * (aliveSpot * flow + alive * flowSpot);
+                    pvVol += discount[j] * (aliveVol * flow + alive * flowVol);
+                    break;
+                }
+
+                double called = ramp(s, strike);
+                double calledSlope = rampSlope(s, strike);
+                flow += called * strike;
+                flowSpot += calledSlope * sSpot * strike;
+                flowVol += calledSlope * sVol * strike;
+                pv += discount[j] * alive * flow;
+                pvSpot += discount[j] * (aliveSpot * flow + alive * flowSpot);
+                pvVol += discount[j] * (aliveVol * flow + alive * flowVol);
+
+                memorySpot = -couponSlope * sSpot * owed + (1.0 - couponPaid) * memorySpot;
+                memoryVol = -couponSlope * sVol * owed + (1.0 - couponPaid) * memoryVol;
+                memory = (1.0 - couponPaid) * owed;
+                aliveSpot = aliveSpot * (1.0 - called) - alive * calledSlope * sSpot;
+                aliveVol = aliveVol * (1.0 - called) - alive * calledSlope * sVol;
+                alive *= 1.0 - called;
+            }
+
+            result[0] = pv;
+            result[1] = pvSpot;
+            result[2] = pvVol;
+        }
+
+        /**
+         * Smoothed indicator of s >= level, rising linearly across a band around the level
+         */
+        private double ramp(double s, double level) {
+            double width = smoothing * level;
+            if (width == 0.0) {
+                return s >= level ? 1.0 : 0.0;
+            }
+            return Math.min(1.0, Math.max(0.0, (s - level) / width + 0.5));
+        }
+
+        private double rampSlope(double s, double level) {
+            double width = smoothing * level;
+            if (width == 0.0) {
+                return 0.0;
+            }
+            double position = (s - level) / width + 0.5;
+            return position > 0.0 && position < 1.0 ? 1.0 / width : 0.0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.satyam.riskviewer_backend.service;
+
+/**
+ * Black-Scholes call price and Greeks for many contracts at once.
+ *
+ * Inputs and outputs are parallel primitive arrays (one slot per contract).
+ * The loop body is straight-line code with no allocation, no calls that
+ * cannot be inlined and no data-dependent branches - matured contracts are
+ * handled with selects - so C2 can unroll it and keep everything in
+ * registers. d1, d2, sqrt(T), the discount factor and the Gaussian kernel
+ * are each computed once per contract and shared by the price and every
+ * Greek.
+ */
+public final class BlackScholesBatchPricer {
+
+    private static final double INV_SQRT_2 = 1.0 / Math.sqrt(2.0);
+    private static final double INV_SQRT_2PI = 1.0 / Math.sqrt(2.0 * Math.PI);
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    // Abramowitz & Stegun 7.1.26, same approximation as the single-product pricer
+    private static final double A1 = 0.254829592;
+    private static final double A2 = -0.284496736;
+    private static final double A3 = 1.421413741;
+    private static final double A4 = -1.453152027;
+    private static final double A5 = 1.061405429;
+    private static final double P = 0.3275911;
+
+    private BlackScholesBatchPricer() {
+    }
+
+    /**
+     * Price the first {@code count} contracts
+     *
+     * @param spot       underlying price
+     * @param strike     strike price
+     * @param maturity   time to maturity in years; contracts at or below zero are matured
+     * @param volatility annualised implied volatility
+     * @param rate       continuously compounded risk-free rate
+     * @param price      out: call price, the spot price for matured contracts
+     * @param delta      out: dPrice/dSpot
+     * @param gamma      out: dDelta/dSpot
+     * @param theta      out: time decay per calendar day
+     * @param vega       out: price change per 1% volatility move
+     */
+    public static void price(int count, double[] spot, double[] strike, double[] maturity,
+                             double[] volatility, double[] rate,
+                             double[] price, double[] delta, double[] gamma, double[] theta, double[] vega) {
+        for (int i = 0; i < count; i++) {
+            double s = spot[i];
+            double k = strike[i];
+            double vol = volatility[i];
+            double r = rate[i];
+            boolean live = maturity[i] > 0.0;
+            double t = live ? maturity[i] : 1.0; // keeps the maths finite for matured rows
+
+            double sqrtT = Math.sqrt(t);
+            double volSqrtT = vol * sqrtT;
+            double discountedStrike = k * Math.exp(-r * t);
+            double d1 = (Math.log(s / k) + (r + 0.5 * vol * vol) * t) / volSqrtT;
+            double d2 = d1 - volSqrtT;
+
+            // exp(-d^2/2) is both the normal density kernel and the erf(d/sqrt(2)) tail factor
+            double gauss1 = Math.exp(-0.5 * d1 * d1);
+            double pdf1 = gauss1 * INV_SQRT_2PI;
+            double cdf1 = cdf(d1, gauss1);
+            double cdf2 = cdf(d2, Math.exp(-0.5 * d2 * d2));
+
+            price[i] = live ? s * cdf1 - discountedStrike * cdf2 : s;
+            delta[i] = live ? cdf1 : 0.0;
+            gamma[i] = live ? pdf1 / (s * volSqrtT) : 0.0;
+            theta[i] = live ? (-(s * pdf1 * vol) / (2 * sqrtT) - r * discountedStrike * cdf2) / DAYS_PER_YEAR : 0.0;
+            vega[i] = live ? s * sqrtT * pdf1 / 100 : 0.0;
+        }
+    }
+
+    /**
+     * Standard normal CDF from a precomputed exp(-x^2/2)
+     */
+    static double cdf(double x, double gauss) {
+        double t = 1.0 / (1.0 + P * Math.abs(x) * INV_SQRT_2);
+        double erf = 1.0 - ((((A5 * t + A4) * t + A3) * t + A2) * t + A1) * t * gauss;
+        return 0.5 * (1.0 + Math.copySign(erf, x));
+    }
+}
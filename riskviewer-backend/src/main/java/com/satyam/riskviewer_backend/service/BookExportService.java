@@ -0,0 +1,167 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+
+/**
+ * Streams positions and structured products as NDJSON, one object per line.
+ *
+ * Rows are read through a JDBC cursor with app.api.export.fetch-size rows
+ * per round trip and written as they arrive, so neither the entities nor
+ * the response are ever held in full. Each line has the same fields as the
+ * JSON the list endpoints return. The read runs in one read-only
+ * transaction, which PostgreSQL needs to honour the fetch size.
+ */
+@Service
+public class BookExportService {
+
+    private static final String POSITIONS_SQL =
+        "SELECT id, symbol, type, quantity, purchase_price, portfolio_id, created_at FROM positions";
+    private static final String PRODUCTS_SQL =
+        "SELECT sp.*, s.scenario_name, s.scenario_value FROM structured_products sp " +
+        "LEFT JOIN product_risk_scenarios s ON s.product_id = sp.id";
+
+    /**
+     * One position line; field names follow the Position entity's JSON
+     */
+    public record PositionRow(Long id, String symbol, String type, BigDecimal quantity, BigDecimal purchasePrice,
+                              Long portfolioId, LocalDateTime createdAt) {}
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+
+    public BookExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${app.api.export.fetch-size:1000}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // The servlet response buffer decides when to flush, not every line
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every position, or those of one portfolio, in id order
+     */
+    public void exportPositions(Long portfolioId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            query(POSITIONS_SQL, "", portfolioId, rs -> write(generator, new PositionRow(
+                rs.getLong("id"), rs.getString("symbol"), rs.getString("type"),
+                rs.getBigDecimal("quantity"), rs.getBigDecimal("purchase_price"),
+                rs.getLong("portfolio_id"), localDateTime(rs.getTimestamp("created_at")))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Client went away
+        }
+    }
+
+    /**
+     * Write every structured product, or those of one portfolio, in id order with their risk scenarios
+     */
+    public void exportStructuredProducts(Long portfolioId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            // The join repeats a product once per scenario; rows of one product are consecutive
+            StructuredProduct[] current = new StructuredProduct[1];
+            query(PRODUCTS_SQL, "sp.", portfolioId, rs -> {
+                long id = rs.getLong("id");
+                if (current[0] == null || current[0].getId() != id) {
+                    if (current[0] != null) {
+                        write(generator, current[0]);
+                    }
+                    current[0] = product(rs);
+                }
+                String scenario = rs.getString("scenario_name");
+                if (scenario != null) {
+                    current[0].getRiskScenarios().put(scenario, rs.getBigDecimal("scenario_value"));
+                }
+            });
+            if (current[0] != null) {
+                write(generator, current[0]);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void query(String sql, String alias, Long portfolioId, RowCallbackHandler handler) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            if (portfolioId == null) {
+                cursorTemplate.query(sql + " ORDER BY " + alias + "id", handler);
+            } else {
+                cursorTemplate.query(sql + " WHERE " + alias + "portfolio_id = ? ORDER BY " + alias + "id",
+                    handler, portfolioId);
+            }
+        });
+    }
+
+    private StructuredProduct product(ResultSet rs) throws SQLException {
+        StructuredProduct product = new StructuredProduct();
+        product.setId(rs.getLong("id"));
+        product.setProductCode(rs.getString("product_code"));
+        product.setProductType(rs.getString("product_type"));
+        product.setUnderlyingAsset(rs.getString("underlying_asset"));
+        product.setNotionalAmount(rs.getBigDecimal("notional_amount"));
+        product.setStrikePrice(rs.getBigDecimal("strike_price"));
+        product.setBarrierLevel(rs.getBigDecimal("barrier_level"));
+        product.setCouponRate(rs.getBigDecimal("coupon_rate"));
+        product.setIssueDate(localDateTime(rs.getTimestamp("issue_date")));
+        product.setMaturityDate(localDateTime(rs.getTimestamp("maturity_date")));
+        product.setPortfolioId(rs.getLong("portfolio_id"));
+        product.setCurrentPrice(rs.getBigDecimal("current_price"));
+        product.setImpliedVolatility(rs.getBigDecimal("implied_volatility"));
+        product.setDelta(rs.getBigDecimal("delta"));
+        product.setGamma(rs.getBigDecimal("gamma"));
+        product.setTheta(rs.getBigDecimal("theta"));
+        product.setVega(rs.getBigDecimal("vega"));
+        product.setRiskStatus(rs.getString("risk_status"));
+        product.setRiskScenarios(new LinkedHashMap<>());
+        product.setLastUpdated(localDateTime(rs.getTimestamp("last_updated")));
+        return product;
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null); // Lines are separated by the newline alone
+        return generator;
+    }
+
+    private void write(JsonGenerator generator, Object value) {
+        try {
+            lineWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,234 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.numeric.Cholesky;
+import com.satyam.riskviewer_backend.numeric.EwmaCovarianceMatrix;
+
+/**
+ * Per-symbol return covariance, estimated with EWMA from market data ticks.
+ *
+ * Every tick is one observation of log returns. A symbol enters the matrix
+ * with a prior variance from its annual volatility and no correlation;
+ * observed co-movements then take over at the EWMA decay rate. Values are
+ * returned at a one-day horizon, scaled from the tick horizon by
+ * app.risk.covariance.ticks-per-day.
+ *
+ * Cholesky factors are cached per symbol set and reused until the next
+ * tick changes the matrix.
+ */
+@Service
+public class CovarianceService {
+
+    private static final double TRADING_DAYS = 252.0;
+    private static final int MAX_CACHED_FACTORS = 1024;
+
+    private final double ticksPerDay;
+    private final EwmaCovarianceMatrix matrix;
+    private final Map<String, Integer> indexBySymbol = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<List<String>, Factor> factors = new ConcurrentHashMap<>();
+
+    public CovarianceService(@Value("${app.risk.covariance.lambda:0.94}") double lambda,
+                             @Value("${app.risk.covariance.ticks-per-day:1}") double ticksPerDay) {
+        this.ticksPerDay = ticksPerDay;
+        this.matrix = new EwmaCovarianceMatrix(lambda, 64);
+    }
+
+    /**
+     * Apply the tick's returns. Runs before other tick listeners so that
+     * caches invalidated by the same tick are refilled from the new matrix.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onMarketDataTick(MarketDataTickEvent event) {
+        Map<String, MarketDataTickEvent.PriceUpdate> latest = new HashMap<>();
+        for (MarketDataTickEvent.PriceUpdate update : event.getPrices()) {
+            latest.put(update.symbol(), update);
+        }
+
+        int[] indices = new int[latest.size()];
+        double[] returns = new double[latest.size()];
+        int count = 0;
+
+        lock.writeLock().lock();
+        try {
+            for (MarketDataTickEvent.PriceUpdate update : latest.values()) {
+                double price = update.currentPrice().doubleValue();
+                double previous = price - update.priceChange().doubleValue();
+                if (price <= 0.0 || previous <= 0.0) {
+                    continue;
+                }
+                double annualVol = update.volatility() != null ? update.volatility().doubleValue() : 0.20;
+                indices[count] = indexOf(update.symbol(), annualVol);
+                returns[count] = Math.log(price / previous);
+                count++;
+            }
+            matrix.update(indices, returns, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One-day variance of a portfolio, w' S w
+     *
+     * @param symbols   distinct symbols
+     * @param weights   portfolio weight of each symbol
+     * @param annualVol prior annual volatility, used for symbols never seen before
+     */
+    public double portfolioVariance(String[] symbols, double[] weights, double[] annualVol) {
+        int[] indices = indices(symbols, annualVol);
+        lock.readLock().lock();
+        try {
+            return matrix.quadraticForm(indices, weights, indices.length) * ticksPerDay;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Factor loadings L'w of a portfolio, with L the Cholesky factor of the
+     * one-day covariance of its symbols.
+     *
+     * With independent standard normals z, w'(L z) = (L'w)'z is a
+     * correlated portfolio return, so a simulation can draw one normal per
+     * symbol and reuse the same loop as the uncorrelated case.
+     */
+    public double[] portfolioLoadings(String[] symbols, double[] weights, double[] annualVol) {
+        int[] indices = indices(symbols, annualVol);
+        int n = indices.length;
+        double[] lower = factor(symbols, indices);
+
+        double[] loadings = new double[n];
+        for (int j = 0; j < n; j++) {
+            double sum = 0.0;
+            for (int i = j; i < n; i++) {
+                sum += weights[i] * lower[i * n + j];
+            }
+            loadings[j] = sum;
+        }
+        return loadings;
+    }
+
+    /**
+     * One-day covariance between two symbols, 0 when either is unknown
+     */
+    public double covariance(String first, String second) {
+        lock.readLock().lock();
+        try {
+            Integer i = indexBySymbol.get(first);
+            Integer j = indexBySymbol.get(second);
+            return i == null || j == null ? 0.0 : matrix.get(i, j) * ticksPerDay;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSymbolCount() {
+        lock.readLock().lock();
+        try {
+            return matrix.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double[] factor(String[] symbols, int[] indices) {
+        List<String> key = List.of(symbols);
+        int n = indices.length;
+
+        lock.readLock().lock();
+        try {
+            long version = matrix.version();
+            Factor cached = factors.get(key);
+            if (cached != null && cached.version == version) {
+                return cached.lower;
+            }
+
+            double[] covariance = new double[n * n];
+            matrix.copy(indices, n, covariance);
+            for (int i = 0; i < covariance.length; i++) {
+                covariance[i] *= ticksPerDay;
+            }
+
+            double[] lower = Cholesky.decompose(covariance, n);
+            if (lower == null) {
+                // Not positive definite (e.g. two perfectly co-moving symbols): drop correlations
+                lower = new double[n * n];
+                for (int i = 0; i < n; i++) {
+                    lower[i * n + i] = Math.sqrt(Math.max(covariance[i * n + i], 0.0));
+                }
+            }
+
+            if (factors.size() >= MAX_CACHED_FACTORS) {
+                factors.clear();
+            }
+            factors.put(key, new Factor(version, lower));
+            return lower;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] indices(String[] symbols, double[] annualVol) {
+        int[] indices = new int[symbols.length];
+        List<Integer> missing = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < symbols.length; i++) {
+                Integer index = indexBySymbol.get(symbols[i]);
+                if (index == null) {
+                    missing.add(i);
+                } else {
+                    indices[i] = index;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!missing.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                for (int i : missing) {
+                    indices[i] = indexOf(symbols[i], annualVol[i]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Index of a symbol, adding it with a prior variance; caller holds the write lock
+     */
+    private int indexOf(String symbol, double annualVol) {
+        Integer index = indexBySymbol.get(symbol);
+        if (index == null) {
+            double tickVariance = annualVol * annualVol / TRADING_DAYS / ticksPerDay;
+            index = matrix.add(tickVariance);
+            indexBySymbol.put(symbol, index);
+        }
+        return index;
+    }
+
+    /**
+     * Cholesky factor of one symbol set at one matrix version
+     */
+    private record Factor(long version, double[] lower) {}
+}
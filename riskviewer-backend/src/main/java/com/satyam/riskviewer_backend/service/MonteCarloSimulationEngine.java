@@ -0,0 +1,257 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.numeric.NormalQuantile;
+
+/**
+ * Monte Carlo engine for one-day portfolio return simulation.
+ *
+ * Paths are cut into fixed-size chunks and every chunk draws from its own
+ * SplittableRandom stream, split from the seed in chunk order. The result for
+ * a given seed is therefore identical whatever the pool size or scheduling.
+ * Besides plain pseudo-random draws the engine can sample antithetic pairs or
+ * scrambled Sobol' points; see {@link SamplingStrategy}.
+ */
+@Service
+public class MonteCarloSimulationEngine {
+
+    /** Paths per RNG stream - also the smallest unit of parallel work */
+    static final int PATHS_PER_CHUNK = 2048;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloSimulationEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    @Autowired
+    public MonteCarloSimulationEngine(@Qualifier("computePool") ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Simulate portfolio returns for independent, normally distributed assets
+     *
+     * @param weights    portfolio weight of each asset
+     * @param drifts     expected return of each asset over the horizon
+     * @param volatility volatility of each asset over the horizon
+     * @param paths      number of simulated paths
+     * @param seed       seed of the root random stream
+     * @return one simulated portfolio return per path
+     */
+    public double[] simulatePortfolioReturns(double[] weights, double[] drifts, double[] volatility,
+                                             int paths, long seed) {
+        int assets = weights.length;
+        double portfolioDrift = 0.0;
+        double[] loadings = new double[assets];
+        for (int i = 0; i < assets; i++) {
+            portfolioDrift += weights[i] * drifts[i];
+            loadings[i] = weights[i] * volatility[i];
+        }
+        return simulatePortfolioReturns(portfolioDrift, loadings, paths, seed);
+    }
+
+    /**
+     * Simulate portfolio returns driven by independent standard normal factors
+     *
+     * Each path is drift + sum(loadings[i] * z[i]). For correlated assets the
+     * loadings are L'w, with L the Cholesky factor of the covariance matrix,
+     * so a path costs one dot product whatever the correlation structure.
+     *
+     * @param drift    expected portfolio return over the horizon
+     * @param loadings exposure of the portfolio return to each factor
+     * @param paths    number of simulated paths
+     * @param seed     seed of the root random stream
+     * @return one simulated portfolio return per path
+     */
+    public double[] simulatePortfolioReturns(double drift, double[] loadings, int paths, long seed) {
+        return simulatePortfolioReturns(drift, loadings, paths, seed, SamplingStrategy.PSEUDO_RANDOM, 1);
+    }
+
+    /**
+     * Simulate portfolio returns driven by independent standard normal factors,
+     * drawn with the given sampling strategy
+     *
+     * The paths are cut into sections at {@link ScenarioSet#sectionStart}, and
+     * statistics computed per section are independent of one another, which is
+     * what {@link ScenarioSet#sectioned} builds its standard errors on. Antithetic
+     * pairs never straddle a section boundary, and each section of a Sobol' run is
+     * a separately scrambled sequence of its own, with factors assigned to Sobol'
+     * dimensions in order of decreasing loading so the best-distributed dimensions
+     * carry the most variance. Pseudo-random paths do not depend on the sections.
+     *
+     * @param sections number of independent sections, at least 1
+     */
+    public double[] simulatePortfolioReturns(double drift, double[] loadings, int paths, long seed,
+                                             SamplingStrategy sampling, int sections) {
+        return simulatePortfolioReturns(drift, loadings, paths, seed, sampling, sections, () -> false);
+    }
+
+    /**
+     * Simulate portfolio returns as above, giving up once cancelled
+     *
+     * The flag is checked before every chunk, so a cancelled run releases the
+     * pool within one chunk per worker.
+     *
+     * @param cancelled polled from the pool workers while the run is in progress
+     * @throws CancellationException when the flag is raised before the last chunk
+     */
+    public double[] simulatePortfolioReturns(double drift, double[] loadings, int paths, long seed,
+                                             SamplingStrategy sampling, int sections, BooleanSupplier cancelled) {
+        if (sections < 1) {
+            throw new IllegalArgumentException("At least one section is required, got " + sections);
+        }
+        double[] returns = new double[paths];
+        if (paths == 0) {
+            return returns;
+        }
+
+        int chunks = (paths + PATHS_PER_CHUNK - 1) / PATHS_PER_CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        Simulation simulation;
+        if (sampling == SamplingStrategy.SOBOL) {
+            int[] sectionStarts = new int[sections + 1];
+            SobolSequence[] sequences = new SobolSequence[sections];
+            for (int s = 0; s < sections; s++) {
+                sectionStarts[s] = ScenarioSet.sectionStart(paths, sections, s);
+                sequences[s] = new SobolSequence(loadings.length, root.split().nextLong());
+            }
+            sectionStarts[sections] = paths;
+            simulation = new Simulation(returns, drift, byDecreasingMagnitude(loadings), sampling, null,
+                                        sectionStarts, sequences, cancelled);
+        } else {
+            SplittableRandom[] streams = new SplittableRandom[chunks];
+            for (int c = 0; c < chunks; c++) {
+                streams[c] = root.split();
+            }
+            simulation = new Simulation(returns, drift, loadings, sampling, streams, null, null, cancelled);
+        }
+
+        pool.invoke(new SimulationTask(simulation, 0, chunks));
+        return returns;
+    }
+
+    private static double[] byDecreasingMagnitude(double[] loadings) {
+        double[] sorted = new double[loadings.length];
+        for (int i = 0; i < loadings.length; i++) {
+            sorted[i] = -Math.abs(loadings[i]);
+        }
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = -sorted[i]; // A factor's sign does not change its distribution
+        }
+        return sorted;
+    }
+
+    /**
+     * Inputs and output of one simulation, shared by its tasks
+     */
+    private record Simulation(double[] returns, double drift, double[] loadings, SamplingStrategy sampling,
+                              SplittableRandom[] streams, int[] sectionStarts, SobolSequence[] sequences,
+                              BooleanSupplier cancelled) {
+
+        void simulateChunk(int chunk) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Simulation cancelled");
+            }
+            int from = chunk * PATHS_PER_CHUNK;
+            int to = Math.min(returns.length, from + PATHS_PER_CHUNK);
+            switch (sampling) {
+                case PSEUDO_RANDOM -> pseudoRandom(streams[chunk], from, to);
+                case ANTITHETIC -> antithetic(streams[chunk], from, to);
+                case SOBOL -> sobol(from, to);
+            }
+        }
+
+        private void pseudoRandom(SplittableRandom random, int from, int to) {
+            int assets = loadings.length;
+            for (int path = from; path < to; path++) {
+                double portfolioReturn = drift;
+                for (int i = 0; i < assets; i++) {
+                    portfolioReturn += loadings[i] * random.nextGaussian();
+                }
+                returns[path] = portfolioReturn;
+            }
+        }
+
+        private void antithetic(SplittableRandom random, int from, int to) {
+            int assets = loadings.length;
+            // Chunks and sections start at even paths, so pairs stay inside both
+            for (int path = from; path < to; path += 2) {
+                double shock = 0.0;
+                for (int i = 0; i < assets; i++) {
+                    shock += loadings[i] * random.nextGaussian();
+                }
+                returns[path] = drift + shock;
+                if (path + 1 < to) {
+                    returns[path + 1] = drift - shock;
+                }
+            }
+        }
+
+        private void sobol(int from, int to) {
+            int assets = loadings.length;
+            double[] point = new double[assets];
+            int path = from;
+            while (path < to) {
+                int section = Arrays.binarySearch(sectionStarts, path);
+                if (section < 0) {
+                    section = -section - 2;
+                }
+                while (sectionStarts[section + 1] == path) {
+                    section++; // Skip empty sections
+                }
+                int end = Math.min(to, sectionStarts[section + 1]);
+                SobolSequence.Cursor cursor = sequences[section].cursor(path - sectionStarts[section]);
+                for (; path < end; path++) {
+                    cursor.next(point);
+                    double portfolioReturn = drift;
+                    for (int i = 0; i < assets; i++) {
+                        portfolioReturn += loadings[i] * NormalQuantile.inverseCdf(point[i]);
+                    }
+                    returns[path] = portfolioReturn;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fork/join task over a range of chunks
+     */
+    private static final class SimulationTask extends RecursiveAction {
+
+        private final Simulation simulation;
+        private final int fromChunk;
+        private final int toChunk;
+
+        SimulationTask(Simulation simulation, int fromChunk, int toChunk) {
+            this.simulation = simulation;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                simulation.simulateChunk(fromChunk);
+                return;
+            }
+            int mid = (fromChunk + toChunk) >>> 1;
+            invokeAll(
+                new SimulationTask(simulation, fromChunk, mid),
+                new SimulationTask(simulation, mid, toChunk)
+            );
+        }
+    }
+}
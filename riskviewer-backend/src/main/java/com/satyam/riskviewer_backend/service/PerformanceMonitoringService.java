@@ -1,6 +1,8 @@
 package com.satyam.riskviewer_backend.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
@@ -8,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Performance Monitoring Service for RiskViewer
@@ -22,6 +26,7 @@ public class PerformanceMonitoringService {
     private final Counter requestCounter;
     private final Counter errorCounter;
     private final AtomicInteger activeConnections;
+    private final Timer marketDataLag;
     
     public PerformanceMonitoringService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -39,6 +44,12 @@ public class PerformanceMonitoringService {
                 
         this.activeConnections = meterRegistry.gauge("riskviewer.connections.active", 
                 new AtomicInteger(0));
+
+        this.marketDataLag = Timer.builder("riskviewer.marketdata.lag")
+                .description("Delay from feed timestamp to revaluation of market data ticks")
+                .tag("application", "riskviewer")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
     
     /**
@@ -112,6 +123,32 @@ public class PerformanceMonitoringService {
                 .record(executionTimeMs, java.util.concurrent.TimeUnit.MILLISECONDS);
     }
     
+    /**
+     * Record how long the oldest tick of a market data batch waited before it was applied
+     */
+    public void recordMarketDataLag(long lagMs) {
+        marketDataLag.record(lagMs, java.util.concurrent.TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Register a gauge sampled from the given supplier
+     */
+    public void registerGauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Register a counter read from a monotonic total kept by the given object,
+     * which is only weakly referenced and must be kept alive by the caller
+     */
+    public <T> void registerCounter(String name, String description, T owner, ToDoubleFunction<T> total) {
+        FunctionCounter.builder(name, owner, total)
+                .description(description)
+                .register(meterRegistry);
+    }
+    
     /**
      * Record cache metrics
      */
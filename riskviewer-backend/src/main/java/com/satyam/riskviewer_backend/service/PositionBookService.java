@@ -0,0 +1,219 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.dto.LivePnLDTO;
+import com.satyam.riskviewer_backend.event.PositionsChangedEvent;
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.repository.PositionRepository;
+
+/**
+ * In-memory position book for live P&L.
+ *
+ * Positions are aggregated per (portfolio, symbol) and indexed by symbol, and
+ * every portfolio keeps running market value and cost basis totals. A price
+ * tick only touches the holdings of the symbol that moved, so its cost is
+ * proportional to the number of portfolios holding that symbol rather than
+ * to the size of the positions table.
+ */
+@Service
+public class PositionBookService {
+
+    private final PositionRepository positionRepository;
+
+    private final Map<String, SymbolBook> symbols = new ConcurrentHashMap<>();
+    private final Map<Long, PortfolioBook> portfolios = new ConcurrentHashMap<>();
+
+    public PositionBookService(PositionRepository positionRepository) {
+        this.positionRepository = positionRepository;
+    }
+
+    /**
+     * Build the book once the sample data has been loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBook() {
+        Map<Long, List<Position>> byPortfolio = new HashMap<>();
+        for (Position position : positionRepository.findAll()) {
+            byPortfolio.computeIfAbsent(position.getPortfolioId(), id -> new ArrayList<>()).add(position);
+        }
+        byPortfolio.forEach(this::replacePortfolio);
+    }
+
+    /**
+     * Reload one portfolio after its positions changed in the database
+     */
+    public void reloadPortfolio(Long portfolioId) {
+        replacePortfolio(portfolioId, positionRepository.findByPortfolioId(portfolioId));
+    }
+    
+    @EventListener
+    public void onPositionsChanged(PositionsChangedEvent event) {
+        event.getPortfolioIds().forEach(this::reloadPortfolio);
+    }
+
+    /**
+     * Mark every holding of a symbol to a new price and update the affected portfolio totals
+     */
+    public void applyPrice(String symbol, BigDecimal price) {
+        SymbolBook symbolBook = symbols.computeIfAbsent(symbol, SymbolBook::new);
+        double newPrice = price.doubleValue();
+        symbolBook.price = newPrice;
+        symbolBook.priced = true;
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Holding holding : symbolBook.holdings.values()) {
+            PortfolioBook portfolio = holding.portfolio;
+            synchronized (portfolio) {
+                double marketValue = holding.quantity * newPrice;
+                portfolio.marketValue += marketValue - holding.marketValue;
+                holding.marketValue = marketValue;
+                portfolio.lastUpdated = now;
+            }
+        }
+    }
+
+    /**
+     * Current P&L of a portfolio, or null when the book does not hold it
+     */
+    public LivePnLDTO getLivePnL(Long portfolioId) {
+        PortfolioBook portfolio = portfolios.get(portfolioId);
+        if (portfolio == null) {
+            return null;
+        }
+
+        synchronized (portfolio) {
+            List<LivePnLDTO.SymbolPnL> holdings = new ArrayList<>(portfolio.holdings.size());
+            for (Holding holding : portfolio.holdings.values()) {
+                double pnl = holding.marketValue - holding.costBasis;
+                holdings.add(new LivePnLDTO.SymbolPnL(holding.symbol.symbol,
+                    money(holding.quantity), money(holding.symbol.price), money(holding.marketValue),
+                    money(holding.costBasis), money(pnl), percent(pnl, holding.costBasis)));
+            }
+
+            double pnl = portfolio.marketValue - portfolio.costBasis;
+            return new LivePnLDTO(portfolioId, money(portfolio.marketValue), money(portfolio.costBasis),
+                money(pnl), percent(pnl, portfolio.costBasis), portfolio.lastUpdated, holdings);
+        }
+    }
+    
+    /**
+     * Portfolios currently holding a symbol
+     */
+    public Set<Long> getPortfoliosHolding(String symbol) {
+        SymbolBook symbolBook = symbols.get(symbol);
+        return symbolBook == null ? Set.of() : Set.copyOf(symbolBook.holdings.keySet());
+    }
+
+    public int getPortfolioCount() {
+        return portfolios.size();
+    }
+
+    /**
+     * Swap in a freshly built book for one portfolio, or drop it when it holds nothing
+     *
+     * New holdings are registered on their symbols before they are marked, and
+     * under the portfolio lock, so a concurrent tick is either seen by the mark
+     * or applied to the holding right after it. A symbol held before and after
+     * the reload has its holding replaced in one step, with no gap in which a
+     * tick would reach neither.
+     */
+    private synchronized void replacePortfolio(Long portfolioId, List<Position> positions) {
+        PortfolioBook portfolio = new PortfolioBook();
+        synchronized (portfolio) {
+            for (Position position : positions) {
+                SymbolBook symbolBook = symbols.computeIfAbsent(position.getSymbol(), SymbolBook::new);
+                Holding holding = portfolio.holdings.computeIfAbsent(position.getSymbol(),
+                    symbol -> new Holding(portfolio, symbolBook));
+                double quantity = position.getQuantity().doubleValue();
+                holding.quantity += quantity;
+                holding.costBasis += quantity * position.getPurchasePrice().doubleValue();
+            }
+
+            for (Holding holding : portfolio.holdings.values()) {
+                holding.symbol.holdings.put(portfolioId, holding);
+            }
+            for (Holding holding : portfolio.holdings.values()) {
+                // Until the first tick arrives a holding is marked at cost
+                holding.marketValue = holding.symbol.priced
+                    ? holding.quantity * holding.symbol.price
+                    : holding.costBasis;
+                portfolio.marketValue += holding.marketValue;
+                portfolio.costBasis += holding.costBasis;
+            }
+            portfolio.lastUpdated = LocalDateTime.now();
+        }
+
+        PortfolioBook previous = portfolio.holdings.isEmpty()
+            ? portfolios.remove(portfolioId) : portfolios.put(portfolioId, portfolio);
+        if (previous != null) {
+            for (Holding holding : previous.holdings.values()) {
+                // Only symbols the portfolio no longer holds still point at the old holding
+                holding.symbol.holdings.remove(portfolioId, holding);
+            }
+        }
+    }
+
+    private BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal percent(double pnl, double costBasis) {
+        if (costBasis == 0.0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(pnl / costBasis * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Last price of a symbol and the portfolios holding it
+     */
+    private static final class SymbolBook {
+        private final String symbol;
+        private final Map<Long, Holding> holdings = new ConcurrentHashMap<>();
+        private volatile double price;
+        private volatile boolean priced;
+
+        SymbolBook(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * All positions of one portfolio in one symbol, guarded by the portfolio lock
+     */
+    private static final class Holding {
+        private final PortfolioBook portfolio;
+        private final SymbolBook symbol;
+        private double quantity;
+        private double costBasis;
+        private double marketValue;
+
+        Holding(PortfolioBook portfolio, SymbolBook symbol) {
+            this.portfolio = portfolio;
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * Running totals of one portfolio
+     */
+    private static final class PortfolioBook {
+        private final Map<String, Holding> holdings = new HashMap<>();
+        private double marketValue;
+        private double costBasis;
+        private LocalDateTime lastUpdated;
+    }
+}
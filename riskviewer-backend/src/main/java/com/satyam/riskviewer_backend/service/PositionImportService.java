@@ -0,0 +1,398 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satyam.riskviewer_backend.dto.PositionImportDTO;
+import com.satyam.riskviewer_backend.dto.PositionImportDTO.BatchReport;
+import com.satyam.riskviewer_backend.dto.PositionImportDTO.RowError;
+import com.satyam.riskviewer_backend.event.PositionsChangedEvent;
+
+/**
+ * Streaming bulk import of positions from CSV or NDJSON.
+ *
+ * Input is read one line at a time, so only the current batch is held in
+ * memory whatever the file size. Each row is validated; rejected rows are
+ * reported with their line number and the rest are inserted in batches of
+ * app.positions.import.batch-size, each in its own transaction. On
+ * PostgreSQL a batch is streamed with COPY, elsewhere it is a JDBC batch
+ * insert. A batch that fails to insert stops the import; the batches
+ * before it stay committed. One PositionsChangedEvent for every portfolio
+ * touched is published when the import ends.
+ *
+ * CSV columns are symbol,type,quantity,purchase_price,portfolio_id with an
+ * optional header line. NDJSON lines are objects with the field names of
+ * the positions API: symbol, type, quantity, purchasePrice, portfolioId.
+ */
+@Service
+public class PositionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionImportService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO positions (symbol, type, quantity, purchase_price, portfolio_id, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String COPY_SQL =
+        "COPY positions (symbol, type, quantity, purchase_price, portfolio_id, created_at) FROM STDIN WITH (FORMAT csv)";
+
+    private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9._-]{1,32}");
+    private static final Pattern TYPE = Pattern.compile("[A-Za-z][A-Za-z0-9 _-]{0,31}");
+    private static final int MAX_ERRORS_PER_BATCH = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PerformanceMonitoringService performanceMonitoringService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final boolean useCopy;
+    private final Duration retention;
+
+    private final Map<String, Import> imports = new ConcurrentHashMap<>();
+    private volatile Boolean copySupported;
+
+    public PositionImportService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PerformanceMonitoringService performanceMonitoringService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.positions.import.batch-size:5000}") int batchSize,
+                                 @Value("${app.positions.import.use-copy:true}") boolean useCopy,
+                                 @Value("${app.positions.import.retention-minutes:60}") long retentionMinutes) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Import batch size must be positive, got " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.performanceMonitoringService = performanceMonitoringService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.useCopy = useCopy;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * Import every row of the input on the calling thread
+     *
+     * The import can be followed from other threads through
+     * {@link #getImport(String)} while it runs. Read and database errors end
+     * it as FAILED rather than being thrown.
+     */
+    public PositionImportDTO importPositions(Reader reader, PositionImportDTO.Format format) {
+        Import state = new Import(format);
+        imports.put(state.id, state);
+        Set<Long> portfolioIds = new HashSet<>();
+        long startTime = System.currentTimeMillis();
+
+        try {
+            state.insertMethod = copyAvailable() ? "COPY" : "JDBC_BATCH";
+            BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+            Batch batch = new Batch(1);
+            long lineNumber = 0;
+            boolean first = true;
+
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (first && format == PositionImportDTO.Format.CSV && line.regionMatches(true, 0, "symbol", 0, 6)) {
+                    first = false;
+                    continue; // Header
+                }
+                first = false;
+
+                batch.extendTo(lineNumber);
+                state.rowsRead++;
+                try {
+                    batch.rows.add(format == PositionImportDTO.Format.CSV ? parseCsv(line) : parseJson(line));
+                } catch (IllegalArgumentException e) {
+                    batch.reject(lineNumber, e.getMessage());
+                }
+
+                if (batch.rows.size() == batchSize) {
+                    flush(state, batch, portfolioIds);
+                    batch = new Batch(batch.number + 1);
+                }
+            }
+            if (batch.firstRow > 0) {
+                flush(state, batch, portfolioIds);
+            }
+            state.finish(PositionImportDTO.Status.COMPLETED, null);
+        } catch (IOException | DataAccessException e) {
+            logger.warn("Position import {} failed after {} rows: {}", state.id, state.rowsRead, e.getMessage());
+            state.finish(PositionImportDTO.Status.FAILED, e.getMessage());
+        } finally {
+            if (!portfolioIds.isEmpty()) {
+                eventPublisher.publishEvent(new PositionsChangedEvent(portfolioIds));
+            }
+            performanceMonitoringService.recordDatabaseOperation("PositionImport", System.currentTimeMillis() - startTime);
+        }
+
+        logger.info("Position import {} {}: {} rows read, {} inserted, {} rejected", state.id, state.status,
+            state.rowsRead, state.rowsInserted, state.rowsRejected);
+        return state.toDTO();
+    }
+
+    /**
+     * Current state of an import, or null when unknown or expired
+     */
+    public PositionImportDTO getImport(String importId) {
+        Import state = imports.get(importId);
+        return state == null ? null : state.toDTO();
+    }
+
+    /**
+     * Imports still running or finished within the retention period, most recent first
+     */
+    public List<PositionImportDTO> listImports() {
+        return imports.values().stream()
+            .sorted(Comparator.comparing((Import state) -> state.startedAt).reversed())
+            .map(Import::toDTO)
+            .toList();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void purgeFinishedImports() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        imports.values().removeIf(state -> state.finishedAt != null && state.finishedAt.isBefore(cutoff));
+    }
+
+    ImportRow parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 columns, got " + fields.length);
+        }
+        return validate(fields[0].trim(), fields[1].trim(), decimal(fields[2].trim(), "quantity"),
+            decimal(fields[3].trim(), "purchase_price"), portfolioId(fields[4].trim()));
+    }
+
+    ImportRow parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return validate(node.path("symbol").asText(""), node.path("type").asText(""),
+            decimal(node.path("quantity").asText(""), "quantity"),
+            decimal(node.path("purchasePrice").asText(""), "purchasePrice"),
+            portfolioId(node.path("portfolioId").asText("")));
+    }
+
+    private ImportRow validate(String symbol, String type, BigDecimal quantity, BigDecimal purchasePrice,
+                               long portfolioId) {
+        if (!SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Invalid symbol '" + symbol + "'");
+        }
+        if (!TYPE.matcher(type).matches()) {
+            throw new IllegalArgumentException("Invalid type '" + type + "'");
+        }
+        if (quantity.signum() == 0) {
+            throw new IllegalArgumentException("Quantity must not be zero");
+        }
+        if (purchasePrice.signum() <= 0) {
+            throw new IllegalArgumentException("Purchase price must be positive, got " + purchasePrice.toPlainString());
+        }
+        return new ImportRow(symbol, type, quantity, purchasePrice, portfolioId);
+    }
+
+    private BigDecimal decimal(String value, String field) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + " '" + value + "'");
+        }
+    }
+
+    private long portfolioId(String value) {
+        long id;
+        try {
+            id = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid portfolio id '" + value + "'");
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("Portfolio id must be positive, got " + id);
+        }
+        return id;
+    }
+
+    private void flush(Import state, Batch batch, Set<Long> portfolioIds) {
+        long startTime = System.currentTimeMillis();
+        if (!batch.rows.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch.rows, now));
+            } catch (DataAccessException e) {
+                throw new DataAccessResourceFailureException("Batch " + batch.number + " (rows " + batch.firstRow
+                    + "-" + batch.lastRow + ") was not inserted: " + e.getMostSpecificCause().getMessage(), e);
+            }
+            for (ImportRow row : batch.rows) {
+                portfolioIds.add(row.portfolioId());
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        state.rowsInserted += batch.rows.size();
+        state.rowsRejected += batch.rejected;
+        state.batches.add(new BatchReport(batch.number, batch.firstRow, batch.lastRow, batch.rows.size(),
+            batch.rejected, elapsed, List.copyOf(batch.errors)));
+        performanceMonitoringService.recordDatabaseOperation("PositionImportBatch", elapsed);
+    }
+
+    private void insert(List<ImportRow> rows, LocalDateTime now) {
+        if (copyAvailable()) {
+            jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, rows, now));
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.symbol());
+            ps.setString(2, row.type());
+            ps.setBigDecimal(3, row.quantity());
+            ps.setBigDecimal(4, row.purchasePrice());
+            ps.setLong(5, row.portfolioId());
+            ps.setTimestamp(6, createdAt);
+        });
+    }
+
+    private long copy(Connection connection, List<ImportRow> rows, LocalDateTime now) throws SQLException {
+        // Symbols and types are validated against patterns without commas or quotes, so nothing needs quoting
+        StringBuilder csv = new StringBuilder(rows.size() * 64);
+        String createdAt = now.toString();
+        for (ImportRow row : rows) {
+            csv.append(row.symbol()).append(',')
+                .append(row.type()).append(',')
+                .append(row.quantity().toPlainString()).append(',')
+                .append(row.purchasePrice().toPlainString()).append(',')
+                .append(row.portfolioId()).append(',')
+                .append(createdAt).append('\n');
+        }
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into positions failed", e);
+        }
+    }
+
+    private boolean copyAvailable() {
+        Boolean supported = copySupported;
+        if (supported == null) {
+            supported = useCopy && Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+            copySupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * A validated input row
+     */
+    record ImportRow(String symbol, String type, BigDecimal quantity, BigDecimal purchasePrice, long portfolioId) {}
+
+    /**
+     * Rows read since the last flush
+     */
+    private static final class Batch {
+
+        private final int number;
+        private final List<ImportRow> rows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int rejected;
+        private long firstRow;
+        private long lastRow;
+
+        Batch(int number) {
+            this.number = number;
+        }
+
+        void extendTo(long row) {
+            if (firstRow == 0) {
+                firstRow = row;
+            }
+            lastRow = row;
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS_PER_BATCH) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    /**
+     * A running or finished import; written only by the importing thread
+     */
+    private static final class Import {
+
+        private final String id = UUID.randomUUID().toString();
+        private final PositionImportDTO.Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<BatchReport> batches = new CopyOnWriteArrayList<>();
+
+        private volatile String insertMethod;
+        private volatile PositionImportDTO.Status status = PositionImportDTO.Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long rowsRead;
+        private volatile long rowsInserted;
+        private volatile long rowsRejected;
+        private volatile String error;
+
+        Import(PositionImportDTO.Format format) {
+            this.format = format;
+        }
+
+        void finish(PositionImportDTO.Status outcome, String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = outcome;
+        }
+
+        PositionImportDTO toDTO() {
+            return new PositionImportDTO(id, format, status, insertMethod, startedAt, finishedAt, rowsRead,
+                rowsInserted, rowsRejected, List.copyOf(batches), error);
+        }
+    }
+}
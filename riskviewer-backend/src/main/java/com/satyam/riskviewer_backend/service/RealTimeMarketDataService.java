@@ -2,134 +2,146 @@ package com.satyam.riskviewer_backend.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.alert.AlertEngine;
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.marketdata.QuoteTable;
+import com.satyam.riskviewer_backend.marketdata.Tick;
 import com.satyam.riskviewer_backend.model.StructuredProduct;
-import com.satyam.riskviewer_backend.repository.PositionRepository;
-import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
+import com.satyam.riskviewer_backend.numeric.Decimals;
 
 @Service
 public class RealTimeMarketDataService {
     
-    private final PositionRepository positionRepository;
-    private final StructuredProductRepository structuredProductRepository;
-    private final StructuredProductPricingService pricingService;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
     
-    // In-memory cache for real-time prices
-    private final Map<String, BigDecimal> currentPrices = new ConcurrentHashMap<>();
-    private final Map<String, BigDecimal> priceChanges = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> lastUpdated = new ConcurrentHashMap<>();
+    private final PositionBookService positionBookService;
+    private final StructuredProductRevaluationService revaluationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlertEngine alertEngine;
     
-    // Market volatility cache
-    private final Map<String, BigDecimal> impliedVolatilities = new ConcurrentHashMap<>();
+    // Latest price, change, implied volatility and update time per symbol, written by the market data pipeline
+    private final QuoteTable quotes;
     
-    // Risk alerts
-    private final List<String> activeAlerts = new ArrayList<>();
+    // Tick sequence number for push subscribers
+    private final AtomicLong tickSequence = new AtomicLong();
     
-    public RealTimeMarketDataService(PositionRepository positionRepository, 
-                                   StructuredProductRepository structuredProductRepository,
-                                   StructuredProductPricingService pricingService) {
-        this.positionRepository = positionRepository;
-        this.structuredProductRepository = structuredProductRepository;
-        this.pricingService = pricingService;
+    public RealTimeMarketDataService(PositionBookService positionBookService, 
+                                   StructuredProductRevaluationService revaluationService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   AlertEngine alertEngine,
+                                   @Value("${app.market-data.max-symbols:16384}") int maxSymbols) {
+        this.positionBookService = positionBookService;
+        this.revaluationService = revaluationService;
+        this.eventPublisher = eventPublisher;
+        this.alertEngine = alertEngine;
+        this.quotes = new QuoteTable(maxSymbols);
         
         // Initialize with mock data
         initializeMockMarketData();
+        for (int id = 0; id < quotes.size(); id++) {
+            QuoteTable.Quote quote = quotes.quote(id);
+            positionBookService.applyPrice(quote.symbol(), Decimals.money(quote.price()));
+        }
     }
     
     /**
-     * Simulate real-time market data updates every 30 seconds
-     * In production, this would connect to Bloomberg/Reuters/IEX feeds
+     * Apply a batch of feed ticks, at most one per symbol, and push the result as one tick event.
+     * Called from the market data pipeline's engine thread only.
      */
-    @Scheduled(fixedRate = 30000) // Every 30 seconds
-    public void updateMarketData() {
-        Random random = new Random();
-        
-        // Simulate market movements for major symbols
-        String[] symbols = {"AAPL", "MSFT", "GOOGL", "TSLA", "NVDA", "AMZN", "SPY", "TLT", "VXX", "BITO"};
+    public void applyTicks(List<Tick> ticks) {
+        List<MarketDataTickEvent.PriceUpdate> tickPrices = new ArrayList<>(ticks.size());
+        List<MarketDataTickEvent.GreeksUpdate> tickGreeks = new ArrayList<>();
+        List<MarketDataTickEvent.Alert> tickAlerts = new ArrayList<>();
         
-        for (String symbol : symbols) {
-            BigDecimal currentPrice = currentPrices.get(symbol);
-            if (currentPrice != null) {
-                // Generate realistic price movement (-2% to +2%)
-                double changePercent = (random.nextGaussian() * 0.005); // 0.5% std dev
-                changePercent = Math.max(-0.02, Math.min(0.02, changePercent)); // Cap at ±2%
-                
-                BigDecimal newPrice = currentPrice.multiply(BigDecimal.valueOf(1 + changePercent))
-                    .setScale(2, RoundingMode.HALF_UP);
-                
-                BigDecimal priceChange = newPrice.subtract(currentPrice);
-                
-                currentPrices.put(symbol, newPrice);
-                priceChanges.put(symbol, priceChange);
-                lastUpdated.put(symbol, LocalDateTime.now());
-                
-                // Update volatility simulation
-                updateImpliedVolatility(symbol, Math.abs(changePercent));
-                
-                // Check for risk alerts
-                checkRiskAlerts(symbol, newPrice, priceChange);
+        for (Tick tick : ticks) {
+            String symbol = tick.symbol();
+            double newPrice = Math.round(tick.price() * 100) / 100.0;
+            int id = newPrice > 0 ? quotes.symbols().intern(symbol) : -1;
+            if (id < 0) {
+                continue; // A price that rounds to nothing, or the quote table is full
             }
+            double currentPrice = quotes.price(id);
+            boolean known = !Double.isNaN(currentPrice);
+            double priceChange = known ? newPrice - currentPrice : 0.0;
+            double changePercent = known ? tick.price() / currentPrice - 1 : 0.0;
+            
+            double volatility;
+            if (tick.volatility() > 0 && Double.isFinite(tick.volatility())) {
+                volatility = roundVolatility(tick.volatility());
+            } else {
+                // No quoted volatility: update volatility simulation
+                volatility = updateImpliedVolatility(quotes.volatility(id), Math.abs(changePercent));
+            }
+            
+            long updatedAt = System.currentTimeMillis() * NANOS_PER_MILLI;
+            quotes.put(id, newPrice, priceChange, volatility, updatedAt);
+            
+            tickPrices.add(new MarketDataTickEvent.PriceUpdate(symbol, Decimals.money(newPrice),
+                Decimals.money(priceChange), changePercent * 100, volatilityOrNull(volatility), toLocalDateTime(updatedAt)));
+            
+            // Check for risk alerts
+            checkRiskAlerts(symbol, newPrice, priceChange, volatility, tickAlerts);
+        }
+        if (tickPrices.isEmpty()) {
+            return;
         }
         
         // Update positions and structured products with new prices
-        updatePositionPrices();
-        updateStructuredProductPrices();
+        updatePositionPrices(tickPrices);
+        updateStructuredProductPrices(tickPrices, tickGreeks, tickAlerts);
+        
+        // Push the whole batch to subscribers in one event
+        eventPublisher.publishEvent(new MarketDataTickEvent(
+            tickSequence.incrementAndGet(), tickPrices, tickGreeks, tickAlerts));
     }
     
     /**
      * Update position values with real-time prices
      */
-    private void updatePositionPrices() {
-        List<Position> allPositions = positionRepository.findAll();
-        
-        for (Position position : allPositions) {
-            BigDecimal newPrice = currentPrices.get(position.getSymbol());
-            if (newPrice != null) {
-                // In a real system, you'd update a market_price field
-                // For demo, we'll just track the current market values
-                BigDecimal marketValue = newPrice.multiply(position.getQuantity());
-                BigDecimal purchaseValue = position.getPurchasePrice().multiply(position.getQuantity());
-                BigDecimal pnl = marketValue.subtract(purchaseValue);
-                
-                // Could store this in a separate PnL tracking table
-                System.out.println(String.format("Position %s: Market Value: $%s, P&L: $%s", 
-                    position.getSymbol(), marketValue, pnl));
-            }
+    private void updatePositionPrices(List<MarketDataTickEvent.PriceUpdate> tickPrices) {
+        // Only holdings of the symbols that moved are re-marked
+        for (MarketDataTickEvent.PriceUpdate update : tickPrices) {
+            positionBookService.applyPrice(update.symbol(), update.currentPrice());
         }
     }
     
     /**
      * Update structured products with new market data
      */
-    private void updateStructuredProductPrices() {
-        List<StructuredProduct> products = structuredProductRepository.findAll();
+    private void updateStructuredProductPrices(List<MarketDataTickEvent.PriceUpdate> tickPrices,
+                                               List<MarketDataTickEvent.GreeksUpdate> tickGreeks,
+                                               List<MarketDataTickEvent.Alert> tickAlerts) {
+        Map<String, BigDecimal> movedPrices = new HashMap<>();
+        Map<String, BigDecimal> movedVolatilities = new HashMap<>();
+        for (MarketDataTickEvent.PriceUpdate update : tickPrices) {
+            movedPrices.put(update.symbol(), update.currentPrice());
+            if (update.volatility() != null) {
+                movedVolatilities.put(update.symbol(), update.volatility());
+            }
+        }
         
-        for (StructuredProduct product : products) {
-            BigDecimal newPrice = currentPrices.get(product.getUnderlyingAsset());
-            BigDecimal newVol = impliedVolatilities.get(product.getUnderlyingAsset());
-            
-            if (newPrice != null && newVol != null) {
-                product.setCurrentPrice(newPrice);
-                product.setImpliedVolatility(newVol);
-                product.setLastUpdated(LocalDateTime.now());
-                
-                // Recalculate Greeks and pricing
-                pricingService.calculateGreeks(product);
-                pricingService.assessRiskStatus(product);
-                
-                // Save updated product
-                structuredProductRepository.save(product);
-                
-                // Check for barrier proximity alerts
-                checkBarrierAlerts(product);
+        // Only products on moved underlyings are loaded, repriced and written back
+        for (StructuredProductRevaluationService.Revaluation revaluation
+                : revaluationService.revalue(movedPrices, movedVolatilities)) {
+            StructuredProduct product = revaluation.product();
+            if (revaluation.greeksChanged()) {
+                tickGreeks.add(new MarketDataTickEvent.GreeksUpdate(product.getId(), product.getProductCode(),
+                    product.getUnderlyingAsset(), product.getPortfolioId(), product.getDelta(), product.getGamma(),
+                    product.getTheta(), product.getVega(), product.getRiskStatus()));
             }
+                
+            // Check for barrier proximity alerts
+            checkBarrierAlerts(product, tickAlerts);
         }
     }
     
@@ -137,138 +149,171 @@ public class RealTimeMarketDataService {
      * Initialize mock market data
      */
     private void initializeMockMarketData() {
-        // Initialize with realistic starting prices
-        currentPrices.put("AAPL", new BigDecimal("145.50"));
-        currentPrices.put("MSFT", new BigDecimal("280.00"));
-        currentPrices.put("GOOGL", new BigDecimal("125.30"));
-        currentPrices.put("TSLA", new BigDecimal("240.00"));
-        currentPrices.put("NVDA", new BigDecimal("450.00"));
-        currentPrices.put("AMZN", new BigDecimal("330.00"));
-        currentPrices.put("SPY", new BigDecimal("420.00"));
-        currentPrices.put("TLT", new BigDecimal("95.20"));
-        currentPrices.put("VXX", new BigDecimal("12.50"));
-        currentPrices.put("BITO", new BigDecimal("28.50"));
-        
-        // Initialize volatilities
-        impliedVolatilities.put("AAPL", new BigDecimal("0.25"));
-        impliedVolatilities.put("MSFT", new BigDecimal("0.22"));
-        impliedVolatilities.put("GOOGL", new BigDecimal("0.28"));
-        impliedVolatilities.put("TSLA", new BigDecimal("0.45"));
-        impliedVolatilities.put("NVDA", new BigDecimal("0.35"));
-        impliedVolatilities.put("AMZN", new BigDecimal("0.30"));
-        impliedVolatilities.put("SPY", new BigDecimal("0.18"));
-        impliedVolatilities.put("TLT", new BigDecimal("0.08"));
-        impliedVolatilities.put("VXX", new BigDecimal("0.80"));
-        impliedVolatilities.put("BITO", new BigDecimal("0.60"));
-        
-        // Initialize timestamps
-        LocalDateTime now = LocalDateTime.now();
-        for (String symbol : currentPrices.keySet()) {
-            lastUpdated.put(symbol, now);
-            priceChanges.put(symbol, BigDecimal.ZERO);
-        }
+        // Initialize with realistic starting prices and volatilities
+        long now = System.currentTimeMillis() * NANOS_PER_MILLI;
+        quotes.put("AAPL", 145.50, 0.0, 0.25, now);
+        quotes.put("MSFT", 280.00, 0.0, 0.22, now);
+        quotes.put("GOOGL", 125.30, 0.0, 0.28, now);
+        quotes.put("TSLA", 240.00, 0.0, 0.45, now);
+        quotes.put("NVDA", 450.00, 0.0, 0.35, now);
+        quotes.put("AMZN", 330.00, 0.0, 0.30, now);
+        quotes.put("SPY", 420.00, 0.0, 0.18, now);
+        quotes.put("TLT", 95.20, 0.0, 0.08, now);
+        quotes.put("VXX", 12.50, 0.0, 0.80, now);
+        quotes.put("BITO", 28.50, 0.0, 0.60, now);
     }
     
     /**
      * Update implied volatility based on price movements
      */
-    private void updateImpliedVolatility(String symbol, double priceChangePercent) {
-        BigDecimal currentVol = impliedVolatilities.get(symbol);
-        if (currentVol != null) {
-            // Volatility increases with large price movements
-            double volAdjustment = priceChangePercent * 2; // Amplify vol response
-            BigDecimal newVol = currentVol.multiply(BigDecimal.valueOf(1 + volAdjustment))
-                .setScale(4, RoundingMode.HALF_UP);
-            
-            // Keep volatility within reasonable bounds
-            newVol = newVol.max(BigDecimal.valueOf(0.05)); // Min 5%
-            newVol = newVol.min(BigDecimal.valueOf(2.00)); // Max 200%
-            
-            impliedVolatilities.put(symbol, newVol);
+    private static double updateImpliedVolatility(double currentVol, double priceChangePercent) {
+        if (Double.isNaN(currentVol)) {
+            return Double.NaN;
         }
+        // Volatility increases with large price movements
+        double volAdjustment = priceChangePercent * 2; // Amplify vol response
+        double newVol = roundVolatility(currentVol * (1 + volAdjustment));
+        
+        // Keep volatility within reasonable bounds
+        return Math.min(2.00, Math.max(0.05, newVol)); // Between 5% and 200%
+    }
+    
+    private static double roundVolatility(double volatility) {
+        return Math.round(volatility * 10_000) / 10_000.0;
+    }
+    
+    private static BigDecimal volatilityOrNull(double volatility) {
+        return Double.isNaN(volatility) ? null : Decimals.scaled(volatility, 4);
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
     }
     
     /**
      * Check for risk alerts on price movements
      */
-    private void checkRiskAlerts(String symbol, BigDecimal newPrice, BigDecimal priceChange) {
-        double changePercent = priceChange.divide(newPrice.subtract(priceChange), 4, RoundingMode.HALF_UP).doubleValue() * 100;
+    private void checkRiskAlerts(String symbol, double newPrice, double priceChange, double vol,
+                                 List<MarketDataTickEvent.Alert> tickAlerts) {
+        double changePercent = priceChange / (newPrice - priceChange) * 100;
         
         // Alert on large moves
         if (Math.abs(changePercent) > 3.0) {
             String alert = String.format("ALERT: %s moved %.2f%% to $%.2f", 
                 symbol, changePercent, newPrice);
-            activeAlerts.add(alert);
-            System.out.println(alert);
+            raiseAlert(alert, "HIGH", "PRICE_MOVE", null, symbol, tickAlerts);
         }
         
         // Alert on volatility spikes
-        BigDecimal vol = impliedVolatilities.get(symbol);
-        if (vol != null && vol.compareTo(BigDecimal.valueOf(0.50)) > 0) {
+        if (vol > 0.50) {
             String alert = String.format("VOLATILITY ALERT: %s implied vol at %.1f%%", 
-                symbol, vol.doubleValue() * 100);
-            activeAlerts.add(alert);
-            System.out.println(alert);
+                symbol, vol * 100);
+            raiseAlert(alert, "MEDIUM", "VOLATILITY_SPIKE", null, symbol, tickAlerts);
         }
     }
     
     /**
      * Check for barrier proximity alerts on structured products
      */
-    private void checkBarrierAlerts(StructuredProduct product) {
+    private void checkBarrierAlerts(StructuredProduct product, List<MarketDataTickEvent.Alert> tickAlerts) {
         if (product.getBarrierLevel() != null) {
             double barrierProximity = product.getCurrentPrice().divide(product.getBarrierLevel(), 4, RoundingMode.HALF_UP).doubleValue();
             
             if (barrierProximity < 1.05) { // Within 5% of barrier
                 String alert = String.format("BARRIER ALERT: Product %s at %.1f%% of barrier level", 
                     product.getProductCode(), barrierProximity * 100);
-                activeAlerts.add(alert);
-                System.out.println(alert);
+                MarketDataTickEvent.Alert raised = alertEngine.raise(alert, "CRITICAL", "BARRIER_PROXIMITY",
+                    product.getPortfolioId(), product.getUnderlyingAsset(), product.getProductCode());
+                if (raised != null) {
+                    tickAlerts.add(raised);
+                }
             }
         }
     }
     
+    /**
+     * Raise through the alert engine; duplicates and throttled alerts are not pushed
+     */
+    private void raiseAlert(String message, String severity, String alertType, Long portfolioId, String symbol,
+                            List<MarketDataTickEvent.Alert> tickAlerts) {
+        MarketDataTickEvent.Alert alert = alertEngine.raise(message, severity, alertType, portfolioId, symbol);
+        if (alert != null) {
+            tickAlerts.add(alert);
+        }
+    }
+    
     // Public API methods
     public BigDecimal getCurrentPrice(String symbol) {
-        return currentPrices.get(symbol);
+        QuoteTable.Quote quote = quotes.quote(symbol);
+        return quote == null ? null : Decimals.money(quote.price());
     }
     
     public BigDecimal getPriceChange(String symbol) {
-        return priceChanges.get(symbol);
+        QuoteTable.Quote quote = quotes.quote(symbol);
+        return quote == null ? null : Decimals.money(quote.change());
     }
     
     public BigDecimal getImpliedVolatility(String symbol) {
-        return impliedVolatilities.get(symbol);
+        QuoteTable.Quote quote = quotes.quote(symbol);
+        return quote == null ? null : volatilityOrNull(quote.volatility());
     }
     
     public LocalDateTime getLastUpdated(String symbol) {
-        return lastUpdated.get(symbol);
+        QuoteTable.Quote quote = quotes.quote(symbol);
+        return quote == null ? null : toLocalDateTime(quote.updatedAt());
+    }
+    
+    /**
+     * Price, change, implied volatility and update time of one symbol from a single consistent read,
+     * or null for an unknown symbol
+     */
+    public Map<String, Object> getSymbolData(String symbol) {
+        QuoteTable.Quote quote = quotes.quote(symbol);
+        if (quote == null) {
+            return null;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("symbol", symbol);
+        data.put("currentPrice", Decimals.money(quote.price()));
+        data.put("priceChange", Decimals.money(quote.change()));
+        data.put("impliedVolatility", volatilityOrNull(quote.volatility()));
+        data.put("lastUpdated", toLocalDateTime(quote.updatedAt()));
+        return data;
     }
     
     public List<String> getActiveAlerts() {
-        return new ArrayList<>(activeAlerts);
+        return alertEngine.activeMessages();
     }
     
     public void clearAlerts() {
-        activeAlerts.clear();
+        alertEngine.clear();
     }
     
     public Map<String, Object> getMarketSummary() {
         Map<String, Object> summary = new HashMap<>();
-        summary.put("totalSymbols", currentPrices.size());
-        summary.put("activeAlerts", activeAlerts.size());
+        int symbols = quotes.size();
+        summary.put("totalSymbols", symbols);
+        summary.put("activeAlerts", alertEngine.activeCount());
         summary.put("lastUpdate", LocalDateTime.now());
         
         // Calculate market statistics
-        double avgVolatility = impliedVolatilities.values().stream()
-            .mapToDouble(BigDecimal::doubleValue)
-            .average()
-            .orElse(0.0);
-        summary.put("averageVolatility", avgVolatility);
-        
-        long positiveMovers = priceChanges.values().stream()
-            .filter(change -> change.compareTo(BigDecimal.ZERO) > 0)
-            .count();
+        double volatilitySum = 0.0;
+        int withVolatility = 0;
+        long positiveMovers = 0;
+        for (int id = 0; id < symbols; id++) {
+            QuoteTable.Quote quote = quotes.quote(id);
+            if (quote == null) {
+                continue;
+            }
+            if (!Double.isNaN(quote.volatility())) {
+                volatilitySum += quote.volatility();
+                withVolatility++;
+            }
+            if (quote.change() > 0) {
+                positiveMovers++;
+            }
+        }
+        summary.put("averageVolatility", withVolatility == 0 ? 0.0 : volatilitySum / withVolatility);
         summary.put("positiveMovers", positiveMovers);
         
         return summary;
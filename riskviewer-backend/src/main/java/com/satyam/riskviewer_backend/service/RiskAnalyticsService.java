@@ -1,56 +1,95 @@
 package com.satyam.riskviewer_backend.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BooleanSupplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.satyam.riskviewer_backend.repository.PositionRepository;
+import com.satyam.riskviewer_backend.history.ReturnHistoryStore;
+import com.satyam.riskviewer_backend.history.ReturnSeries;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
 import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.numeric.Decimals;
+import com.satyam.riskviewer_backend.numeric.KahanSum;
+import com.satyam.riskviewer_backend.numeric.NormalQuantile;
 
 @Service
 public class RiskAnalyticsService {
     
+    // Annual expected returns and volatilities by asset type
+    private static final Map<String, Double> EXPECTED_RETURNS = Map.of(
+        "Equity", 0.10,      // 10% annual expected return
+        "Bond", 0.04,        // 4% annual expected return
+        "ETF", 0.08,         // 8% annual expected return
+        "Derivative", 0.15   // 15% annual expected return
+    );
+    
+    private static final Map<String, Double> VOLATILITIES = Map.of(
+        "Equity", 0.25,      // 25% annual volatility
+        "Bond", 0.08,        // 8% annual volatility
+        "ETF", 0.18,         // 18% annual volatility
+        "Derivative", 0.45   // 45% annual volatility
+    );
+    
+    private static final double TRADING_DAYS = 252.0;
+    private static final long SIMULATION_SEED = 12345L; // Fixed seed for reproducibility
+    private static final int SIMULATION_SECTIONS = 8; // Independent sections behind each standard error
+    
     private final PositionRepository positionRepository;
     private final PerformanceMonitoringService performanceMonitoringService;
+    private final MonteCarloSimulationEngine monteCarloSimulationEngine;
+    private final CovarianceService covarianceService;
+    private final ReturnHistoryStore returnHistoryStore;
 
     public RiskAnalyticsService(PositionRepository positionRepository,
-                               PerformanceMonitoringService performanceMonitoringService) {
+                               PerformanceMonitoringService performanceMonitoringService,
+                               MonteCarloSimulationEngine monteCarloSimulationEngine,
+                               CovarianceService covarianceService,
+                               ReturnHistoryStore returnHistoryStore) {
         this.positionRepository = positionRepository;
         this.performanceMonitoringService = performanceMonitoringService;
+        this.monteCarloSimulationEngine = monteCarloSimulationEngine;
+        this.covarianceService = covarianceService;
+        this.returnHistoryStore = returnHistoryStore;
     }
 
     /**
-     * Calculate portfolio-level Value at Risk using Historical Simulation
+     * Load a portfolio once so several metrics can be computed from it
+     */
+    public PortfolioSnapshot loadSnapshot(Long portfolioId) {
+        return PortfolioSnapshot.of(portfolioId, positionRepository.findByPortfolioId(portfolioId));
+    }
+    
+    /**
+     * Calculate portfolio-level parametric Value at Risk
      */
     public BigDecimal calculatePortfolioVaR(Long portfolioId, double confidenceLevel) {
+        return Decimals.money(calculatePortfolioVaR(loadSnapshot(portfolioId), confidenceLevel));
+    }
+    
+    public double calculatePortfolioVaR(PortfolioSnapshot snapshot, double confidenceLevel) {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-            
-            if (positions.isEmpty()) {
-                return BigDecimal.ZERO;
+            if (snapshot.isEmpty()) {
+                return 0.0;
             }
             
-            // For demonstration, we'll use a simplified VaR calculation
-            // In reality, you'd need historical price data
-            BigDecimal portfolioValue = calculatePortfolioValue(portfolioId);
+            double portfolioValue = snapshot.getTotalValue();
             
-            // Simplified VaR: assume 2% daily volatility for equity-heavy portfolios
-            double volatility = calculatePortfolioVolatility(positions);
-            double zScore = getZScoreForConfidence(confidenceLevel); // e.g., 1.645 for 95%
+            // Parametric VaR: daily volatility from the EWMA covariance of the held symbols
+            double volatility = calculatePortfolioVolatility(snapshot);
+            double zScore = NormalQuantile.inverseCdf(confidenceLevel); // e.g., 1.645 for 95%
             
-            BigDecimal var = portfolioValue
-                .multiply(BigDecimal.valueOf(volatility))
-                .multiply(BigDecimal.valueOf(zScore));
+            double var = portfolioValue * volatility * zScore;
             
             long executionTime = System.currentTimeMillis() - startTime;
             performanceMonitoringService.recordRiskCalculation("VaR", executionTime);
                 
-            return var.setScale(2, RoundingMode.HALF_UP);
+            return var;
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
             performanceMonitoringService.recordError("VaR_calculation", e.getClass().getSimpleName());
@@ -62,166 +101,118 @@ public class RiskAnalyticsService {
      * Calculate total portfolio value
      */
     public BigDecimal calculatePortfolioValue(Long portfolioId) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
+        return Decimals.money(calculatePortfolioValue(loadSnapshot(portfolioId)));
+    }
         
-        return positions.stream()
-            .map(this::calculatePositionValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public double calculatePortfolioValue(PortfolioSnapshot snapshot) {
+        return snapshot.getTotalValue();
     }
     
     /**
      * Calculate individual position value (quantity * purchase price)
      */
-    public BigDecimal calculatePositionValue(Position position) {
-        return position.getQuantity().multiply(position.getPurchasePrice());
+    public double calculatePositionValue(Position position) {
+        return position.getQuantity().doubleValue() * position.getPurchasePrice().doubleValue();
     }
     
     /**
      * Calculate portfolio concentration risk (largest position as % of total)
      */
     public BigDecimal calculateConcentrationRisk(Long portfolioId) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
+        return Decimals.money(calculateConcentrationRisk(loadSnapshot(portfolioId)));
+    }
         
-        if (positions.isEmpty()) {
-            return BigDecimal.ZERO;
+    public double calculateConcentrationRisk(PortfolioSnapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            return 0.0;
         }
         
-        BigDecimal totalValue = calculatePortfolioValue(portfolioId);
-        BigDecimal largestPosition = positions.stream()
-            .map(this::calculatePositionValue)
-            .max(BigDecimal::compareTo)
-            .orElse(BigDecimal.ZERO);
+        double totalValue = snapshot.getTotalValue();
+        double largestPosition = snapshot.value(0);
+        for (int i = 1; i < snapshot.size(); i++) {
+            largestPosition = Math.max(largestPosition, snapshot.value(i));
+        }
             
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
+        if (totalValue == 0.0) {
+            return 0.0;
         }
         
-        return largestPosition
-            .divide(totalValue, 4, RoundingMode.HALF_UP)
-            .multiply(BigDecimal.valueOf(100));
+        return largestPosition / totalValue * 100;
     }
     
     /**
      * Calculate asset allocation breakdown
      */
     public Map<String, BigDecimal> calculateAssetAllocation(Long portfolioId) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        BigDecimal totalValue = calculatePortfolioValue(portfolioId);
-        
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
-            return new HashMap<>();
-        }
-        
-        return positions.stream()
-            .collect(Collectors.groupingBy(
-                Position::getType,
-                Collectors.reducing(
-                    BigDecimal.ZERO,
-                    this::calculatePositionValue,
-                    BigDecimal::add
-                )
-            ))
-            .entrySet()
-            .stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> entry.getValue()
-                    .divide(totalValue, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-            ));
+        return Decimals.money(calculateAssetAllocation(loadSnapshot(portfolioId)));
     }
     
-    /**
-     * Calculate portfolio volatility based on asset mix
-     */
-    private double calculatePortfolioVolatility(List<Position> positions) {
-        Map<String, Double> assetVolatilities = Map.of(
-            "Equity", 0.25,      // 25% annual volatility
-            "Bond", 0.08,        // 8% annual volatility  
-            "ETF", 0.18,         // 18% annual volatility
-            "Derivative", 0.45   // 45% annual volatility
-        );
+    public Map<String, Double> calculateAssetAllocation(PortfolioSnapshot snapshot) {
+        double totalValue = snapshot.getTotalValue();
         
-        BigDecimal totalValue = positions.stream()
-            .map(this::calculatePositionValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
-            return 0.0;
+        if (totalValue == 0.0) {
+            return new HashMap<>();
         }
         
-        double weightedVolatility = 0.0;
-        
-        for (Position position : positions) {
-            BigDecimal positionValue = calculatePositionValue(position);
-            double weight = positionValue.divide(totalValue, 6, RoundingMode.HALF_UP).doubleValue();
-            double assetVol = assetVolatilities.getOrDefault(position.getType(), 0.20);
-            weightedVolatility += weight * assetVol;
+        Map<String, KahanSum> valueByType = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            valueByType.computeIfAbsent(snapshot.type(i), type -> new KahanSum()).add(snapshot.value(i));
         }
         
-        // Convert annual to daily volatility (sqrt(252) trading days)
-        return weightedVolatility / Math.sqrt(252);
+        Map<String, Double> allocation = new HashMap<>();
+        valueByType.forEach((type, value) -> allocation.put(type, value.sum() / totalValue * 100));
+        return allocation;
     }
     
     /**
-     * Get Z-score for confidence level
+     * Daily portfolio volatility, sqrt(w' S w) over the symbol covariance matrix
      */
-    private double getZScoreForConfidence(double confidence) {
-        Map<Double, Double> zScores = Map.of(
-            0.90, 1.282,
-            0.95, 1.645,
-            0.99, 2.326
-        );
-        return zScores.getOrDefault(confidence, 1.645);
+    private double calculatePortfolioVolatility(PortfolioSnapshot snapshot) {
+        if (snapshot.getTotalValue() == 0.0) {
+            return 0.0;
+        }
+        
+        Exposures exposures = Exposures.of(snapshot);
+        double variance = covarianceService.portfolioVariance(exposures.symbols, exposures.weights, exposures.priorVolatilities);
+        return Math.sqrt(Math.max(variance, 0.0));
     }
     
     /**
      * Calculate Sharpe Ratio (simplified)
      */
     public BigDecimal calculateSharpeRatio(Long portfolioId) {
+        return Decimals.scaled(calculateSharpeRatio(loadSnapshot(portfolioId)), 3);
+    }
+    
+    public double calculateSharpeRatio(PortfolioSnapshot snapshot) {
         // Simplified calculation assuming:
         // - Risk-free rate of 3%
         // - Expected return based on asset mix
         
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        double portfolioReturn = calculateExpectedReturn(positions);
+        double portfolioReturn = calculateExpectedReturn(snapshot);
         double riskFreeRate = 0.03;
-        double volatility = calculatePortfolioVolatility(positions) * Math.sqrt(252); // Annualized
+        double volatility = calculatePortfolioVolatility(snapshot) * Math.sqrt(TRADING_DAYS); // Annualized
         
         if (volatility == 0) {
-            return BigDecimal.ZERO;
+            return 0.0;
         }
         
-        double sharpe = (portfolioReturn - riskFreeRate) / volatility;
-        return BigDecimal.valueOf(sharpe).setScale(3, RoundingMode.HALF_UP);
+        return (portfolioReturn - riskFreeRate) / volatility;
     }
     
     /**
      * Calculate expected return based on asset allocation
      */
-    private double calculateExpectedReturn(List<Position> positions) {
-        Map<String, Double> expectedReturns = Map.of(
-            "Equity", 0.10,      // 10% expected annual return
-            "Bond", 0.04,        // 4% expected annual return
-            "ETF", 0.08,         // 8% expected annual return
-            "Derivative", 0.15   // 15% expected annual return (higher risk)
-        );
-        
-        BigDecimal totalValue = positions.stream()
-            .map(this::calculatePositionValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
+    private double calculateExpectedReturn(PortfolioSnapshot snapshot) {
+        if (snapshot.getTotalValue() == 0.0) {
             return 0.0;
         }
         
         double weightedReturn = 0.0;
         
-        for (Position position : positions) {
-            BigDecimal positionValue = calculatePositionValue(position);
-            double weight = positionValue.divide(totalValue, 6, RoundingMode.HALF_UP).doubleValue();
-            double assetReturn = expectedReturns.getOrDefault(position.getType(), 0.08);
-            weightedReturn += weight * assetReturn;
+        for (int i = 0; i < snapshot.size(); i++) {
+            double assetReturn = EXPECTED_RETURNS.getOrDefault(snapshot.type(i), 0.08);
+            weightedReturn += snapshot.weight(i) * assetReturn;
         }
         
         return weightedReturn;
@@ -232,102 +223,177 @@ public class RiskAnalyticsService {
      * This is more sophisticated than parametric VaR
      */
     public BigDecimal calculateMonteCarloVaR(Long portfolioId, double confidenceLevel, int simulations) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        
-        if (positions.isEmpty()) {
-            return BigDecimal.ZERO;
+        return Decimals.money(calculateMonteCarloVaR(loadSnapshot(portfolioId), confidenceLevel, simulations));
+    }
+    
+    public BigDecimal calculateMonteCarloVaR(Long portfolioId, double confidenceLevel, int simulations,
+                                             SamplingStrategy sampling) {
+        return Decimals.money(calculateMonteCarloVaR(loadSnapshot(portfolioId), confidenceLevel, simulations, sampling));
+    }
+    
+    public double calculateMonteCarloVaR(PortfolioSnapshot snapshot, double confidenceLevel, int simulations) {
+        return calculateMonteCarloVaR(snapshot, confidenceLevel, simulations, SamplingStrategy.PSEUDO_RANDOM);
+    }
+    
+    public double calculateMonteCarloVaR(PortfolioSnapshot snapshot, double confidenceLevel, int simulations,
+                                         SamplingStrategy sampling) {
+        if (snapshot.isEmpty()) {
+            return 0.0;
         }
+        return calculateMonteCarloVaR(simulateScenarios(snapshot, simulations, sampling, confidenceLevel), confidenceLevel);
+    }
         
-        BigDecimal portfolioValue = calculatePortfolioValue(portfolioId);
-        Random random = new Random(12345); // Fixed seed for reproducibility
-        
-        List<Double> portfolioReturns = new ArrayList<>();
-        
-        // Run Monte Carlo simulations
-        for (int i = 0; i < simulations; i++) {
-            double portfolioReturn = simulatePortfolioReturn(positions, random);
-            portfolioReturns.add(portfolioReturn);
+    public double calculateMonteCarloVaR(ScenarioSet scenarios, double confidenceLevel) {
+        if (scenarios.size() == 0) {
+            return 0.0;
         }
         
-        // Sort returns and find VaR at confidence level
-        portfolioReturns.sort(Double::compareTo);
-        int varIndex = (int) Math.floor((1 - confidenceLevel) * simulations);
-        double varReturn = portfolioReturns.get(Math.max(0, varIndex));
-        
         // Convert return to dollar amount
-        BigDecimal var = portfolioValue.multiply(BigDecimal.valueOf(Math.abs(varReturn)));
-        return var.setScale(2, RoundingMode.HALF_UP);
+        double varReturn = scenarios.tailQuantile(confidenceLevel);
+        return scenarios.getPortfolioValue() * Math.abs(varReturn);
     }
     
     /**
-     * Simulate a single portfolio return using correlated asset returns
+     * Standard error of a Monte Carlo VaR, NaN when the scenarios carry no error estimate
      */
-    private double simulatePortfolioReturn(List<Position> positions, Random random) {
-        BigDecimal totalValue = positions.stream()
-            .map(this::calculatePositionValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
+    public double calculateMonteCarloVaRStandardError(ScenarioSet scenarios, double confidenceLevel) {
+        if (scenarios.size() == 0) {
             return 0.0;
         }
+        return scenarios.getPortfolioValue() * scenarios.tailQuantileStandardError(confidenceLevel);
+    }
+    
+    /**
+     * Simulate one set of one-day portfolio returns that VaR, Expected Shortfall
+     * and drawdown can all be read from
+     */
+    public ScenarioSet simulateScenarios(PortfolioSnapshot snapshot, int simulations, double... confidenceLevels) {
+        return simulateScenarios(snapshot, simulations, SamplingStrategy.PSEUDO_RANDOM, confidenceLevels);
+    }
+    
+    /**
+     * Simulate one set of one-day portfolio returns with the given sampling
+     * strategy. The paths form independent sections, so the tail statistics
+     * of the result come with standard errors.
+     */
+    public ScenarioSet simulateScenarios(PortfolioSnapshot snapshot, int simulations, SamplingStrategy sampling,
+                                         double... confidenceLevels) {
+        return simulateScenarios(snapshot, simulations, sampling, () -> false, confidenceLevels);
+    }
+    
+    /**
+     * Simulate one set of one-day portfolio returns, giving up with a
+     * CancellationException once the cancelled flag is raised
+     */
+    public ScenarioSet simulateScenarios(PortfolioSnapshot snapshot, int simulations, SamplingStrategy sampling,
+                                         BooleanSupplier cancelled, double... confidenceLevels) {
+        long startTime = System.currentTimeMillis();
+        double portfolioValue = snapshot.getTotalValue();
         
-        double portfolioReturn = 0.0;
-        
-        for (Position position : positions) {
-            // Generate correlated random return for each asset
-            double assetReturn = generateAssetReturn(position.getType(), random);
-            double weight = calculatePositionValue(position).divide(totalValue, 6, RoundingMode.HALF_UP).doubleValue();
-            portfolioReturn += weight * assetReturn;
+        if (portfolioValue == 0.0) {
+            return ScenarioSet.of(portfolioValue, new double[0], confidenceLevels);
         }
         
-        return portfolioReturn;
+        // Correlated daily returns: one factor per symbol, loadings from the cached Cholesky factor
+        Exposures exposures = Exposures.of(snapshot);
+        double[] loadings = covarianceService.portfolioLoadings(exposures.symbols, exposures.weights, exposures.priorVolatilities);
+        
+        double[] portfolioReturns = monteCarloSimulationEngine.simulatePortfolioReturns(
+            exposures.dailyDrift, loadings, simulations, SIMULATION_SEED, sampling, SIMULATION_SECTIONS, cancelled);
+        ScenarioSet scenarios = ScenarioSet.sectioned(portfolioValue, portfolioReturns, SIMULATION_SECTIONS, confidenceLevels);
+        
+        performanceMonitoringService.recordRiskCalculation("MonteCarloSimulation", System.currentTimeMillis() - startTime);
+        return scenarios;
     }
     
     /**
-     * Generate realistic asset returns with proper volatility
+     * Calculate Value at Risk by Historical Simulation over the stored daily returns
      */
-    private double generateAssetReturn(String assetType, Random random) {
-        Map<String, Double> expectedReturns = Map.of(
-            "Equity", 0.10,      // 10% annual expected return
-            "Bond", 0.04,        // 4% annual expected return
-            "ETF", 0.08,         // 8% annual expected return
-            "Derivative", 0.15   // 15% annual expected return
-        );
+    public BigDecimal calculateHistoricalVaR(Long portfolioId, double confidenceLevel, int lookbackDays) {
+        return Decimals.money(calculateMonteCarloVaR(
+            historicalScenarios(loadSnapshot(portfolioId), lookbackDays, confidenceLevel), confidenceLevel));
+    }
+    
+    /**
+     * Portfolio return on every stored day of the look-back window, by full revaluation
+     * 
+     * Each held symbol is revalued with its actual log return of the day,
+     * value * (exp(r) - 1), and a symbol with no return on a day is taken as
+     * unchanged. The window ends on the latest day any held symbol has and
+     * starts no earlier than the first stored day. The mapped return columns
+     * are scanned in place, one symbol at a time.
+     */
+    public ScenarioSet historicalScenarios(PortfolioSnapshot snapshot, int lookbackDays, double... confidenceLevels) {
+        long startTime = System.currentTimeMillis();
+        double portfolioValue = snapshot.getTotalValue();
+        if (portfolioValue == 0.0 || lookbackDays <= 0) {
+            return ScenarioSet.of(portfolioValue, new double[0], confidenceLevels);
+        }
         
-        Map<String, Double> volatilities = Map.of(
-            "Equity", 0.25,      // 25% annual volatility
-            "Bond", 0.08,        // 8% annual volatility
-            "ETF", 0.18,         // 18% annual volatility
-            "Derivative", 0.45   // 45% annual volatility
-        );
+        Exposures exposures = Exposures.of(snapshot);
+        ReturnSeries.View[] history = new ReturnSeries.View[exposures.symbols.length];
+        long firstStoredDay = Long.MAX_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        for (int s = 0; s < history.length; s++) {
+            ReturnSeries series = returnHistoryStore.daily(exposures.symbols[s]);
+            if (series != null && series.size() > 0) {
+                history[s] = series.view();
+                firstStoredDay = Math.min(firstStoredDay, history[s].key(0));
+                lastDay = Math.max(lastDay, history[s].key(history[s].size() - 1));
+            }
+        }
+        if (lastDay == Long.MIN_VALUE) {
+            return ScenarioSet.of(portfolioValue, new double[0], confidenceLevels);
+        }
         
-        double expectedReturn = expectedReturns.getOrDefault(assetType, 0.08);
-        double volatility = volatilities.getOrDefault(assetType, 0.20);
+        // One slot per day that can hold a return, however long the requested window
+        int days = (int) Math.min(lookbackDays, lastDay - firstStoredDay + 1);
+        long firstDay = lastDay - days + 1;
+        double[] dailyReturns = new double[days];
+        boolean[] observed = new boolean[days];
+        for (int s = 0; s < history.length; s++) {
+            ReturnSeries.View series = history[s];
+            if (series == null) {
+                continue;
+            }
+            double weight = exposures.weights[s];
+            for (int i = series.lowerBound(firstDay), n = series.size(); i < n; i++) {
+                int slot = (int) (series.key(i) - firstDay);
+                dailyReturns[slot] += weight * Math.expm1(series.logReturn(i));
+                observed[slot] = true;
+            }
+        }
         
-        // Convert to daily return and volatility
-        double dailyReturn = expectedReturn / 252.0;
-        double dailyVolatility = volatility / Math.sqrt(252.0);
+        int count = 0;
+        for (int d = 0; d < days; d++) {
+            if (observed[d]) {
+                dailyReturns[count++] = dailyReturns[d];
+            }
+        }
         
-        // Generate normal random return
-        double normalRandom = random.nextGaussian();
-        return dailyReturn + (dailyVolatility * normalRandom);
+        ScenarioSet scenarios = ScenarioSet.of(portfolioValue, Arrays.copyOf(dailyReturns, count), confidenceLevels);
+        performanceMonitoringService.recordRiskCalculation("HistoricalSimulation", System.currentTimeMillis() - startTime);
+        return scenarios;
     }
     
     /**
      * Stress Test: Calculate portfolio loss under extreme scenarios
      */
     public Map<String, BigDecimal> runStressTests(Long portfolioId) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        BigDecimal portfolioValue = calculatePortfolioValue(portfolioId);
+        return Decimals.money(runStressTests(loadSnapshot(portfolioId)));
+    }
+    
+    public Map<String, Double> runStressTests(PortfolioSnapshot snapshot) {
+        double portfolioValue = snapshot.getTotalValue();
         
-        Map<String, BigDecimal> stressResults = new HashMap<>();
+        Map<String, Double> stressResults = new HashMap<>();
         
-        if (portfolioValue.compareTo(BigDecimal.ZERO) == 0) {
+        if (portfolioValue == 0.0) {
             return stressResults;
         }
         
         // Scenario 1: Market Crash (2008-style)
-        BigDecimal marketCrashLoss = calculateScenarioLoss(positions, Map.of(
+        double marketCrashLoss = calculateScenarioLoss(snapshot, Map.of(
             "Equity", -0.40,     // 40% equity drop
             "Bond", -0.05,       // 5% bond drop
             "ETF", -0.35,        // 35% ETF drop
@@ -336,7 +402,7 @@ public class RiskAnalyticsService {
         stressResults.put("Market Crash", marketCrashLoss);
         
         // Scenario 2: Interest Rate Shock
-        BigDecimal interestRateShock = calculateScenarioLoss(positions, Map.of(
+        double interestRateShock = calculateScenarioLoss(snapshot, Map.of(
             "Equity", -0.15,     // 15% equity drop
             "Bond", -0.20,       // 20% bond drop (duration risk)
             "ETF", -0.12,        // 12% ETF drop
@@ -345,7 +411,7 @@ public class RiskAnalyticsService {
         stressResults.put("Interest Rate Shock", interestRateShock);
         
         // Scenario 3: Black Swan Event
-        BigDecimal blackSwanLoss = calculateScenarioLoss(positions, Map.of(
+        double blackSwanLoss = calculateScenarioLoss(snapshot, Map.of(
             "Equity", -0.50,     // 50% equity drop
             "Bond", 0.10,        // 10% bond gain (flight to quality)
             "ETF", -0.45,        // 45% ETF drop
@@ -354,7 +420,7 @@ public class RiskAnalyticsService {
         stressResults.put("Black Swan", blackSwanLoss);
         
         // Scenario 4: Inflation Spike
-        BigDecimal inflationSpike = calculateScenarioLoss(positions, Map.of(
+        double inflationSpike = calculateScenarioLoss(snapshot, Map.of(
             "Equity", -0.20,     // 20% equity drop
             "Bond", -0.25,       // 25% bond drop
             "ETF", -0.18,        // 18% ETF drop
@@ -368,20 +434,18 @@ public class RiskAnalyticsService {
     /**
      * Calculate portfolio loss under a specific scenario
      */
-    private BigDecimal calculateScenarioLoss(List<Position> positions, Map<String, Double> scenarioShocks) {
-        BigDecimal totalLoss = BigDecimal.ZERO;
+    private double calculateScenarioLoss(PortfolioSnapshot snapshot, Map<String, Double> scenarioShocks) {
+        KahanSum totalLoss = new KahanSum();
         
-        for (Position position : positions) {
-            BigDecimal positionValue = calculatePositionValue(position);
-            Double shock = scenarioShocks.getOrDefault(position.getType(), 0.0);
-            BigDecimal positionLoss = positionValue.multiply(BigDecimal.valueOf(Math.abs(shock)));
+        for (int i = 0; i < snapshot.size(); i++) {
+            double shock = scenarioShocks.getOrDefault(snapshot.type(i), 0.0);
             
             if (shock < 0) { // Only count negative shocks as losses
-                totalLoss = totalLoss.add(positionLoss);
+                totalLoss.add(snapshot.value(i) * -shock);
             }
         }
         
-        return totalLoss.setScale(2, RoundingMode.HALF_UP);
+        return totalLoss.sum();
     }
     
     /**
@@ -389,80 +453,62 @@ public class RiskAnalyticsService {
      * This measures the expected loss beyond VaR
      */
     public BigDecimal calculateExpectedShortfall(Long portfolioId, double confidenceLevel) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        
-        if (positions.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        BigDecimal portfolioValue = calculatePortfolioValue(portfolioId);
-        Random random = new Random(12345);
-        
-        List<Double> portfolioReturns = new ArrayList<>();
+        return Decimals.money(calculateExpectedShortfall(loadSnapshot(portfolioId), confidenceLevel));
+    }
         
-        // Run simulations
-        for (int i = 0; i < 10000; i++) {
-            double portfolioReturn = simulatePortfolioReturn(positions, random);
-            portfolioReturns.add(portfolioReturn);
+    public double calculateExpectedShortfall(PortfolioSnapshot snapshot, double confidenceLevel) {
+        if (snapshot.isEmpty()) {
+            return 0.0;
         }
+        return calculateExpectedShortfall(simulateScenarios(snapshot, 10000, confidenceLevel), confidenceLevel);
+    }
         
-        // Sort returns and calculate Expected Shortfall
-        portfolioReturns.sort(Double::compareTo);
-        int varIndex = (int) Math.floor((1 - confidenceLevel) * portfolioReturns.size());
-        
+    public double calculateExpectedShortfall(ScenarioSet scenarios, double confidenceLevel) {
         // Average of losses beyond VaR
-        double expectedShortfall = portfolioReturns.subList(0, varIndex)
-            .stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
+        double expectedShortfall = scenarios.tailMean(confidenceLevel);
         
-        BigDecimal es = portfolioValue.multiply(BigDecimal.valueOf(Math.abs(expectedShortfall)));
-        return es.setScale(2, RoundingMode.HALF_UP);
+        return scenarios.getPortfolioValue() * Math.abs(expectedShortfall);
+    }
+    
+    /**
+     * Standard error of an Expected Shortfall, NaN when the scenarios carry no error estimate
+     */
+    public double calculateExpectedShortfallStandardError(ScenarioSet scenarios, double confidenceLevel) {
+        if (scenarios.size() == 0) {
+            return 0.0;
+        }
+        return scenarios.getPortfolioValue() * scenarios.tailMeanStandardError(confidenceLevel);
     }
     
     /**
      * Calculate Maximum Drawdown simulation
      */
     public BigDecimal calculateMaxDrawdown(Long portfolioId, int days) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
-        BigDecimal initialValue = calculatePortfolioValue(portfolioId);
-        
-        if (initialValue.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        Random random = new Random(12345);
-        BigDecimal currentValue = initialValue;
-        BigDecimal peakValue = initialValue;
-        BigDecimal maxDrawdown = BigDecimal.ZERO;
+        return Decimals.money(calculateMaxDrawdown(loadSnapshot(portfolioId), days));
+    }
+    
+    public double calculateMaxDrawdown(PortfolioSnapshot snapshot, int days) {
+        return calculateMaxDrawdown(simulateScenarios(snapshot, days), days);
+    }
         
-        // Simulate daily returns
-        for (int day = 0; day < days; day++) {
-            double dailyReturn = simulatePortfolioReturn(positions, random);
-            currentValue = currentValue.multiply(BigDecimal.valueOf(1 + dailyReturn));
-            
-            // Track peak value
-            if (currentValue.compareTo(peakValue) > 0) {
-                peakValue = currentValue;
-            }
-            
-            // Calculate drawdown from peak
-            BigDecimal drawdown = peakValue.subtract(currentValue);
-            if (drawdown.compareTo(maxDrawdown) > 0) {
-                maxDrawdown = drawdown;
-            }
+    /**
+     * Drawdown of the path that applies the first {@code days} scenarios as consecutive daily returns
+     */
+    public double calculateMaxDrawdown(ScenarioSet scenarios, int days) {
+        if (scenarios.getPortfolioValue() == 0.0) {
+            return 0.0;
         }
-        
-        return maxDrawdown.setScale(2, RoundingMode.HALF_UP);
+        return scenarios.maxDrawdown(days);
     }
     
     /**
      * Portfolio Beta calculation (systematic risk)
      */
     public BigDecimal calculatePortfolioBeta(Long portfolioId) {
-        List<Position> positions = positionRepository.findByPortfolioId(portfolioId);
+        return Decimals.scaled(calculatePortfolioBeta(loadSnapshot(portfolioId)), 3);
+    }
         
+    public double calculatePortfolioBeta(PortfolioSnapshot snapshot) {
         // Simplified beta calculation based on asset mix
         Map<String, Double> assetBetas = Map.of(
             "Equity", 1.2,       // High beta for individual stocks
@@ -471,22 +517,53 @@ public class RiskAnalyticsService {
             "Derivative", 2.0    // High beta for derivatives
         );
         
-        BigDecimal totalValue = calculatePortfolioValue(portfolioId);
-        
-        if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
+        if (snapshot.getTotalValue() == 0.0) {
+            return 0.0;
         }
         
         double weightedBeta = 0.0;
         
-        for (Position position : positions) {
-            BigDecimal positionValue = calculatePositionValue(position);
-            double weight = positionValue.divide(totalValue, 6, RoundingMode.HALF_UP).doubleValue();
-            double assetBeta = assetBetas.getOrDefault(position.getType(), 1.0);
-            weightedBeta += weight * assetBeta;
+        for (int i = 0; i < snapshot.size(); i++) {
+            double assetBeta = assetBetas.getOrDefault(snapshot.type(i), 1.0);
+            weightedBeta += snapshot.weight(i) * assetBeta;
         }
         
-        return BigDecimal.valueOf(weightedBeta).setScale(3, RoundingMode.HALF_UP);
+        return weightedBeta;
     }
     
+    /**
+     * Portfolio weights aggregated per symbol, the shape the covariance matrix works in
+     */
+    private static final class Exposures {
+    
+        private final String[] symbols;
+        private final double[] weights;
+        private final double[] priorVolatilities;
+        private final double dailyDrift;
+        
+        private Exposures(String[] symbols, double[] weights, double[] priorVolatilities, double dailyDrift) {
+            this.symbols = symbols;
+            this.weights = weights;
+            this.priorVolatilities = priorVolatilities;
+            this.dailyDrift = dailyDrift;
+        }
+
+        static Exposures of(PortfolioSnapshot snapshot) {
+            Map<String, Integer> slots = new LinkedHashMap<>();
+            double[] weights = new double[snapshot.size()];
+            double[] priorVolatilities = new double[snapshot.size()];
+            double drift = 0.0;
+            
+            for (int i = 0; i < snapshot.size(); i++) {
+                int slot = slots.computeIfAbsent(snapshot.symbol(i), symbol -> slots.size());
+                weights[slot] += snapshot.weight(i);
+                priorVolatilities[slot] = VOLATILITIES.getOrDefault(snapshot.type(i), 0.20);
+                drift += snapshot.weight(i) * EXPECTED_RETURNS.getOrDefault(snapshot.type(i), 0.08) / TRADING_DAYS;
+            }
+            
+            int count = slots.size();
+            return new Exposures(slots.keySet().toArray(new String[0]),
+                Arrays.copyOf(weights, count), Arrays.copyOf(priorVolatilities, count), drift);
+        }
+    }
 }
@@ -0,0 +1,351 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.dto.RiskJobDTO;
+import com.satyam.riskviewer_backend.dto.RiskJobRequest;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.numeric.Decimals;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs long Monte Carlo and stress calculations as asynchronous jobs.
+ *
+ * Jobs run on a fixed pool sized by app.risk.calculation.threads, taken from
+ * the queue by priority and then in submission order. The queue is bounded:
+ * a job holds one of queue-capacity slots from submission until it starts
+ * or is cancelled, and a submission that finds no free slot is rejected. Submitting a job that is
+ * identical to one still queued or running returns the existing job instead
+ * of computing the same result twice. Finished jobs are kept for polling
+ * for the configured retention period.
+ */
+@Service
+public class RiskJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskJobService.class);
+
+    private static final double DEFAULT_CONFIDENCE = 0.95;
+    private static final int DEFAULT_SIMULATIONS = 10000;
+
+    private final RiskAnalyticsService riskAnalyticsService;
+    private final PerformanceMonitoringService performanceMonitoringService;
+    private final int queueCapacity;
+    private final int maxSimulations;
+    private final Duration retention;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, Job> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore queueSlots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RiskJobService(RiskAnalyticsService riskAnalyticsService,
+                          PerformanceMonitoringService performanceMonitoringService,
+                          @Value("${app.risk.calculation.threads:4}") int threads,
+                          @Value("${app.risk.jobs.queue-capacity:100}") int queueCapacity,
+                          @Value("${app.risk.monte-carlo.max-simulations:100000}") int maxSimulations,
+                          @Value("${app.risk.jobs.retention-minutes:30}") long retentionMinutes) {
+        this.riskAnalyticsService = riskAnalyticsService;
+        this.performanceMonitoringService = performanceMonitoringService;
+        this.queueCapacity = queueCapacity;
+        this.queueSlots = new Semaphore(queueCapacity);
+        this.maxSimulations = maxSimulations;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "risk-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        performanceMonitoringService.registerGauge("riskviewer.risk.jobs.queued",
+            "Risk jobs waiting for a worker", () -> executor.getQueue().size());
+        performanceMonitoringService.registerGauge("riskviewer.risk.jobs.in_flight",
+            "Risk jobs currently running", executor::getActiveCount);
+    }
+
+    /**
+     * Queue a job, or return the identical job already queued or running
+     *
+     * @throws IllegalArgumentException   for an invalid request
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public RiskJobDTO submit(RiskJobRequest request) {
+        if (request.type() == null || request.portfolioId() == null) {
+            throw new IllegalArgumentException("Job type and portfolioId are required");
+        }
+        RiskJobDTO.Type type = request.type();
+        double confidence = request.confidence() != null ? request.confidence() : DEFAULT_CONFIDENCE;
+        int simulations = request.simulations() != null ? request.simulations() : DEFAULT_SIMULATIONS;
+        SamplingStrategy sampling = request.sampling() != null ? request.sampling() : SamplingStrategy.PSEUDO_RANDOM;
+        RiskJobDTO.Priority priority = request.priority() != null ? request.priority() : RiskJobDTO.Priority.NORMAL;
+
+        if (type == RiskJobDTO.Type.MONTE_CARLO_VAR) {
+            validateMonteCarlo(confidence, simulations);
+        } else {
+            // Parameters that do not affect the result must not defeat deduplication
+            confidence = 0.0;
+            simulations = 0;
+            sampling = null;
+        }
+
+        JobKey key = new JobKey(type, request.portfolioId(), confidence, simulations, sampling);
+        Job candidate = new Job(key, priority, sequence.incrementAndGet());
+        Job job = inFlight.computeIfAbsent(key, k -> {
+            if (!queueSlots.tryAcquire()) {
+                throw new RejectedExecutionException("Risk job queue is full (" + queueCapacity + " jobs)");
+            }
+            return candidate;
+        });
+
+        if (job == candidate) {
+            jobs.put(job.id, job);
+            executor.execute(job);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Current state of a job, or null when unknown or expired
+     */
+    public RiskJobDTO getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.toDTO();
+    }
+
+    /**
+     * Cancel a job. A queued job is removed from the queue. A running Monte
+     * Carlo job stops at the next chunk of its simulation; a running stress
+     * job completes its calculation. Either way the result is discarded, and
+     * an identical job submitted meanwhile is computed afresh.
+     *
+     * @return the job state after cancellation, or null when unknown
+     */
+    public RiskJobDTO cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        if (job.cancel()) {
+            executor.remove(job);
+            inFlight.remove(job.key, job);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Call the listener on every state change of a job, immediately with its current state
+     *
+     * @return false when the job is unknown
+     */
+    public boolean watch(String jobId, Consumer<RiskJobDTO> listener) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.listeners.add(listener);
+        listener.accept(job.toDTO());
+        return true;
+    }
+
+    public void unwatch(String jobId, Consumer<RiskJobDTO> listener) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            job.listeners.remove(listener);
+        }
+    }
+
+    public void validateMonteCarlo(double confidence, int simulations) {
+        if (confidence <= 0.0 || confidence >= 1.0) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1, got " + confidence);
+        }
+        validateSimulations(simulations);
+    }
+
+    public void validateSimulations(int simulations) {
+        if (simulations <= 0 || simulations > maxSimulations) {
+            throw new IllegalArgumentException(
+                "Simulations must be between 1 and " + maxSimulations + ", got " + simulations);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Object compute(Job job) {
+        JobKey key = job.key;
+        PortfolioSnapshot snapshot = riskAnalyticsService.loadSnapshot(key.portfolioId());
+        if (job.isCancelled()) {
+            throw new CancellationException();
+        }
+        switch (key.type()) {
+            case MONTE_CARLO_VAR: {
+                ScenarioSet scenarios = riskAnalyticsService.simulateScenarios(snapshot, key.simulations(),
+                    key.sampling(), job::isCancelled, key.confidence());
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("sampling", key.sampling());
+                result.put("valueAtRisk", Decimals.money(riskAnalyticsService.calculateMonteCarloVaR(scenarios, key.confidence())));
+                result.put("expectedShortfall", Decimals.money(riskAnalyticsService.calculateExpectedShortfall(scenarios, key.confidence())));
+                // Standard errors are left out when the run is too small to estimate them
+                double varError = riskAnalyticsService.calculateMonteCarloVaRStandardError(scenarios, key.confidence());
+                if (!Double.isNaN(varError)) {
+                    result.put("valueAtRiskStandardError", Decimals.money(varError));
+                }
+                double shortfallError = riskAnalyticsService.calculateExpectedShortfallStandardError(scenarios, key.confidence());
+                if (!Double.isNaN(shortfallError)) {
+                    result.put("expectedShortfallStandardError", Decimals.money(shortfallError));
+                }
+                return result;
+            }
+            case STRESS_TESTS:
+                return Decimals.money(riskAnalyticsService.runStressTests(snapshot));
+            default:
+                throw new IllegalStateException("Unsupported job type " + key.type());
+        }
+    }
+
+    /**
+     * Identity of a job's result, used for deduplication
+     */
+    private record JobKey(RiskJobDTO.Type type, Long portfolioId, double confidence, int simulations,
+                          SamplingStrategy sampling) {}
+
+    /**
+     * A submitted job; ordered by priority, then submission order
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+
+        private final String id = UUID.randomUUID().toString();
+        private final JobKey key;
+        private final RiskJobDTO.Priority priority;
+        private final long sequence;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicReference<RiskJobDTO.Status> status = new AtomicReference<>(RiskJobDTO.Status.QUEUED);
+        private final CopyOnWriteArrayList<Consumer<RiskJobDTO>> listeners = new CopyOnWriteArrayList<>();
+
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        Job(JobKey key, RiskJobDTO.Priority priority, long sequence) {
+            this.key = key;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            if (!status.compareAndSet(RiskJobDTO.Status.QUEUED, RiskJobDTO.Status.RUNNING)) {
+                return; // Cancelled while queued
+            }
+            queueSlots.release();
+            startedAt = LocalDateTime.now();
+            notifyListeners();
+
+            try {
+                Object value = compute(this);
+                result = value;
+                finish(RiskJobDTO.Status.COMPLETED);
+            } catch (CancellationException e) {
+                logger.debug("Risk job {} ({} portfolio {}) stopped after cancellation", id, key.type(), key.portfolioId());
+            } catch (RuntimeException e) {
+                logger.warn("Risk job {} ({} portfolio {}) failed: {}", id, key.type(), key.portfolioId(), e.getMessage());
+                error = e.getMessage();
+                finish(RiskJobDTO.Status.FAILED);
+            } finally {
+                inFlight.remove(key, this);
+                performanceMonitoringService.recordRiskCalculation("Job" + key.type(),
+                    Duration.between(startedAt, LocalDateTime.now()).toMillis());
+            }
+        }
+
+        private void finish(RiskJobDTO.Status outcome) {
+            if (status.compareAndSet(RiskJobDTO.Status.RUNNING, outcome)) {
+                finishedAt = LocalDateTime.now();
+                notifyListeners();
+            } else {
+                result = null; // Cancelled while running
+            }
+        }
+
+        boolean cancel() {
+            if (status.compareAndSet(RiskJobDTO.Status.QUEUED, RiskJobDTO.Status.CANCELLED)) {
+                queueSlots.release();
+                finishedAt = LocalDateTime.now();
+                notifyListeners();
+                return true;
+            }
+            if (status.compareAndSet(RiskJobDTO.Status.RUNNING, RiskJobDTO.Status.CANCELLED)) {
+                finishedAt = LocalDateTime.now();
+                notifyListeners();
+                return true;
+            }
+            return false;
+        }
+
+        boolean isCancelled() {
+            return status.get() == RiskJobDTO.Status.CANCELLED;
+        }
+
+        private void notifyListeners() {
+            RiskJobDTO state = toDTO();
+            for (Consumer<RiskJobDTO> listener : listeners) {
+                try {
+                    listener.accept(state);
+                } catch (RuntimeException e) {
+                    listeners.remove(listener);
+                }
+            }
+        }
+
+        RiskJobDTO toDTO() {
+            RiskJobDTO.Status current = status.get();
+            return new RiskJobDTO(id, key.type(), key.portfolioId(), key.confidence(), key.simulations(),
+                priority, current, submittedAt, startedAt, finishedAt,
+                current == RiskJobDTO.Status.COMPLETED ? result : null, error);
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.cache.VersionCounters;
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.event.PositionsChangedEvent;
+
+/**
+ * Versioned cache for computed portfolio risk metrics.
+ *
+ * Entries are keyed by (portfolio, view, positions version, market epoch).
+ * A position change in a portfolio bumps its positions version, and a tick
+ * that moves a symbol the portfolio holds bumps its market epoch; either way
+ * the next lookup misses and the superseded entries are evicted. Portfolios
+ * untouched by a change keep their entries. The counters come from
+ * {@link VersionCounters}, so with a shared cache every node builds the same
+ * keys and reuses results computed elsewhere.
+ */
+@Service
+public class RiskMetricsCache {
+
+    public static final String CACHE_NAME = "risk-metrics";
+
+    /**
+     * Cache key of one computed view of a portfolio
+     */
+    public record Key(Long portfolioId, String view, long positionsVersion, long marketEpoch) {}
+
+    private final Cache cache;
+    private final VersionCounters versionCounters;
+    private final PositionBookService positionBookService;
+    private final PerformanceMonitoringService performanceMonitoringService;
+
+    // Views cached per portfolio on this node, to evict them when superseded
+    private final Map<Long, Set<String>> views = new ConcurrentHashMap<>();
+
+    public RiskMetricsCache(CacheManager cacheManager,
+                            VersionCounters versionCounters,
+                            PositionBookService positionBookService,
+                            PerformanceMonitoringService performanceMonitoringService) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        this.versionCounters = versionCounters;
+        this.positionBookService = positionBookService;
+        this.performanceMonitoringService = performanceMonitoringService;
+    }
+
+    /**
+     * Cached value of a view, computing and storing it on a miss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long portfolioId, String view, Supplier<T> loader) {
+        views.computeIfAbsent(portfolioId, id -> ConcurrentHashMap.newKeySet()).add(view);
+        Key key = currentKey(portfolioId, view);
+
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            performanceMonitoringService.recordCacheHit(CACHE_NAME);
+            return (T) cached.get();
+        }
+
+        performanceMonitoringService.recordCacheMiss(CACHE_NAME);
+        T value = loader.get();
+        cache.put(key, value);
+        if (!key.equals(currentKey(portfolioId, view))) {
+            cache.evict(key); // Invalidated while computing
+        }
+        return value;
+    }
+
+    @EventListener
+    public void onPositionsChanged(PositionsChangedEvent event) {
+        for (Long portfolioId : event.getPortfolioIds()) {
+            Set<String> previous = cachedViews(portfolioId);
+            long positions = versionCounters.get(positionsCounter(portfolioId));
+            long market = versionCounters.get(marketCounter(portfolioId));
+            versionCounters.increment(positionsCounter(portfolioId));
+            evict(portfolioId, previous, positions, market);
+        }
+    }
+
+    @EventListener
+    public void onMarketDataTick(MarketDataTickEvent event) {
+        Set<Long> moved = new HashSet<>();
+        for (MarketDataTickEvent.PriceUpdate update : event.getPrices()) {
+            moved.addAll(positionBookService.getPortfoliosHolding(update.symbol()));
+        }
+
+        for (Long portfolioId : moved) {
+            Set<String> previous = cachedViews(portfolioId);
+            long positions = versionCounters.get(positionsCounter(portfolioId));
+            long market = versionCounters.get(marketCounter(portfolioId));
+            versionCounters.increment(marketCounter(portfolioId));
+            evict(portfolioId, previous, positions, market);
+        }
+    }
+
+    private Key currentKey(Long portfolioId, String view) {
+        return new Key(portfolioId, view,
+            versionCounters.get(positionsCounter(portfolioId)),
+            versionCounters.get(marketCounter(portfolioId)));
+    }
+
+    private Set<String> cachedViews(Long portfolioId) {
+        Set<String> cached = views.get(portfolioId);
+        return cached == null ? Set.of() : Set.copyOf(cached);
+    }
+
+    private void evict(Long portfolioId, Set<String> cachedViews, long positions, long market) {
+        for (String view : cachedViews) {
+            cache.evict(new Key(portfolioId, view, positions, market));
+        }
+    }
+
+    private static String positionsCounter(Long portfolioId) {
+        return CACHE_NAME + ":positions:" + portfolioId;
+    }
+
+    private static String marketCounter(Long portfolioId) {
+        return CACHE_NAME + ":market:" + portfolioId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.satyam.riskviewer_backend.service;
+
+/**
+ * How a Monte Carlo simulation draws its normal factors
+ */
+public enum SamplingStrategy {
+
+    /** Independent pseudo-random draws */
+    PSEUDO_RANDOM,
+
+    /** Pseudo-random draws in pairs (z, -z), which cancels odd-order sampling error */
+    ANTITHETIC,
+
+    /** Scrambled Sobol' low-discrepancy points mapped through the inverse normal distribution */
+    SOBOL
+}
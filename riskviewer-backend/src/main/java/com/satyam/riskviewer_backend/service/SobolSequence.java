@@ -0,0 +1,228 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Scrambled Sobol' sequence in any number of dimensions.
+ *
+ * Dimension 0 is the van der Corput sequence; dimension j > 0 uses the j-th
+ * primitive polynomial over GF(2), taken in order of degree, with initial
+ * direction numbers drawn once from a fixed seed (any odd m_k below 2^k gives
+ * a valid Sobol' sequence). The unscrambled direction numbers are shared by
+ * every instance. Each instance then applies a random lower-triangular linear
+ * scramble and a random digital shift from its own seed, so every point is
+ * uniform on the unit cube and differently seeded instances are independent
+ * randomisations of the same net, which is what an error estimate needs.
+ * Points come out in Gray-code order at one XOR per dimension per point.
+ */
+final class SobolSequence {
+
+    /** Bits per coordinate, and so at most 2^32 points per sequence */
+    private static final int BITS = 32;
+    private static final double TWO_POW_MINUS_32 = 1.0 / 4294967296.0;
+    private static final long DIRECTION_SEED = 0x5DEECE66DL;
+
+    private static int[][] sharedDirections = new int[0][];
+    private static int nextPolynomial = 0;
+    private static int nextDegree = 1;
+
+    private final int dimensions;
+    private final int[] directions; // BITS per dimension, most significant bit first
+    private final int[] shift;
+
+    /**
+     * @param dimensions coordinates per point
+     * @param seed       seed of the scramble
+     */
+    SobolSequence(int dimensions, long seed) {
+        if (dimensions < 0) {
+            throw new IllegalArgumentException("Dimensions must not be negative, got " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.directions = new int[dimensions * BITS];
+        this.shift = new int[dimensions];
+
+        int[][] base = directions(dimensions);
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] rows = new int[BITS];
+        for (int j = 0; j < dimensions; j++) {
+            // Row r yields output bit 31 - r from input bits 31 - r and above: unit diagonal, random below it
+            for (int r = 0; r < BITS; r++) {
+                int above = r == 0 ? 0 : (int) (0xFFFFFFFFL << (BITS - r));
+                rows[r] = (random.nextInt() & above) | (1 << (BITS - 1 - r));
+            }
+            for (int k = 0; k < BITS; k++) {
+                int v = base[j][k];
+                int scrambled = 0;
+                for (int r = 0; r < BITS; r++) {
+                    scrambled |= (Integer.bitCount(rows[r] & v) & 1) << (BITS - 1 - r);
+                }
+                directions[j * BITS + k] = scrambled;
+            }
+            shift[j] = random.nextInt();
+        }
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Cursor positioned at point index start. A cursor is not thread-safe;
+     * give each task its own.
+     */
+    Cursor cursor(long start) {
+        if (start < 0 || start >= (1L << BITS)) {
+            throw new IllegalArgumentException("Sobol' point index out of range: " + start);
+        }
+        return new Cursor(start);
+    }
+
+    final class Cursor {
+
+        private final int[] state;
+        private long index;
+
+        private Cursor(long start) {
+            this.index = start;
+            this.state = shift.clone();
+            long gray = start ^ (start >>> 1);
+            for (int k = 0; gray != 0; k++, gray >>>= 1) {
+                if ((gray & 1) != 0) {
+                    for (int j = 0; j < dimensions; j++) {
+                        state[j] ^= directions[j * BITS + k];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Write the next point, one uniform in (0, 1) per dimension
+         */
+        void next(double[] point) {
+            for (int j = 0; j < dimensions; j++) {
+                point[j] = (Integer.toUnsignedLong(state[j]) + 0.5) * TWO_POW_MINUS_32;
+            }
+            index++;
+            if (index < (1L << BITS)) {
+                int bit = Long.numberOfTrailingZeros(index);
+                for (int j = 0; j < dimensions; j++) {
+                    state[j] ^= directions[j * BITS + bit];
+                }
+            }
+        }
+    }
+
+    /**
+     * Unscrambled direction numbers of the first count dimensions, extended on demand
+     */
+    private static synchronized int[][] directions(int count) {
+        if (sharedDirections.length >= count) {
+            return sharedDirections;
+        }
+        int[][] extended = Arrays.copyOf(sharedDirections, count);
+        for (int j = sharedDirections.length; j < count; j++) {
+            int[] v = new int[BITS];
+            if (j == 0) {
+                for (int k = 0; k < BITS; k++) {
+                    v[k] = 1 << (BITS - 1 - k);
+                }
+            } else {
+                int polynomial = nextPrimitivePolynomial();
+                int degree = BITS - 1 - Integer.numberOfLeadingZeros(polynomial);
+                SplittableRandom random = new SplittableRandom(DIRECTION_SEED + j);
+                for (int k = 0; k < degree && k < BITS; k++) {
+                    int m = (random.nextInt(1 << k) << 1) | 1; // odd and below 2^(k+1)
+                    v[k] = m << (BITS - 1 - k);
+                }
+                for (int k = degree; k < BITS; k++) {
+                    int value = v[k - degree] ^ (v[k - degree] >>> degree);
+                    for (int i = 1; i < degree; i++) {
+                        if ((polynomial >>> (degree - i) & 1) != 0) {
+                            value ^= v[k - i];
+                        }
+                    }
+                    v[k] = value;
+                }
+            }
+            extended[j] = v;
+        }
+        sharedDirections = extended;
+        return extended;
+    }
+
+    /**
+     * Next primitive polynomial over GF(2) in order of degree, as a bit mask
+     * including the leading and constant terms
+     */
+    private static int nextPrimitivePolynomial() {
+        while (true) {
+            int degree = nextDegree;
+            if (degree > 30) {
+                throw new IllegalStateException("Ran out of primitive polynomials for Sobol' dimensions");
+            }
+            int polynomial = (1 << degree) | (nextPolynomial << 1) | 1;
+            if (++nextPolynomial >= 1 << (degree - 1)) {
+                nextDegree++;
+                nextPolynomial = 0;
+            }
+            if (isPrimitive(polynomial, degree)) {
+                return polynomial;
+            }
+        }
+    }
+
+    /**
+     * x generates the multiplicative group of GF(2)[x] / polynomial, which has
+     * 2^degree - 1 elements only when the polynomial is irreducible
+     */
+    static boolean isPrimitive(int polynomial, int degree) {
+        if (degree == 1) {
+            return polynomial == 0b11;
+        }
+        long order = (1L << degree) - 1;
+        if (power(2, order, polynomial, degree) != 1) {
+            return false;
+        }
+        long remaining = order;
+        for (long factor = 2; factor * factor <= remaining; factor++) {
+            if (remaining % factor == 0) {
+                if (power(2, order / factor, polynomial, degree) == 1) {
+                    return false;
+                }
+                while (remaining % factor == 0) {
+                    remaining /= factor;
+                }
+            }
+        }
+        return remaining == 1 || power(2, order / remaining, polynomial, degree) != 1;
+    }
+
+    private static long power(long base, long exponent, int polynomial, int degree) {
+        long result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = multiply(result, base, polynomial, degree);
+            }
+            base = multiply(base, base, polynomial, degree);
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    private static long multiply(long a, long b, int polynomial, int degree) {
+        long product = 0;
+        while (b != 0) {
+            if ((b & 1) != 0) {
+                product ^= a;
+            }
+            b >>>= 1;
+            a <<= 1;
+            if ((a >>> degree & 1) != 0) {
+                a ^= polynomial;
+            }
+        }
+        return product;
+    }
+}
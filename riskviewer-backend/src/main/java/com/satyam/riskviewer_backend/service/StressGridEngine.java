@@ -0,0 +1,448 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.StressGrid;
+import com.satyam.riskviewer_backend.model.StressScenario;
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.numeric.KahanSum;
+import com.satyam.riskviewer_backend.repository.PositionRepository;
+import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
+
+/**
+ * Evaluates user-defined stress scenarios against positions and structured products.
+ *
+ * The instruments are laid out once as primitive columns, with symbols and
+ * types interned to small ints, and every scenario is one pass over those
+ * columns. Positions move linearly with the price shock. Products are fully
+ * revalued under the shocked spot, volatility and rate, and their loss is
+ * the change in price times notional / strike units. Most products go
+ * through the batch Black-Scholes pricer, leaving the barrier breach
+ * adjustment out of both the base and the shocked price. Live autocallables
+ * are revalued with AutocallablePricer on app.risk.stress.autocallable-paths
+ * paths, notes on one underlying together, and their base is valued on the
+ * same paths so that a loss is not swamped by sampling noise; the grid
+ * reports how many products were simulated. Scenarios are split across the
+ * compute pool, and each worker reuses its scratch arrays for every
+ * scenario it evaluates.
+ */
+@Service
+public class StressGridEngine {
+
+    /** Scenarios evaluated by one fork/join leaf */
+    static final int SCENARIOS_PER_TASK = 4;
+
+    private final PositionRepository positionRepository;
+    private final StructuredProductRepository structuredProductRepository;
+    private final StructuredProductPricingService pricingService;
+    private final ForkJoinPool pool;
+    private final int maxScenarios;
+    private final int autocallablePaths;
+
+    public StressGridEngine(PositionRepository positionRepository,
+                            StructuredProductRepository structuredProductRepository,
+                            StructuredProductPricingService pricingService,
+                            @Qualifier("computePool") ForkJoinPool pool,
+                            @Value("${app.risk.stress.max-scenarios:1000}") int maxScenarios,
+                            @Value("${app.risk.stress.autocallable-paths:1024}") int autocallablePaths) {
+        if (autocallablePaths < 1) {
+            throw new IllegalArgumentException("Autocallable stress paths must be positive, got " + autocallablePaths);
+        }
+        this.positionRepository = positionRepository;
+        this.structuredProductRepository = structuredProductRepository;
+        this.pricingService = pricingService;
+        this.pool = pool;
+        this.maxScenarios = maxScenarios;
+        this.autocallablePaths = autocallablePaths;
+    }
+
+    /**
+     * Run the scenarios against one portfolio, or against the whole book when portfolioId is null
+     *
+     * @throws IllegalArgumentException for an empty, oversized or unnamed scenario list, or
+     *                                  a shock that would take a price or volatility to zero or below
+     */
+    public StressGrid run(Long portfolioId, List<StressScenario> scenarios, int topContributors) {
+        validate(scenarios, topContributors);
+        List<Position> positions = portfolioId == null
+            ? positionRepository.findAll() : positionRepository.findByPortfolioId(portfolioId);
+        List<StructuredProduct> products = portfolioId == null
+            ? structuredProductRepository.findAll() : structuredProductRepository.findByPortfolioId(portfolioId);
+        return evaluate(positions, products, scenarios, topContributors);
+    }
+
+    public StressGrid evaluate(List<Position> positions, List<StructuredProduct> products,
+                               List<StressScenario> scenarios, int topContributors) {
+        validate(scenarios, topContributors);
+        Instruments instruments = new Instruments(positions, products, pricingService, autocallablePaths,
+                                                  LocalDateTime.now());
+
+        int count = scenarios.size();
+        double[] losses = new double[count];
+        int[][] topIndices = new int[count][];
+        double[][] topLosses = new double[count][];
+        pool.invoke(new GridTask(instruments, scenarios, topContributors, losses, topIndices, topLosses, 0, count));
+
+        List<String> names = new ArrayList<>(count);
+        List<List<StressGrid.Contributor>> contributors = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            names.add(scenarios.get(s).name());
+            List<StressGrid.Contributor> top = new ArrayList<>(topIndices[s].length);
+            for (int k = 0; k < topIndices[s].length; k++) {
+                top.add(instruments.contributor(topIndices[s][k], topLosses[s][k]));
+            }
+            contributors.add(top);
+        }
+        return new StressGrid(names, losses, contributors, positions.size(), products.size(),
+                              instruments.simulatedProducts);
+    }
+
+    private void validate(List<StressScenario> scenarios, int topContributors) {
+        if (scenarios == null || scenarios.isEmpty()) {
+            throw new IllegalArgumentException("At least one scenario is required");
+        }
+        if (scenarios.size() > maxScenarios) {
+            throw new IllegalArgumentException(
+                "At most " + maxScenarios + " scenarios per grid, got " + scenarios.size());
+        }
+        if (topContributors < 0 || topContributors > 100) {
+            throw new IllegalArgumentException("Top contributors must be between 0 and 100, got " + topContributors);
+        }
+        for (StressScenario scenario : scenarios) {
+            if (scenario == null || scenario.name() == null || scenario.name().isBlank()) {
+                throw new IllegalArgumentException("Every scenario needs a name");
+            }
+            validate(scenario.name(), scenario.all());
+            scenario.symbols().values().forEach(shock -> validate(scenario.name(), shock));
+            scenario.types().values().forEach(shock -> validate(scenario.name(), shock));
+        }
+    }
+
+    private static void validate(String scenario, StressScenario.Shock shock) {
+        if (shock == null) {
+            throw new IllegalArgumentException("Scenario " + scenario + " has an empty shock");
+        }
+        // Relative moves of -100% or worse leave nothing to revalue
+        if (!(shock.price() > -1.0) || !(shock.volatility() > -1.0) || !Double.isFinite(shock.price())
+                || !Double.isFinite(shock.volatility()) || !Double.isFinite(shock.rate())) {
+            throw new IllegalArgumentException("Scenario " + scenario + " has an invalid shock " + shock
+                + ": price and volatility moves must be finite and above -1, the rate shift finite");
+        }
+    }
+
+    /**
+     * Positions and products as primitive columns
+     */
+    private static final class Instruments {
+
+        final Map<String, Integer> symbolIds = new HashMap<>();
+        final Map<String, Integer> typeIds = new HashMap<>();
+        final List<Position> positions;
+        final List<StructuredProduct> products;
+
+        // Positions
+        final int positionCount;
+        final double[] value;
+        final int[] positionSymbol;
+        final int[] positionType;
+
+        // Structured products
+        final int productCount;
+        final int[] productSymbol;
+        final int[] productType;
+        final double[] spot;
+        final double[] strike;
+        final double[] maturity;
+        final double[] volatility;
+        final double[] units;
+        final double[] basePrice;
+
+        // Live autocallables, as indices grouped by underlying and volatility, and their notes
+        final StructuredProductPricingService pricingService;
+        final int autocallablePaths;
+        final int[][] autocallables;
+        final AutocallablePricer.Note[] notes;
+        final int simulatedProducts;
+
+        Instruments(List<Position> positions, List<StructuredProduct> products,
+                    StructuredProductPricingService pricingService, int autocallablePaths, LocalDateTime now) {
+            this.positions = positions;
+            this.products = products;
+            this.pricingService = pricingService;
+            this.autocallablePaths = autocallablePaths;
+
+            positionCount = positions.size();
+            value = new double[positionCount];
+            positionSymbol = new int[positionCount];
+            positionType = new int[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                Position position = positions.get(i);
+                value[i] = position.getQuantity().doubleValue() * position.getPurchasePrice().doubleValue();
+                positionSymbol[i] = intern(symbolIds, position.getSymbol());
+                positionType[i] = intern(typeIds, position.getType());
+            }
+
+            productCount = products.size();
+            productSymbol = new int[productCount];
+            productType = new int[productCount];
+            spot = new double[productCount];
+            strike = new double[productCount];
+            maturity = new double[productCount];
+            volatility = new double[productCount];
+            units = new double[productCount];
+            for (int j = 0; j < productCount; j++) {
+                StructuredProduct product = products.get(j);
+                productSymbol[j] = intern(symbolIds, product.getUnderlyingAsset());
+                productType[j] = intern(typeIds, product.getProductType());
+                spot[j] = product.getCurrentPrice().doubleValue();
+                strike[j] = product.getStrikePrice().doubleValue();
+                maturity[j] = pricingService.getTimeToMaturity(product, now);
+                volatility[j] = product.getImpliedVolatility().doubleValue();
+                // Units held, scaled by the product type adjustment the pricing service applies to the price
+                units[j] = product.getNotionalAmount().doubleValue() / strike[j]
+                    * pricingService.adjustForProductType(1.0, product, spot[j], 0.0);
+            }
+
+            notes = new AutocallablePricer.Note[productCount];
+            Map<String, List<Integer>> groups = new LinkedHashMap<>();
+            for (int j = 0; j < productCount; j++) {
+                if ("AUTOCALLABLE".equals(products.get(j).getProductType()) && maturity[j] > 0) {
+                    notes[j] = pricingService.autocallableNote(products.get(j), spot[j], maturity[j]);
+                    groups.computeIfAbsent(productSymbol[j] + "|" + volatility[j], key -> new ArrayList<>()).add(j);
+                }
+            }
+            autocallables = new int[groups.size()][];
+            int group = 0;
+            int simulated = 0;
+            for (List<Integer> indices : groups.values()) {
+                autocallables[group++] = indices.stream().mapToInt(Integer::intValue).toArray();
+                simulated += indices.size();
+            }
+            simulatedProducts = simulated;
+
+            basePrice = new double[productCount];
+            double[] rate = new double[productCount];
+            Arrays.fill(rate, StructuredProductPricingService.RISK_FREE_RATE);
+            double[] unused = new double[productCount];
+            BlackScholesBatchPricer.price(productCount, spot, strike, maturity, volatility, rate,
+                                          basePrice, unused, unused, unused, unused);
+            revalueAutocallables(spot, volatility, rate, basePrice);
+        }
+
+        /**
+         * Overwrite the prices of the live autocallables with their Monte Carlo
+         * values under the given per-product inputs. Notes in one group share
+         * underlying and type, so every scenario shocks them alike.
+         */
+        void revalueAutocallables(double[] shockedSpot, double[] shockedVolatility, double[] shockedRate,
+                                  double[] price) {
+            for (int[] group : autocallables) {
+                List<AutocallablePricer.Note> shocked = new ArrayList<>(group.length);
+                for (int j : group) {
+                    AutocallablePricer.Note note = notes[j];
+                    shocked.add(new AutocallablePricer.Note(shockedSpot[j], note.strike(), note.barrier(),
+                        note.coupon(), note.maturity(), note.observationOffsets()));
+                }
+                double[] values = new double[group.length];
+                pricingService.autocallableValues(shocked, shockedVolatility[group[0]], shockedRate[group[0]],
+                                                  autocallablePaths, values);
+                for (int k = 0; k < group.length; k++) {
+                    price[group[k]] = values[k];
+                }
+            }
+        }
+
+        private static int intern(Map<String, Integer> ids, String name) {
+            return ids.computeIfAbsent(name == null ? "" : name, key -> ids.size());
+        }
+
+        int size() {
+            return positionCount + productCount;
+        }
+
+        StressGrid.Contributor contributor(int index, double loss) {
+            if (index < positionCount) {
+                Position position = positions.get(index);
+                return new StressGrid.Contributor(position.getSymbol(), position.getPortfolioId(), loss);
+            }
+            StructuredProduct product = products.get(index - positionCount);
+            return new StressGrid.Contributor(product.getProductCode(), product.getPortfolioId(), loss);
+        }
+    }
+
+    /**
+     * Shocks of one scenario by interned symbol or type id; NaN price marks an id without a shock
+     */
+    private static final class ShockTable {
+
+        final double[] price;
+        final double[] volatility;
+        final double[] rate;
+
+        ShockTable(Map<String, StressScenario.Shock> shocks, Map<String, Integer> ids) {
+            int size = ids.size();
+            price = new double[size];
+            volatility = new double[size];
+            rate = new double[size];
+            Arrays.fill(price, Double.NaN);
+            for (Map.Entry<String, StressScenario.Shock> entry : shocks.entrySet()) {
+                Integer id = ids.get(entry.getKey());
+                if (id != null && entry.getValue() != null) {
+                    price[id] = entry.getValue().price();
+                    volatility[id] = entry.getValue().volatility();
+                    rate[id] = entry.getValue().rate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Fork/join task over a range of scenarios
+     */
+    private static final class GridTask extends RecursiveAction {
+
+        private final Instruments instruments;
+        private final List<StressScenario> scenarios;
+        private final int topContributors;
+        private final double[] losses;
+        private final int[][] topIndices;
+        private final double[][] topLosses;
+        private final int from;
+        private final int to;
+
+        GridTask(Instruments instruments, List<StressScenario> scenarios, int topContributors, double[] losses,
+                 int[][] topIndices, double[][] topLosses, int from, int to) {
+            this.instruments = instruments;
+            this.scenarios = scenarios;
+            this.topContributors = topContributors;
+            this.losses = losses;
+            this.topIndices = topIndices;
+            this.topLosses = topLosses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCENARIOS_PER_TASK) {
+                evaluateRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new GridTask(instruments, scenarios, topContributors, losses, topIndices, topLosses, from, mid),
+                new GridTask(instruments, scenarios, topContributors, losses, topIndices, topLosses, mid, to)
+            );
+        }
+
+        private void evaluateRange() {
+            Instruments grid = instruments;
+            int positionCount = grid.positionCount;
+            int productCount = grid.productCount;
+
+            // Scratch reused for every scenario of this leaf
+            double[] instrumentLoss = new double[grid.size()];
+            double[] spot = new double[productCount];
+            double[] volatility = new double[productCount];
+            double[] rate = new double[productCount];
+            double[] price = new double[productCount];
+            double[] unused = new double[productCount];
+
+            for (int s = from; s < to; s++) {
+                StressScenario scenario = scenarios.get(s);
+                ShockTable bySymbol = new ShockTable(scenario.symbols(), grid.symbolIds);
+                ShockTable byType = new ShockTable(scenario.types(), grid.typeIds);
+                StressScenario.Shock all = scenario.all();
+
+                for (int i = 0; i < positionCount; i++) {
+                    double shock = bySymbol.price[grid.positionSymbol[i]];
+                    if (Double.isNaN(shock)) {
+                        shock = byType.price[grid.positionType[i]];
+                        if (Double.isNaN(shock)) {
+                            shock = all.price();
+                        }
+                    }
+                    instrumentLoss[i] = -grid.value[i] * shock;
+                }
+
+                for (int j = 0; j < productCount; j++) {
+                    int symbol = grid.productSymbol[j];
+                    int type = grid.productType[j];
+                    double priceShock;
+                    double volShock;
+                    double rateShock;
+                    if (!Double.isNaN(bySymbol.price[symbol])) {
+                        priceShock = bySymbol.price[symbol];
+                        volShock = bySymbol.volatility[symbol];
+                        rateShock = bySymbol.rate[symbol];
+                    } else if (!Double.isNaN(byType.price[type])) {
+                        priceShock = byType.price[type];
+                        volShock = byType.volatility[type];
+                        rateShock = byType.rate[type];
+                    } else {
+                        priceShock = all.price();
+                        volShock = all.volatility();
+                        rateShock = all.rate();
+                    }
+                    spot[j] = grid.spot[j] * (1.0 + priceShock);
+                    volatility[j] = grid.volatility[j] * (1.0 + volShock);
+                    rate[j] = StructuredProductPricingService.RISK_FREE_RATE + rateShock;
+                }
+                BlackScholesBatchPricer.price(productCount, spot, grid.strike, grid.maturity, volatility, rate,
+                                              price, unused, unused, unused, unused);
+                grid.revalueAutocallables(spot, volatility, rate, price);
+                for (int j = 0; j < productCount; j++) {
+                    instrumentLoss[positionCount + j] = grid.units[j] * (grid.basePrice[j] - price[j]);
+                }
+
+                losses[s] = KahanSum.of(instrumentLoss, instrumentLoss.length);
+                selectTop(s, instrumentLoss);
+            }
+        }
+
+        /**
+         * Keep the largest positive losses, largest first, by insertion into a short sorted array
+         */
+        private void selectTop(int scenario, double[] instrumentLoss) {
+            if (topContributors == 0) {
+                topIndices[scenario] = new int[0];
+                topLosses[scenario] = new double[0];
+                return;
+            }
+            int[] indices = new int[topContributors];
+            double[] values = new double[topContributors];
+            int filled = 0;
+
+            for (int i = 0; i < instrumentLoss.length; i++) {
+                double loss = instrumentLoss[i];
+                if (!(loss > 0.0) || (filled == topContributors && loss <= values[filled - 1])) {
+                    continue;
+                }
+                int k = filled < topContributors ? filled++ : filled - 1;
+                while (k > 0 && values[k - 1] < loss) {
+                    values[k] = values[k - 1];
+                    indices[k] = indices[k - 1];
+                    k--;
+                }
+                values[k] = loss;
+                indices[k] = i;
+            }
+
+            topIndices[scenario] = Arrays.copyOf(indices, filled);
+            topLosses[scenario] = Arrays.copyOf(values, filled);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.satyam.riskviewer_backend.model.StructuredProduct;
@@ -14,75 +15,205 @@ import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
 @Service
 public class StructuredProductPricingService {
     
+    static final double RISK_FREE_RATE = 0.05;
+    
     private final StructuredProductRepository structuredProductRepository;
+    private final StandardNormalBlock normalBlock;
+    private final AutocallablePricer autocallablePricer;
+    
+    public StructuredProductPricingService(StructuredProductRepository structuredProductRepository,
+                                         StandardNormalBlock normalBlock) {
+        this(structuredProductRepository, normalBlock, new AutocallablePricer());
+    }
     
-    public StructuredProductPricingService(StructuredProductRepository structuredProductRepository) {
+    @Autowired
+    public StructuredProductPricingService(StructuredProductRepository structuredProductRepository,
+                                         StandardNormalBlock normalBlock,
+                                         AutocallablePricer autocallablePricer) {
         this.structuredProductRepository = structuredProductRepository;
+        this.normalBlock = normalBlock;
+        this.autocallablePricer = autocallablePricer;
     }
     
     /**
      * Calculate Black-Scholes price for structured products
      */
     public BigDecimal calculateBlackScholesPrice(StructuredProduct product) {
-        double S = product.getCurrentPrice().doubleValue();  // Current price
-        double K = product.getStrikePrice().doubleValue();   // Strike price
-        double T = getTimeToMaturity(product);               // Time to maturity
-        double r = 0.05;  // Risk-free rate (5%)
-        double sigma = product.getImpliedVolatility().doubleValue(); // Volatility
-        
-        if (T <= 0) {
-            return product.getCurrentPrice(); // Already matured
-        }
-        
-        double d1 = (Math.log(S / K) + (r + 0.5 * sigma * sigma) * T) / (sigma * Math.sqrt(T));
-        double d2 = d1 - sigma * Math.sqrt(T);
-        
-        double callPrice = S * normalCDF(d1) - K * Math.exp(-r * T) * normalCDF(d2);
+        return calculateBlackScholesPrices(List.of(product)).get(0);
+    }
         
-        // Adjust for product type
-        double productPrice = adjustForProductType(callPrice, product, S, K, T, r, sigma);
+    /**
+     * Calculate Black-Scholes prices for many products in one batch pricer pass
+     */
+    public List<BigDecimal> calculateBlackScholesPrices(List<StructuredProduct> products) {
+        return calculateBlackScholesPrices(products, pricingInputs(products));
+    }
+    
+    private List<BigDecimal> calculateBlackScholesPrices(List<StructuredProduct> products, PricingInputs inputs) {
+        int count = products.size();
+        PricingOutputs outputs = new PricingOutputs(count);
+        BlackScholesBatchPricer.price(count, inputs.spot, inputs.strike, inputs.maturity, inputs.volatility,
+                                      inputs.rate, outputs.price, outputs.delta, outputs.gamma, outputs.theta,
+                                      outputs.vega);
+        priceAutocallables(products, inputs, outputs);
+        double[] breachProbabilities = calculateBarrierBreachProbabilities(products, inputs);
+        
+        List<BigDecimal> prices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StructuredProduct product = products.get(i);
+            if (inputs.maturity[i] <= 0) {
+                prices.add(product.getCurrentPrice()); // Already matured
+                continue;
+            }
         
-        return BigDecimal.valueOf(productPrice).setScale(2, RoundingMode.HALF_UP);
+            // Adjust for product type
+            double productPrice = adjustForProductType(outputs.price[i], product, inputs.spot[i], breachProbabilities[i]);
+            prices.add(BigDecimal.valueOf(productPrice).setScale(2, RoundingMode.HALF_UP));
+        }
+        return prices;
     }
     
     /**
      * Calculate Greeks for risk management
      */
     public void calculateGreeks(StructuredProduct product) {
-        double S = product.getCurrentPrice().doubleValue();
-        double K = product.getStrikePrice().doubleValue();
-        double T = getTimeToMaturity(product);
-        double r = 0.05;
-        double sigma = product.getImpliedVolatility().doubleValue();
+        calculateGreeks(List.of(product));
+    }
         
-        if (T <= 0) {
-            // Product has matured - Greeks are zero
-            product.setDelta(BigDecimal.ZERO);
-            product.setGamma(BigDecimal.ZERO);
-            product.setTheta(BigDecimal.ZERO);
-            product.setVega(BigDecimal.ZERO);
-            return;
+    /**
+     * Calculate Greeks for many products in one batch pricer pass
+     */
+    public void calculateGreeks(List<StructuredProduct> products) {
+        int count = products.size();
+        PricingInputs inputs = pricingInputs(products);
+        PricingOutputs outputs = new PricingOutputs(count);
+        BlackScholesBatchPricer.price(count, inputs.spot, inputs.strike, inputs.maturity, inputs.volatility,
+                                      inputs.rate, outputs.price, outputs.delta, outputs.gamma, outputs.theta,
+                                      outputs.vega);
+        priceAutocallables(products, inputs, outputs);
+        
+        for (int i = 0; i < count; i++) {
+            StructuredProduct product = products.get(i);
+            product.setDelta(BigDecimal.valueOf(outputs.delta[i]).setScale(4, RoundingMode.HALF_UP));
+            product.setGamma(BigDecimal.valueOf(outputs.gamma[i]).setScale(4, RoundingMode.HALF_UP));
+            product.setTheta(BigDecimal.valueOf(outputs.theta[i]).setScale(4, RoundingMode.HALF_UP)); // Per day
+            product.setVega(BigDecimal.valueOf(outputs.vega[i]).setScale(4, RoundingMode.HALF_UP)); // Per 1% vol change
+        }
+    }
+    
+    /**
+     * Replace the Black-Scholes outputs of every live autocallable in the list
+     * with its Monte Carlo price and Greeks. Notes on the same underlying,
+     * volatility and rate are priced together on one set of paths.
+     */
+    private void priceAutocallables(List<StructuredProduct> products, PricingInputs inputs, PricingOutputs outputs) {
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            if ("AUTOCALLABLE".equals(products.get(i).getProductType()) && inputs.maturity[i] > 0) {
+                String key = products.get(i).getUnderlyingAsset() + "|" + inputs.volatility[i] + "|" + inputs.rate[i];
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
         }
         
-        double d1 = (Math.log(S / K) + (r + 0.5 * sigma * sigma) * T) / (sigma * Math.sqrt(T));
-        double d2 = d1 - sigma * Math.sqrt(T);
-        
-        // Delta: sensitivity to underlying price changes
-        double delta = normalCDF(d1);
-        product.setDelta(BigDecimal.valueOf(delta).setScale(4, RoundingMode.HALF_UP));
-        
-        // Gamma: rate of change of delta
-        double gamma = normalPDF(d1) / (S * sigma * Math.sqrt(T));
-        product.setGamma(BigDecimal.valueOf(gamma).setScale(4, RoundingMode.HALF_UP));
-        
-        // Theta: time decay
-        double theta = -(S * normalPDF(d1) * sigma) / (2 * Math.sqrt(T)) 
-                      - r * K * Math.exp(-r * T) * normalCDF(d2);
-        product.setTheta(BigDecimal.valueOf(theta / 365).setScale(4, RoundingMode.HALF_UP)); // Per day
+        for (List<Integer> group : groups.values()) {
+            int count = group.size();
+            List<AutocallablePricer.Note> notes = new ArrayList<>(count);
+            for (int i : group) {
+                notes.add(autocallablePricer.note(products.get(i), inputs.spot[i], inputs.maturity[i]));
+            }
+            
+            PricingOutputs groupOutputs = new PricingOutputs(count);
+            int first = group.get(0);
+            autocallablePricer.price(notes, inputs.volatility[first], inputs.rate[first], groupOutputs.price,
+                                     groupOutputs.delta, groupOutputs.gamma, groupOutputs.theta, groupOutputs.vega);
+            for (int j = 0; j < count; j++) {
+                int i = group.get(j);
+                outputs.price[i] = groupOutputs.price[j];
+                outputs.delta[i] = groupOutputs.delta[j];
+                outputs.gamma[i] = groupOutputs.gamma[j];
+                outputs.theta[i] = groupOutputs.theta[j];
+                outputs.vega[i] = groupOutputs.vega[j];
+            }
+        }
+    }
+    
+    /**
+     * Autocallable note of a product at the given spot and time to maturity
+     */
+    AutocallablePricer.Note autocallableNote(StructuredProduct product, double spot, double maturity) {
+        return autocallablePricer.note(product, spot, maturity);
+    }
+    
+    /**
+     * Values per unit of autocallables on one underlying from the first paths
+     * of the Monte Carlo pricer, the same paths on every call
+     */
+    void autocallableValues(List<AutocallablePricer.Note> notes, double volatility, double rate, int paths,
+                            double[] values) {
+        autocallablePricer.value(notes, volatility, rate, paths, values);
+    }
+    
+    /**
+     * Values of an autocallable over a revaluation grid, laid out as by
+     * ValuationLadderPricer, from the Monte Carlo pricer
+     */
+    void autocallableLadder(StructuredProduct product, double maturity, double[] spotShocks, double[] volShocks,
+                            double[] yearsForward, double[] values) {
+        double spot = product.getCurrentPrice().doubleValue();
+        AutocallablePricer.Note note = autocallablePricer.note(product, spot, maturity);
+        autocallablePricer.ladder(note, product.getImpliedVolatility().doubleValue(), RISK_FREE_RATE,
+                                  spotShocks, volShocks, yearsForward, values);
+    }
+    
+    /**
+     * Barrier breach probability of every barrier reverse convertible in the
+     * list (zero for other products). Contracts on the same underlying and
+     * volatility share one pass over the normal block.
+     */
+    private double[] calculateBarrierBreachProbabilities(List<StructuredProduct> products, PricingInputs inputs) {
+        double[] probabilities = new double[products.size()];
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            StructuredProduct product = products.get(i);
+            if ("BARRIER_REVERSE_CONVERTIBLE".equals(product.getProductType()) && product.getBarrierLevel() != null) {
+                String key = product.getUnderlyingAsset() + "|" + inputs.volatility[i] + "|" + inputs.rate[i];
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
         
-        // Vega: sensitivity to volatility
-        double vega = S * Math.sqrt(T) * normalPDF(d1) / 100; // Per 1% vol change
-        product.setVega(BigDecimal.valueOf(vega).setScale(4, RoundingMode.HALF_UP));
+        for (List<Integer> group : groups.values()) {
+            int count = group.size();
+            double[] logBarrierRatio = new double[count];
+            double[] maturity = new double[count];
+            for (int j = 0; j < count; j++) {
+                int i = group.get(j);
+                logBarrierRatio[j] = Math.log(products.get(i).getBarrierLevel().doubleValue() / inputs.spot[i]);
+                maturity[j] = inputs.maturity[i];
+            }
+            
+            double[] groupProbabilities = new double[count];
+            int first = group.get(0);
+            normalBlock.barrierBreachProbabilities(inputs.volatility[first], inputs.rate[first],
+                                                   logBarrierRatio, maturity, count, groupProbabilities);
+            for (int j = 0; j < count; j++) {
+                probabilities[group.get(j)] = groupProbabilities[j];
+            }
+        }
+        return probabilities;
+    }
+    
+    private PricingInputs pricingInputs(List<StructuredProduct> products) {
+        PricingInputs inputs = new PricingInputs(products.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < products.size(); i++) {
+            StructuredProduct product = products.get(i);
+            inputs.spot[i] = product.getCurrentPrice().doubleValue();
+            inputs.strike[i] = product.getStrikePrice().doubleValue();
+            inputs.maturity[i] = getTimeToMaturity(product, now);
+            inputs.volatility[i] = product.getImpliedVolatility().doubleValue();
+            inputs.rate[i] = RISK_FREE_RATE;
+        }
+        return inputs;
     }
     
     /**
@@ -90,19 +221,23 @@ public class StructuredProductPricingService {
      */
     public Map<String, BigDecimal> runStructuredProductStressTests(StructuredProduct product) {
         Map<String, BigDecimal> results = new HashMap<>();
-        BigDecimal currentValue = calculateBlackScholesPrice(product);
+        
+        // Current value, then market crash, vol spike, rate rise and 30 days of decay, in one pricer pass
+        List<BigDecimal> values = calculateScenarioValues(product,
+            new double[] { 0.0, -0.20, 0.0, 0.0, 0.0 },
+            new double[] { 0.0, 0.0, 0.5, 0.0, 0.0 },
+            new double[] { 0.0, 0.0, 0.0, 0.02, 0.0 },
+            new int[] { 0, 0, 0, 0, 30 });
+        BigDecimal currentValue = values.get(0);
         
         // Scenario 1: 20% market drop
-        BigDecimal marketCrashValue = calculateScenarioValue(product, -0.20, 0.0, 0.0);
-        results.put("Market Crash (-20%)", currentValue.subtract(marketCrashValue));
+        results.put("Market Crash (-20%)", currentValue.subtract(values.get(1)));
         
         // Scenario 2: 50% volatility spike
-        BigDecimal volSpike = calculateScenarioValue(product, 0.0, 0.5, 0.0);
-        results.put("Volatility Spike (+50%)", volSpike.subtract(currentValue));
+        results.put("Volatility Spike (+50%)", values.get(2).subtract(currentValue));
         
         // Scenario 3: Interest rate rise (+200bps)
-        BigDecimal rateRise = calculateScenarioValue(product, 0.0, 0.0, 0.02);
-        results.put("Rate Rise (+200bps)", rateRise.subtract(currentValue));
+        results.put("Rate Rise (+200bps)", values.get(3).subtract(currentValue));
         
         // Scenario 4: Barrier breach scenario
         if (product.getBarrierLevel() != null) {
@@ -111,29 +246,32 @@ public class StructuredProductPricingService {
         }
         
         // Scenario 5: Time decay (30 days)
-        BigDecimal timeDcay = calculateTimeDecayValue(product, 30);
-        results.put("Time Decay (30d)", currentValue.subtract(timeDcay));
+        results.put("Time Decay (30d)", currentValue.subtract(values.get(4)));
         
         return results;
     }
     
     /**
-     * Calculate scenario value with market moves
+     * Price one product under several market moves, one pricer slot per scenario
+     *
+     * @param priceShock  relative spot move of each scenario
+     * @param volShock    relative volatility move
+     * @param rateShock   absolute rate shift
+     * @param daysForward calendar days the valuation date moves forward
      */
-    private BigDecimal calculateScenarioValue(StructuredProduct product, double priceShock, 
-                                            double volShock, double rateShock) {
-        StructuredProduct scenarioProduct = cloneProduct(product);
-        
-        // Apply shocks
-        BigDecimal newPrice = product.getCurrentPrice()
-            .multiply(BigDecimal.valueOf(1 + priceShock));
-        scenarioProduct.setCurrentPrice(newPrice);
-        
-        BigDecimal newVol = product.getImpliedVolatility()
-            .multiply(BigDecimal.valueOf(1 + volShock));
-        scenarioProduct.setImpliedVolatility(newVol);
-        
-        return calculateBlackScholesPrice(scenarioProduct);
+    private List<BigDecimal> calculateScenarioValues(StructuredProduct product, double[] priceShock,
+                                                     double[] volShock, double[] rateShock, int[] daysForward) {
+        int count = priceShock.length;
+        PricingInputs current = pricingInputs(List.of(product));
+        PricingInputs inputs = new PricingInputs(count);
+        for (int i = 0; i < count; i++) {
+            inputs.spot[i] = current.spot[0] * (1 + priceShock[i]);
+            inputs.strike[i] = current.strike[0];
+            inputs.maturity[i] = current.maturity[0] - daysForward[i] / 365.0;
+            inputs.volatility[i] = current.volatility[0] * (1 + volShock[i]);
+            inputs.rate[i] = current.rate[0] + rateShock[i];
+        }
+        return calculateBlackScholesPrices(Collections.nCopies(count, product), inputs);
     }
     
     /**
@@ -154,22 +292,9 @@ public class StructuredProductPricingService {
     }
     
     /**
-     * Calculate time decay impact
-     */
-    private BigDecimal calculateTimeDecayValue(StructuredProduct product, int daysForward) {
-        StructuredProduct futureProduct = cloneProduct(product);
-        LocalDateTime futureDate = product.getLastUpdated().plusDays(daysForward);
-        futureProduct.setLastUpdated(futureDate);
-        
-        return calculateBlackScholesPrice(futureProduct);
-    }
-    
-    /**
-     * Assess overall risk status
+     * Assess overall risk status from the product's current Greeks
      */
     public void assessRiskStatus(StructuredProduct product) {
-        calculateGreeks(product);
-        
         double delta = product.getDelta().doubleValue();
         double gamma = product.getGamma().doubleValue();
         double vega = product.getVega().doubleValue();
@@ -209,17 +334,11 @@ public class StructuredProductPricingService {
     }
     
     // Helper methods
-    private double adjustForProductType(double basePrice, StructuredProduct product, 
-                                      double S, double K, double T, double r, double sigma) {
+    double adjustForProductType(double basePrice, StructuredProduct product, double S, double breachProbability) {
         switch (product.getProductType()) {
-            case "AUTOCALLABLE":
-                // Autocallable notes have early redemption features
-                return basePrice * 0.95; // Discount for autocall feature
-                
             case "BARRIER_REVERSE_CONVERTIBLE":
                 // BRC has downside barrier protection
-                double barrierAdjustment = calculateBarrierAdjustment(product, S, T, r, sigma);
-                return basePrice + barrierAdjustment;
+                return basePrice - breachProbability * S * 0.5; // Simplified adjustment
                 
             case "EQUITY_LINKED_NOTE":
                 // Standard equity-linked note
@@ -230,35 +349,11 @@ public class StructuredProductPricingService {
         }
     }
     
-    private double calculateBarrierAdjustment(StructuredProduct product, double S, double T, double r, double sigma) {
-        if (product.getBarrierLevel() == null) return 0.0;
-        
-        double barrier = product.getBarrierLevel().doubleValue();
-        double barrierDistance = S / barrier;
-        
-        // Monte Carlo estimation of barrier breach probability
-        double breachProbability = estimateBarrierBreachProbability(S, barrier, T, sigma, 1000);
-        
-        // Adjust price based on breach probability
-        return -breachProbability * S * 0.5; // Simplified adjustment
-    }
-    
-    private double estimateBarrierBreachProbability(double S, double barrier, double T, double sigma, int simulations) {
-        Random random = new Random(12345);
-        int breaches = 0;
-        
-        for (int i = 0; i < simulations; i++) {
-            double finalPrice = S * Math.exp((0.05 - 0.5 * sigma * sigma) * T + sigma * Math.sqrt(T) * random.nextGaussian());
-            if (finalPrice < barrier) {
-                breaches++;
-            }
-        }
-        
-        return (double) breaches / simulations;
+    private double getTimeToMaturity(StructuredProduct product) {
+        return getTimeToMaturity(product, LocalDateTime.now());
     }
     
-    private double getTimeToMaturity(StructuredProduct product) {
-        LocalDateTime now = LocalDateTime.now();
+    double getTimeToMaturity(StructuredProduct product, LocalDateTime now) {
         LocalDateTime maturity = product.getMaturityDate();
         
         if (now.isAfter(maturity)) {
@@ -269,48 +364,41 @@ public class StructuredProductPricingService {
         return days / 365.0; // Convert to years
     }
     
-    private StructuredProduct cloneProduct(StructuredProduct original) {
-        StructuredProduct clone = new StructuredProduct();
-        clone.setProductCode(original.getProductCode());
-        clone.setProductType(original.getProductType());
-        clone.setUnderlyingAsset(original.getUnderlyingAsset());
-        clone.setNotionalAmount(original.getNotionalAmount());
-        clone.setStrikePrice(original.getStrikePrice());
-        clone.setBarrierLevel(original.getBarrierLevel());
-        clone.setCouponRate(original.getCouponRate());
-        clone.setIssueDate(original.getIssueDate());
-        clone.setMaturityDate(original.getMaturityDate());
-        clone.setPortfolioId(original.getPortfolioId());
-        clone.setCurrentPrice(original.getCurrentPrice());
-        clone.setImpliedVolatility(original.getImpliedVolatility());
-        clone.setLastUpdated(original.getLastUpdated());
-        return clone;
-    }
-    
-    // Standard normal distribution functions
-    private double normalCDF(double x) {
-        return 0.5 * (1 + erf(x / Math.sqrt(2)));
-    }
+    /**
+     * Struct-of-arrays pricer inputs, one slot per product
+     */
+    private static final class PricingInputs {
+        final double[] spot;
+        final double[] strike;
+        final double[] maturity;
+        final double[] volatility;
+        final double[] rate;
     
-    private double normalPDF(double x) {
-        return Math.exp(-0.5 * x * x) / Math.sqrt(2 * Math.PI);
+        PricingInputs(int count) {
+            spot = new double[count];
+            strike = new double[count];
+            maturity = new double[count];
+            volatility = new double[count];
+            rate = new double[count];
+        }
     }
-    
-    private double erf(double x) {
-        // Approximation of error function
-        double a1 =  0.254829592;
-        double a2 = -0.284496736;
-        double a3 =  1.421413741;
-        double a4 = -1.453152027;
-        double a5 =  1.061405429;
-        double p  =  0.3275911;
-        
-        int sign = x < 0 ? -1 : 1;
-        x = Math.abs(x);
-        
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
-        
-        return sign * y;
+
+    /**
+     * Struct-of-arrays pricer outputs, one slot per product
+     */
+    private static final class PricingOutputs {
+        final double[] price;
+        final double[] delta;
+        final double[] gamma;
+        final double[] theta;
+        final double[] vega;
+        
+        PricingOutputs(int count) {
+            price = new double[count];
+            delta = new double[count];
+            gamma = new double[count];
+            theta = new double[count];
+            vega = new double[count];
+        }
     }
 }
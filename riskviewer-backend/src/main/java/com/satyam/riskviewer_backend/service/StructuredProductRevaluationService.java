@@ -0,0 +1,143 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
+
+/**
+ * Reprices structured products after a market data tick.
+ *
+ * Only products written on an underlying that moved are loaded, and only
+ * those whose price or volatility input actually changed are repriced. The
+ * results are written back with batched JDBC updates limited to the market
+ * data, Greek and risk status columns, so the risk scenario collection is
+ * never rewritten and a connection is only held for the query and the
+ * batches themselves.
+ */
+@Service
+public class StructuredProductRevaluationService {
+
+    private static final String UPDATE_SQL =
+        "UPDATE structured_products SET current_price = ?, implied_volatility = ?, " +
+        "delta = ?, gamma = ?, theta = ?, vega = ?, risk_status = ?, last_updated = ? WHERE id = ?";
+
+    /**
+     * A repriced product and whether any of its Greeks moved
+     */
+    public record Revaluation(StructuredProduct product, boolean greeksChanged) {}
+
+    private final StructuredProductRepository structuredProductRepository;
+    private final StructuredProductPricingService pricingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public StructuredProductRevaluationService(StructuredProductRepository structuredProductRepository,
+                                               StructuredProductPricingService pricingService,
+                                               JdbcTemplate jdbcTemplate,
+                                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int batchSize) {
+        this.structuredProductRepository = structuredProductRepository;
+        this.pricingService = pricingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reprice the products on the given underlyings and persist the ones that changed
+     *
+     * @param prices       latest price per underlying that moved this tick
+     * @param volatilities latest implied volatility per underlying
+     * @return the repriced products, in no particular order
+     */
+    public List<Revaluation> revalue(Map<String, BigDecimal> prices, Map<String, BigDecimal> volatilities) {
+        if (prices.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<StructuredProduct>> byUnderlying = new HashMap<>();
+        for (StructuredProduct product : structuredProductRepository.findByUnderlyingAssetIn(prices.keySet())) {
+            byUnderlying.computeIfAbsent(product.getUnderlyingAsset(), asset -> new ArrayList<>()).add(product);
+        }
+
+        List<StructuredProduct> moved = new ArrayList<>();
+        List<BigDecimal[]> previousGreeks = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<String, List<StructuredProduct>> group : byUnderlying.entrySet()) {
+            BigDecimal newPrice = prices.get(group.getKey());
+            BigDecimal newVol = volatilities.get(group.getKey());
+            if (newPrice == null || newVol == null) {
+                continue;
+            }
+
+            for (StructuredProduct product : group.getValue()) {
+                if (sameValue(product.getCurrentPrice(), newPrice) && sameValue(product.getImpliedVolatility(), newVol)) {
+                    continue; // Inputs unchanged, stored Greeks are still valid
+                }
+
+                previousGreeks.add(new BigDecimal[] {
+                    product.getDelta(), product.getGamma(), product.getTheta(), product.getVega() });
+                product.setCurrentPrice(newPrice);
+                product.setImpliedVolatility(newVol);
+                product.setLastUpdated(now);
+                moved.add(product);
+            }
+        }
+
+        // One batch pricer pass for every product that moved
+        pricingService.calculateGreeks(moved);
+
+        List<Revaluation> revaluations = new ArrayList<>(moved.size());
+        for (int i = 0; i < moved.size(); i++) {
+            StructuredProduct product = moved.get(i);
+            BigDecimal[] previous = previousGreeks.get(i);
+            pricingService.assessRiskStatus(product);
+
+            boolean greeksChanged = !sameValue(previous[0], product.getDelta())
+                || !sameValue(previous[1], product.getGamma())
+                || !sameValue(previous[2], product.getTheta())
+                || !sameValue(previous[3], product.getVega());
+            revaluations.add(new Revaluation(product, greeksChanged));
+        }
+
+        persist(revaluations);
+        return revaluations;
+    }
+
+    private void persist(List<Revaluation> revaluations) {
+        if (revaluations.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, revaluations, batchSize,
+            (ps, revaluation) -> bind(ps, revaluation.product()));
+    }
+
+    private void bind(PreparedStatement ps, StructuredProduct product) throws SQLException {
+        ps.setBigDecimal(1, product.getCurrentPrice());
+        ps.setBigDecimal(2, product.getImpliedVolatility());
+        ps.setBigDecimal(3, product.getDelta());
+        ps.setBigDecimal(4, product.getGamma());
+        ps.setBigDecimal(5, product.getTheta());
+        ps.setBigDecimal(6, product.getVega());
+        ps.setString(7, product.getRiskStatus());
+        ps.setTimestamp(8, Timestamp.valueOf(product.getLastUpdated()));
+        ps.setLong(9, product.getId());
+    }
+
+    private boolean sameValue(BigDecimal previous, BigDecimal current) {
+        return previous != null && current != null && previous.compareTo(current) == 0;
+    }
+}
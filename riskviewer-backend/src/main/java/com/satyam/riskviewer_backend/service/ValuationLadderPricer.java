@@ -0,0 +1,103 @@
+package com.satyam.riskviewer_backend.service;
+
+/**
+ * Full revaluation of one structured product over a spot x volatility x time grid.
+ *
+ * Everything that does not depend on all three axes is hoisted out of the
+ * inner loop: the shocked spot and ln(S / K) once per spot point, sqrt(T)
+ * and the discounted strike once per time point, and vol * sqrt(T) and the
+ * d1 drift term once per (time, vol) pair. The inner loop over spot points
+ * is then a few multiplies, two exponentials and the two CDF polynomials,
+ * the same approximation as BlackScholesBatchPricer.
+ *
+ * The product type adjustment is applied as price * typeFactor +
+ * barrierWeight * breachProbability * S. The breach probability uses the
+ * closed form of the continuously monitored crossing probability that
+ * StandardNormalBlock estimates by sampling, so a grid of thousands of
+ * points needs no pass over the normal block.
+ */
+public final class ValuationLadderPricer {
+
+    private ValuationLadderPricer() {
+    }
+
+    /**
+     * Value one product at every grid point
+     *
+     * @param spot          current underlying price
+     * @param strike        strike price
+     * @param maturity      time to maturity in years today
+     * @param volatility    current implied volatility
+     * @param rate          continuously compounded risk-free rate
+     * @param typeFactor    multiplier on the Black-Scholes price for the product type
+     * @param barrierWeight weight of breachProbability * S in the price, zero without a barrier
+     * @param barrier       barrier level, ignored when barrierWeight is zero
+     * @param spotShocks    relative spot moves, 0.1 = +10%
+     * @param volShocks     relative volatility moves
+     * @param yearsForward  time steps forward in years
+     * @param values        out: value at [time][vol][spot], flattened in that order;
+     *                      the shocked spot for points at or past maturity
+     */
+    public static void price(double spot, double strike, double maturity, double volatility, double rate,
+                             double typeFactor, double barrierWeight, double barrier,
+                             double[] spotShocks, double[] volShocks, double[] yearsForward, double[] values) {
+        int spots = spotShocks.length;
+        int vols = volShocks.length;
+        boolean hasBarrier = barrierWeight != 0.0;
+
+        double[] shockedSpot = new double[spots];
+        double[] logMoneyness = new double[spots];
+        double[] logBarrierRatio = new double[spots];
+        for (int i = 0; i < spots; i++) {
+            shockedSpot[i] = spot * (1.0 + spotShocks[i]);
+            logMoneyness[i] = Math.log(shockedSpot[i] / strike);
+            logBarrierRatio[i] = hasBarrier ? Math.log(barrier / shockedSpot[i]) : 0.0;
+        }
+
+        int offset = 0;
+        for (double forward : yearsForward) {
+            double t = maturity - forward;
+            if (t <= 0.0) {
+                for (int v = 0; v < vols; v++, offset += spots) {
+                    System.arraycopy(shockedSpot, 0, values, offset, spots); // Matured
+                }
+                continue;
+            }
+            double sqrtT = Math.sqrt(t);
+            double discountedStrike = strike * Math.exp(-rate * t);
+
+            for (int v = 0; v < vols; v++, offset += spots) {
+                double vol = volatility * (1.0 + volShocks[v]);
+                double volSqrtT = vol * sqrtT;
+                double invVolSqrtT = 1.0 / volSqrtT;
+                double d1Drift = (rate + 0.5 * vol * vol) * t * invVolSqrtT;
+
+                // Crossing probability of a down barrier b = ln(B / S) < 0 for a drift mu:
+                // N((b - mu T) / (vol sqrt T)) + exp(2 mu b / vol^2) N((b + mu T) / (vol sqrt T))
+                double mu = rate - 0.5 * vol * vol;
+                double muT = mu * t;
+                double reflection = 2.0 * mu / (vol * vol);
+
+                for (int i = 0; i < spots; i++) {
+                    double s = shockedSpot[i];
+                    double d1 = logMoneyness[i] * invVolSqrtT + d1Drift;
+                    double d2 = d1 - volSqrtT;
+                    double call = s * cdf(d1) - discountedStrike * cdf(d2);
+                    double value = call * typeFactor;
+
+                    if (hasBarrier) {
+                        double b = logBarrierRatio[i];
+                        double breach = b >= 0.0 ? 1.0
+                            : cdf((b - muT) * invVolSqrtT) + Math.exp(reflection * b) * cdf((b + muT) * invVolSqrtT);
+                        value += barrierWeight * Math.min(breach, 1.0) * s;
+                    }
+                    values[offset + i] = value;
+                }
+            }
+        }
+    }
+
+    private static double cdf(double x) {
+        return BlackScholesBatchPricer.cdf(x, Math.exp(-0.5 * x * x));
+    }
+}
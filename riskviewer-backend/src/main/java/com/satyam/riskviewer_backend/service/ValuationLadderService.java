@@ -0,0 +1,199 @@
+package com.satyam.riskviewer_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.model.ValuationLadder;
+import com.satyam.riskviewer_backend.repository.StructuredProductRepository;
+
+/**
+ * Spot x volatility x time revaluation ladders for structured products.
+ *
+ * Each product is read into primitives once and valued over the whole grid
+ * by ValuationLadderPricer, with no entity copies or BigDecimal round trips
+ * per grid point. Autocallables are path-dependent and are valued by
+ * AutocallablePricer instead, one set of paths per time point; at a few
+ * milliseconds per point they have a much smaller per-request point budget
+ * of their own. Ladders of many products are split across the compute pool.
+ */
+@Service
+public class ValuationLadderService {
+
+    /** Products valued by one fork/join leaf */
+    static final int PRODUCTS_PER_TASK = 8;
+
+    private static final double[] NO_SHOCK = { 0.0 };
+
+    private final StructuredProductRepository structuredProductRepository;
+    private final StructuredProductPricingService pricingService;
+    private final ForkJoinPool pool;
+    private final int maxPoints;
+    private final long maxBatchPoints;
+    private final long maxAutocallablePoints;
+
+    public ValuationLadderService(StructuredProductRepository structuredProductRepository,
+                                  StructuredProductPricingService pricingService,
+                                  @Qualifier("computePool") ForkJoinPool pool,
+                                  @Value("${app.pricing.ladder.max-points:100000}") int maxPoints,
+                                  @Value("${app.pricing.ladder.max-batch-points:5000000}") long maxBatchPoints,
+                                  @Value("${app.pricing.ladder.max-autocallable-points:10000}") long maxAutocallablePoints) {
+        this.structuredProductRepository = structuredProductRepository;
+        this.pricingService = pricingService;
+        this.pool = pool;
+        this.maxPoints = maxPoints;
+        this.maxBatchPoints = maxBatchPoints;
+        this.maxAutocallablePoints = maxAutocallablePoints;
+    }
+
+    /**
+     * Ladder of one product, or null when it does not exist
+     *
+     * @throws IllegalArgumentException for an empty, oversized or out of range grid
+     */
+    public ValuationLadder ladder(Long productId, ValuationLadder.Axes axes) {
+        validate(axes, List.of());
+        return structuredProductRepository.findById(productId)
+            .map(product -> {
+                validate(axes, List.of(product));
+                return ladder(product, axes, LocalDateTime.now());
+            })
+            .orElse(null);
+    }
+
+    /**
+     * Ladders of every product of one portfolio, or of the whole book when portfolioId is null
+     */
+    public List<ValuationLadder> ladders(Long portfolioId, ValuationLadder.Axes axes) {
+        List<StructuredProduct> products = portfolioId == null
+            ? structuredProductRepository.findAll() : structuredProductRepository.findByPortfolioId(portfolioId);
+        return ladders(products, axes);
+    }
+
+    /**
+     * @throws IllegalArgumentException for an invalid grid, or one with too many points across the products
+     */
+    public List<ValuationLadder> ladders(List<StructuredProduct> products, ValuationLadder.Axes axes) {
+        validate(axes, products);
+        ValuationLadder[] ladders = new ValuationLadder[products.size()];
+        pool.invoke(new LadderTask(products, axes, LocalDateTime.now(), ladders, 0, ladders.length));
+        return Arrays.asList(ladders);
+    }
+
+    ValuationLadder ladder(StructuredProduct product, ValuationLadder.Axes axes, LocalDateTime now) {
+        double spot = product.getCurrentPrice().doubleValue();
+        double strike = product.getStrikePrice().doubleValue();
+        double maturity = pricingService.getTimeToMaturity(product, now);
+        double volatility = product.getImpliedVolatility().doubleValue();
+        double rate = StructuredProductPricingService.RISK_FREE_RATE;
+
+        // The product type adjustment is linear in the price and in breachProbability * S
+        double typeFactor = pricingService.adjustForProductType(1.0, product, 0.0, 0.0);
+        double barrierWeight = product.getBarrierLevel() == null ? 0.0
+            : pricingService.adjustForProductType(0.0, product, 1.0, 1.0);
+        double barrier = product.getBarrierLevel() == null ? 0.0 : product.getBarrierLevel().doubleValue();
+
+        int[] days = axes.daysForward();
+        double[] yearsForward = new double[days.length];
+        for (int d = 0; d < days.length; d++) {
+            yearsForward[d] = days[d] / 365.0;
+        }
+
+        double[] prices = new double[axes.points()];
+        double[] base = new double[1];
+        if ("AUTOCALLABLE".equals(product.getProductType())) {
+            // Path-dependent: valued by Monte Carlo, with the same paths for the grid and the base
+            pricingService.autocallableLadder(product, maturity, axes.spotShocks(), axes.volShocks(), yearsForward,
+                                              prices);
+            pricingService.autocallableLadder(product, maturity, NO_SHOCK, NO_SHOCK, NO_SHOCK, base);
+        } else {
+            ValuationLadderPricer.price(spot, strike, maturity, volatility, rate, typeFactor, barrierWeight, barrier,
+                                        axes.spotShocks(), axes.volShocks(), yearsForward, prices);
+            ValuationLadderPricer.price(spot, strike, maturity, volatility, rate, typeFactor, barrierWeight, barrier,
+                                        NO_SHOCK, NO_SHOCK, NO_SHOCK, base);
+        }
+
+        double units = product.getNotionalAmount().doubleValue() / strike;
+        return new ValuationLadder(product.getId(), product.getProductCode(), axes, base[0], units, prices);
+    }
+
+    private void validate(ValuationLadder.Axes axes, List<StructuredProduct> products) {
+        if (axes == null || axes.points() == 0) {
+            throw new IllegalArgumentException("A ladder needs at least one spot, vol and time point");
+        }
+        if (axes.points() > maxPoints) {
+            throw new IllegalArgumentException(
+                "At most " + maxPoints + " points per ladder, got " + axes.points());
+        }
+        if ((long) axes.points() * products.size() > maxBatchPoints) {
+            throw new IllegalArgumentException("At most " + maxBatchPoints + " points per request, got "
+                + axes.points() + " points for " + products.size() + " products");
+        }
+        long autocallables = products.stream().filter(p -> "AUTOCALLABLE".equals(p.getProductType())).count();
+        if (axes.points() * autocallables > maxAutocallablePoints) {
+            throw new IllegalArgumentException("At most " + maxAutocallablePoints
+                + " autocallable points per request, got " + axes.points() + " points for " + autocallables
+                + " autocallables; request fewer points or fewer products");
+        }
+        for (double shock : axes.spotShocks()) {
+            if (!(shock > -1.0) || !Double.isFinite(shock)) {
+                throw new IllegalArgumentException("Spot shocks must be above -100%, got " + shock);
+            }
+        }
+        for (double shock : axes.volShocks()) {
+            if (!(shock > -1.0) || !Double.isFinite(shock)) {
+                throw new IllegalArgumentException("Volatility shocks must be above -100%, got " + shock);
+            }
+        }
+        for (int days : axes.daysForward()) {
+            if (days < 0) {
+                throw new IllegalArgumentException("Days forward cannot be negative, got " + days);
+            }
+        }
+    }
+
+    /**
+     * Fork/join task over a range of products
+     */
+    private final class LadderTask extends RecursiveAction {
+
+        private final List<StructuredProduct> products;
+        private final ValuationLadder.Axes axes;
+        private final LocalDateTime now;
+        private final ValuationLadder[] ladders;
+        private final int from;
+        private final int to;
+
+        LadderTask(List<StructuredProduct> products, ValuationLadder.Axes axes, LocalDateTime now,
+                   ValuationLadder[] ladders, int from, int to) {
+            this.products = products;
+            this.axes = axes;
+            this.now = now;
+            this.ladders = ladders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PRODUCTS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    ladders[i] = ladder(products.get(i), axes, now);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new LadderTask(products, axes, now, ladders, from, mid),
+                new LadderTask(products, axes, now, ladders, mid, to)
+            );
+        }
+    }
+}
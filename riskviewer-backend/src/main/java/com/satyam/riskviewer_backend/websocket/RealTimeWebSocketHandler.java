@@ -0,0 +1,388 @@
+package com.satyam.riskviewer_backend.websocket;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.repository.PositionRepository;
+import com.satyam.riskviewer_backend.service.PerformanceMonitoringService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes live prices, Greeks and alerts to dashboard clients on /ws/realtime.
+ *
+ * Clients subscribe per channel ("market-data", "risk-alerts", "greeks") and
+ * filter by symbols and/or portfolios. Each session keeps one pending
+ * payload: ticks merge into it, latest price per symbol and latest Greeks
+ * per product, with a bounded backlog of alerts, and at most one send per
+ * session is in flight. A session that is still sending when more ticks
+ * arrive therefore only skips its own intermediate updates, and never holds
+ * up delivery to other sessions. Sends run on a bounded pool; while every
+ * push thread is busy, new updates stay merged in their session's pending
+ * payload and go out with the first tick after a thread frees up. A watchdog
+ * disconnects any client whose send has been blocked for longer than the
+ * time limit, which releases the push thread stuck in that send.
+ */
+@Component
+public class RealTimeWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealTimeWebSocketHandler.class);
+
+    /** Alerts held for a session that has not taken them yet; older ones are dropped beyond this */
+    static final int MAX_PENDING_ALERTS = 256;
+
+    private final PositionRepository positionRepository;
+    private final PerformanceMonitoringService performanceMonitoringService;
+    private final ObjectMapper objectMapper;
+    private final long sendTimeLimitNanos;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor pushExecutor;
+    private final AtomicLong droppedPushes = new AtomicLong();
+    private final AtomicLong deferredPushes = new AtomicLong();
+
+    public RealTimeWebSocketHandler(PositionRepository positionRepository,
+                                    PerformanceMonitoringService performanceMonitoringService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.websocket.send-time-limit-ms:5000}") long sendTimeLimitMs,
+                                    @Value("${app.websocket.push-threads:2}") int pushThreads,
+                                    @Value("${app.websocket.max-push-threads:16}") int maxPushThreads) {
+        this.positionRepository = positionRepository;
+        this.performanceMonitoringService = performanceMonitoringService;
+        this.objectMapper = objectMapper;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+
+        // Sends run off the tick thread so one slow socket never delays the market data loop. There
+        // is no queue: a drain either gets a thread or is rejected and retried on the next tick
+        this.pushExecutor = new ThreadPoolExecutor(pushThreads, Math.max(pushThreads, maxPushThreads),
+            60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ws-push");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        subscribers.put(session.getId(), new Subscriber(session));
+        performanceMonitoringService.incrementActiveConnections();
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Subscriber subscriber = subscribers.get(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+
+        JsonNode request = objectMapper.readTree(message.getPayload());
+        String action = request.path("action").asText();
+        String channel = request.path("channel").asText();
+
+        if ("subscribe".equals(action)) {
+            subscriber.channels.add(channel);
+            request.path("symbols").forEach(symbol -> subscriber.symbols.add(symbol.asText()));
+            for (JsonNode portfolio : request.path("portfolios")) {
+                long portfolioId = portfolio.asLong();
+                if (subscriber.portfolios.add(portfolioId)) {
+                    // Resolve held symbols once so price filtering stays a set lookup
+                    for (Position position : positionRepository.findByPortfolioId(portfolioId)) {
+                        subscriber.portfolioSymbols.add(position.getSymbol());
+                    }
+                }
+            }
+        } else if ("unsubscribe".equals(action)) {
+            subscriber.channels.remove(channel);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (subscribers.remove(session.getId()) != null) {
+            performanceMonitoringService.decrementActiveConnections();
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.debug("WebSocket transport error on session {}: {}", session.getId(), exception.getMessage());
+    }
+
+    /**
+     * Fan one tick out to every subscriber, one message per channel
+     */
+    @EventListener
+    public void onMarketDataTick(MarketDataTickEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Coalesce per symbol in case the tick carries several updates for one symbol
+        Map<String, MarketDataTickEvent.PriceUpdate> latestPrices = new LinkedHashMap<>();
+        for (MarketDataTickEvent.PriceUpdate update : event.getPrices()) {
+            latestPrices.put(update.symbol(), update);
+        }
+
+        for (Subscriber subscriber : subscribers.values()) {
+            List<MarketDataTickEvent.PriceUpdate> prices = new ArrayList<>();
+            if (subscriber.channels.contains("market-data")) {
+                for (MarketDataTickEvent.PriceUpdate update : latestPrices.values()) {
+                    if (subscriber.wantsSymbol(update.symbol())) {
+                        prices.add(update);
+                    }
+                }
+            }
+
+            List<MarketDataTickEvent.GreeksUpdate> greeks = new ArrayList<>();
+            if (subscriber.channels.contains("greeks")) {
+                for (MarketDataTickEvent.GreeksUpdate update : event.getGreeks()) {
+                    if (subscriber.wants(update.portfolioId(), update.underlyingAsset())) {
+                        greeks.add(update);
+                    }
+                }
+            }
+
+            List<MarketDataTickEvent.Alert> alerts = new ArrayList<>();
+            if (subscriber.channels.contains("risk-alerts")) {
+                for (MarketDataTickEvent.Alert alert : event.getAlerts()) {
+                    if (subscriber.wants(alert.portfolioId(), alert.symbol())) {
+                        alerts.add(alert);
+                    }
+                }
+            }
+
+            if ((!prices.isEmpty() || !greeks.isEmpty() || !alerts.isEmpty())
+                    && subscriber.offer(event.getTick(), prices, greeks, alerts)) {
+                try {
+                    pushExecutor.execute(() -> drain(subscriber));
+                } catch (RejectedExecutionException e) {
+                    // Every push thread is busy - keep the payload pending for the next tick
+                    subscriber.unschedule();
+                    deferredPushes.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a session's pending payload until nothing is left, picking up
+     * whatever ticks merged into it during the previous send
+     */
+    private void drain(Subscriber subscriber) {
+        WebSocketSession session = subscriber.session;
+        Subscriber.Pending pending;
+        while ((pending = subscriber.take()) != null) {
+            if (!session.isOpen()) {
+                return;
+            }
+            subscriber.sendStartedNanos = System.nanoTime();
+            try {
+                if (!pending.prices().isEmpty()) {
+                    session.sendMessage(message("market-updates", pending.tick(), pending.prices()));
+                }
+                if (!pending.greeks().isEmpty()) {
+                    session.sendMessage(message("greeks-update", pending.tick(), pending.greeks()));
+                }
+                if (!pending.alerts().isEmpty()) {
+                    session.sendMessage(message("risk-alerts", pending.tick(), pending.alerts()));
+                }
+            } catch (Exception e) {
+                // Socket gone, or closed by the watchdog while the send was blocked
+                logger.debug("Dropping WebSocket subscriber {}: {}", session.getId(), e.getMessage());
+                if (subscribers.remove(session.getId()) != null) {
+                    performanceMonitoringService.decrementActiveConnections();
+                }
+                return;
+            } finally {
+                subscriber.sendStartedNanos = 0L;
+            }
+        }
+    }
+
+    /**
+     * Disconnect every session whose current send has run past the time limit
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.send-check-interval-ms:1000}")
+    public void closeStalledSessions() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStartedNanos;
+            if (started == 0L || now - started <= sendTimeLimitNanos) {
+                continue;
+            }
+            WebSocketSession session = subscriber.session;
+            if (subscribers.remove(session.getId(), subscriber)) {
+                performanceMonitoringService.decrementActiveConnections();
+                logger.debug("Closing WebSocket subscriber {}: send blocked for {} ms", session.getId(),
+                    TimeUnit.NANOSECONDS.toMillis(now - started));
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException e) {
+                    logger.debug("Closing WebSocket session {} failed: {}", session.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private TextMessage message(String type, long tick, Object data) throws IOException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("tick", tick);
+        payload.put("data", data);
+        return new TextMessage(objectMapper.writeValueAsString(payload));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Updates replaced by a newer one, or alerts evicted, before their session took them
+     */
+    public long getDroppedPushes() {
+        return droppedPushes.get();
+    }
+
+    /**
+     * Sends put off to a later tick because every push thread was busy
+     */
+    public long getDeferredPushes() {
+        return deferredPushes.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    /**
+     * Subscription state and pending payload of one WebSocket session
+     */
+    private final class Subscriber {
+
+        /**
+         * Everything a session has not been sent yet, as of its latest tick
+         */
+        record Pending(long tick, List<MarketDataTickEvent.PriceUpdate> prices,
+                       List<MarketDataTickEvent.GreeksUpdate> greeks, List<MarketDataTickEvent.Alert> alerts) {}
+
+        private final WebSocketSession session;
+        private final Set<String> channels = ConcurrentHashMap.newKeySet();
+        private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+        private final Set<Long> portfolios = ConcurrentHashMap.newKeySet();
+        private final Set<String> portfolioSymbols = ConcurrentHashMap.newKeySet();
+
+        // Guarded by this
+        private long pendingTick;
+        private final Map<String, MarketDataTickEvent.PriceUpdate> pendingPrices = new LinkedHashMap<>();
+        private final Map<Long, MarketDataTickEvent.GreeksUpdate> pendingGreeks = new LinkedHashMap<>();
+        private final ArrayDeque<MarketDataTickEvent.Alert> pendingAlerts = new ArrayDeque<>();
+        private boolean drainScheduled;
+
+        /** System.nanoTime() when the current send began, 0 while idle */
+        private volatile long sendStartedNanos;
+
+        Subscriber(WebSocketSession session) {
+            this.session = session;
+        }
+
+        /**
+         * Merge one tick's updates into the pending payload
+         *
+         * @return true when no drain is scheduled and the caller must schedule one
+         */
+        synchronized boolean offer(long tick, List<MarketDataTickEvent.PriceUpdate> prices,
+                                   List<MarketDataTickEvent.GreeksUpdate> greeks,
+                                   List<MarketDataTickEvent.Alert> alerts) {
+            pendingTick = tick;
+            for (MarketDataTickEvent.PriceUpdate update : prices) {
+                if (pendingPrices.put(update.symbol(), update) != null) {
+                    droppedPushes.incrementAndGet();
+                }
+            }
+            for (MarketDataTickEvent.GreeksUpdate update : greeks) {
+                if (pendingGreeks.put(update.productId(), update) != null) {
+                    droppedPushes.incrementAndGet();
+                }
+            }
+            for (MarketDataTickEvent.Alert alert : alerts) {
+                if (pendingAlerts.size() == MAX_PENDING_ALERTS) {
+                    pendingAlerts.removeFirst();
+                    droppedPushes.incrementAndGet();
+                }
+                pendingAlerts.addLast(alert);
+            }
+            if (drainScheduled) {
+                return false;
+            }
+            drainScheduled = true;
+            return true;
+        }
+
+        /**
+         * Give up a drain that could not be started; the next offer schedules another
+         */
+        synchronized void unschedule() {
+            drainScheduled = false;
+        }
+
+        /**
+         * Take the pending payload, or return null and end the drain when there is none
+         */
+        synchronized Pending take() {
+            if (pendingPrices.isEmpty() && pendingGreeks.isEmpty() && pendingAlerts.isEmpty()) {
+                drainScheduled = false;
+                return null;
+            }
+            Pending pending = new Pending(pendingTick, List.copyOf(pendingPrices.values()),
+                                          List.copyOf(pendingGreeks.values()), List.copyOf(pendingAlerts));
+            pendingPrices.clear();
+            pendingGreeks.clear();
+            pendingAlerts.clear();
+            return pending;
+        }
+
+        boolean unfiltered() {
+            return symbols.isEmpty() && portfolios.isEmpty();
+        }
+
+        boolean wantsSymbol(String symbol) {
+            return unfiltered() || symbols.contains(symbol) || portfolioSymbols.contains(symbol);
+        }
+
+        boolean wants(Long portfolioId, String symbol) {
+            if (unfiltered()) {
+                return true;
+            }
+            return (portfolioId != null && portfolios.contains(portfolioId))
+                || (symbol != null && (symbols.contains(symbol) || portfolioSymbols.contains(symbol)));
+        }
+    }
+}
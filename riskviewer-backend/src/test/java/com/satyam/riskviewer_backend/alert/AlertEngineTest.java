@@ -0,0 +1,50 @@
+package com.satyam.riskviewer_backend.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AlertEngineTest {
+
+	private final AlertEngine engine = new AlertEngine(16, 60000, 3, 10000);
+
+	@Test
+	void repeatsOfASymbolAndTypeAreDroppedInsideTheWindow() {
+		assertNotNull(engine.raise("AAPL moved", "HIGH", "PRICE_MOVE", null, "AAPL", null, 0));
+		assertNull(engine.raise("AAPL moved again", "HIGH", "PRICE_MOVE", null, "AAPL", null, 30000));
+		assertNotNull(engine.raise("AAPL vol", "MEDIUM", "VOLATILITY_SPIKE", null, "AAPL", null, 30000));
+		assertNotNull(engine.raise("MSFT moved", "HIGH", "PRICE_MOVE", null, "MSFT", null, 30000));
+		assertNotNull(engine.raise("AAPL moved later", "HIGH", "PRICE_MOVE", null, "AAPL", null, 60000));
+
+		// Barrier alerts on one underlying are told apart by product
+		assertNotNull(engine.raise("BRC-1 near barrier", "CRITICAL", "BARRIER_PROXIMITY", 1L, "TSLA", "BRC-1", 0));
+		assertNotNull(engine.raise("BRC-2 near barrier", "CRITICAL", "BARRIER_PROXIMITY", 1L, "TSLA", "BRC-2", 0));
+		assertNull(engine.raise("BRC-1 near barrier", "CRITICAL", "BARRIER_PROXIMITY", 1L, "TSLA", "BRC-1", 1000));
+
+		assertEquals(2L, engine.stats().get("deduplicated"));
+	}
+
+	@Test
+	void symbolsAreThrottledPerWindowAndClearOnlyHidesTheActiveList() {
+		for (int i = 0; i < 5; i++) {
+			engine.raise("TSLA " + i, "CRITICAL", "BARRIER_PROXIMITY", 1L, "TSLA", "P" + i, 1000);
+		}
+		assertEquals(3, engine.lastId());
+		assertEquals(2L, engine.stats().get("throttled"));
+		assertNotNull(engine.raise("TSLA next window", "CRITICAL", "BARRIER_PROXIMITY", 1L, "TSLA", "P9", 11000));
+
+		assertEquals(List.of("TSLA 0", "TSLA 1", "TSLA 2", "TSLA next window"), engine.activeMessages());
+		engine.clear();
+		assertEquals(0, engine.activeCount());
+		assertEquals(List.of(), engine.activeMessages());
+		assertEquals(4, engine.readAfter(0, 100).alerts().size());
+
+		engine.raise("NVDA moved", "HIGH", "PRICE_MOVE", null, "NVDA", null, 12000);
+		assertEquals(List.of("NVDA moved"), engine.activeMessages());
+		assertEquals(1, engine.activeCount());
+	}
+}
@@ -0,0 +1,92 @@
+package com.satyam.riskviewer_backend.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent.Alert;
+
+class AlertRingTest {
+
+	@Test
+	void readersFollowTheirCursorAndCountOverwrittenAlerts() {
+		AlertRing ring = new AlertRing(6);
+		assertEquals(8, ring.capacity());
+		for (int i = 0; i < 5; i++) {
+			publish(ring, "A" + i);
+		}
+
+		AlertRing.Read first = ring.readAfter(0, 3);
+		assertEquals(List.of(1L, 2L, 3L), ids(first.alerts()));
+		assertEquals(3, first.lastId());
+		AlertRing.Read rest = ring.readAfter(first.lastId(), 100);
+		assertEquals(List.of(4L, 5L), ids(rest.alerts()));
+		assertEquals(0, rest.missed());
+		assertEquals(0, ring.readAfter(rest.lastId(), 100).alerts().size());
+
+		// Twenty more: only the last eight are still in the ring
+		for (int i = 0; i < 20; i++) {
+			publish(ring, "B" + i);
+		}
+		AlertRing.Read lagging = ring.readAfter(rest.lastId(), 100);
+		assertEquals(12, lagging.missed());
+		assertEquals(List.of(18L, 19L, 20L, 21L, 22L, 23L, 24L, 25L), ids(lagging.alerts()));
+		assertEquals(25, lagging.lastId());
+
+		// A cursor from before a restart reads from the oldest alert kept
+		assertEquals(18L, ring.readAfter(1000, 1).alerts().get(0).id());
+	}
+
+	@Test
+	void concurrentWritersNeverLoseOrDuplicateAnAlert() throws Exception {
+		AlertRing ring = new AlertRing(1 << 16);
+		int writers = 4;
+		int perWriter = 10000;
+		ExecutorService executor = Executors.newFixedThreadPool(writers);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int w = 0; w < writers; w++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				for (int i = 0; i < perWriter; i++) {
+					publish(ring, "x");
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		Set<Long> seen = new HashSet<>();
+		long cursor = 0;
+		AlertRing.Read read;
+		do {
+			read = ring.readAfter(cursor, 1000);
+			read.alerts().forEach(alert -> seen.add(alert.id()));
+			cursor = read.lastId();
+		} while (!read.alerts().isEmpty());
+		assertEquals(writers * perWriter, seen.size());
+		assertEquals(writers * perWriter, cursor);
+	}
+
+	private static void publish(AlertRing ring, String message) {
+		ring.publish(id -> new Alert(id, message, "HIGH", "PRICE_MOVE", null, "AAPL", LocalDateTime.now()));
+	}
+
+	private static List<Long> ids(List<Alert> alerts) {
+		return alerts.stream().map(Alert::id).toList();
+	}
+}
@@ -0,0 +1,76 @@
+package com.satyam.riskviewer_backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.satyam.riskviewer_backend.dto.AdvancedRiskMetricsDTO;
+import com.satyam.riskviewer_backend.dto.RiskMetricsDTO;
+
+class TwoTierCacheTest {
+
+	@Test
+	void nodesShareL2AndInvalidateEachOthersL1() {
+		// The map cache stands in for Redis and the relay below for its pub/sub channel
+		Cache shared = new ConcurrentMapCache("risk-metrics");
+		List<TwoTierCache> nodes = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			int self = i;
+			nodes.add(new TwoTierCache("risk-metrics", Caffeine.newBuilder().maximumSize(100).build(), shared,
+				(cacheName, key) -> {
+					for (int node = 0; node < nodes.size(); node++) {
+						if (node != self) {
+							nodes.get(node).evictLocal(key);
+						}
+					}
+				}));
+		}
+		TwoTierCache first = nodes.get(0);
+		TwoTierCache second = nodes.get(1);
+
+		first.put("portfolio-1", "computed");
+		assertEquals("computed", second.get("portfolio-1").get());
+
+		// Served from the second node's L1 even when the shared entry is gone
+		shared.evict("portfolio-1");
+		assertEquals("computed", second.get("portfolio-1").get());
+
+		first.put("portfolio-1", "recomputed");
+		assertEquals("recomputed", second.get("portfolio-1").get());
+
+		first.evict("portfolio-1");
+		assertNull(second.get("portfolio-1"));
+	}
+
+	@Test
+	void codecRoundTripsRiskDtos() {
+		RiskResultCodec codec = new RiskResultCodec();
+		RiskMetricsDTO metrics = new RiskMetricsDTO(new BigDecimal("1250000.50"), new BigDecimal("41234.12"),
+			new BigDecimal("58311.90"), new BigDecimal("35.12"), new BigDecimal("0.412"),
+			Map.of("Equity", new BigDecimal("80.00"), "Bond", new BigDecimal("20.00")));
+
+		RiskMetricsDTO decoded = (RiskMetricsDTO) codec.deserialize(codec.serialize(metrics));
+		assertEquals(metrics.getPortfolioValue(), decoded.getPortfolioValue());
+		assertEquals(metrics.getSharpeRatio(), decoded.getSharpeRatio());
+		assertEquals(metrics.getAssetAllocation(), decoded.getAssetAllocation());
+
+		AdvancedRiskMetricsDTO advanced = new AdvancedRiskMetricsDTO(BigDecimal.TEN, null, BigDecimal.ONE,
+			BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, new BigDecimal("-0.15"),
+			new BigDecimal("1.050"), BigDecimal.ONE, BigDecimal.ONE, Map.of("Market Crash", BigDecimal.ONE), null);
+		AdvancedRiskMetricsDTO decodedAdvanced = (AdvancedRiskMetricsDTO) codec.deserialize(codec.serialize(advanced));
+		assertNull(decodedAdvanced.getParametricVaR95());
+		assertEquals(new BigDecimal("-0.15"), decodedAdvanced.getMaxDrawdown());
+		assertEquals(advanced.getStressTestResults(), decodedAdvanced.getStressTestResults());
+		assertNull(decodedAdvanced.getAssetAllocation());
+		assertNull(codec.deserialize(null));
+	}
+}
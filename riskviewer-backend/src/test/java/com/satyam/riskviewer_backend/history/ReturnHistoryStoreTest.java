@@ -0,0 +1,49 @@
+package com.satyam.riskviewer_backend.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReturnHistoryStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void importedClosesSurviveReopening() throws Exception {
+		ReturnHistoryStore store = new ReturnHistoryStore(directory, false);
+		StringBuilder csv = new StringBuilder("symbol,date,close\n");
+		LocalDate start = LocalDate.of(2020, 1, 1);
+		for (int i = 0; i < 3000; i++) {
+			csv.append("AAPL,").append(start.plusDays(i)).append(',').append(100.0 + i % 7).append('\n');
+		}
+		csv.append("AAPL,2020-01-05,1.0\n"); // out of order
+		csv.append("MSFT,not-a-date,1.0\n");
+
+		ReturnHistoryStore.ImportResult result = store.importCsv(new StringReader(csv.toString()));
+		assertEquals(3002, result.rows());
+		assertEquals(3000, result.accepted());
+		assertEquals(1, result.symbols());
+		store.close();
+
+		ReturnHistoryStore reopened = new ReturnHistoryStore(directory, false);
+		ReturnSeries series = reopened.daily("AAPL");
+		assertEquals(2999, series.size());
+		assertEquals(start.plusDays(1).toEpochDay(), series.key(0));
+		assertEquals(Math.log(101.0 / 100.0), series.logReturn(0), 1e-15);
+		assertEquals(Math.log(100.0 / 106.0), series.logReturn(6), 1e-15);
+		assertEquals(100.0 + 2999 % 7, series.lastLevel());
+		assertEquals(10, series.lowerBound(start.plusDays(11).toEpochDay()));
+		assertNull(reopened.daily("MSFT"));
+
+		reopened.appendDailyClose("AAPL", start.plusDays(3000), 110.0);
+		assertEquals(3000, series.size());
+		reopened.close();
+	}
+}
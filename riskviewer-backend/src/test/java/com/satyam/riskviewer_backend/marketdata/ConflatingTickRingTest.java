@@ -0,0 +1,105 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConflatingTickRingTest {
+
+	@Test
+	void drainKeepsTheLatestTickOfEachSymbolInFirstSeenOrder() {
+		ConflatingTickRing ring = new ConflatingTickRing(16, 8);
+		ring.offer("AAPL", 100.0, Double.NaN, 1);
+		ring.offer("MSFT", 200.0, 0.2, 2);
+		ring.offer("AAPL", 101.0, Double.NaN, 3);
+		ring.offer("AAPL", 102.0, Double.NaN, 4);
+
+		ConflatingTickRing.Drain drain = ring.drain(100);
+		assertEquals(4, drain.read());
+		assertEquals(1, drain.oldestTimestamp());
+		assertEquals(List.of(new Tick("AAPL", 102.0, Double.NaN, 4), new Tick("MSFT", 200.0, 0.2, 2)), drain.ticks());
+		assertEquals(2, ring.conflated());
+		assertEquals(2, ring.delivered());
+		assertEquals(0, ring.depth());
+		assertEquals(0, ring.drain(100).read());
+	}
+
+	@Test
+	void fullRingConflatesIntoOverflowWithoutLosingTheLatestPrice() {
+		ConflatingTickRing ring = new ConflatingTickRing(4, 8);
+		for (int i = 1; i <= 4; i++) {
+			ring.offer("AAPL", i, Double.NaN, i);
+		}
+		// The ring is full: these replace each other in the overflow slot
+		ring.offer("AAPL", 10.0, Double.NaN, 10);
+		ring.offer("AAPL", 11.0, Double.NaN, 11);
+		ring.offer("MSFT", 50.0, Double.NaN, 12);
+		assertEquals(4, ring.depth());
+
+		// A partial drain leaves queued ticks older than the overflow
+		ConflatingTickRing.Drain first = ring.drain(2);
+		assertEquals(List.of(new Tick("AAPL", 11.0, Double.NaN, 11), new Tick("MSFT", 50.0, Double.NaN, 12)),
+			first.ticks());
+
+		// The older queued AAPL ticks are skipped rather than applied after the newer price
+		ConflatingTickRing.Drain second = ring.drain(100);
+		assertEquals(2, second.read());
+		assertTrue(second.ticks().isEmpty());
+		assertEquals(7, ring.received());
+		assertEquals(2, ring.delivered());
+		assertEquals(5, ring.conflated());
+	}
+
+	@Test
+	void rejectsInvalidPricesAndSymbolsBeyondTheTable() {
+		ConflatingTickRing ring = new ConflatingTickRing(8, 2);
+		assertFalse(ring.offer("AAPL", 0.0, Double.NaN, 1));
+		assertFalse(ring.offer("AAPL", Double.NaN, Double.NaN, 1));
+		assertFalse(ring.offer("AAPL", Double.POSITIVE_INFINITY, Double.NaN, 1));
+		assertFalse(ring.offer(null, 1.0, Double.NaN, 1));
+		assertTrue(ring.offer("AAPL", 1.0, Double.NaN, 1));
+		assertTrue(ring.offer("MSFT", 1.0, Double.NaN, 1));
+		assertFalse(ring.offer("GOOGL", 1.0, Double.NaN, 1));
+		assertEquals(5, ring.rejected());
+		assertEquals(2, ring.drain(100).ticks().size());
+	}
+
+	@Test
+	void concurrentConsumerEndsOnTheLastPriceOfEverySymbol() throws InterruptedException {
+		ConflatingTickRing ring = new ConflatingTickRing(64, 16);
+		int symbols = 10;
+		int ticksPerSymbol = 50_000;
+		Thread producer = new Thread(() -> {
+			for (int i = 1; i <= ticksPerSymbol; i++) {
+				for (int s = 0; s < symbols; s++) {
+					ring.offer("S" + s, i, Double.NaN, i);
+				}
+			}
+		});
+		producer.start();
+
+		Map<String, Double> applied = new HashMap<>();
+		while (producer.isAlive() || ring.depth() > 0 || applied.size() < symbols
+				|| applied.values().stream().anyMatch(price -> price < ticksPerSymbol)) {
+			for (Tick tick : ring.drain(32).ticks()) {
+				Double previous = applied.put(tick.symbol(), tick.price());
+				assertTrue(previous == null || previous < tick.price(), "prices must only move forward");
+			}
+		}
+		producer.join();
+		// Overflow left behind by the last ring lap is older than what was applied
+		assertTrue(ring.drain(32).ticks().isEmpty());
+
+		for (int s = 0; s < symbols; s++) {
+			assertEquals(ticksPerSymbol, applied.get("S" + s));
+		}
+		assertEquals((long) symbols * ticksPerSymbol, ring.received());
+		assertEquals(ring.received(), ring.delivered() + ring.conflated());
+	}
+}
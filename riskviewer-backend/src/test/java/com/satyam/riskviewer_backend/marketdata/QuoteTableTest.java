@@ -0,0 +1,67 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class QuoteTableTest {
+
+	@Test
+	void symbolsGetDenseIdsAndQuotesReadBack() {
+		QuoteTable table = new QuoteTable(2);
+		assertEquals(0, table.put("AAPL", 145.50, 0.0, 0.25, 1L));
+		assertEquals(1, table.put("MSFT", 280.00, 0.0, 0.22, 2L));
+		assertEquals(0, table.put("AAPL", 146.00, 0.50, 0.26, 3L));
+		assertEquals(-1, table.put("GOOGL", 125.30, 0.0, 0.28, 4L));
+
+		assertEquals(2, table.size());
+		assertEquals(new QuoteTable.Quote("AAPL", 146.00, 0.50, 0.26, 3L), table.quote("AAPL"));
+		assertEquals(280.00, table.price(table.symbols().idOf("MSFT")));
+		assertEquals(-1, table.symbols().idOf("GOOGL"));
+		assertNull(table.quote("GOOGL"));
+	}
+
+	@Test
+	void internedSymbolReadsAsAbsentUntilItsFirstQuote() {
+		QuoteTable table = new QuoteTable(4);
+		int id = table.symbols().intern("TSLA");
+		assertNull(table.quote("TSLA"));
+		assertTrue(Double.isNaN(table.price(id)));
+		assertTrue(Double.isNaN(table.volatility(id)));
+
+		table.put(id, 240.00, 0.0, 0.45, 1L);
+		assertEquals(0.45, table.volatility(id));
+	}
+
+	@Test
+	void readersNeverSeeAHalfWrittenQuote() throws InterruptedException {
+		QuoteTable table = new QuoteTable(4);
+		int id = table.put("SPY", 1, 1, 1, 1);
+		AtomicBoolean done = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			for (long i = 2; !done.get(); i++) {
+				table.put(id, i, i, i, i);
+			}
+		});
+		writer.start();
+
+		long lastSeen = 0;
+		try {
+			for (int read = 0; read < 100_000; read++) {
+				QuoteTable.Quote quote = table.quote(id);
+				assertTrue(quote.price() == quote.change() && quote.price() == quote.volatility()
+					&& quote.price() == quote.updatedAt(), "torn read " + quote);
+				assertTrue(quote.updatedAt() >= lastSeen, "quotes must not go back in time");
+				lastSeen = quote.updatedAt();
+			}
+		} finally {
+			done.set(true);
+			writer.join();
+		}
+		assertTrue(lastSeen > 1);
+	}
+}
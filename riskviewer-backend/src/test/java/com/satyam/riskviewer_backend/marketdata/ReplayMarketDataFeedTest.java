@@ -0,0 +1,55 @@
+package com.satyam.riskviewer_backend.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayMarketDataFeedTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysEveryParsableLineInFileOrder() throws Exception {
+		Path file = directory.resolve("ticks.csv");
+		Files.writeString(file, String.join("\n",
+			"timestamp,symbol,price,volatility",
+			"# opening prints",
+			"1700000000000,AAPL,145.50,0.25",
+			"2023-11-14T22:13:21Z,MSFT,280.00",
+			"",
+			"2023-11-14T22:13:22,GOOGL,125.30,",
+			"1700000003000,TSLA,not-a-price"));
+
+		List<Tick> ticks = new ArrayList<>();
+		long before = System.currentTimeMillis();
+		new ReplayMarketDataFeed(file, 0, false).run((symbol, price, volatility, timestamp) ->
+			ticks.add(new Tick(symbol, price, volatility, timestamp)));
+
+		assertEquals(List.of("AAPL", "MSFT", "GOOGL"), ticks.stream().map(Tick::symbol).toList());
+		assertEquals(145.50, ticks.get(0).price());
+		assertEquals(0.25, ticks.get(0).volatility());
+		assertTrue(Double.isNaN(ticks.get(1).volatility()));
+		assertTrue(Double.isNaN(ticks.get(2).volatility()));
+		// Replayed ticks carry the time they were replayed, not the recorded time
+		assertTrue(ticks.stream().allMatch(tick -> tick.timestamp() >= before));
+	}
+
+	@Test
+	void parsesEpochMillisInstantsAndLocalDateTimes() {
+		assertEquals(1700000000000L, ReplayMarketDataFeed.parseTimestamp("1700000000000"));
+		assertEquals(1700000001000L, ReplayMarketDataFeed.parseTimestamp("2023-11-14T22:13:21Z"));
+		LocalDateTime local = LocalDateTime.of(2024, 1, 2, 9, 30);
+		assertEquals(local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+			ReplayMarketDataFeed.parseTimestamp("2024-01-02T09:30:00"));
+	}
+}
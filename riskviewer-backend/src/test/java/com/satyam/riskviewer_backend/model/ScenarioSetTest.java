@@ -0,0 +1,64 @@
+package com.satyam.riskviewer_backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ScenarioSetTest {
+
+	@Test
+	void tailStatisticsMatchFullSort() {
+		SplittableRandom random = new SplittableRandom(3L);
+		double[] returns = new double[10_000];
+		for (int i = 0; i < returns.length; i++) {
+			returns[i] = 0.01 * random.nextGaussian();
+		}
+		double[] sorted = returns.clone();
+		Arrays.sort(sorted);
+
+		ScenarioSet scenarios = ScenarioSet.of(1_000_000.0, returns, 0.99, 0.95);
+
+		for (double confidence : new double[] { 0.95, 0.99, 0.975 }) {
+			int index = (int) Math.floor((1 - confidence) * sorted.length);
+			double tailMean = Arrays.stream(sorted, 0, index).average().orElse(0.0);
+			assertEquals(sorted[index], scenarios.tailQuantile(confidence));
+			assertEquals(tailMean, scenarios.tailMean(confidence), 1e-12);
+		}
+	}
+
+	@Test
+	void sectionedStandardErrorsMatchSamplingTheory() {
+		SplittableRandom random = new SplittableRandom(11L);
+		double[] returns = new double[80_000];
+		for (int i = 0; i < returns.length; i++) {
+			returns[i] = random.nextGaussian();
+		}
+
+		ScenarioSet scenarios = ScenarioSet.sectioned(1.0, returns, 8, 0.95);
+
+		// Asymptotic standard error of the 5% quantile of N(0, 1): sqrt(p (1 - p) / n) / density
+		double expected = Math.sqrt(0.05 * 0.95 / returns.length) / (Math.exp(-0.5 * 1.6449 * 1.6449) / Math.sqrt(2 * Math.PI));
+		double error = scenarios.tailQuantileStandardError(0.95);
+		assertTrue(error > 0.5 * expected && error < 2.0 * expected, "standard error " + error + ", expected " + expected);
+		assertTrue(scenarios.tailMeanStandardError(0.95) > 0.0);
+		assertEquals(ScenarioSet.of(1.0, returns, 0.95).tailQuantile(0.95), scenarios.tailQuantile(0.95));
+
+		assertTrue(Double.isNaN(ScenarioSet.of(1.0, returns, 0.95).tailQuantileStandardError(0.95)));
+		// 8 sections of 10 scenarios leave no scenario beyond the 99.9% quantile
+		assertTrue(Double.isNaN(ScenarioSet.sectioned(1.0, Arrays.copyOf(returns, 80), 8).tailMeanStandardError(0.999)));
+	}
+
+	@Test
+	void drawdownFollowsScenarioOrder() {
+		double[] returns = { 0.10, -0.20, 0.05, -0.10, 0.30 };
+		ScenarioSet scenarios = ScenarioSet.of(100.0, returns);
+
+		// 100 -> 110 (peak) -> 88 -> 92.4 -> 83.16
+		assertEquals(110 - 83.16, scenarios.maxDrawdown(4), 1e-9);
+	}
+
+}
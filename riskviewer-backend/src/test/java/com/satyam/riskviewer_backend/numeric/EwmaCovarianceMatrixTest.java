@@ -0,0 +1,75 @@
+package com.satyam.riskviewer_backend.numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class EwmaCovarianceMatrixTest {
+
+	@Test
+	void sparseUpdatesMatchFullRecomputation() {
+		int n = 5;
+		double lambda = 0.5; // decays fast enough to go through several rescales
+		EwmaCovarianceMatrix matrix = new EwmaCovarianceMatrix(lambda, 2);
+		double[] expected = new double[n * n];
+		for (int i = 0; i < n; i++) {
+			matrix.add(0.01);
+			expected[i * n + i] = 0.01;
+		}
+
+		SplittableRandom random = new SplittableRandom(7L);
+		int[] indices = new int[n];
+		double[] returns = new double[n];
+		double[] full = new double[n];
+		for (int step = 0; step < 3000; step++) {
+			int count = 0;
+			Arrays.fill(full, 0.0);
+			for (int i = 0; i < n; i++) {
+				if (random.nextInt(3) != 0) {
+					indices[count] = i;
+					returns[count] = random.nextGaussian() * 0.02;
+					full[i] = returns[count];
+					count++;
+				}
+			}
+			matrix.update(indices, returns, count);
+			for (int i = 0; i < n * n; i++) {
+				expected[i] = lambda * expected[i] + (1 - lambda) * full[i / n] * full[i % n];
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				assertEquals(expected[i * n + j], matrix.get(i, j), 1e-15);
+			}
+		}
+		double[] weights = { 0.1, 0.2, 0.3, 0.4, -0.5 };
+		int[] all = { 0, 1, 2, 3, 4 };
+		double quadratic = 0.0;
+		for (int i = 0; i < n * n; i++) {
+			quadratic += weights[i / n] * expected[i] * weights[i % n];
+		}
+		assertEquals(quadratic, matrix.quadraticForm(all, weights, n), 1e-15);
+	}
+
+	@Test
+	void choleskyReproducesTheMatrix() {
+		double[] matrix = { 4, 2, 0.4, 2, 5, 1, 0.4, 1, 3 };
+		double[] lower = Cholesky.decompose(matrix, 3);
+
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				double product = 0.0;
+				for (int k = 0; k < 3; k++) {
+					product += lower[i * 3 + k] * lower[j * 3 + k];
+				}
+				assertEquals(matrix[i * 3 + j], product, 1e-12);
+			}
+		}
+		assertNull(Cholesky.decompose(new double[] { 1, 1, 1, 1 }, 2));
+	}
+}
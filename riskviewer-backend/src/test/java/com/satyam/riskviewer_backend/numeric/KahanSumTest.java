@@ -0,0 +1,20 @@
+package com.satyam.riskviewer_backend.numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class KahanSumTest {
+
+	@Test
+	void keepsSmallTermsNextToLargeOnes() {
+		double[] values = new double[10_001];
+		values[0] = 1e12;
+		for (int i = 1; i < values.length; i++) {
+			values[i] = 0.01;
+		}
+
+		assertEquals(1e12 + 100.0, KahanSum.of(values, values.length), 1e-3);
+		assertEquals(2.0, new KahanSum().add(1e16).add(2.0).add(-1e16).sum());
+	}
+}
@@ -0,0 +1,21 @@
+package com.satyam.riskviewer_backend.numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class NormalQuantileTest {
+
+	@Test
+	void matchesTabulatedQuantilesInBothTails() {
+		assertEquals(0.0, NormalQuantile.inverseCdf(0.5), 1e-15);
+		assertEquals(1.959963985, NormalQuantile.inverseCdf(0.975), 1e-8);
+		assertEquals(-2.326347874, NormalQuantile.inverseCdf(0.01), 1e-8);
+		assertEquals(-4.753424309, NormalQuantile.inverseCdf(1e-6), 1e-7);
+		assertEquals(4.753424309, NormalQuantile.inverseCdf(1 - 1e-6), 1e-6);
+
+		assertThrows(IllegalArgumentException.class, () -> NormalQuantile.inverseCdf(0.0));
+		assertThrows(IllegalArgumentException.class, () -> NormalQuantile.inverseCdf(1.0));
+	}
+}
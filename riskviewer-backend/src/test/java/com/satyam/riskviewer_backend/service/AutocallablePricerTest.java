@@ -0,0 +1,103 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AutocallablePricerTest {
+
+	private static final double[] QUARTERLY_TWO_YEARS = { 0.0, 0.25, 0.5, 0.75, 1.0, 1.25, 1.5, 1.75 };
+
+	@Test
+	void knockInAtMaturityMatchesClosedFormDownAndInPut() {
+		AutocallablePricer pricer = new AutocallablePricer(16384, 4, 0.0);
+		double[] price = new double[1];
+		double[] delta = new double[1];
+
+		// No coupon and no call before maturity: a zero coupon bond short a continuously monitored down-and-in put
+		pricer.price(List.of(new AutocallablePricer.Note(100.0, 100.0, 70.0, 0.0, 1.0, new double[] { 0.0 })),
+			0.25, 0.05, price, delta, new double[1], new double[1], new double[1]);
+
+		// 100 e^-0.05 less the down-and-in put for S=100, K=100, B=70, sigma=25%, r=5%, T=1
+		assertEquals(91.3394, price[0], 0.002);
+		assertEquals(0.29228, delta[0], 0.002);
+	}
+
+	@Test
+	void couponsMissedBelowTheBarrierArePaidLaterAndTheNoteIsCalledAtTheTrigger() {
+		AutocallablePricer pricer = new AutocallablePricer(4096, 4, 0.0);
+		double rate = 0.05;
+		double coupon = 2.0;
+		double[] price = new double[2];
+		double[] unused = new double[2];
+
+		// With almost no volatility the spot grows at the rate: 95 reaches the barrier of 100 between
+		// years 1 and 1.25, and 99 passes the strike of 100 at the first observation
+		pricer.price(List.of(
+				new AutocallablePricer.Note(95.0, 200.0, 100.0, coupon, 2.0, QUARTERLY_TWO_YEARS),
+				new AutocallablePricer.Note(99.0, 100.0, 70.0, coupon, 2.0, QUARTERLY_TWO_YEARS)),
+			1e-4, rate, price, unused, unused.clone(), unused.clone(), unused.clone());
+
+		// Started below the barrier, so knocked in: the underlying is repaid instead of 200
+		double coupons = coupon * (5 * Math.exp(-1.25 * rate) + Math.exp(-1.5 * rate) + Math.exp(-1.75 * rate)
+			+ Math.exp(-2.0 * rate));
+		assertEquals(95.0 + coupons, price[0], 0.001);
+		assertEquals((100.0 + coupon) * Math.exp(-0.25 * rate), price[1], 0.001);
+	}
+
+	@Test
+	void pathwiseGreeksMatchRevaluationOnTheSamePaths() {
+		AutocallablePricer pricer = new AutocallablePricer();
+		List<AutocallablePricer.Note> notes = List.of(
+			new AutocallablePricer.Note(100.0, 100.0, 70.0, 2.0, 2.0, QUARTERLY_TWO_YEARS),
+			new AutocallablePricer.Note(100.0, 110.0, 80.0, 2.5, 2.0, QUARTERLY_TWO_YEARS));
+		double[] price = new double[2];
+		double[] delta = new double[2];
+		double[] gamma = new double[2];
+		double[] theta = new double[2];
+		double[] vega = new double[2];
+		pricer.price(notes, 0.25, 0.05, price, delta, gamma, theta, vega);
+
+		double[] up = revalue(pricer, notes, 1.0, 0.25);
+		double[] down = revalue(pricer, notes, -1.0, 0.25);
+		double[] volUp = revalue(pricer, notes, 0.0, 0.26);
+		double[] volDown = revalue(pricer, notes, 0.0, 0.24);
+		for (int n = 0; n < notes.size(); n++) {
+			assertEquals((up[n] - down[n]) / 2.0, delta[n], 0.02, "delta of note " + n);
+			assertEquals((volUp[n] - volDown[n]) / 2.0, vega[n], 0.02, "vega of note " + n);
+			assertEquals(up[n] - 2.0 * price[n] + down[n], gamma[n], 0.02, "gamma of note " + n);
+
+			// Notes on the same dates share a grid, so a batch prices each note exactly as alone
+			double[] alone = new double[1];
+			pricer.price(List.of(notes.get(n)), 0.25, 0.05, alone, new double[1], new double[1], new double[1],
+				new double[1]);
+			assertEquals(alone[0], price[n], 1e-9);
+		}
+	}
+
+	@Test
+	void observationDatesStepBackFromMaturityUntilTheIssueDate() {
+		AutocallablePricer pricer = new AutocallablePricer();
+		double[] offsets = pricer.observationOffsets(LocalDateTime.of(2025, 1, 15, 0, 0), LocalDateTime.of(2027, 1, 15, 0, 0));
+
+		assertEquals(8, offsets.length);
+		assertEquals(0.0, offsets[0]);
+		assertEquals(92 / 365.0, offsets[1], 1e-12); // 15 Oct 2026
+		assertEquals(640 / 365.0, offsets[7], 1e-12); // 15 Apr 2025
+	}
+
+	private static double[] revalue(AutocallablePricer pricer, List<AutocallablePricer.Note> notes,
+									double spotMove, double volatility) {
+		List<AutocallablePricer.Note> moved = notes.stream()
+			.map(note -> new AutocallablePricer.Note(note.spot() + spotMove, note.strike(), note.barrier(),
+				note.coupon(), note.maturity(), note.observationOffsets()))
+			.toList();
+		double[] price = new double[notes.size()];
+		pricer.price(moved, volatility, 0.05, price, new double[notes.size()], new double[notes.size()],
+			new double[notes.size()], new double[notes.size()]);
+		return price;
+	}
+}
@@ -0,0 +1,37 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BlackScholesBatchPricerTest {
+
+	@Test
+	void matchesTextbookValuesAndZeroesMaturedContracts() {
+		double[] spot = { 100.0, 120.0 };
+		double[] strike = { 100.0, 100.0 };
+		double[] maturity = { 1.0, 0.0 };
+		double[] volatility = { 0.2, 0.3 };
+		double[] rate = { 0.05, 0.05 };
+		double[] price = new double[2];
+		double[] delta = new double[2];
+		double[] gamma = new double[2];
+		double[] theta = new double[2];
+		double[] vega = new double[2];
+
+		BlackScholesBatchPricer.price(2, spot, strike, maturity, volatility, rate, price, delta, gamma, theta, vega);
+
+		// S=K=100, T=1, r=5%, sigma=20%
+		assertEquals(10.4506, price[0], 1e-4);
+		assertEquals(0.6368, delta[0], 1e-4);
+		assertEquals(0.018762, gamma[0], 1e-5);
+		assertEquals(-6.4140 / 365, theta[0], 1e-5);
+		assertEquals(0.37524, vega[0], 1e-4);
+
+		assertEquals(120.0, price[1]);
+		assertEquals(0.0, delta[1]);
+		assertEquals(0.0, gamma[1]);
+		assertEquals(0.0, theta[1]);
+		assertEquals(0.0, vega[1]);
+	}
+}
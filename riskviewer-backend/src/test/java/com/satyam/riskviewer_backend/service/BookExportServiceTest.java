@@ -0,0 +1,77 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class BookExportServiceTest {
+
+	@Test
+	void streamsOneLinePerProductWithItsScenarios() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:book_export;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE positions (id BIGINT PRIMARY KEY, symbol VARCHAR(255), type VARCHAR(255), "
+			+ "quantity NUMERIC(38,2), purchase_price NUMERIC(38,2), portfolio_id BIGINT, created_at TIMESTAMP)");
+		jdbcTemplate.execute("CREATE TABLE structured_products (id BIGINT PRIMARY KEY, product_code VARCHAR(255), "
+			+ "product_type VARCHAR(255), underlying_asset VARCHAR(255), notional_amount NUMERIC(15,2), "
+			+ "strike_price NUMERIC(15,2), barrier_level NUMERIC(15,2), coupon_rate NUMERIC(8,4), issue_date TIMESTAMP, "
+			+ "maturity_date TIMESTAMP, portfolio_id BIGINT, current_price NUMERIC(15,2), implied_volatility NUMERIC(8,4), "
+			+ "delta NUMERIC(8,4), gamma NUMERIC(8,4), theta NUMERIC(8,4), vega NUMERIC(8,4), risk_status VARCHAR(255), "
+			+ "last_updated TIMESTAMP)");
+		jdbcTemplate.execute("CREATE TABLE product_risk_scenarios (product_id BIGINT, scenario_name VARCHAR(255), "
+			+ "scenario_value NUMERIC(38,2))");
+
+		jdbcTemplate.update("INSERT INTO positions VALUES (2, 'MSFT', 'Equity', 300, 280.00, 1, TIMESTAMP '2026-01-02 10:00:00')");
+		jdbcTemplate.update("INSERT INTO positions VALUES (1, 'AAPL', 'Equity', 500, 145.50, 1, NULL)");
+		jdbcTemplate.update("INSERT INTO positions VALUES (3, 'TLT', 'Bond', 250, 95.20, 2, NULL)");
+		for (long id = 1; id <= 3; id++) {
+			jdbcTemplate.update("INSERT INTO structured_products VALUES (?, ?, 'AUTOCALLABLE', 'AAPL', 1000000, 150, 105, "
+				+ "0.08, NULL, NULL, 1, 160, 0.25, 0.5, 0.01, -0.02, 0.3, 'GREEN', NULL)", id, "AC-" + id);
+		}
+		jdbcTemplate.update("INSERT INTO product_risk_scenarios VALUES (1, 'Market Crash', -120000), (1, 'Rally', 50000), "
+			+ "(3, 'Market Crash', -90000)");
+
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		BookExportService service = new BookExportService(dataSource, new DataSourceTransactionManager(dataSource),
+			objectMapper, 2);
+
+		ByteArrayOutputStream positions = new ByteArrayOutputStream();
+		service.exportPositions(1L, positions);
+		List<JsonNode> positionLines = lines(objectMapper, positions);
+		assertEquals(List.of("AAPL", "MSFT"), positionLines.stream().map(node -> node.get("symbol").asText()).toList());
+		assertEquals("2026-01-02T10:00:00", positionLines.get(1).get("createdAt").asText());
+		assertEquals(145.5, positionLines.get(0).get("purchasePrice").asDouble());
+
+		ByteArrayOutputStream products = new ByteArrayOutputStream();
+		service.exportStructuredProducts(null, products);
+		List<JsonNode> productLines = lines(objectMapper, products);
+		assertEquals(3, productLines.size());
+		assertEquals(2, productLines.get(0).get("riskScenarios").size());
+		assertEquals(0, productLines.get(1).get("riskScenarios").size());
+		assertEquals(-90000.0, productLines.get(2).get("riskScenarios").get("Market Crash").asDouble());
+		assertEquals("AC-3", productLines.get(2).get("productCode").asText());
+	}
+
+	private static List<JsonNode> lines(ObjectMapper objectMapper, ByteArrayOutputStream out) throws Exception {
+		String body = out.toString(StandardCharsets.UTF_8);
+		assertEquals('\n', body.charAt(body.length() - 1));
+		List<JsonNode> nodes = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			nodes.add(objectMapper.readTree(line));
+		}
+		return nodes;
+	}
+}
@@ -0,0 +1,137 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.numeric.NormalQuantile;
+
+class MonteCarloSimulationEngineTest {
+
+	private static final double[] WEIGHTS = { 0.5, 0.3, 0.2 };
+	private static final double[] DRIFTS = { 0.0004, 0.0002, 0.0001 };
+	private static final double[] VOLATILITIES = { 0.016, 0.011, 0.005 };
+
+	@Test
+	void sameSeedGivesSameReturnsForAnyPoolSize() {
+		int paths = 3 * MonteCarloSimulationEngine.PATHS_PER_CHUNK + 17;
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool wide = new ForkJoinPool(8);
+		try {
+			double[] sequential = new MonteCarloSimulationEngine(single)
+				.simulatePortfolioReturns(WEIGHTS, DRIFTS, VOLATILITIES, paths, 42L);
+			double[] parallel = new MonteCarloSimulationEngine(wide)
+				.simulatePortfolioReturns(WEIGHTS, DRIFTS, VOLATILITIES, paths, 42L);
+
+			assertEquals(paths, sequential.length);
+			assertArrayEquals(sequential, parallel);
+		} finally {
+			single.shutdown();
+			wide.shutdown();
+		}
+	}
+
+	@Test
+	void cancelledRunStopsBeforeTheRemainingChunks() {
+		AtomicInteger polls = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			MonteCarloSimulationEngine engine = new MonteCarloSimulationEngine(pool);
+			assertThrows(CancellationException.class, () -> engine.simulatePortfolioReturns(0.0, new double[] { 0.01 },
+				64 * MonteCarloSimulationEngine.PATHS_PER_CHUNK, 42L, SamplingStrategy.PSEUDO_RANDOM, 1,
+				() -> polls.incrementAndGet() > 3));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void simulatedMomentsMatchInputs() {
+		int paths = 200_000;
+		double[] returns = new MonteCarloSimulationEngine()
+			.simulatePortfolioReturns(WEIGHTS, DRIFTS, VOLATILITIES, paths, 7L);
+
+		double mean = 0.0;
+		for (double r : returns) {
+			mean += r;
+		}
+		mean /= paths;
+		double variance = 0.0;
+		for (double r : returns) {
+			variance += (r - mean) * (r - mean);
+		}
+		variance /= paths - 1;
+
+		double expectedMean = 0.5 * 0.0004 + 0.3 * 0.0002 + 0.2 * 0.0001;
+		double expectedVariance = Math.pow(0.5 * 0.016, 2) + Math.pow(0.3 * 0.011, 2) + Math.pow(0.2 * 0.005, 2);
+		assertEquals(expectedMean, mean, 1e-4);
+		assertEquals(expectedVariance, variance, expectedVariance * 0.02);
+	}
+
+	@Test
+	void samplingStrategiesKeepTheirStructure() {
+		MonteCarloSimulationEngine engine = new MonteCarloSimulationEngine();
+		double[] loadings = { 0.008, 0.0033, 0.001 };
+		int paths = 2 * MonteCarloSimulationEngine.PATHS_PER_CHUNK + 101;
+
+		// Sections do not change pseudo-random paths
+		assertArrayEquals(engine.simulatePortfolioReturns(0.0003, loadings, paths, 5L),
+			engine.simulatePortfolioReturns(0.0003, loadings, paths, 5L, SamplingStrategy.PSEUDO_RANDOM, 8));
+
+		double[] antithetic = engine.simulatePortfolioReturns(0.0003, loadings, paths, 5L, SamplingStrategy.ANTITHETIC, 8);
+		for (int path = 0; path + 1 < paths; path += 2) {
+			assertEquals(0.0006, antithetic[path] + antithetic[path + 1], 1e-15);
+		}
+
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			assertArrayEquals(engine.simulatePortfolioReturns(0.0003, loadings, paths, 5L, SamplingStrategy.SOBOL, 8),
+				new MonteCarloSimulationEngine(single)
+					.simulatePortfolioReturns(0.0003, loadings, paths, 5L, SamplingStrategy.SOBOL, 8));
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	@Test
+	void sobolPathsEstimateVaRMoreAccuratelyThanPseudoRandomPaths() {
+		MonteCarloSimulationEngine engine = new MonteCarloSimulationEngine();
+		double[] loadings = { 0.008, 0.0033, 0.001, 0.004, 0.002 };
+		double variance = 0.0;
+		for (double loading : loadings) {
+			variance += loading * loading;
+		}
+		double exact = Math.sqrt(variance) * NormalQuantile.inverseCdf(0.05);
+
+		int paths = 16_384;
+		int runs = 30;
+		double pseudoSquares = 0.0;
+		double sobolSquares = 0.0;
+		for (int run = 0; run < runs; run++) {
+			double pseudo = quantile(engine.simulatePortfolioReturns(0.0, loadings, paths, run,
+				SamplingStrategy.PSEUDO_RANDOM, 8), 0.05) - exact;
+			double sobol = quantile(engine.simulatePortfolioReturns(0.0, loadings, paths, run,
+				SamplingStrategy.SOBOL, 8), 0.05) - exact;
+			pseudoSquares += pseudo * pseudo;
+			sobolSquares += sobol * sobol;
+		}
+
+		// Each seed scrambles the sequence independently, so the runs spread around the exact quantile
+		assertTrue(sobolSquares < 0.5 * pseudoSquares, "Sobol' MSE " + sobolSquares / runs + ", pseudo-random " + pseudoSquares / runs);
+	}
+
+	private static double quantile(double[] returns, double probability) {
+		double[] sorted = returns.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) Math.floor(probability * sorted.length)];
+	}
+
+}
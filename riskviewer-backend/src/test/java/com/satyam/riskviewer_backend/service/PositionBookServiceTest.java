@@ -0,0 +1,75 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.dto.LivePnLDTO;
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.repository.PositionRepository;
+
+class PositionBookServiceTest {
+
+	@Test
+	void priceTickUpdatesOnlyPortfoliosHoldingTheSymbol() {
+		PositionRepository repository = mock(PositionRepository.class);
+		when(repository.findAll()).thenReturn(List.of(
+			new Position("AAPL", "Equity", new BigDecimal("10"), new BigDecimal("100"), 1L),
+			new Position("AAPL", "Equity", new BigDecimal("5"), new BigDecimal("110"), 1L),
+			new Position("MSFT", "Equity", new BigDecimal("2"), new BigDecimal("300"), 2L)));
+
+		PositionBookService book = new PositionBookService(repository);
+		book.applyPrice("AAPL", new BigDecimal("100"));
+		book.loadBook();
+
+		book.applyPrice("AAPL", new BigDecimal("120"));
+
+		LivePnLDTO first = book.getLivePnL(1L);
+		assertEquals(new BigDecimal("1800.00"), first.marketValue());
+		assertEquals(new BigDecimal("1550.00"), first.costBasis());
+		assertEquals(new BigDecimal("250.00"), first.unrealizedPnL());
+		assertEquals(1, first.holdings().size());
+
+		// Never priced, so still marked at cost
+		LivePnLDTO second = book.getLivePnL(2L);
+		assertEquals(new BigDecimal("0.00"), second.unrealizedPnL());
+		assertNull(book.getLivePnL(3L));
+	}
+
+	@Test
+	void reloadMovesHoldingsBetweenSymbolsAndDropsEmptyPortfolios() {
+		PositionRepository repository = mock(PositionRepository.class);
+		when(repository.findAll()).thenReturn(List.of(
+			new Position("AAPL", "Equity", new BigDecimal("10"), new BigDecimal("100"), 1L),
+			new Position("MSFT", "Equity", new BigDecimal("2"), new BigDecimal("300"), 1L)));
+		when(repository.findByPortfolioId(1L)).thenReturn(List.of(
+			new Position("AAPL", "Equity", new BigDecimal("20"), new BigDecimal("100"), 1L),
+			new Position("GOOG", "Equity", new BigDecimal("1"), new BigDecimal("150"), 1L)));
+
+		PositionBookService book = new PositionBookService(repository);
+		book.loadBook();
+		book.applyPrice("AAPL", new BigDecimal("110"));
+		book.reloadPortfolio(1L);
+
+		// Marked from the last tick, and MSFT no longer routes to the portfolio
+		assertEquals(new BigDecimal("2350.00"), book.getLivePnL(1L).marketValue());
+		assertEquals(Set.of(1L), book.getPortfoliosHolding("AAPL"));
+		assertEquals(Set.of(), book.getPortfoliosHolding("MSFT"));
+
+		book.applyPrice("AAPL", new BigDecimal("120"));
+		assertEquals(new BigDecimal("2550.00"), book.getLivePnL(1L).marketValue());
+
+		when(repository.findByPortfolioId(1L)).thenReturn(List.of());
+		book.reloadPortfolio(1L);
+		assertNull(book.getLivePnL(1L));
+		assertEquals(0, book.getPortfolioCount());
+		assertEquals(Set.of(), book.getPortfoliosHolding("AAPL"));
+	}
+}
@@ -0,0 +1,84 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satyam.riskviewer_backend.dto.PositionImportDTO;
+import com.satyam.riskviewer_backend.event.PositionsChangedEvent;
+
+class PositionImportServiceTest {
+
+	@Test
+	void insertsValidRowsInBatchesAndReportsRejectedOnes() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:position_import;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE positions (id BIGINT AUTO_INCREMENT PRIMARY KEY, symbol VARCHAR(255), "
+			+ "type VARCHAR(255), quantity NUMERIC(38,2), purchase_price NUMERIC(38,2), portfolio_id BIGINT, "
+			+ "created_at TIMESTAMP)");
+		ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+		PositionImportService service = new PositionImportService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+			publisher, mock(PerformanceMonitoringService.class), new ObjectMapper(), 3, true, 60);
+
+		String csv = """
+			symbol,type,quantity,purchase_price,portfolio_id
+			AAPL,Equity,500,145.50,1
+			MSFT,Equity,0,280.00,1
+			GOOGL,Equity,150,125.30,1
+
+			TLT,Bond,250,95.20,2
+			SPY,ETF,100,abc,2
+			NVDA,Equity,75,450.00
+			AMZN,Equity,80,330.00,3
+			""";
+		PositionImportDTO result = service.importPositions(new StringReader(csv), PositionImportDTO.Format.CSV);
+
+		assertEquals(PositionImportDTO.Status.COMPLETED, result.status());
+		assertEquals("JDBC_BATCH", result.insertMethod());
+		assertEquals(7, result.rowsRead());
+		assertEquals(4, result.rowsInserted());
+		assertEquals(3, result.rowsRejected());
+		assertEquals(2, result.batches().size());
+
+		PositionImportDTO.BatchReport first = result.batches().get(0);
+		assertEquals(2, first.firstRow());
+		assertEquals(6, first.lastRow());
+		assertEquals(3, first.inserted());
+		assertEquals(List.of(new PositionImportDTO.RowError(3, "Quantity must not be zero")), first.errors());
+		assertEquals(List.of(7L, 8L), result.batches().get(1).errors().stream().map(PositionImportDTO.RowError::row).toList());
+
+		assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM positions", Integer.class));
+		assertEquals(0, new BigDecimal("95.20").compareTo(jdbcTemplate.queryForObject(
+			"SELECT purchase_price FROM positions WHERE symbol = 'TLT'", BigDecimal.class)));
+
+		ArgumentCaptor<PositionsChangedEvent> event = ArgumentCaptor.forClass(PositionsChangedEvent.class);
+		verify(publisher).publishEvent(event.capture());
+		assertEquals(Set.of(1L, 2L, 3L), event.getValue().getPortfolioIds());
+
+		PositionImportDTO json = service.importPositions(new StringReader("""
+			{"symbol":"BITO","type":"ETF","quantity":200,"purchasePrice":28.50,"portfolioId":3}
+			{"symbol":"BAD SYMBOL","type":"ETF","quantity":1,"purchasePrice":1,"portfolioId":3}
+			"""), PositionImportDTO.Format.NDJSON);
+		assertEquals(1, json.rowsInserted());
+		assertEquals(1, json.rowsRejected());
+		assertEquals(2, service.listImports().size());
+		assertNull(service.getImport("unknown"));
+		verify(publisher, times(2)).publishEvent(any(PositionsChangedEvent.class));
+	}
+}
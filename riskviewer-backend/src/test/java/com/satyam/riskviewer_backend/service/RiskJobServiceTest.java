@@ -0,0 +1,166 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.dto.RiskJobDTO;
+import com.satyam.riskviewer_backend.dto.RiskJobRequest;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+
+class RiskJobServiceTest {
+
+	@Test
+	void deduplicatesPrioritisesAndCancelsQueuedJobs() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RiskAnalyticsService analytics = mock(RiskAnalyticsService.class);
+		List<Long> started = new CopyOnWriteArrayList<>();
+		when(analytics.loadSnapshot(anyLong())).thenAnswer(invocation -> {
+			started.add(invocation.getArgument(0));
+			return PortfolioSnapshot.of(1L, List.of());
+		});
+		when(analytics.runStressTests(any(PortfolioSnapshot.class))).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return Map.of("Market Crash", 1.0);
+		});
+		RiskJobService service = new RiskJobService(analytics, mock(PerformanceMonitoringService.class), 1, 3, 1000, 30);
+
+		// Occupies the single worker until released, and frees its queue slot once started
+		RiskJobDTO blocking = service.submit(stress(1L, RiskJobDTO.Priority.NORMAL));
+		awaitStatus(service, blocking.jobId(), RiskJobDTO.Status.RUNNING);
+		RiskJobDTO low = service.submit(stress(2L, RiskJobDTO.Priority.LOW));
+		RiskJobDTO duplicate = service.submit(stress(2L, RiskJobDTO.Priority.HIGH));
+		assertEquals(low.jobId(), duplicate.jobId());
+
+		RiskJobDTO high = service.submit(stress(3L, RiskJobDTO.Priority.HIGH));
+		RiskJobDTO cancelled = service.submit(stress(4L, RiskJobDTO.Priority.NORMAL));
+		assertThrows(RejectedExecutionException.class, () -> service.submit(stress(5L, RiskJobDTO.Priority.NORMAL)));
+		assertThrows(IllegalArgumentException.class, () -> service.submit(
+			new RiskJobRequest(RiskJobDTO.Type.MONTE_CARLO_VAR, 1L, 0.95, 5000, null, null)));
+
+		assertEquals(RiskJobDTO.Status.CANCELLED, service.cancel(cancelled.jobId()).status());
+		release.countDown();
+
+		awaitStatus(service, blocking.jobId(), RiskJobDTO.Status.COMPLETED);
+		awaitStatus(service, high.jobId(), RiskJobDTO.Status.COMPLETED);
+		awaitStatus(service, low.jobId(), RiskJobDTO.Status.COMPLETED);
+		assertEquals(List.of(1L, 3L, 2L), started);
+		assertEquals(RiskJobDTO.Status.CANCELLED, service.getJob(cancelled.jobId()).status());
+		assertNotNull(service.getJob(high.jobId()).result());
+		service.shutdown();
+	}
+
+	@Test
+	void cancelledSimulationReleasesItsWorker() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		RiskAnalyticsService analytics = mock(RiskAnalyticsService.class);
+		when(analytics.loadSnapshot(anyLong())).thenReturn(PortfolioSnapshot.of(1L, List.of()));
+		when(analytics.runStressTests(any(PortfolioSnapshot.class))).thenReturn(Map.of("Market Crash", 1.0));
+		when(analytics.simulateScenarios(any(PortfolioSnapshot.class), anyInt(), any(SamplingStrategy.class),
+				any(BooleanSupplier.class), anyDouble())).thenAnswer(invocation -> {
+			BooleanSupplier cancelled = invocation.getArgument(3);
+			running.countDown();
+			for (int i = 0; i < 500 && !cancelled.getAsBoolean(); i++) {
+				Thread.sleep(10);
+			}
+			if (cancelled.getAsBoolean()) {
+				throw new CancellationException();
+			}
+			return ScenarioSet.of(0.0, new double[0], 0.95);
+		});
+		RiskJobService service = new RiskJobService(analytics, mock(PerformanceMonitoringService.class), 1, 3, 1000, 30);
+
+		RiskJobRequest monteCarlo = new RiskJobRequest(RiskJobDTO.Type.MONTE_CARLO_VAR, 1L, 0.95, 500, null, null);
+		RiskJobDTO simulation = service.submit(monteCarlo);
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		RiskJobDTO stressed = service.submit(stress(2L, RiskJobDTO.Priority.NORMAL));
+
+		assertEquals(RiskJobDTO.Status.CANCELLED, service.cancel(simulation.jobId()).status());
+		assertNotEquals(simulation.jobId(), service.submit(monteCarlo).jobId());
+
+		// The single worker gets past the cancelled simulation well before it would have finished
+		awaitStatus(service, stressed.jobId(), RiskJobDTO.Status.COMPLETED);
+		assertEquals(RiskJobDTO.Status.CANCELLED, service.getJob(simulation.jobId()).status());
+		service.shutdown();
+	}
+
+	@Test
+	void concurrentSubmissionsNeverOverfillTheQueue() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RiskAnalyticsService analytics = mock(RiskAnalyticsService.class);
+		when(analytics.loadSnapshot(anyLong())).thenReturn(PortfolioSnapshot.of(1L, List.of()));
+		when(analytics.runStressTests(any(PortfolioSnapshot.class))).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return Map.of("Market Crash", 1.0);
+		});
+		RiskJobService service = new RiskJobService(analytics, mock(PerformanceMonitoringService.class), 1, 3, 1000, 30);
+		RiskJobDTO blocking = service.submit(stress(0L, RiskJobDTO.Priority.NORMAL));
+		awaitStatus(service, blocking.jobId(), RiskJobDTO.Status.RUNNING);
+
+		// Distinct portfolios, so no submission is deduplicated into another
+		int submitters = 32;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (long portfolio = 1; portfolio <= submitters; portfolio++) {
+			long portfolioId = portfolio;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					service.submit(stress(portfolioId, RiskJobDTO.Priority.NORMAL));
+					accepted.incrementAndGet();
+				} catch (RejectedExecutionException e) {
+					rejected.incrementAndGet();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(5000);
+		}
+
+		assertEquals(3, accepted.get());
+		assertEquals(submitters - 3, rejected.get());
+		release.countDown();
+		service.shutdown();
+	}
+
+	private static RiskJobRequest stress(Long portfolioId, RiskJobDTO.Priority priority) {
+		return new RiskJobRequest(RiskJobDTO.Type.STRESS_TESTS, portfolioId, null, null, null, priority);
+	}
+
+	private static void awaitStatus(RiskJobService service, String jobId, RiskJobDTO.Status status)
+			throws InterruptedException {
+		for (int i = 0; i < 500 && service.getJob(jobId).status() != status; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(status, service.getJob(jobId).status());
+	}
+}
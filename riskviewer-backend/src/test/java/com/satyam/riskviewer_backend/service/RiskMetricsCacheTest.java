@@ -0,0 +1,49 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.satyam.riskviewer_backend.cache.LocalVersionCounters;
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.event.PositionsChangedEvent;
+
+class RiskMetricsCacheTest {
+
+	@Test
+	void invalidatesOnlyPortfoliosTouchedByAChange() {
+		PositionBookService book = mock(PositionBookService.class);
+		when(book.getPortfoliosHolding("AAPL")).thenReturn(Set.of(1L));
+		RiskMetricsCache cache = new RiskMetricsCache(new ConcurrentMapCacheManager(RiskMetricsCache.CACHE_NAME),
+			new LocalVersionCounters(), book, mock(PerformanceMonitoringService.class));
+		AtomicInteger first = new AtomicInteger();
+		AtomicInteger second = new AtomicInteger();
+
+		cache.get(1L, "metrics", first::incrementAndGet);
+		cache.get(1L, "metrics", first::incrementAndGet);
+		cache.get(2L, "metrics", second::incrementAndGet);
+		assertEquals(1, first.get());
+
+		cache.onMarketDataTick(new MarketDataTickEvent(1, List.of(new MarketDataTickEvent.PriceUpdate(
+			"AAPL", BigDecimal.TEN, BigDecimal.ONE, 0.1, BigDecimal.ONE, LocalDateTime.now())), List.of(), List.of()));
+		cache.get(1L, "metrics", first::incrementAndGet);
+		cache.get(2L, "metrics", second::incrementAndGet);
+		assertEquals(2, first.get());
+		assertEquals(1, second.get());
+
+		cache.onPositionsChanged(PositionsChangedEvent.of(2L));
+		cache.get(1L, "metrics", first::incrementAndGet);
+		cache.get(2L, "metrics", second::incrementAndGet);
+		assertEquals(2, first.get());
+		assertEquals(2, second.get());
+	}
+}
@@ -0,0 +1,41 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class StandardNormalBlockTest {
+
+	@Test
+	void bridgeEstimateMatchesClosedFormFirstPassageProbability() {
+		StandardNormalBlock block = new StandardNormalBlock(65536);
+		double[] logBarrierRatio = { Math.log(0.8), Math.log(0.8), Math.log(1.1), Math.log(0.8) };
+		double[] maturity = { 1.0, 0.25, 1.0, 0.0 };
+		double[] probabilities = new double[4];
+
+		block.barrierBreachProbabilities(0.3, 0.05, logBarrierRatio, maturity, 4, probabilities);
+
+		// Continuous down-and-in hit probability of GBM for S=100, B=80, sigma=30%, r=5%
+		assertEquals(0.4513, probabilities[0], 0.01);
+		assertEquals(0.1352, probabilities[1], 0.01);
+		assertEquals(1.0, probabilities[2]);
+		assertEquals(0.0, probabilities[3]);
+	}
+
+	@Test
+	void sobolBlockConvergesFasterThanPseudoRandomBlock() {
+		double[] logBarrierRatio = { Math.log(0.8), Math.log(0.95), Math.log(0.6) };
+		double[] maturity = { 1.0, 1.0, 2.0 };
+		double[] exact = { 0.451333, 0.861767, 0.222147 };
+
+		for (SamplingStrategy sampling : SamplingStrategy.values()) {
+			double[] probabilities = new double[3];
+			new StandardNormalBlock(16384, sampling)
+				.barrierBreachProbabilities(0.3, 0.05, logBarrierRatio, maturity, 3, probabilities);
+			double tolerance = sampling == SamplingStrategy.SOBOL ? 2e-4 : 5e-3;
+			for (int j = 0; j < 3; j++) {
+				assertEquals(exact[j], probabilities[j], tolerance, sampling + " contract " + j);
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.StressGrid;
+import com.satyam.riskviewer_backend.model.StressScenario;
+import com.satyam.riskviewer_backend.model.StressScenario.Shock;
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+
+class StressGridEngineTest {
+
+	private final StructuredProductPricingService pricingService =
+		new StructuredProductPricingService(null, new StandardNormalBlock(1024));
+	private final StressGridEngine engine = new StressGridEngine(null, null, pricingService, new ForkJoinPool(3), 1000, 1024);
+
+	@Test
+	void symbolShocksOverrideTypeShocksAndTopContributorsAreOrdered() {
+		List<Position> positions = List.of(
+			new Position("AAPL", "Equity", new BigDecimal("100"), new BigDecimal("100.00"), 1L),  // 10,000
+			new Position("MSFT", "Equity", new BigDecimal("100"), new BigDecimal("300.00"), 1L),  // 30,000
+			new Position("TLT", "Bond", new BigDecimal("100"), new BigDecimal("50.00"), 2L));     // 5,000
+
+		List<StressScenario> scenarios = List.of(
+			new StressScenario("Equity crash", null, Map.of("Equity", shock(-0.40), "Bond", shock(0.10)), null),
+			new StressScenario("Apple only", Map.of("AAPL", shock(-0.50)), Map.of("Equity", shock(-0.10)), null),
+			new StressScenario("Everything down", null, null, shock(-0.20)));
+
+		StressGrid grid = engine.evaluate(positions, List.of(), scenarios, 2);
+
+		assertEquals(List.of("Equity crash", "Apple only", "Everything down"), grid.scenarioNames());
+		assertEquals(4000 + 12000 - 500, grid.losses()[0], 1e-9);
+		assertEquals(5000 + 3000, grid.losses()[1], 1e-9);
+		assertEquals(9000, grid.losses()[2], 1e-9);
+
+		List<StressGrid.Contributor> top = grid.topContributors().get(1);
+		assertEquals(2, top.size());
+		assertEquals("AAPL", top.get(0).instrument());
+		assertEquals(5000, top.get(0).loss(), 1e-9);
+		assertEquals("MSFT", top.get(1).instrument());
+		assertEquals(List.of("MSFT", "AAPL"),
+			grid.topContributors().get(2).stream().map(StressGrid.Contributor::instrument).toList());
+	}
+
+	@Test
+	void productsAreRevaluedUnderShockedInputsAndParallelResultsMatchSerialOnes() {
+		StructuredProduct product = new StructuredProduct("ELN-1", "EQUITY_LINKED_NOTE", "AAPL",
+			new BigDecimal("1000000"), new BigDecimal("100.00"), new BigDecimal("70.00"), new BigDecimal("0.0800"),
+			LocalDateTime.now().minusDays(30), LocalDateTime.now().plusDays(365), 1L,
+			new BigDecimal("100.00"), new BigDecimal("0.2500"));
+
+		List<StressScenario> scenarios = new ArrayList<>();
+		for (int s = 0; s < 50; s++) {
+			scenarios.add(new StressScenario("S" + s, Map.of("AAPL", new Shock(-0.01 * s, 0.02 * s, 0.0)), null, null));
+		}
+		StressGrid grid = engine.evaluate(List.of(), List.of(product), scenarios, 1);
+
+		assertEquals(0.0, grid.losses()[0], 1e-9);
+		BigDecimal base = pricingService.calculateBlackScholesPrice(product);
+		product.setCurrentPrice(new BigDecimal("80.00"));
+		product.setImpliedVolatility(new BigDecimal("0.3500"));
+		BigDecimal shocked = pricingService.calculateBlackScholesPrice(product);
+		double units = 1000000 / 100.0;
+		assertEquals(units * base.subtract(shocked).doubleValue(), grid.losses()[20], units * 0.01);
+		assertEquals("ELN-1", grid.topContributors().get(20).get(0).instrument());
+
+		StressGridEngine serial = new StressGridEngine(null, null, pricingService, new ForkJoinPool(1), 1000, 1024);
+		product.setCurrentPrice(new BigDecimal("100.00"));
+		product.setImpliedVolatility(new BigDecimal("0.2500"));
+		StressGrid serialGrid = serial.evaluate(List.of(), List.of(product), scenarios, 1);
+		for (int s = 0; s < scenarios.size(); s++) {
+			assertEquals(grid.losses()[s], serialGrid.losses()[s]);
+		}
+	}
+
+	@Test
+	void autocallablesAreRevaluedByMonteCarloAgainstTheirOwnBase() {
+		StructuredProduct note = new StructuredProduct("AC-1", "AUTOCALLABLE", "AAPL",
+			new BigDecimal("1000000"), new BigDecimal("100.00"), new BigDecimal("70.00"), new BigDecimal("0.0800"),
+			LocalDateTime.now().minusDays(30), LocalDateTime.now().plusDays(700), 1L,
+			new BigDecimal("100.00"), new BigDecimal("0.2500"));
+		List<StressScenario> scenarios = List.of(
+			new StressScenario("Unchanged", null, null, null),
+			new StressScenario("Crash", Map.of("AAPL", new Shock(-0.40, 0.50, 0.0)), null, null),
+			new StressScenario("Rally", Map.of("AAPL", new Shock(0.50, 0.0, 0.0)), null, null));
+
+		StressGrid grid = engine.evaluate(List.of(), List.of(note), scenarios, 1);
+		assertEquals(1, grid.simulatedProducts());
+		assertEquals(0.0, grid.losses()[0], 1e-9);
+
+		// Full-path reprices: knocked in below the barrier, called at par plus a coupon above the strike
+		double units = 1000000 / 100.0;
+		double base = pricingService.calculateBlackScholesPrice(note).doubleValue();
+		note.setCurrentPrice(new BigDecimal("60.00"));
+		note.setImpliedVolatility(new BigDecimal("0.3750"));
+		double crashed = pricingService.calculateBlackScholesPrice(note).doubleValue();
+		note.setCurrentPrice(new BigDecimal("150.00"));
+		note.setImpliedVolatility(new BigDecimal("0.2500"));
+		double rallied = pricingService.calculateBlackScholesPrice(note).doubleValue();
+		assertEquals(units * (base - crashed), grid.losses()[1], units * 0.5);
+		assertEquals(units * (base - rallied), grid.losses()[2], units * 0.5);
+		assertTrue(-grid.losses()[2] < units * 10.0, "An autocallable's upside is capped near par plus a coupon");
+	}
+
+	@Test
+	void rejectsInvalidScenarioLists() {
+		assertThrows(IllegalArgumentException.class, () -> engine.evaluate(List.of(), List.of(), List.of(), 5));
+		assertThrows(IllegalArgumentException.class, () -> engine.evaluate(List.of(), List.of(),
+			List.of(new StressScenario(" ", null, null, null)), 5));
+	}
+
+	@Test
+	void rejectsShocksThatWipeOutOrOverflowTheirInputs() {
+		for (Shock invalid : List.of(shock(-1.0), shock(-1.5), new Shock(0.0, -1.0, 0.0), shock(Double.NaN),
+				new Shock(0.0, Double.POSITIVE_INFINITY, 0.0), new Shock(0.0, 0.0, Double.NaN))) {
+			assertThrows(IllegalArgumentException.class, () -> engine.evaluate(List.of(), List.of(),
+				List.of(new StressScenario("Bad", Map.of("AAPL", invalid), null, null)), 5), invalid.toString());
+			assertThrows(IllegalArgumentException.class, () -> engine.evaluate(List.of(), List.of(),
+				List.of(new StressScenario("Bad", null, Map.of("Equity", invalid), invalid)), 5), invalid.toString());
+		}
+		assertEquals(1, engine.evaluate(List.of(), List.of(),
+			List.of(new StressScenario("Near wipe-out", null, null, new Shock(-0.99, -0.99, -0.05))), 5).losses().length);
+	}
+
+	private static Shock shock(double price) {
+		return new Shock(price, 0.0, 0.0);
+	}
+}
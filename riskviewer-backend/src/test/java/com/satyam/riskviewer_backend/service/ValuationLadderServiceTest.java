@@ -0,0 +1,94 @@
+package com.satyam.riskviewer_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.model.ValuationLadder;
+
+class ValuationLadderServiceTest {
+
+	private final StructuredProductPricingService pricingService =
+		new StructuredProductPricingService(null, new StandardNormalBlock(16384));
+	private final ValuationLadderService service =
+		new ValuationLadderService(null, pricingService, new ForkJoinPool(3), 100000, 1000000, 10000);
+	private final ValuationLadder.Axes axes = ValuationLadder.Axes.symmetric(0.2, 41, 0.5, 11, new int[] { 0, 7, 30, 90, 400 });
+
+	@Test
+	void gridPointsMatchThePricingServiceUnderTheSameShocks() {
+		StructuredProduct product = product("AC-1", "AUTOCALLABLE");
+		ValuationLadder ladder = service.ladders(List.of(product), axes).get(0);
+
+		assertEquals(5 * 11 * 41, ladder.prices().length);
+		assertEquals(pricingService.calculateBlackScholesPrice(product).doubleValue(), ladder.basePrice(), 0.01);
+		assertEquals(ladder.basePrice(), ladder.price(0, 5, 20), 1e-9);
+		assertEquals(10000.0, ladder.units(), 1e-9);
+
+		// Spot -10% (index 10), vol +20% (index 7)
+		product.setCurrentPrice(new BigDecimal("90.00"));
+		product.setImpliedVolatility(new BigDecimal("0.3000"));
+		assertEquals(pricingService.calculateBlackScholesPrice(product).doubleValue(), ladder.price(0, 7, 10), 0.01);
+
+		// 400 days forward is past maturity: the shocked spot
+		assertEquals(120.0, ladder.price(4, 0, 40), 1e-9);
+		assertEquals(80.0, ladder.price(4, 10, 0), 1e-9);
+	}
+
+	@Test
+	void barrierProductsUseTheClosedFormOfTheSampledBreachProbability() {
+		StructuredProduct product = product("BRC-1", "BARRIER_REVERSE_CONVERTIBLE");
+		ValuationLadder ladder = service.ladders(List.of(product), axes).get(0);
+
+		double sampled = pricingService.calculateBlackScholesPrice(product).doubleValue();
+		assertEquals(sampled, ladder.basePrice(), 0.25);
+
+		// With the spot at the barrier the breach is certain in both
+		ValuationLadder atBarrier = service.ladders(List.of(product),
+			new ValuationLadder.Axes(new double[] { -0.3 }, new double[] { 0.0 }, new int[] { 0 })).get(0);
+		product.setCurrentPrice(new BigDecimal("70.00"));
+		assertEquals(pricingService.calculateBlackScholesPrice(product).doubleValue(), atBarrier.prices()[0], 0.01);
+	}
+
+	@Test
+	void batchLaddersMatchSingleOnesAndInvalidGridsAreRejected() {
+		List<StructuredProduct> products = List.of(
+			product("ELN-1", "EQUITY_LINKED_NOTE"), product("AC-1", "AUTOCALLABLE"),
+			product("BRC-1", "BARRIER_REVERSE_CONVERTIBLE"));
+		List<ValuationLadder> ladders = service.ladders(products, axes);
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < products.size(); i++) {
+			assertEquals(products.get(i).getProductCode(), ladders.get(i).productCode());
+			assertArrayEquals(service.ladder(products.get(i), axes, now).prices(), ladders.get(i).prices());
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> ValuationLadder.Axes.symmetric(0.2, 0, 0.5, 11, new int[] { 0 }));
+		assertThrows(IllegalArgumentException.class, () -> service.ladders(products,
+			ValuationLadder.Axes.symmetric(1.0, 41, 0.5, 11, new int[] { 0 })));
+		assertThrows(IllegalArgumentException.class, () -> service.ladders(products,
+			ValuationLadder.Axes.symmetric(0.2, 41, 0.5, 11, new int[] { -1 })));
+		assertThrows(IllegalArgumentException.class, () -> service.ladders(products,
+			ValuationLadder.Axes.symmetric(0.2, 1001, 0.5, 11, new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 })));
+
+		// Room for one simulated ladder but not two; closed-form products do not count against it
+		ValuationLadderService capped = new ValuationLadderService(null, pricingService, new ForkJoinPool(1),
+			100000, 1000000, 2 * axes.points() - 1);
+		assertEquals(3, capped.ladders(products, axes).size());
+		assertThrows(IllegalArgumentException.class, () -> capped.ladders(List.of(product("AC-1", "AUTOCALLABLE"),
+			product("AC-2", "AUTOCALLABLE")), axes));
+	}
+
+	private static StructuredProduct product(String code, String type) {
+		return new StructuredProduct(code, type, "AAPL",
+			new BigDecimal("1000000"), new BigDecimal("100.00"), new BigDecimal("70.00"), new BigDecimal("0.0800"),
+			LocalDateTime.now().minusDays(30), LocalDateTime.now().plusDays(365), 1L,
+			new BigDecimal("100.00"), new BigDecimal("0.2500"));
+	}
+}
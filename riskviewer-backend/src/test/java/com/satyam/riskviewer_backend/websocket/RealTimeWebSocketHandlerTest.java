@@ -0,0 +1,189 @@
+package com.satyam.riskviewer_backend.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satyam.riskviewer_backend.event.MarketDataTickEvent;
+import com.satyam.riskviewer_backend.repository.PositionRepository;
+import com.satyam.riskviewer_backend.service.PerformanceMonitoringService;
+
+class RealTimeWebSocketHandlerTest {
+
+	@Test
+	void stuckSessionOnlySkipsItsOwnUpdates() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+		// One thread for the stuck send, and two so a thread is always back in the pool for the next tick
+		RealTimeWebSocketHandler handler = new RealTimeWebSocketHandler(mock(PositionRepository.class),
+			mock(PerformanceMonitoringService.class), objectMapper, 60000, 1, 3);
+
+		CountDownLatch stuck = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> slowTicks = new CopyOnWriteArrayList<>();
+		WebSocketSession slow = session("slow", message -> {
+			slowTicks.add(objectMapper.readTree(message.getPayload().toString()).path("tick").asLong());
+			stuck.countDown();
+			release.await(5, TimeUnit.SECONDS);
+		});
+		List<Long> fastTicks = new CopyOnWriteArrayList<>();
+		WebSocketSession fast = session("fast",
+			message -> fastTicks.add(objectMapper.readTree(message.getPayload().toString()).path("tick").asLong()));
+
+		for (WebSocketSession session : List.of(slow, fast)) {
+			handler.afterConnectionEstablished(session);
+			handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"channel\":\"market-data\"}"));
+		}
+
+		handler.onMarketDataTick(tick(1));
+		assertTrue(stuck.await(5, TimeUnit.SECONDS));
+
+		// One push thread is held by the stuck send, yet the healthy session gets every tick
+		for (long tick = 2; tick <= 50; tick++) {
+			handler.onMarketDataTick(tick(tick));
+			awaitLast(fastTicks, tick);
+		}
+		assertEquals(List.of(1L), slowTicks);
+
+		// Released, the slow session gets one coalesced message with the latest price
+		release.countDown();
+		awaitLast(slowTicks, 50);
+		assertEquals(List.of(1L, 50L), slowTicks);
+		assertEquals(48, handler.getDroppedPushes());
+		handler.shutdown();
+	}
+
+	@Test
+	void sessionBlockedPastTheSendTimeLimitIsClosed() throws Exception {
+		PerformanceMonitoringService monitoring = mock(PerformanceMonitoringService.class);
+		RealTimeWebSocketHandler handler = new RealTimeWebSocketHandler(mock(PositionRepository.class),
+			monitoring, new ObjectMapper().findAndRegisterModules(), 50, 1, 2);
+
+		CountDownLatch stuck = new CountDownLatch(1);
+		CountDownLatch closed = new CountDownLatch(1);
+		WebSocketSession blocked = session("blocked", message -> {
+			stuck.countDown();
+			closed.await(5, TimeUnit.SECONDS);
+			throw new IOException("Session closed");
+		});
+		doAnswer(invocation -> {
+			closed.countDown();
+			return null;
+		}).when(blocked).close(any(CloseStatus.class));
+		WebSocketSession idle = session("idle", message -> {});
+
+		for (WebSocketSession session : List.of(blocked, idle)) {
+			handler.afterConnectionEstablished(session);
+			handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"channel\":\"market-data\"}"));
+		}
+		handler.onMarketDataTick(tick(1));
+		assertTrue(stuck.await(5, TimeUnit.SECONDS));
+
+		// Within the limit nothing happens
+		handler.closeStalledSessions();
+		assertEquals(2, handler.getSubscriberCount());
+
+		Thread.sleep(100);
+		handler.closeStalledSessions();
+		assertTrue(closed.await(5, TimeUnit.SECONDS));
+		verify(blocked).close(CloseStatus.SESSION_NOT_RELIABLE);
+		assertEquals(1, handler.getSubscriberCount());
+
+		// Counted once, although the blocked send fails afterwards as well
+		Thread.sleep(50);
+		verify(monitoring).decrementActiveConnections();
+		handler.shutdown();
+	}
+
+	@Test
+	void saturatedPoolDefersSendsUntilAThreadIsFree() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+		RealTimeWebSocketHandler handler = new RealTimeWebSocketHandler(mock(PositionRepository.class),
+			mock(PerformanceMonitoringService.class), objectMapper, 50, 1, 1);
+
+		CountDownLatch stuck = new CountDownLatch(1);
+		CountDownLatch closed = new CountDownLatch(1);
+		WebSocketSession blocked = session("blocked", message -> {
+			stuck.countDown();
+			closed.await(5, TimeUnit.SECONDS);
+			throw new IOException("Session closed");
+		});
+		doAnswer(invocation -> {
+			closed.countDown();
+			return null;
+		}).when(blocked).close(any(CloseStatus.class));
+		List<Long> waitingTicks = new CopyOnWriteArrayList<>();
+		WebSocketSession waiting = session("waiting",
+			message -> waitingTicks.add(objectMapper.readTree(message.getPayload().toString()).path("tick").asLong()));
+
+		handler.afterConnectionEstablished(blocked);
+		handler.handleTextMessage(blocked, new TextMessage("{\"action\":\"subscribe\",\"channel\":\"market-data\"}"));
+		handler.onMarketDataTick(tick(1));
+		assertTrue(stuck.await(5, TimeUnit.SECONDS));
+		handler.afterConnectionEstablished(waiting);
+		handler.handleTextMessage(waiting, new TextMessage("{\"action\":\"subscribe\",\"channel\":\"market-data\"}"));
+
+		// The only push thread is stuck, so no thread is started for the second session
+		for (long tick = 2; tick <= 10; tick++) {
+			handler.onMarketDataTick(tick(tick));
+		}
+		assertTrue(waitingTicks.isEmpty());
+		assertEquals(9, handler.getDeferredPushes());
+
+		Thread.sleep(100);
+		handler.closeStalledSessions();
+		assertTrue(closed.await(5, TimeUnit.SECONDS));
+
+		// Once the thread is back, the deferred prices go out merged into a later tick
+		for (long tick = 11; waitingTicks.isEmpty() && tick < 500; tick++) {
+			handler.onMarketDataTick(tick(tick));
+			Thread.sleep(10);
+		}
+		assertTrue(!waitingTicks.isEmpty() && waitingTicks.stream().allMatch(tick -> tick > 10), waitingTicks::toString);
+		handler.shutdown();
+	}
+
+	private interface Send {
+		void accept(WebSocketMessage<?> message) throws Exception;
+	}
+
+	private static WebSocketSession session(String id, Send send) throws Exception {
+		WebSocketSession session = mock(WebSocketSession.class);
+		when(session.getId()).thenReturn(id);
+		when(session.isOpen()).thenReturn(true);
+		doAnswer(invocation -> {
+			send.accept(invocation.getArgument(0));
+			return null;
+		}).when(session).sendMessage(any());
+		return session;
+	}
+
+	private static MarketDataTickEvent tick(long tick) {
+		return new MarketDataTickEvent(tick, List.of(new MarketDataTickEvent.PriceUpdate(
+			"AAPL", BigDecimal.valueOf(100 + tick), BigDecimal.ONE, 1.0, null, null)), List.of(), List.of());
+	}
+
+	private static void awaitLast(List<Long> ticks, long tick) throws InterruptedException {
+		for (int i = 0; i < 500 && (ticks.isEmpty() || ticks.get(ticks.size() - 1) != tick); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(tick, ticks.get(ticks.size() - 1));
+	}
+}
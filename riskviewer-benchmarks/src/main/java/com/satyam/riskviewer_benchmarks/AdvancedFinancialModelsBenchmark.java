@@ -0,0 +1,63 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.satyam.riskviewer_backend.service.AdvancedFinancialModelsService;
+
+/**
+ * AdvancedFinancialModelsService.calculateBlackScholes over a book of options
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdvancedFinancialModelsBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    int options;
+
+    AdvancedFinancialModelsService service;
+    double[] spot;
+    double[] strike;
+    double[] maturity;
+    double[] volatility;
+
+    @Setup
+    public void setUp() {
+        service = new AdvancedFinancialModelsService();
+        SplittableRandom random = new SplittableRandom(42L);
+        spot = new double[options];
+        strike = new double[options];
+        maturity = new double[options];
+        volatility = new double[options];
+        for (int i = 0; i < options; i++) {
+            spot[i] = random.nextDouble(20.0, 500.0);
+            strike[i] = spot[i] * random.nextDouble(0.8, 1.2);
+            maturity[i] = random.nextDouble(0.1, 5.0);
+            volatility[i] = random.nextDouble(0.10, 0.60);
+        }
+    }
+
+    @Benchmark
+    public void calculateBlackScholes(Blackhole blackhole) {
+        for (int i = 0; i < options; i++) {
+            blackhole.consume(service.calculateBlackScholes(spot[i], strike[i], maturity[i], 0.05, volatility[i], 0.0));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.satyam.riskviewer_backend.history.ReturnHistoryStore;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.service.CovarianceService;
+import com.satyam.riskviewer_backend.service.MonteCarloSimulationEngine;
+import com.satyam.riskviewer_backend.service.PerformanceMonitoringService;
+import com.satyam.riskviewer_backend.service.RiskAnalyticsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Historical Simulation over ten years of memory-mapped daily returns
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalVaRBenchmark {
+
+    private static final int DAYS = 2520;
+
+    @Param({ "500", "5000" })
+    int symbols;
+
+    Path directory;
+    ReturnHistoryStore store;
+    RiskAnalyticsService service;
+    PortfolioSnapshot snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("riskviewer-history");
+        store = new ReturnHistoryStore(directory, false);
+
+        SplittableRandom random = new SplittableRandom(42L);
+        LocalDate start = LocalDate.now().minusDays(DAYS);
+        List<Position> positions = new ArrayList<>(symbols);
+        for (int s = 0; s < symbols; s++) {
+            String symbol = "SYM" + s;
+            double close = random.nextDouble(5.0, 500.0);
+            for (int d = 0; d <= DAYS; d++) {
+                store.appendDailyClose(symbol, start.plusDays(d), close);
+                close *= Math.exp(0.02 * random.nextGaussian());
+            }
+            positions.add(new Position(symbol, "Equity", BigDecimal.valueOf(random.nextInt(1, 1000)),
+                BigDecimal.valueOf(close).setScale(2, RoundingMode.HALF_UP), 1L));
+        }
+
+        service = new RiskAnalyticsService(null,
+            new PerformanceMonitoringService(new SimpleMeterRegistry()), new MonteCarloSimulationEngine(),
+            new CovarianceService(0.94, 1), store);
+        snapshot = PortfolioSnapshot.of(1L, positions);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ScenarioSet historicalScenarios() {
+        return service.historicalScenarios(snapshot, DAYS, 0.95, 0.99);
+    }
+}
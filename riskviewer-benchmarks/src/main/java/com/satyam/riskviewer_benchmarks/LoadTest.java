@@ -0,0 +1,161 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing the backend's platform-thread
+ * and virtual-thread modes.
+ *
+ * Each of {@code --concurrency} clients sends requests back to back, cycling
+ * through the target paths, for the warmup and then the measured duration.
+ * Only measured requests are recorded; the report gives throughput, error
+ * count and the latency percentiles.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.satyam.riskviewer_benchmarks.LoadTest \
+ *     --label platform --concurrency 400 --duration 60
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final List<String> DEFAULT_PATHS = List.of(
+        "/api/positions",
+        "/api/positions/portfolio/1",
+        "/api/structured-products",
+        "/api/risk/portfolio/1/metrics",
+        "/api/risk/portfolio/2/live-pnl");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String label = "run";
+        String baseUrl = "http://localhost:8080";
+        int concurrency = 200;
+        int warmupSeconds = 10;
+        int durationSeconds = 30;
+        List<String> paths = DEFAULT_PATHS;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--label" -> label = args[i + 1];
+                case "--base-url" -> baseUrl = args[i + 1];
+                case "--concurrency" -> concurrency = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[i + 1]);
+                case "--duration" -> durationSeconds = Integer.parseInt(args[i + 1]);
+                case "--paths" -> paths = Arrays.asList(args[i + 1].split(","));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        List<URI> targets = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            targets.add(URI.create(baseUrl + path));
+        }
+
+        Result result = run(targets, concurrency, Duration.ofSeconds(warmupSeconds), Duration.ofSeconds(durationSeconds));
+        System.out.printf("%-10s %6s %10s %8s %9s %9s %9s %9s%n",
+            "mode", "conc", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        System.out.printf("%-10s %6d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+            label, concurrency, result.throughput(), result.errors(),
+            result.percentileMillis(0.50), result.percentileMillis(0.99),
+            result.percentileMillis(0.999), result.percentileMillis(1.0));
+    }
+
+    static Result run(List<URI> targets, int concurrency, Duration warmup, Duration duration) throws Exception {
+        // Clients run on virtual threads so the generator itself is never the bottleneck
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                .executor(clients)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long measureUntil = measureFrom + duration.toNanos();
+            AtomicLong errors = new AtomicLong();
+
+            List<Future<long[]>> workers = new ArrayList<>(concurrency);
+            for (int c = 0; c < concurrency; c++) {
+                int offset = c;
+                workers.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int recorded = 0;
+                    for (int n = offset; ; n++) {
+                        long sent = System.nanoTime();
+                        if (sent >= measureUntil) {
+                            break;
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(n % targets.size()))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                        boolean ok;
+                        try {
+                            ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long elapsed = System.nanoTime() - sent;
+                        if (sent < measureFrom) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                        if (recorded == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, recorded * 2);
+                        }
+                        latencies[recorded++] = elapsed;
+                    }
+                    return Arrays.copyOf(latencies, recorded);
+                }));
+            }
+
+            int total = 0;
+            List<long[]> perWorker = new ArrayList<>(concurrency);
+            for (Future<long[]> worker : workers) {
+                long[] latencies = worker.get();
+                perWorker.add(latencies);
+                total += latencies.length;
+            }
+            long[] all = new long[total];
+            int position = 0;
+            for (long[] latencies : perWorker) {
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            Arrays.sort(all);
+            return new Result(all, errors.get(), duration);
+        }
+    }
+
+    /**
+     * Sorted request latencies of the measured window
+     */
+    record Result(long[] latenciesNanos, long errors, Duration duration) {
+
+        double throughput() {
+            return latenciesNanos.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.satyam.riskviewer_backend.history.ReturnHistoryStore;
+import com.satyam.riskviewer_backend.model.PortfolioSnapshot;
+import com.satyam.riskviewer_backend.model.ScenarioSet;
+import com.satyam.riskviewer_backend.service.CovarianceService;
+import com.satyam.riskviewer_backend.service.MonteCarloSimulationEngine;
+import com.satyam.riskviewer_backend.service.PerformanceMonitoringService;
+import com.satyam.riskviewer_backend.service.RiskAnalyticsService;
+import com.satyam.riskviewer_backend.service.SamplingStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * RiskAnalyticsService metrics on synthetic portfolios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiskAnalyticsBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    int positions;
+
+    @Param({ "10000", "100000" })
+    int paths;
+
+    @Param({ "PSEUDO_RANDOM", "SOBOL" })
+    SamplingStrategy sampling;
+
+    RiskAnalyticsService service;
+    PortfolioSnapshot snapshot;
+    ScenarioSet scenarios;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new RiskAnalyticsService(null,
+            new PerformanceMonitoringService(new SimpleMeterRegistry()), new MonteCarloSimulationEngine(),
+            new CovarianceService(0.94, 1),
+            new ReturnHistoryStore(Files.createTempDirectory("riskviewer-history"), false));
+        snapshot = PortfolioSnapshot.of(1L, SyntheticData.positions(positions, 42L));
+        scenarios = service.simulateScenarios(snapshot, paths, 0.95, 0.99);
+    }
+
+    @Benchmark
+    public double parametricVaR() {
+        return service.calculatePortfolioVaR(snapshot, 0.95);
+    }
+
+    @Benchmark
+    public double monteCarloVaR() {
+        return service.calculateMonteCarloVaR(snapshot, 0.95, paths, sampling);
+    }
+
+    @Benchmark
+    public ScenarioSet simulateScenarios() {
+        return service.simulateScenarios(snapshot, paths, sampling, 0.95, 0.99);
+    }
+
+    @Benchmark
+    public double expectedShortfall() {
+        return service.calculateExpectedShortfall(scenarios, 0.99);
+    }
+
+    @Benchmark
+    public double maxDrawdown() {
+        return service.calculateMaxDrawdown(snapshot, 252);
+    }
+}
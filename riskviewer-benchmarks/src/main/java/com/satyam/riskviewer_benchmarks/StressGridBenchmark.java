@@ -0,0 +1,80 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.StressGrid;
+import com.satyam.riskviewer_backend.model.StressScenario;
+import com.satyam.riskviewer_backend.model.StressScenario.Shock;
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.service.StandardNormalBlock;
+import com.satyam.riskviewer_backend.service.StressGridEngine;
+import com.satyam.riskviewer_backend.service.StructuredProductPricingService;
+
+/**
+ * A 500-scenario stress grid over a book of positions and structured products
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StressGridBenchmark {
+
+    private static final String[] TYPES = { "Equity", "Bond", "ETF", "Derivative" };
+
+    @Param({ "500" })
+    int scenarios;
+
+    @Param({ "10000", "100000" })
+    int positions;
+
+    @Param({ "1000" })
+    int products;
+
+    StressGridEngine engine;
+    List<Position> book;
+    List<StructuredProduct> productBook;
+    List<StressScenario> scenarioList;
+
+    @Setup
+    public void setUp() {
+        engine = new StressGridEngine(null, null,
+            new StructuredProductPricingService(null, new StandardNormalBlock(16384)), ForkJoinPool.commonPool(), scenarios);
+        book = SyntheticData.positions(positions, 42L);
+        productBook = SyntheticData.structuredProducts(products, 42L);
+
+        SplittableRandom random = new SplittableRandom(7L);
+        scenarioList = new ArrayList<>(scenarios);
+        for (int s = 0; s < scenarios; s++) {
+            scenarioList.add(new StressScenario("Scenario " + s,
+                Map.of("AAPL", new Shock(random.nextDouble(-0.5, 0.2), random.nextDouble(0.0, 1.0), 0.0),
+                       "SYM1", new Shock(random.nextDouble(-0.5, 0.2), 0.0, 0.0)),
+                Map.of(TYPES[s % TYPES.length], new Shock(random.nextDouble(-0.5, 0.2), 0.0, 0.0)),
+                new Shock(random.nextDouble(-0.2, 0.1), random.nextDouble(0.0, 0.5), random.nextDouble(-0.01, 0.02))));
+        }
+    }
+
+    @Benchmark
+    public StressGrid stressGrid() {
+        return engine.evaluate(book, productBook, scenarioList, 5);
+    }
+}
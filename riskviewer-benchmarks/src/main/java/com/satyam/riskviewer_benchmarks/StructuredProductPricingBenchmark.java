@@ -0,0 +1,82 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.service.StandardNormalBlock;
+import com.satyam.riskviewer_backend.service.StructuredProductPricingService;
+
+/**
+ * Structured product pricing, Greeks and stress tests over a whole book
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructuredProductPricingBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    int products;
+
+    StructuredProductPricingService service;
+    List<StructuredProduct> book;
+
+    @Setup
+    public void setUp() {
+        service = new StructuredProductPricingService(null, new StandardNormalBlock(16384));
+        book = SyntheticData.structuredProducts(products, 42L);
+    }
+
+    @Benchmark
+    public List<BigDecimal> blackScholesPriceBatch() {
+        return service.calculateBlackScholesPrices(book);
+    }
+
+    @Benchmark
+    public void blackScholesPricePerProduct(Blackhole blackhole) {
+        for (StructuredProduct product : book) {
+            blackhole.consume(service.calculateBlackScholesPrice(product));
+        }
+    }
+
+    @Benchmark
+    public List<StructuredProduct> greeksBatch() {
+        service.calculateGreeks(book);
+        return book;
+    }
+
+    @Benchmark
+    public void greeksAndRiskStatusPerProduct(Blackhole blackhole) {
+        for (StructuredProduct product : book) {
+            service.calculateGreeks(product);
+            service.assessRiskStatus(product);
+            blackhole.consume(product.getRiskStatus());
+        }
+    }
+
+    @Benchmark
+    public void stressTests(Blackhole blackhole) {
+        for (StructuredProduct product : book) {
+            Map<String, BigDecimal> results = service.runStructuredProductStressTests(product);
+            blackhole.consume(results);
+        }
+    }
+}
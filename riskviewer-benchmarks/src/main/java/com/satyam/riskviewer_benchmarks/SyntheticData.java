@@ -0,0 +1,74 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.satyam.riskviewer_backend.model.Position;
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+
+/**
+ * Deterministic synthetic books for the benchmarks
+ */
+final class SyntheticData {
+
+    private static final String[] TYPES = { "Equity", "Bond", "ETF", "Derivative" };
+    private static final String[] PRODUCT_TYPES = { "AUTOCALLABLE", "BARRIER_REVERSE_CONVERTIBLE", "EQUITY_LINKED_NOTE" };
+    private static final String[] UNDERLYINGS = { "AAPL", "MSFT", "GOOGL", "TSLA", "NVDA", "AMZN", "SPY", "TLT", "VXX", "BITO" };
+    private static final int SYMBOL_UNIVERSE = 2000;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * One portfolio of {@code count} positions across all asset types,
+     * drawn from a universe of 2,000 symbols
+     */
+    static List<Position> positions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(1, 1000));
+            BigDecimal price = BigDecimal.valueOf(random.nextDouble(5.0, 500.0)).setScale(2, RoundingMode.HALF_UP);
+            positions.add(new Position("SYM" + (i % SYMBOL_UNIVERSE), TYPES[i % TYPES.length], quantity, price, 1L));
+        }
+        return positions;
+    }
+
+    /**
+     * {@code count} structured products spread over ten underlyings
+     */
+    static List<StructuredProduct> structuredProducts(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<StructuredProduct> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double spot = random.nextDouble(20.0, 500.0);
+            double strike = spot * random.nextDouble(0.8, 1.2);
+            double barrier = spot * random.nextDouble(0.5, 0.9);
+            StructuredProduct product = new StructuredProduct(
+                "BENCH-" + i,
+                PRODUCT_TYPES[i % PRODUCT_TYPES.length],
+                UNDERLYINGS[i % UNDERLYINGS.length],
+                BigDecimal.valueOf(1_000_000),
+                money(strike),
+                money(barrier),
+                new BigDecimal("0.0800"),
+                now.minusDays(random.nextInt(1, 365)),
+                now.plusDays(random.nextInt(30, 1825)),
+                1L,
+                money(spot),
+                BigDecimal.valueOf(random.nextDouble(0.10, 0.60)).setScale(4, RoundingMode.HALF_UP));
+            product.setId((long) i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,67 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.satyam.riskviewer_backend.marketdata.ConflatingTickRing;
+
+/**
+ * Feed thread offering ticks against an engine thread draining the conflating ring.
+ * The offer score is ticks accepted per millisecond.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickRingBenchmark {
+
+    @Param({ "100", "10000" })
+    int symbols;
+
+    ConflatingTickRing ring;
+    String[] names;
+    int next;
+    long timestamp;
+
+    @Setup
+    public void setUp() {
+        ring = new ConflatingTickRing(65536, 16384);
+        names = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            names[i] = "SYM" + i;
+        }
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public boolean offer() {
+        int symbol = next++;
+        if (next == symbols) {
+            next = 0;
+        }
+        return ring.offer(names[symbol], 100.0 + (symbol & 7), Double.NaN, ++timestamp);
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public int drain() {
+        return ring.drain(65536).read();
+    }
+}
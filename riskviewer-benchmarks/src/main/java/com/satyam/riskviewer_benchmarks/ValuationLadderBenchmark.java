@@ -0,0 +1,56 @@
+package com.satyam.riskviewer_benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.satyam.riskviewer_backend.model.StructuredProduct;
+import com.satyam.riskviewer_backend.model.ValuationLadder;
+import com.satyam.riskviewer_backend.service.StandardNormalBlock;
+import com.satyam.riskviewer_backend.service.StructuredProductPricingService;
+import com.satyam.riskviewer_backend.service.ValuationLadderService;
+
+/**
+ * 41 x 11 x 5 revaluation ladders over a book of structured products
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValuationLadderBenchmark {
+
+    @Param({ "1", "1000" })
+    int products;
+
+    ValuationLadderService service;
+    List<StructuredProduct> book;
+    ValuationLadder.Axes axes;
+
+    @Setup
+    public void setUp() {
+        service = new ValuationLadderService(null,
+            new StructuredProductPricingService(null, new StandardNormalBlock(16384)),
+            ForkJoinPool.commonPool(), 100000, 10000000L);
+        book = SyntheticData.structuredProducts(products, 42L);
+        axes = ValuationLadder.Axes.symmetric(0.2, 41, 0.5, 11, new int[] { 0, 7, 30, 90, 180 });
+    }
+
+    @Benchmark
+    public List<ValuationLadder> ladders() {
+        return service.ladders(book, axes);
+    }
+}
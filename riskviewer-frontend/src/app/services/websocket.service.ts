@@ -14,10 +14,12 @@ export class WebSocketService {
   // Observables for real-time data
   private marketDataSubject = new BehaviorSubject<RealTimeMarketData[]>([]);
   private alertsSubject = new BehaviorSubject<RiskAlert[]>([]);
+  private greeksSubject = new BehaviorSubject<any[]>([]);
   private connectionStatusSubject = new BehaviorSubject<boolean>(false);
 
   public marketData$ = this.marketDataSubject.asObservable();
   public alerts$ = this.alertsSubject.asObservable();
+  public greeks$ = this.greeksSubject.asObservable();
   public connectionStatus$ = this.connectionStatusSubject.asObservable();
 
   constructor() {
@@ -75,6 +77,13 @@ export class WebSocketService {
         channel: 'risk-alerts',
         portfolios: [1, 2, 3]
       }));
+
+      // Subscribe to structured product Greeks
+      this.ws.send(JSON.stringify({
+        action: 'subscribe',
+        channel: 'greeks',
+        portfolios: [1, 2, 3]
+      }));
     }
   }
 
@@ -93,6 +102,16 @@ export class WebSocketService {
         case 'market-update':
           this.updateMarketData(message.data);
           break;
+        case 'market-updates':
+          // One coalesced message per server tick
+          message.data.forEach((update: any) => this.updateMarketData(update));
+          break;
+        case 'risk-alerts':
+          this.alertsSubject.next([...message.data, ...this.alertsSubject.value].slice(0, 50));
+          break;
+        case 'greeks-update':
+          this.greeksSubject.next(message.data);
+          break;
       }
     } catch (error) {
       console.error('Error parsing WebSocket message:', error);